@@ -5,10 +5,13 @@
 
 package org.opensearch.geospatial.action;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import org.opensearch.common.action.ActionFuture;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.action.ActionResponse;
 import org.opensearch.transport.client.node.NodeClient;
 
@@ -17,6 +20,9 @@ import lombok.extern.log4j.Log4j2;
 
 /**
  * Facade to provide GeoLocation enrichment for other plugins.
+ *
+ * Prefer the batch methods when enriching many IPs, which resolve all of them with a single transport action,
+ * and the non-blocking methods when calling from a transport or search thread.
  */
 @Log4j2
 @AllArgsConstructor
@@ -41,4 +47,80 @@ public class IpEnrichmentActionClient {
         IpEnrichmentResponse enrichmentResponse = IpEnrichmentResponse.fromActionResponse(genericActionResponse);
         return enrichmentResponse.getGeoLocationData();
     }
+
+    /**
+     * Non-blocking variant of {@link #getGeoLocationData(String, String)}.
+     * @param ipString IP v4 || v6 address in String form.
+     * @param datasourceName datasourceName in String form.
+     * @param listener listener which receives a map instance which contain GeoLocation data for the given Ip address.
+     */
+    public void getGeoLocationData(String ipString, String datasourceName, ActionListener<Map<String, Object>> listener) {
+        nodeClient.execute(
+            IpEnrichmentAction.INSTANCE,
+            new IpEnrichmentRequest(ipString, datasourceName),
+            ActionListener.wrap(
+                response -> listener.onResponse(IpEnrichmentResponse.fromActionResponse(response).getGeoLocationData()),
+                listener::onFailure
+            )
+        );
+    }
+
+    /**
+     * Non-blocking variant of {@link #getGeoLocationData(String, String)}.
+     * @param ipString IP v4 || v6 address in String form.
+     * @param datasourceName datasourceName in String form.
+     * @return A future which completes with a map instance which contain GeoLocation data for the given Ip address.
+     */
+    public CompletableFuture<Map<String, Object>> getGeoLocationDataAsync(String ipString, String datasourceName) {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        getGeoLocationData(ipString, datasourceName, ActionListener.wrap(future::complete, future::completeExceptionally));
+        return future;
+    }
+
+    /**
+     * Client facing method, which read IPs in String form and return GeoLocation data of each of them in a single transport action.
+     * @param ipStrings IP v4 || v6 addresses in String form.
+     * @param datasourceName datasourceName in String form.
+     * @return A list of map instances which contain GeoLocation data, in the same order as the given Ip addresses.
+     */
+    public List<Map<String, Object>> getBatchGeoLocationData(List<String> ipStrings, String datasourceName) throws ExecutionException,
+        InterruptedException {
+        ActionFuture<ActionResponse> responseActionFuture = nodeClient.execute(
+            IpEnrichmentBatchAction.INSTANCE,
+            new IpEnrichmentBatchRequest(ipStrings, datasourceName)
+        );
+        ActionResponse genericActionResponse = responseActionFuture.get();
+        return IpEnrichmentBatchResponse.fromActionResponse(genericActionResponse).getGeoLocationData();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getBatchGeoLocationData(List, String)}.
+     * @param ipStrings IP v4 || v6 addresses in String form.
+     * @param datasourceName datasourceName in String form.
+     * @param listener listener which receives a list of map instances which contain GeoLocation data,
+     *                 in the same order as the given Ip addresses.
+     */
+    public void getBatchGeoLocationData(List<String> ipStrings, String datasourceName, ActionListener<List<Map<String, Object>>> listener) {
+        nodeClient.execute(
+            IpEnrichmentBatchAction.INSTANCE,
+            new IpEnrichmentBatchRequest(ipStrings, datasourceName),
+            ActionListener.wrap(
+                response -> listener.onResponse(IpEnrichmentBatchResponse.fromActionResponse(response).getGeoLocationData()),
+                listener::onFailure
+            )
+        );
+    }
+
+    /**
+     * Non-blocking variant of {@link #getBatchGeoLocationData(List, String)}.
+     * @param ipStrings IP v4 || v6 addresses in String form.
+     * @param datasourceName datasourceName in String form.
+     * @return A future which completes with a list of map instances which contain GeoLocation data,
+     *         in the same order as the given Ip addresses.
+     */
+    public CompletableFuture<List<Map<String, Object>>> getBatchGeoLocationDataAsync(List<String> ipStrings, String datasourceName) {
+        CompletableFuture<List<Map<String, Object>>> future = new CompletableFuture<>();
+        getBatchGeoLocationData(ipStrings, datasourceName, ActionListener.wrap(future::complete, future::completeExceptionally));
+        return future;
+    }
 }
@@ -0,0 +1,24 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.action;
+
+import org.opensearch.action.ActionType;
+import org.opensearch.core.action.ActionResponse;
+
+/**
+ * An ActionType registered on OpenSearch registry, for inter-cluster transportAction call,
+ * to resolve GeoLocation for a list of IP Strings against a single datasource in one call.
+ */
+public class IpEnrichmentBatchAction extends ActionType<ActionResponse> {
+
+    public static final IpEnrichmentBatchAction INSTANCE = new IpEnrichmentBatchAction();
+
+    public static final String NAME = "cluster:admin/geospatial/ipenrichment/mget";
+
+    public IpEnrichmentBatchAction() {
+        super(NAME, IpEnrichmentBatchResponse::new);
+    }
+}
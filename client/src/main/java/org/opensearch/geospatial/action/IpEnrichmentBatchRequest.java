@@ -0,0 +1,101 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.action;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.core.common.io.stream.InputStreamStreamInput;
+import org.opensearch.core.common.io.stream.OutputStreamStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Wrapper for the batch IP 2 GeoLocation action request.
+ */
+@Getter
+@Setter
+@Log4j2
+@AllArgsConstructor
+public class IpEnrichmentBatchRequest extends ActionRequest {
+
+    private List<String> ipStrings;
+
+    private String datasourceName;
+
+    /**
+     * Constructor for TransportAction.
+     * @param streamInput the streamInput.
+     */
+    public IpEnrichmentBatchRequest(StreamInput streamInput) throws IOException {
+        super(streamInput);
+        ipStrings = streamInput.readStringList();
+        datasourceName = streamInput.readString();
+        log.trace("Constructing batch IP Enrichment request with {} ip strings and datasource [{}]", ipStrings.size(), datasourceName);
+    }
+
+    /**
+     * Perform validation on the request, before GetSpatial processing it.
+     * @return Exception which contain validation errors, if any.
+     */
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException errors = new ActionRequestValidationException();
+        if (ipStrings == null || ipStrings.isEmpty()) {
+            errors.addValidationError("ip strings should not be empty");
+        } else if (ipStrings.contains(null)) {
+            errors.addValidationError("ip strings should not contain null");
+        }
+        if (datasourceName == null) {
+            errors.addValidationError("DateSource should not be null");
+        }
+        return errors.validationErrors().isEmpty() ? null : errors;
+    }
+
+    /**
+     * Overridden method to populate object's payload into StreamOutput form.
+     * @param out the StreamOutput object.
+     * @throws IOException If given StreamOutput is not compatible.
+     */
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeStringCollection(ipStrings);
+        out.writeString(datasourceName);
+    }
+
+    /**
+     * Static method get around the cast exception happen for cross plugin communication.
+     * @param actionRequest A casted-up version of IpEnrichmentBatchRequest.
+     * @return IpEnrichmentBatchRequest object which can be used within the scope of the caller.
+     */
+    public static IpEnrichmentBatchRequest fromActionRequest(ActionRequest actionRequest) {
+        // From the same classloader
+        if (actionRequest instanceof IpEnrichmentBatchRequest) {
+            return (IpEnrichmentBatchRequest) actionRequest;
+        }
+
+        // Or else convert it
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(); OutputStreamStreamOutput osso = new OutputStreamStreamOutput(baos)) {
+            actionRequest.writeTo(osso);
+            try (StreamInput input = new InputStreamStreamInput(new ByteArrayInputStream(baos.toByteArray()))) {
+                return new IpEnrichmentBatchRequest(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse ActionRequest into IpEnrichmentBatchRequest", e);
+        }
+    }
+}
@@ -7,9 +7,15 @@ package org.opensearch.geospatial.action;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import org.junit.Assert;
@@ -18,6 +24,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.opensearch.common.action.ActionFuture;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.action.ActionResponse;
 import org.opensearch.transport.client.node.NodeClient;
 
@@ -56,4 +63,72 @@ public class IpEnrichmentActionClientTests {
         IpEnrichmentActionClient ipClient = new IpEnrichmentActionClient(mockNodeClient);
         ipClient.getGeoLocationData(dummyIpString, dummyDataSourceName);
     }
+
+    @Test
+    public void testWithListener() {
+        doAnswer(invocation -> {
+            ActionListener<ActionResponse> listener = invocation.getArgument(2);
+            listener.onResponse(new IpEnrichmentResponse(dummyPayload));
+            return null;
+        }).when(mockNodeClient).execute(eq(IpEnrichmentAction.INSTANCE), any(), any(ActionListener.class));
+        IpEnrichmentActionClient ipClient = new IpEnrichmentActionClient(mockNodeClient);
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        ipClient.getGeoLocationData(dummyIpString, dummyDataSourceName, listener);
+
+        verify(listener).onResponse(dummyPayload);
+        verify(listener, never()).onFailure(any());
+    }
+
+    @Test
+    public void testAsyncWithException() {
+        RuntimeException exception = new RuntimeException("failed");
+        doAnswer(invocation -> {
+            ActionListener<ActionResponse> listener = invocation.getArgument(2);
+            listener.onFailure(exception);
+            return null;
+        }).when(mockNodeClient).execute(eq(IpEnrichmentAction.INSTANCE), any(), any(ActionListener.class));
+        IpEnrichmentActionClient ipClient = new IpEnrichmentActionClient(mockNodeClient);
+
+        CompletableFuture<Map<String, Object>> future = ipClient.getGeoLocationDataAsync(dummyIpString, dummyDataSourceName);
+
+        Assert.assertTrue(future.isCompletedExceptionally());
+        ExecutionException e = Assert.assertThrows(ExecutionException.class, future::get);
+        Assert.assertSame(exception, e.getCause());
+    }
+
+    @SneakyThrows
+    @Test
+    public void testBatchWithValidResponse() {
+        List<Map<String, Object>> payload = List.of(dummyPayload, Map.of());
+        when(mockResult.get()).thenReturn(new IpEnrichmentBatchResponse(payload));
+        when(mockNodeClient.execute(eq(IpEnrichmentBatchAction.INSTANCE), any())).thenReturn(mockResult);
+        IpEnrichmentActionClient ipClient = new IpEnrichmentActionClient(mockNodeClient);
+
+        List<Map<String, Object>> actualPayload = ipClient.getBatchGeoLocationData(List.of(dummyIpString, "10.0.0.1"), dummyDataSourceName);
+
+        Assert.assertEquals(payload, actualPayload);
+    }
+
+    @SneakyThrows
+    @Test
+    public void testBatchAsyncWithValidResponse() {
+        List<Map<String, Object>> payload = List.of(dummyPayload, Map.of());
+        doAnswer(invocation -> {
+            IpEnrichmentBatchRequest request = invocation.getArgument(1);
+            Assert.assertEquals(List.of(dummyIpString, "10.0.0.1"), request.getIpStrings());
+            Assert.assertEquals(dummyDataSourceName, request.getDatasourceName());
+            ActionListener<ActionResponse> listener = invocation.getArgument(2);
+            listener.onResponse(new IpEnrichmentBatchResponse(payload));
+            return null;
+        }).when(mockNodeClient).execute(eq(IpEnrichmentBatchAction.INSTANCE), any(), any(ActionListener.class));
+        IpEnrichmentActionClient ipClient = new IpEnrichmentActionClient(mockNodeClient);
+
+        CompletableFuture<List<Map<String, Object>>> future = ipClient.getBatchGeoLocationDataAsync(
+            List.of(dummyIpString, "10.0.0.1"),
+            dummyDataSourceName
+        );
+
+        Assert.assertEquals(payload, future.get());
+    }
 }
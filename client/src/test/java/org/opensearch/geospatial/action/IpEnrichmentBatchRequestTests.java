@@ -0,0 +1,71 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.action;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for IpEnrichmentBatchRequest.
+ */
+public class IpEnrichmentBatchRequestTests {
+
+    /**
+     * Test validate() against a valid record.
+     */
+    @Test
+    public void testValidateValidRequest() {
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(List.of("192.168.1.1", "2001:db8::1"), "ValidDataSourceName");
+        Assert.assertNull(request.validate());
+    }
+
+    /**
+     * Test validate() against an invalid record,
+     * Expecting an error being thrown as ipStrings being empty.
+     */
+    @Test
+    public void testValidateEmptyIpStrings() {
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(Collections.emptyList(), "dataSource");
+        Assert.assertEquals(1, request.validate().validationErrors().size());
+    }
+
+    /**
+     * Test validate() against an invalid record,
+     * Expecting an error being thrown as ipStrings containing null.
+     */
+    @Test
+    public void testValidateNullInIpStrings() {
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(Arrays.asList("192.168.1.1", null), "dataSource");
+        Assert.assertEquals(1, request.validate().validationErrors().size());
+    }
+
+    /**
+     * Test validate() against an invalid record,
+     * Expecting an error with size in 2, because both fields are null.
+     */
+    @Test
+    public void testValidateNullIpStringsAndDataSourceName() {
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(null, null);
+        Assert.assertEquals(2, request.validate().validationErrors().size());
+    }
+
+    /**
+     * Test fromActionRequest( ) to make sure the serialisation works.
+     */
+    @Test
+    public void testFromActionRequestOnValidRecord() {
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(List.of("192.168.1.1", "10.0.0.1"), "demo");
+
+        IpEnrichmentBatchRequest requestAfterStream = IpEnrichmentBatchRequest.fromActionRequest(request);
+
+        Assert.assertEquals(request.getIpStrings(), requestAfterStream.getIpStrings());
+        Assert.assertEquals(request.getDatasourceName(), requestAfterStream.getDatasourceName());
+    }
+}
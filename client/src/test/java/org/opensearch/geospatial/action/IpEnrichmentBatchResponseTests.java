@@ -0,0 +1,26 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.action;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IpEnrichmentBatchResponseTests {
+
+    /**
+     * To simulate when Response class being passed from one plugin to the other.
+     */
+    @Test
+    public void testFromActionResponseWithValidPayload() {
+        List<Map<String, Object>> payload = List.of(Map.of("k1", "v1"), Map.of(), Map.of("k2", "v2"));
+        IpEnrichmentBatchResponse response = new IpEnrichmentBatchResponse(payload);
+        IpEnrichmentBatchResponse castedResponse = IpEnrichmentBatchResponse.fromActionResponse(response);
+        Assert.assertEquals(response.getGeoLocationData(), castedResponse.getGeoLocationData());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.benchmark.ip2geo;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCache;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpRangeTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the string keyed ip2geo lookup path with the primitive keyed one
+ *
+ * The string keyed benchmarks reproduce the previous hot path, which parsed every ip address into an
+ * {@link java.net.InetAddress} for a lookup table and keyed the geo data cache by the ip address string.
+ * Both paths are benchmarked through the public {@link GeoIpRangeTable} and {@link GeoDataCache}.
+ * Run with -prof gc to compare allocation rates.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class Ip2GeoLookupBenchmark {
+    private static final int IP_COUNT = 4096;
+    private static final String INDEX_NAME = ".geospatial-ip2geo-data.benchmark.00000000-0000-0000-0000-000000000000";
+
+    @Param({ "ipv4", "ipv6" })
+    public String addressFamily;
+
+    private String[] ips;
+    private GeoIpRangeTable table;
+    private Cache<Tuple<String, String>, Map<String, Object>> stringKeyedCache;
+    private GeoDataCache primitiveKeyedCache;
+    private int next;
+
+    @Setup
+    public void setup() throws ExecutionException {
+        boolean ipv4 = "ipv4".equals(addressFamily);
+        GeoIpRangeTable.Builder builder = GeoIpRangeTable.builder(INDEX_NAME);
+        ips = new String[IP_COUNT];
+        stringKeyedCache = CacheBuilder.<Tuple<String, String>, Map<String, Object>>builder().build();
+        primitiveKeyedCache = new GeoDataCache(Long.MAX_VALUE);
+        for (int i = 0; i < IP_COUNT; i++) {
+            Map<String, Object> geoData = Map.of("city", "city" + i, "country", "country" + (i % 200));
+            String cidr;
+            if (ipv4) {
+                cidr = String.format(Locale.ROOT, "10.%d.%d.0/24", i >> 8, i & 0xFF);
+                ips[i] = String.format(Locale.ROOT, "10.%d.%d.%d", i >> 8, i & 0xFF, 1 + i % 254);
+            } else {
+                cidr = String.format(Locale.ROOT, "2001:db8:%x::/48", i);
+                ips[i] = String.format(Locale.ROOT, "2001:db8:%x::%x", i, 1 + i);
+            }
+            builder.add(cidr, geoData);
+            stringKeyedCache.put(new Tuple<>(INDEX_NAME, ips[i]), geoData);
+            primitiveKeyedCache.putIfAbsent(INDEX_NAME, ips[i], ip -> geoData);
+        }
+        table = builder.build();
+    }
+
+    private String nextIp() {
+        return ips[next++ & (IP_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Map<String, Object> lookupTableStringKeyed() {
+        return table.lookup(InetAddresses.forString(nextIp()));
+    }
+
+    @Benchmark
+    public Map<String, Object> lookupTablePrimitiveKeyed() {
+        return table.lookup(nextIp());
+    }
+
+    @Benchmark
+    public Map<String, Object> cacheStringKeyed() {
+        return stringKeyedCache.get(new Tuple<>(INDEX_NAME, nextIp()));
+    }
+
+    @Benchmark
+    public Map<String, Object> cachePrimitiveKeyed() {
+        return primitiveKeyedCache.get(INDEX_NAME, nextIp());
+    }
+}
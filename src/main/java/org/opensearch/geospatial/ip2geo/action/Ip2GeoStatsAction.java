@@ -0,0 +1,26 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Ip2Geo stats action
+ */
+public class Ip2GeoStatsAction extends ActionType<Ip2GeoStatsResponse> {
+    /**
+     * Ip2Geo stats action instance
+     */
+    public static final Ip2GeoStatsAction INSTANCE = new Ip2GeoStatsAction();
+    /**
+     * Ip2Geo stats action name
+     */
+    public static final String NAME = "cluster:admin/geospatial/ip2geo/stats";
+
+    private Ip2GeoStatsAction() {
+        super(NAME, Ip2GeoStatsResponse::new);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.io.IOException;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.transport.TransportRequest;
+
+/**
+ * Ip2Geo stats request of a single node
+ */
+public class Ip2GeoStatsNodeRequest extends TransportRequest {
+    private final Ip2GeoStatsRequest request;
+
+    /**
+     * Constructor with stream input
+     * @param in the stream input
+     * @throws IOException IOException
+     */
+    public Ip2GeoStatsNodeRequest(final StreamInput in) throws IOException {
+        super(in);
+        request = new Ip2GeoStatsRequest(in);
+    }
+
+    /**
+     * Default constructor
+     * @param request the nodes request
+     */
+    public Ip2GeoStatsNodeRequest(final Ip2GeoStatsRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        super.writeTo(out);
+        request.writeTo(out);
+    }
+}
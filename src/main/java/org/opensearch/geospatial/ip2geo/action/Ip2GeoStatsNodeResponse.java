@@ -0,0 +1,75 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCacheStats;
+
+import lombok.Getter;
+
+/**
+ * Ip2Geo stats of a single node
+ */
+@Getter
+public class Ip2GeoStatsNodeResponse extends BaseNodeResponse implements ToXContentObject {
+    private static final String FIELD_DATASOURCES = "datasources";
+    private static final String FIELD_CACHE = "cache";
+
+    /**
+     * @param cacheStats geo data cache stats keyed by datasource name
+     * @return geo data cache stats keyed by datasource name
+     */
+    private final Map<String, GeoDataCacheStats> cacheStats;
+
+    /**
+     * Default constructor
+     * @param node the node
+     * @param cacheStats geo data cache stats keyed by datasource name
+     */
+    public Ip2GeoStatsNodeResponse(final DiscoveryNode node, final Map<String, GeoDataCacheStats> cacheStats) {
+        super(node);
+        this.cacheStats = Objects.requireNonNull(cacheStats, "cache stats cannot be null");
+    }
+
+    /**
+     * Constructor with stream input
+     * @param in the stream input
+     * @throws IOException IOException
+     */
+    public Ip2GeoStatsNodeResponse(final StreamInput in) throws IOException {
+        super(in);
+        cacheStats = new TreeMap<>(in.readMap(StreamInput::readString, GeoDataCacheStats::new));
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeMap(cacheStats, StreamOutput::writeString, (output, stats) -> stats.writeTo(output));
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject(FIELD_DATASOURCES);
+        for (Map.Entry<String, GeoDataCacheStats> entry : cacheStats.entrySet()) {
+            builder.startObject(entry.getKey());
+            builder.startObject(FIELD_CACHE);
+            entry.getValue().toXContent(builder, params);
+            builder.endObject();
+            builder.endObject();
+        }
+        return builder.endObject();
+    }
+}
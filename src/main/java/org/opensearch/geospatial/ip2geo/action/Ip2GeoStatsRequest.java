@@ -0,0 +1,32 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.io.IOException;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.core.common.io.stream.StreamInput;
+
+/**
+ * Ip2Geo stats request of all nodes
+ */
+public class Ip2GeoStatsRequest extends BaseNodesRequest<Ip2GeoStatsRequest> {
+    /**
+     * Default constructor requesting stats of all nodes
+     */
+    public Ip2GeoStatsRequest() {
+        super((String[]) null);
+    }
+
+    /**
+     * Constructor with stream input
+     * @param in the stream input
+     * @throws IOException IOException
+     */
+    public Ip2GeoStatsRequest(final StreamInput in) throws IOException {
+        super(in);
+    }
+}
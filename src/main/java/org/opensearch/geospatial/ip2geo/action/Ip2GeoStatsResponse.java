@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * Ip2Geo stats of all nodes
+ */
+public class Ip2GeoStatsResponse extends BaseNodesResponse<Ip2GeoStatsNodeResponse> implements ToXContentObject {
+    private static final String FIELD_NODES = "nodes";
+
+    /**
+     * Constructor with stream input
+     * @param in the stream input
+     * @throws IOException IOException
+     */
+    public Ip2GeoStatsResponse(final StreamInput in) throws IOException {
+        super(in);
+    }
+
+    /**
+     * Default constructor
+     * @param clusterName the cluster name
+     * @param nodes stats of each node
+     * @param failures failures of nodes
+     */
+    public Ip2GeoStatsResponse(
+        final ClusterName clusterName,
+        final List<Ip2GeoStatsNodeResponse> nodes,
+        final List<FailedNodeException> failures
+    ) {
+        super(clusterName, nodes, failures);
+    }
+
+    @Override
+    protected List<Ip2GeoStatsNodeResponse> readNodesFrom(final StreamInput in) throws IOException {
+        return in.readList(Ip2GeoStatsNodeResponse::new);
+    }
+
+    @Override
+    protected void writeNodesTo(final StreamOutput out, final List<Ip2GeoStatsNodeResponse> nodeResponses) throws IOException {
+        out.writeList(nodeResponses);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject();
+        builder.startObject(FIELD_NODES);
+        for (Ip2GeoStatsNodeResponse nodeResponse : getNodes()) {
+            builder.startObject(nodeResponse.getNode().getId());
+            nodeResponse.toXContent(builder, params);
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder.endObject();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Ip2GeoStatsResponse otherResponse = (Ip2GeoStatsResponse) o;
+        return Objects.equals(getNodes(), otherResponse.getNodes()) && Objects.equals(failures(), otherResponse.failures());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getNodes(), failures());
+    }
+}
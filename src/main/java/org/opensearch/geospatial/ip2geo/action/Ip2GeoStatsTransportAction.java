@@ -0,0 +1,86 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Transport action to collect Ip2Geo stats of each node
+ */
+public class Ip2GeoStatsTransportAction extends TransportNodesAction<
+    Ip2GeoStatsRequest,
+    Ip2GeoStatsResponse,
+    Ip2GeoStatsNodeRequest,
+    Ip2GeoStatsNodeResponse> {
+    private final TransportService transportService;
+    private final Ip2GeoCachedDao ip2GeoCachedDao;
+
+    /**
+     * Default constructor
+     * @param transportService the transport service
+     * @param clusterService the cluster service
+     * @param threadPool the thread pool
+     * @param actionFilters the action filters
+     * @param ip2GeoCachedDao the ip2geo cached dao
+     */
+    @Inject
+    public Ip2GeoStatsTransportAction(
+        final TransportService transportService,
+        final ClusterService clusterService,
+        final ThreadPool threadPool,
+        final ActionFilters actionFilters,
+        final Ip2GeoCachedDao ip2GeoCachedDao
+    ) {
+        super(
+            Ip2GeoStatsAction.NAME,
+            threadPool,
+            clusterService,
+            transportService,
+            actionFilters,
+            Ip2GeoStatsRequest::new,
+            Ip2GeoStatsNodeRequest::new,
+            ThreadPool.Names.MANAGEMENT,
+            Ip2GeoStatsNodeResponse.class
+        );
+        this.transportService = transportService;
+        this.ip2GeoCachedDao = ip2GeoCachedDao;
+    }
+
+    @Override
+    protected Ip2GeoStatsResponse newResponse(
+        final Ip2GeoStatsRequest nodesRequest,
+        final List<Ip2GeoStatsNodeResponse> nodeResponses,
+        final List<FailedNodeException> failures
+    ) {
+        return new Ip2GeoStatsResponse(clusterService.getClusterName(), nodeResponses, failures);
+    }
+
+    @Override
+    protected Ip2GeoStatsNodeRequest newNodeRequest(final Ip2GeoStatsRequest nodesRequest) {
+        return new Ip2GeoStatsNodeRequest(nodesRequest);
+    }
+
+    @Override
+    protected Ip2GeoStatsNodeResponse newNodeResponse(final StreamInput in) throws IOException {
+        return new Ip2GeoStatsNodeResponse(in);
+    }
+
+    @Override
+    protected Ip2GeoStatsNodeResponse nodeOperation(final Ip2GeoStatsNodeRequest nodeRequest) {
+        return new Ip2GeoStatsNodeResponse(transportService.getLocalNode(), ip2GeoCachedDao.getCacheStats());
+    }
+}
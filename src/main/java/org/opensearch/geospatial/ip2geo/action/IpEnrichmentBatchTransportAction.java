@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.geospatial.action.IpEnrichmentBatchAction;
+import org.opensearch.geospatial.action.IpEnrichmentBatchRequest;
+import org.opensearch.geospatial.action.IpEnrichmentBatchResponse;
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Transport action to convert provided IP address Strings into GeoLocation data in a single call.
+ *
+ * Distinct IPs are looked up once. Cache misses are resolved together, so enriching many IPs costs a single
+ * transport dispatch and at most one multi search request.
+ */
+@Log4j2
+public class IpEnrichmentBatchTransportAction extends HandledTransportAction<ActionRequest, ActionResponse> {
+
+    private final Ip2GeoCachedDao ip2GeoCachedDao;
+
+    /**
+     * Constructor
+     * @param transportService the transport service
+     * @param actionFilters the action filters
+     * @param cachedDao the cached datasource facade
+     */
+    @Inject
+    public IpEnrichmentBatchTransportAction(TransportService transportService, ActionFilters actionFilters, Ip2GeoCachedDao cachedDao) {
+        super(IpEnrichmentBatchAction.NAME, transportService, actionFilters, IpEnrichmentBatchRequest::new);
+        this.ip2GeoCachedDao = cachedDao;
+    }
+
+    /**
+     * Overridden method to extract IP Strings from IpEnrichmentBatchRequest object and return the enrichment result
+     * in the form of IpEnrichmentBatchResponse which contains the GeoLocation data for each IP String in order.
+     * @param task the task.
+     * @param request request object in the form of IpEnrichmentBatchRequest which contain the IP Strings to resolve
+     * @param listener a container which encapsulate IpEnrichmentBatchResponse object with the GeoLocation data for given IPs.
+     */
+    @Override
+    protected void doExecute(Task task, ActionRequest request, ActionListener<ActionResponse> listener) {
+        IpEnrichmentBatchRequest enrichmentRequest = IpEnrichmentBatchRequest.fromActionRequest(request);
+        List<String> ipStrings = enrichmentRequest.getIpStrings();
+        String dataSourceName = enrichmentRequest.getDatasourceName();
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(dataSourceName, ActionListener.wrap(datasourceMetadata -> {
+            if (datasourceMetadata == null || datasourceMetadata.getIndexName() == null) {
+                listener.onFailure(new ResourceNotFoundException("datasource[{}] does not exist", dataSourceName));
+                return;
+            }
+            ip2GeoCachedDao.getBatchGeoData(
+                datasourceMetadata.getIndexName(),
+                ipStrings,
+                dataSourceName,
+                ActionListener.wrap(geoDataByIp -> {
+                    List<Map<String, Object>> geoLocationData = new ArrayList<>(ipStrings.size());
+                    for (String ipString : ipStrings) {
+                        Map<String, Object> geoData = geoDataByIp.get(ipString);
+                        geoLocationData.add(geoData == null ? Collections.emptyMap() : geoData);
+                    }
+                    log.debug("GeoSpatial batch IP lookup on {} IPs with datasource [{}]", ipStrings.size(), dataSourceName);
+                    listener.onResponse(new IpEnrichmentBatchResponse(geoLocationData));
+                }, listener::onFailure)
+            );
+        }, listener::onFailure));
+    }
+}
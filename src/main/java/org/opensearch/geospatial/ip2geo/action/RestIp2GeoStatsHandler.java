@@ -0,0 +1,39 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import static org.opensearch.geospatial.shared.URLBuilder.URL_DELIMITER;
+import static org.opensearch.geospatial.shared.URLBuilder.getPluginURLPrefix;
+import static org.opensearch.rest.RestRequest.Method.GET;
+
+import java.util.List;
+
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.transport.client.node.NodeClient;
+
+/**
+ * Rest handler for Ip2Geo stats request
+ */
+public class RestIp2GeoStatsHandler extends BaseRestHandler {
+    private static final String ACTION_NAME = "ip2geo_stats";
+
+    @Override
+    public String getName() {
+        return ACTION_NAME;
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(final RestRequest request, final NodeClient client) {
+        return channel -> client.execute(Ip2GeoStatsAction.INSTANCE, new Ip2GeoStatsRequest(), new RestToXContentListener<>(channel));
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, String.join(URL_DELIMITER, getPluginURLPrefix(), "ip2geo/_stats")));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-min sketch estimating how often keys were accessed recently
+ *
+ * Counters are 4 bits wide, sixteen of them packed in a long, and each key maps to one counter in each of four rows.
+ * The estimated frequency of a key is the minimum of its counters, which never underestimates and caps at 15.
+ * Once the number of recorded accesses reaches ten times the number of counter groups, all counters are halved
+ * so that keys which are not accessed anymore age out. Counts are approximate under concurrent access.
+ *
+ * @param <K> the key type
+ */
+public class FrequencySketch<K> {
+    private static final int MAX_TABLE_LENGTH = 1 << 20;
+    private static final int MIN_TABLE_LENGTH = 64;
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final ReentrantLock resetLock = new ReentrantLock();
+
+    /**
+     * @param expectedKeys the number of keys expected to be tracked, such as the max number of entries of a cache
+     */
+    public FrequencySketch(final long expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("expected keys must be 0 or greater");
+        }
+        int tableLength = (int) Math.min(MAX_TABLE_LENGTH, Math.max(MIN_TABLE_LENGTH, expectedKeys / DEPTH));
+        tableLength = Integer.highestOneBit(tableLength - 1) << 1;
+        this.table = new AtomicLongArray(tableLength);
+        this.tableMask = tableLength - 1;
+        this.sampleSize = 10 * tableLength;
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated number of recent accesses of a given key, between 0 and 15
+     */
+    public int frequency(final K key) {
+        long hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            long rowHash = rehash(hash, i);
+            frequency = Math.min(frequency, (int) ((table.get(indexOf(rowHash)) >>> offsetOf(rowHash)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an access of a given key
+     *
+     * @param key the key
+     */
+    public void increment(final K key) {
+        long hash = spread(key.hashCode());
+        boolean incremented = false;
+        for (int i = 0; i < DEPTH; i++) {
+            long rowHash = rehash(hash, i);
+            incremented |= incrementAt(indexOf(rowHash), offsetOf(rowHash));
+        }
+        if (incremented && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(final int index, final int offset) {
+        long mask = 0xfL << offset;
+        while (true) {
+            long current = table.get(index);
+            if ((current & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, current, current + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Halve all counters
+     */
+    private void reset() {
+        if (resetLock.tryLock() == false) {
+            return;
+        }
+        try {
+            if (additions.get() < sampleSize) {
+                return;
+            }
+            for (int i = 0; i < table.length(); i++) {
+                long current;
+                do {
+                    current = table.get(i);
+                } while (table.compareAndSet(i, current, (current >>> 1) & RESET_MASK) == false);
+            }
+            additions.addAndGet(-sampleSize / 2);
+        } finally {
+            resetLock.unlock();
+        }
+    }
+
+    private int indexOf(final long rowHash) {
+        return (int) rowHash & tableMask;
+    }
+
+    private static int offsetOf(final long rowHash) {
+        return (int) (rowHash >>> 60) << 2;
+    }
+
+    private static long spread(final int hashCode) {
+        long hash = hashCode * 0x9e3779b97f4a7c15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static long rehash(final long hash, final int row) {
+        long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+        return rowHash ^ (rowHash >>> 29);
+    }
+}
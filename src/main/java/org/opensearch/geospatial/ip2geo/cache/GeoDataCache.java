@@ -0,0 +1,500 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.opensearch.common.cache.RemovalNotification;
+import org.opensearch.common.cache.RemovalReason;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.geospatial.annotation.VisibleForTesting;
+import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+import org.opensearch.geospatial.ip2geo.lookup.IpAddresses;
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Cache to hold geo data
+ *
+ * GeoData in an index in immutable. Therefore, invalidation is not needed.
+ * Cached geo data is interned through a {@link GeoDataDictionary} of each index so that
+ * ip addresses with the same geo data share a single immutable value. The heap used by a dictionary is charged
+ * once to the datasource of its index, and an entry holding interned geo data weighs its key and a reference.
+ *
+ * When caching by range is enabled, geo data retrieved by a search request is cached by the ip range it belongs to,
+ * and every ip address in a cached range is served through a {@link GeoDataRangeIndex}.
+ *
+ * The cache is a {@link PartitionedLruCache} bounded by the estimated heap used by its entries and partitioned by
+ * datasource, which is derived from the GeoIP data index name. Each datasource may be given a quota of the cache size.
+ * When admission is enabled, geo data is only cached if its key was looked up more often than the entry it would evict,
+ * as estimated by a {@link FrequencySketch}.
+ *
+ * Lookups are counted per datasource by {@link GeoDataCacheCounters}, once per lookup, when it looks up the cache.
+ *
+ * When a {@link GeoDataDiskTier} is enabled, geo data evicted from the heap is written to disk and read back into
+ * the heap on a later miss instead of being retrieved by a search request again. Cached ranges on disk stay
+ * in the range index, so ip addresses in them are served by range from disk as well. Evicted geo data is queued and
+ * written by a single task on the demotion executor, so an eviction on a lookup thread does not wait for disk I/O.
+ * When admission is enabled, only geo data whose key was looked up more than once is demoted.
+ * Geo data of a retired index, which is not used anymore, is neither cached nor demoted.
+ */
+@Log4j2
+public class GeoDataCache {
+    /**
+     * Max number of evicted entries waiting to be written to the disk tier, beyond which evicted entries are dropped
+     */
+    private static final int MAX_PENDING_DEMOTIONS = 10_000;
+    private static final long CACHE_KEY_BYTES = RamUsageEstimator.shallowSizeOfInstance(GeoDataCacheKey.class);
+    private static final long RANGE_BYTES = RamUsageEstimator.shallowSizeOfInstance(IpRange.class) + RamUsageEstimator.alignObjectSize(
+        RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + 3L * RamUsageEstimator.NUM_BYTES_OBJECT_REF
+    );
+    private final Map<String, GeoDataDictionary> dictionaries = new ConcurrentHashMap<>();
+    private final GeoDataRangeIndex ranges = new GeoDataRangeIndex();
+    private final GeoDataCacheCounters counters = new GeoDataCacheCounters();
+    private final PartitionedLruCache<GeoDataCacheKey, Map<String, Object>> cache;
+    private final Set<String> retiredIndices = ConcurrentHashMap.newKeySet();
+    private final Map<GeoDataCacheKey, Map<String, Object>> pendingDemotions = new ConcurrentHashMap<>();
+    private final AtomicBoolean demotionScheduled = new AtomicBoolean();
+    private volatile boolean cacheByRange;
+    private volatile boolean admission;
+    private volatile GeoDataDiskTier diskTier;
+    private volatile Executor demotionExecutor = Runnable::run;
+
+    public GeoDataCache(final long maxSizeInBytes) {
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("ip2geo max cache size must be 0 or greater");
+        }
+        this.cache = new PartitionedLruCache<>(
+            maxSizeInBytes,
+            key -> toDatasourceName(key.getIndexName()),
+            GeoDataCache::weigh,
+            this::onRemoval
+        );
+    }
+
+    private void onRemoval(final RemovalNotification<GeoDataCacheKey, Map<String, Object>> notification) {
+        GeoDataCacheKey key = notification.getKey();
+        boolean evicted = RemovalReason.EVICTED.equals(notification.getRemovalReason());
+        boolean demoting = evicted && scheduleDemotion(key, notification.getValue());
+        if (key.getRange() != null && demoting == false) {
+            ranges.remove(key);
+        }
+        if (evicted) {
+            counters.recordEviction(key.getIndexName());
+        }
+    }
+
+    /**
+     * Queue geo data evicted from the heap to be written to the disk tier
+     *
+     * @return true if the geo data is queued
+     */
+    private boolean scheduleDemotion(final GeoDataCacheKey key, final Map<String, Object> geoData) {
+        GeoDataDiskTier tier = diskTier;
+        if (tier == null || tier.isEnabled() == false || retiredIndices.contains(key.getIndexName())) {
+            return false;
+        }
+        if (admission && cache.frequency(key) <= 1) {
+            return false;
+        }
+        if (pendingDemotions.size() >= MAX_PENDING_DEMOTIONS) {
+            return false;
+        }
+        pendingDemotions.put(key, geoData);
+        if (demotionScheduled.compareAndSet(false, true)) {
+            try {
+                demotionExecutor.execute(this::drainDemotions);
+            } catch (RejectedExecutionException e) {
+                // Queued geo data is written once a later eviction schedules the task again
+                demotionScheduled.set(false);
+                log.debug("Failed to schedule writing evicted geo data to the ip2geo cache disk tier", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write queued geo data to the disk tier until the queue is empty
+     */
+    private void drainDemotions() {
+        do {
+            for (Map.Entry<GeoDataCacheKey, Map<String, Object>> entry : pendingDemotions.entrySet()) {
+                GeoDataCacheKey key = entry.getKey();
+                if (demote(key, entry.getValue()) == false && key.getRange() != null) {
+                    ranges.remove(key);
+                }
+                pendingDemotions.remove(key, entry.getValue());
+            }
+            demotionScheduled.set(false);
+        } while (pendingDemotions.isEmpty() == false && demotionScheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Write geo data evicted from the heap to the disk tier
+     *
+     * The index is checked again after the write, so a segment created by a write racing with the retirement of
+     * its index is deleted.
+     *
+     * @return true if the geo data is in the disk tier
+     */
+    private boolean demote(final GeoDataCacheKey key, final Map<String, Object> geoData) {
+        GeoDataDiskTier tier = diskTier;
+        String indexName = key.getIndexName();
+        if (tier == null || retiredIndices.contains(indexName)) {
+            return false;
+        }
+        boolean demoted = tier.put(indexName, key.getHigh(), key.getLow(), key.getRange(), geoData);
+        if (retiredIndices.contains(indexName)) {
+            tier.removeIndex(indexName);
+            return false;
+        }
+        return demoted;
+    }
+
+    /**
+     * Read geo data of a given key from the disk tier, or from the queue of geo data waiting to be written to it
+     *
+     * @return the interned geo data or null if it is not in the disk tier
+     */
+    private Map<String, Object> readFromDisk(final GeoDataCacheKey key) {
+        Map<String, Object> pending = pendingDemotions.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        GeoDataDiskTier tier = diskTier;
+        Map<String, Object> geoData = tier == null ? null : tier.get(key.getIndexName(), key.getHigh(), key.getLow(), key.getRange());
+        if (geoData == null) {
+            return null;
+        }
+        return intern(key.getIndexName(), geoData);
+    }
+
+    /**
+     * Read geo data of a given key from the disk tier and cache it in the heap again
+     *
+     * The geo data is subject to admission like any other loaded geo data.
+     *
+     * @return the geo data or null if it is not in the disk tier
+     */
+    private Map<String, Object> promote(final GeoDataCacheKey key) {
+        Map<String, Object> geoData = readFromDisk(key);
+        if (geoData == null) {
+            return null;
+        }
+        counters.recordDiskHit(key.getIndexName());
+        try {
+            return cache.computeIfAbsent(key, k -> geoData);
+        } catch (ExecutionException e) {
+            return geoData;
+        }
+    }
+
+    /**
+     * Intern geo data in the dictionary of its index, whose heap usage is charged to the partition of the datasource
+     */
+    private Map<String, Object> intern(final String indexName, final Map<String, Object> geoData) {
+        if (retiredIndices.contains(indexName)) {
+            return geoData;
+        }
+        return dictionaries.computeIfAbsent(
+            indexName,
+            name -> new GeoDataDictionary(bytes -> cache.addWeight(toDatasourceName(name), bytes))
+        ).intern(geoData);
+    }
+
+    /**
+     * Set the disk tier which geo data evicted from the heap is written to, writing on the calling thread
+     *
+     * @param diskTier the disk tier
+     */
+    public void setDiskTier(final GeoDataDiskTier diskTier) {
+        setDiskTier(diskTier, Runnable::run);
+    }
+
+    /**
+     * Set the disk tier which geo data evicted from the heap is written to
+     *
+     * Cached ranges already on disk, for example, written before the node restarted, are served by range again.
+     *
+     * @param diskTier the disk tier
+     * @param demotionExecutor the executor to write evicted geo data to the disk tier on
+     */
+    public void setDiskTier(final GeoDataDiskTier diskTier, final Executor demotionExecutor) {
+        this.demotionExecutor = demotionExecutor;
+        this.diskTier = diskTier;
+        diskTier.forEachRange((indexName, range) -> ranges.put(GeoDataCacheKey.ofRange(indexName, range)));
+    }
+
+    /**
+     * Estimate the heap used by a cache entry
+     *
+     * The index name is shared by all entries of the index and is not counted. Interned geo data is counted as
+     * a reference, as its strings and record are counted once by the dictionary of the index.
+     *
+     * @param geoData the geo data
+     * @return the estimated heap usage in bytes
+     */
+    public static long weigh(final Map<String, Object> geoData) {
+        return CACHE_KEY_BYTES + RamUsageEstimator.NUM_BYTES_OBJECT_REF + GeoDataDictionary.ramBytesUsed(geoData);
+    }
+
+    private static long weigh(final GeoDataCacheKey key, final Map<String, Object> geoData) {
+        return weigh(geoData) + (key.getRange() == null ? 0 : RANGE_BYTES);
+    }
+
+    /**
+     * @param cacheByRange whether geo data retrieved by a search request is cached by ip range
+     */
+    public void setCacheByRange(final boolean cacheByRange) {
+        this.cacheByRange = cacheByRange;
+    }
+
+    /**
+     * @return whether geo data retrieved by a search request is cached by ip range
+     */
+    public boolean isCacheByRange() {
+        return cacheByRange;
+    }
+
+    /**
+     * @param admission whether geo data is only cached if it is looked up more often than the entry it would evict
+     */
+    public void setAdmission(final boolean admission) {
+        this.admission = admission;
+        cache.setAdmissionFilter(admission ? newAdmissionFilter(cache.getMaxWeight()) : null);
+    }
+
+    /**
+     * Create a frequency sketch sized for the max number of entries which fit in the cache
+     */
+    private static FrequencySketch<GeoDataCacheKey> newAdmissionFilter(final long maxSizeInBytes) {
+        return new FrequencySketch<>(maxSizeInBytes / weigh(Collections.emptyMap()));
+    }
+
+    /**
+     * @param warmupSize max number of the most frequently looked up ip addresses tracked per datasource
+     */
+    public void setWarmupSize(final int warmupSize) {
+        counters.setWarmupSize(warmupSize);
+    }
+
+    /**
+     * Return the most frequently looked up ip addresses of a datasource since it switched to its current index
+     *
+     * @param datasourceName the datasource name
+     * @return the ip addresses in descending order of their lookup count
+     */
+    public List<String> getHotIps(final String datasourceName) {
+        Set<String> hotIps = new LinkedHashSet<>();
+        for (GeoDataCacheKey key : counters.getHotKeys(datasourceName)) {
+            hotIps.add(IpAddresses.format(key.getHigh(), key.getLow()));
+        }
+        return List.copyOf(hotIps);
+    }
+
+    public Map<String, Object> putIfAbsent(
+        final String indexName,
+        final String ip,
+        final Function<String, Map<String, Object>> retrieveFunction
+    ) throws ExecutionException {
+        return computeIfAbsent(GeoDataCacheKey.ofIp(indexName, ip), () -> retrieveFunction.apply(ip));
+    }
+
+    /**
+     * Put geo data of the ip range a given ip address belongs to if absent
+     *
+     * If the ip address does not belong to any range, the empty geo data is cached for the ip address itself.
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @param rangeData a tuple of the ip range in CIDR notation and its geo data
+     * @return the cached geo data
+     * @throws ExecutionException the exception
+     */
+    public Map<String, Object> putRangeIfAbsent(
+        final String indexName,
+        final String ip,
+        final Tuple<String, Map<String, Object>> rangeData
+    ) throws ExecutionException {
+        if (rangeData.v1() == null) {
+            return putIfAbsent(indexName, ip, addr -> rangeData.v2());
+        }
+        GeoDataCacheKey cacheKey = GeoDataCacheKey.ofRange(indexName, IpRange.fromCidr(rangeData.v1()));
+        Map<String, Object> geoData = computeIfAbsent(cacheKey, rangeData::v2);
+        ranges.put(cacheKey);
+        return geoData;
+    }
+
+    /**
+     * Put geo data of a given key if absent
+     *
+     * Hits, misses and hot ip addresses are not counted here as the lookup which missed the cache was already
+     * counted by {@link #get(String, String)}.
+     */
+    private Map<String, Object> computeIfAbsent(final GeoDataCacheKey cacheKey, final Supplier<Map<String, Object>> retrieveFunction)
+        throws ExecutionException {
+        if (retiredIndices.contains(cacheKey.getIndexName())) {
+            // A lookup which started before the index was retired is served without caching
+            return retrieveFunction.get();
+        }
+        return cache.computeIfAbsent(cacheKey, key -> {
+            Map<String, Object> onDisk = readFromDisk(key);
+            if (onDisk != null) {
+                return onDisk;
+            }
+            long startTime = System.nanoTime();
+            Map<String, Object> value = intern(key.getIndexName(), retrieveFunction.get());
+            counters.recordLoadTime(key.getIndexName(), System.nanoTime() - startTime);
+            return value;
+        });
+    }
+
+    /**
+     * Record time spent retrieving geo data of an index outside of {@link #putIfAbsent(String, String, Function)}
+     *
+     * @param indexName the index name
+     * @param loadTimeInNanos the time spent in nanoseconds
+     */
+    public void addLoadTime(final String indexName, final long loadTimeInNanos) {
+        counters.recordLoadTime(indexName, loadTimeInNanos);
+    }
+
+    /**
+     * Retire an index which is not used anymore, dropping its cached geo data, dictionary, cached ranges,
+     * disk tier segment and tracked hot ip addresses
+     *
+     * The index is remembered as retired so that its geo data is not written to the disk tier again.
+     *
+     * @param indexName the index name
+     */
+    public void removeIndex(final String indexName) {
+        retiredIndices.add(indexName);
+        cache.invalidateAll(key -> key.getIndexName().equals(indexName));
+        pendingDemotions.keySet().removeIf(key -> key.getIndexName().equals(indexName));
+        GeoDataDictionary dictionary = dictionaries.remove(indexName);
+        if (dictionary != null) {
+            cache.addWeight(toDatasourceName(indexName), -dictionary.retire());
+        }
+        ranges.removeIndex(indexName);
+        GeoDataDiskTier tier = diskTier;
+        if (tier != null) {
+            tier.removeIndex(indexName);
+        }
+        counters.removeIndex(indexName);
+    }
+
+    /**
+     * Drop the cached geo data and the stats of a datasource which is deleted
+     *
+     * @param datasourceName the datasource name
+     */
+    public void removeStats(final String datasourceName) {
+        cache.removePartition(datasourceName);
+        counters.removeDatasource(datasourceName);
+    }
+
+    @VisibleForTesting
+    GeoDataDictionary getDictionary(final String indexName) {
+        return dictionaries.get(indexName);
+    }
+
+    /**
+     * Return geo data of a given ip address in the cache
+     *
+     * The ip address is parsed once into a primitive key. IPv4 addresses in dotted-quad notation
+     * are parsed without allocating an {@link java.net.InetAddress}.
+     *
+     * This is the only place where a lookup is counted, as a hit or a miss, and recorded as a hot ip address.
+     * The caller is expected to retrieve geo data on a miss and put it with {@link #putIfAbsent(String, String, Function)}
+     * or {@link #putRangeIfAbsent(String, String, Tuple)}, which count neither, so a lookup is counted once
+     * even if another lookup of the same key loaded it in the meantime.
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @return the cached geo data or null if it is not in the cache
+     */
+    public Map<String, Object> get(final String indexName, final String ip) {
+        GeoDataCacheKey cacheKey = GeoDataCacheKey.ofIp(indexName, ip);
+        Map<String, Object> geoData = cacheByRange ? getByRange(cacheKey) : null;
+        if (geoData == null) {
+            geoData = cache.get(cacheKey);
+        }
+        if (geoData == null) {
+            geoData = promote(cacheKey);
+        }
+        counters.recordLookup(cacheKey, geoData != null);
+        return geoData;
+    }
+
+    private Map<String, Object> getByRange(final GeoDataCacheKey cacheKey) {
+        GeoDataCacheKey rangeKey = ranges.find(cacheKey);
+        if (rangeKey == null) {
+            return null;
+        }
+        Map<String, Object> geoData = cache.get(rangeKey);
+        if (geoData == null) {
+            geoData = promote(rangeKey);
+        }
+        if (geoData == null) {
+            // The range entry was evicted after the range was looked up
+            ranges.remove(rangeKey);
+        }
+        return geoData;
+    }
+
+    /**
+     * @return cache stats of each datasource
+     */
+    public Map<String, GeoDataCacheStats> getStats() {
+        return counters.toStats(cache);
+    }
+
+    /**
+     * Datasource name of a GeoIP data index, or the index name itself for any other index
+     */
+    static String toDatasourceName(final String indexName) {
+        String datasourceName = Datasource.toDatasourceName(indexName);
+        return datasourceName == null ? indexName : datasourceName;
+    }
+
+    /**
+     * Update the max heap size of the cache, evicting entries in place if the cache does not fit anymore
+     *
+     * @param maxSizeInBytes the max heap size of the cache in bytes
+     */
+    public void updateMaxSize(final long maxSizeInBytes) {
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("ip2geo max cache size must be 0 or greater");
+        }
+        cache.setMaxWeight(maxSizeInBytes);
+        if (admission) {
+            cache.setAdmissionFilter(newAdmissionFilter(maxSizeInBytes));
+        }
+    }
+
+    /**
+     * Reserve a share of the cache size for a datasource, which entries of other datasources cannot evict
+     *
+     * @param datasourceName the datasource name
+     * @param quota the share of the cache size between 0 and 1, where 0 removes the quota
+     */
+    public void setQuota(final String datasourceName, final double quota) {
+        cache.setQuota(datasourceName, quota);
+    }
+}
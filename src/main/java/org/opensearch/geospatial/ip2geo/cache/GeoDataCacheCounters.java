@@ -0,0 +1,151 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a geo data cache per datasource
+ *
+ * Hits, misses, evictions, disk tier hits and load time are counted per datasource, which is derived from
+ * the GeoIP data index name. The most frequently looked up ip addresses of each datasource are tracked as well
+ * so that they can be looked up again when the datasource switches to a new index.
+ */
+final class GeoDataCacheCounters {
+    private final Map<String, DatasourceCounters> datasources = new ConcurrentHashMap<>();
+    private final Map<String, DatasourceCounters> indices = new ConcurrentHashMap<>();
+    private volatile int warmupSize;
+
+    /**
+     * Count a lookup of the cache as a hit or a miss and record its key as a hot key
+     *
+     * @param key the key looked up
+     * @param hit whether the lookup hit the cache
+     */
+    void recordLookup(final GeoDataCacheKey key, final boolean hit) {
+        DatasourceCounters counters = of(key.getIndexName());
+        counters.hotKeys.record(key);
+        if (hit) {
+            counters.hits.increment();
+        } else {
+            counters.misses.increment();
+        }
+    }
+
+    /**
+     * Count an eviction of an entry of an index, unless the stats of its datasource were dropped
+     *
+     * @param indexName the index name
+     */
+    void recordEviction(final String indexName) {
+        DatasourceCounters counters = datasources.get(GeoDataCache.toDatasourceName(indexName));
+        if (counters != null) {
+            counters.evictions.increment();
+        }
+    }
+
+    void recordDiskHit(final String indexName) {
+        of(indexName).diskHits.increment();
+    }
+
+    void recordLoadTime(final String indexName, final long loadTimeInNanos) {
+        of(indexName).loadTimeInNanos.add(loadTimeInNanos);
+    }
+
+    /**
+     * @param warmupSize max number of hot keys tracked per datasource
+     */
+    void setWarmupSize(final int warmupSize) {
+        this.warmupSize = warmupSize;
+        datasources.values().forEach(counters -> counters.hotKeys.setCapacity(warmupSize));
+    }
+
+    /**
+     * @param datasourceName the datasource name
+     * @return the most frequently looked up keys of a datasource in descending order of their lookup count
+     */
+    List<GeoDataCacheKey> getHotKeys(final String datasourceName) {
+        DatasourceCounters counters = datasources.get(datasourceName);
+        return counters == null ? Collections.emptyList() : counters.hotKeys.getHotKeys();
+    }
+
+    /**
+     * Drop the hot keys of an index which is not used anymore, keeping the counters of its datasource
+     *
+     * @param indexName the index name
+     */
+    void removeIndex(final String indexName) {
+        DatasourceCounters counters = indices.remove(indexName);
+        if (counters != null) {
+            counters.hotKeys.removeIf(key -> key.getIndexName().equals(indexName));
+        }
+    }
+
+    /**
+     * Drop the counters of a datasource which is deleted
+     *
+     * @param datasourceName the datasource name
+     */
+    void removeDatasource(final String datasourceName) {
+        DatasourceCounters removed = datasources.remove(datasourceName);
+        if (removed != null) {
+            indices.values().removeIf(counters -> counters == removed);
+        }
+    }
+
+    /**
+     * @param cache the cache whose weight, quota and rejections of each datasource are reported
+     * @return stats of each datasource
+     */
+    Map<String, GeoDataCacheStats> toStats(final PartitionedLruCache<?, ?> cache) {
+        Map<String, GeoDataCacheStats> stats = new TreeMap<>();
+        datasources.forEach(
+            (datasourceName, counters) -> stats.put(
+                datasourceName,
+                new GeoDataCacheStats(
+                    counters.hits.sum(),
+                    counters.misses.sum(),
+                    counters.evictions.sum(),
+                    counters.loadTimeInNanos.sum(),
+                    cache.getWeight(datasourceName),
+                    cache.getQuota(datasourceName),
+                    cache.getRejections(datasourceName),
+                    counters.diskHits.sum()
+                )
+            )
+        );
+        return stats;
+    }
+
+    private DatasourceCounters of(final String indexName) {
+        DatasourceCounters counters = indices.get(indexName);
+        if (counters != null) {
+            return counters;
+        }
+        return indices.computeIfAbsent(
+            indexName,
+            name -> datasources.computeIfAbsent(GeoDataCache.toDatasourceName(name), datasourceName -> new DatasourceCounters(warmupSize))
+        );
+    }
+
+    private static class DatasourceCounters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder loadTimeInNanos = new LongAdder();
+        private final LongAdder diskHits = new LongAdder();
+        private final HotKeyTracker<GeoDataCacheKey> hotKeys;
+
+        private DatasourceCounters(final int warmupSize) {
+            this.hotKeys = new HotKeyTracker<>(warmupSize);
+        }
+    }
+}
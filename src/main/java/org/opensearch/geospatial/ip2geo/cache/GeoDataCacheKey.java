@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.geospatial.ip2geo.lookup.IpAddresses;
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Key of a geo data cache entry, which is either an ip address or an ip range of an index
+ *
+ * The ip address, or the start of the ip range, is kept as two longs in its IPv6 form.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+final class GeoDataCacheKey {
+    private final String indexName;
+    private final long high;
+    private final long low;
+    /**
+     * The ip range of the entry, or null if the entry is keyed by an ip address
+     */
+    private final IpRange range;
+
+    /**
+     * Parse a given ip address into a key
+     *
+     * IPv4 addresses in dotted-quad notation are parsed without allocating an {@link java.net.InetAddress}.
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @return the key of the ip address
+     */
+    static GeoDataCacheKey ofIp(final String indexName, final String ip) {
+        long ipv4 = IpAddresses.parseIpv4(ip);
+        if (ipv4 != IpAddresses.NOT_IPV4) {
+            return new GeoDataCacheKey(indexName, 0, IpAddresses.IPV4_MAPPED_LOW | ipv4, null);
+        }
+        IpRange address = IpRange.of(InetAddresses.forString(ip));
+        return new GeoDataCacheKey(indexName, address.getStartHigh(), address.getStartLow(), null);
+    }
+
+    static GeoDataCacheKey ofRange(final String indexName, final IpRange range) {
+        return new GeoDataCacheKey(indexName, range.getStartHigh(), range.getStartLow(), range);
+    }
+
+    /**
+     * @return the ip address of the key, or the start of its ip range, as a single address range
+     */
+    IpRange toAddress() {
+        return IpRange.of(high, low);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Geo data cache stats of a single datasource in a node
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class GeoDataCacheStats implements Writeable, ToXContentFragment {
+    private static final String FIELD_HIT_COUNT = "hit_count";
+    private static final String FIELD_MISS_COUNT = "miss_count";
+    private static final String FIELD_EVICTION_COUNT = "eviction_count";
+    private static final String FIELD_LOAD_TIME_IN_MILLIS = "load_time_in_millis";
+    private static final String FIELD_MEMORY_SIZE_IN_BYTES = "memory_size_in_bytes";
+    private static final String FIELD_QUOTA_IN_BYTES = "quota_in_bytes";
+    private static final String FIELD_REJECTION_COUNT = "rejection_count";
+    private static final String FIELD_DISK_HIT_COUNT = "disk_hit_count";
+    private static final String FIELD_HIT_RATE = "hit_rate";
+
+    /**
+     * @param hitCount the number of lookups served from the cache
+     * @return the number of lookups served from the cache
+     */
+    private final long hitCount;
+    /**
+     * @param missCount the number of lookups not served from the cache
+     * @return the number of lookups not served from the cache
+     */
+    private final long missCount;
+    /**
+     * @param evictionCount the number of entries evicted from the cache
+     * @return the number of entries evicted from the cache
+     */
+    private final long evictionCount;
+    /**
+     * @param loadTimeInNanos total time spent retrieving geo data for cache misses
+     * @return total time spent retrieving geo data for cache misses
+     */
+    private final long loadTimeInNanos;
+    /**
+     * @param memorySizeInBytes estimated heap used by the cache entries and the dictionaries of their geo data
+     * @return estimated heap used by the cache entries and the dictionaries of their geo data
+     */
+    private final long memorySizeInBytes;
+    /**
+     * @param quotaInBytes heap of the cache reserved for the datasource
+     * @return heap of the cache reserved for the datasource
+     */
+    private final long quotaInBytes;
+    /**
+     * @param rejectionCount the number of retrieved geo data not cached by the admission policy
+     * @return the number of retrieved geo data not cached by the admission policy
+     */
+    private final long rejectionCount;
+    /**
+     * @param diskHitCount the number of lookups served from the disk tier of the cache
+     * @return the number of lookups served from the disk tier of the cache
+     */
+    private final long diskHitCount;
+
+    public GeoDataCacheStats(final StreamInput in) throws IOException {
+        this.hitCount = in.readVLong();
+        this.missCount = in.readVLong();
+        this.evictionCount = in.readVLong();
+        this.loadTimeInNanos = in.readVLong();
+        this.memorySizeInBytes = in.readVLong();
+        this.quotaInBytes = in.readVLong();
+        this.rejectionCount = in.readVLong();
+        this.diskHitCount = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeVLong(hitCount);
+        out.writeVLong(missCount);
+        out.writeVLong(evictionCount);
+        out.writeVLong(loadTimeInNanos);
+        out.writeVLong(memorySizeInBytes);
+        out.writeVLong(quotaInBytes);
+        out.writeVLong(rejectionCount);
+        out.writeVLong(diskHitCount);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.field(FIELD_HIT_COUNT, hitCount);
+        builder.field(FIELD_MISS_COUNT, missCount);
+        builder.field(FIELD_EVICTION_COUNT, evictionCount);
+        builder.field(FIELD_LOAD_TIME_IN_MILLIS, TimeUnit.NANOSECONDS.toMillis(loadTimeInNanos));
+        builder.field(FIELD_MEMORY_SIZE_IN_BYTES, memorySizeInBytes);
+        builder.field(FIELD_QUOTA_IN_BYTES, quotaInBytes);
+        builder.field(FIELD_REJECTION_COUNT, rejectionCount);
+        builder.field(FIELD_DISK_HIT_COUNT, diskHitCount);
+        builder.field(FIELD_HIT_RATE, getHitRate());
+        return builder;
+    }
+
+    /**
+     * @return the share of lookups served from the cache, or 0 if there was no lookup
+     */
+    public double getHitRate() {
+        long lookupCount = hitCount + missCount;
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * Dictionary of geo data in a single GeoIP data index
+ *
+ * Geo data of different ip addresses repeat the same attribute names and values, and often the whole record.
+ * The dictionary interns attribute names and string values, and stores geo data as compact immutable records
+ * so that equal geo data share a single instance. The number of interned strings and records is bounded by
+ * {@link #MAX_ENTRIES}. Once a limit is reached, geo data is still converted into a compact record but is not interned.
+ *
+ * The heap used by interned strings and records is counted once, as they are added, and reported to a listener,
+ * so that geo data sharing them is not charged for them again.
+ */
+public class GeoDataDictionary {
+    static final int MAX_ENTRIES = 100_000;
+    private static final long HASH_MAP_ENTRY_BYTES = RamUsageEstimator.alignObjectSize(
+        RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + Integer.BYTES + 3L * RamUsageEstimator.NUM_BYTES_OBJECT_REF
+    );
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<GeoDataRecord, GeoDataRecord> records = new ConcurrentHashMap<>();
+    private final LongConsumer growthListener;
+    /**
+     * Heap used by interned strings and records, guarded by the dictionary
+     */
+    private long ramBytesUsed;
+    /**
+     * Whether the dictionary is not used anymore, guarded by the dictionary
+     */
+    private boolean retired;
+
+    public GeoDataDictionary() {
+        this(bytes -> {});
+    }
+
+    /**
+     * @param growthListener the listener of the heap used by each string or record added to the dictionary
+     */
+    public GeoDataDictionary(final LongConsumer growthListener) {
+        this.growthListener = growthListener;
+    }
+
+    /**
+     * Return a shared immutable copy of a given geo data
+     *
+     * @param geoData the geo data
+     * @return the shared immutable geo data
+     */
+    public Map<String, Object> intern(final Map<String, Object> geoData) {
+        if (geoData == null || geoData.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String[] keys = new String[geoData.size()];
+        Object[] values = new Object[geoData.size()];
+        long ownBytes = GeoDataRecord.BASE_RAM_BYTES_USED + RamUsageEstimator.shallowSizeOf(keys) + RamUsageEstimator.shallowSizeOf(values);
+        int i = 0;
+        for (Map.Entry<String, Object> entry : geoData.entrySet()) {
+            keys[i] = intern(entry.getKey());
+            ownBytes += unsharedBytes(keys[i]);
+            if (entry.getValue() instanceof String) {
+                values[i] = intern((String) entry.getValue());
+                ownBytes += unsharedBytes((String) values[i]);
+            } else {
+                values[i] = entry.getValue();
+                ownBytes += RamUsageEstimator.sizeOfObject(values[i]);
+            }
+            i++;
+        }
+        GeoDataRecord record = new GeoDataRecord(keys, values, ownBytes, records.size() < MAX_ENTRIES);
+        GeoDataRecord existing = records.get(record);
+        if (existing != null) {
+            return existing;
+        }
+        if (record.shared == false) {
+            return record;
+        }
+        existing = records.putIfAbsent(record, record);
+        if (existing != null) {
+            return existing;
+        }
+        grow(HASH_MAP_ENTRY_BYTES + ownBytes);
+        return record;
+    }
+
+    private String intern(final String string) {
+        String existing = strings.get(string);
+        if (existing != null) {
+            return existing;
+        }
+        if (strings.size() >= MAX_ENTRIES) {
+            return string;
+        }
+        existing = strings.putIfAbsent(string, string);
+        if (existing != null) {
+            return existing;
+        }
+        grow(HASH_MAP_ENTRY_BYTES + RamUsageEstimator.sizeOf(string));
+        return string;
+    }
+
+    /**
+     * @return the heap used by a string unless it is the interned instance, which the dictionary counts
+     */
+    private long unsharedBytes(final String string) {
+        return strings.get(string) == string ? 0 : RamUsageEstimator.sizeOf(string);
+    }
+
+    private synchronized void grow(final long bytes) {
+        if (retired) {
+            return;
+        }
+        ramBytesUsed += bytes;
+        growthListener.accept(bytes);
+    }
+
+    /**
+     * @return the heap used by interned strings and records in bytes
+     */
+    public synchronized long ramBytesUsed() {
+        return ramBytesUsed;
+    }
+
+    /**
+     * Stop reporting growth of a dictionary which is not used anymore
+     *
+     * @return the heap used by interned strings and records in bytes, which the listener was told about
+     */
+    public synchronized long retire() {
+        retired = true;
+        return ramBytesUsed;
+    }
+
+    /**
+     * Estimate the heap used by a given geo data which is not counted by a dictionary
+     *
+     * An interned record is shared and counted once by its dictionary, so it is not counted here. A record which was
+     * not interned is counted without the interned strings it refers to.
+     *
+     * @param geoData the geo data
+     * @return the estimated heap usage in bytes
+     */
+    public static long ramBytesUsed(final Map<String, Object> geoData) {
+        if (geoData == null || geoData.isEmpty()) {
+            return 0;
+        }
+        if (geoData instanceof GeoDataRecord) {
+            GeoDataRecord record = (GeoDataRecord) geoData;
+            return record.shared ? 0 : record.ownBytes;
+        }
+        long size = RamUsageEstimator.shallowSizeOf(geoData) + RamUsageEstimator.alignObjectSize(
+            (long) RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) RamUsageEstimator.NUM_BYTES_OBJECT_REF * geoData.size() * 2
+        );
+        for (Map.Entry<String, Object> entry : geoData.entrySet()) {
+            size += HASH_MAP_ENTRY_BYTES + RamUsageEstimator.sizeOf(entry.getKey()) + RamUsageEstimator.sizeOfObject(entry.getValue());
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of interned records
+     */
+    public int recordCount() {
+        return records.size();
+    }
+
+    /**
+     * @return the number of interned strings
+     */
+    public int stringCount() {
+        return strings.size();
+    }
+
+    /**
+     * Immutable geo data backed by parallel arrays of attribute names and values
+     */
+    private static final class GeoDataRecord extends AbstractMap<String, Object> {
+        private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(GeoDataRecord.class);
+        private final String[] keys;
+        private final Object[] values;
+        private final int hash;
+        /**
+         * Heap used by the record itself and by the values it does not share through the dictionary
+         */
+        private final long ownBytes;
+        /**
+         * Whether the record is interned, or is to be interned, in the dictionary which counts its heap usage
+         */
+        private final boolean shared;
+
+        private GeoDataRecord(final String[] keys, final Object[] values, final long ownBytes, final boolean shared) {
+            this.keys = keys;
+            this.values = values;
+            this.ownBytes = ownBytes;
+            this.shared = shared;
+            int hash = 0;
+            for (int i = 0; i < keys.length; i++) {
+                hash += keys[i].hashCode() ^ (values[i] == null ? 0 : values[i].hashCode());
+            }
+            this.hash = hash;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key || keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof GeoDataRecord && hash != o.hashCode()) {
+                return false;
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (hasNext() == false) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Disk tier of the geo data cache in the node data directory
+ *
+ * Geo data evicted from the heap cache is appended to a segment file of its GeoIP data index, and is read back when
+ * the heap cache misses, so that a miss on geo data which was cached before costs a local disk read instead of
+ * a search request. Only the offset of each record is kept on heap.
+ *
+ * GeoIP data in an index is immutable, so records are never invalidated. The segment of an index is deleted together
+ * with the index, and segment files are loaded again when the node restarts. Once the disk tier reaches its max size,
+ * no more geo data is written until a segment is deleted.
+ *
+ * Each record is written as its length, a key type, the ip address or the start and end of the ip range, and the geo data.
+ * A record which was not completely written, for example, because the node stopped, is truncated when the segment is loaded.
+ */
+@Log4j2
+public class GeoDataDiskTier implements Closeable {
+    private static final String DIRECTORY_NAME = "ip2geo-cache";
+    private static final String SEGMENT_FILE_SUFFIX = ".cache";
+    private static final byte IP_KEY = 0;
+    private static final byte RANGE_KEY = 1;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final Set<StandardOpenOption> CREATE_OPTIONS = Set.of(
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE
+    );
+    private final NodeEnvironment nodeEnvironment;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong sizeInBytes = new AtomicLong();
+    private volatile long maxSizeInBytes;
+
+    public GeoDataDiskTier(final ClusterSettings clusterSettings, final NodeEnvironment nodeEnvironment) {
+        this.nodeEnvironment = nodeEnvironment;
+        this.maxSizeInBytes = clusterSettings.get(Ip2GeoSettings.CACHE_DISK_SIZE).getBytes();
+        clusterSettings.addSettingsUpdateConsumer(Ip2GeoSettings.CACHE_DISK_SIZE, value -> updateMaxSize(value.getBytes()));
+        if (isEnabled()) {
+            loadSegments();
+        }
+    }
+
+    private Path directory() {
+        return nodeEnvironment.nodeDataPaths()[0].resolve(DIRECTORY_NAME);
+    }
+
+    /**
+     * @return whether the disk tier is enabled
+     */
+    public boolean isEnabled() {
+        return maxSizeInBytes > 0;
+    }
+
+    /**
+     * @return the size of all segment files in bytes
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    /**
+     * Update the max size of the disk tier, deleting the largest segments if the disk tier does not fit anymore
+     *
+     * @param maxSizeInBytes the max size in bytes, or 0 to disable the disk tier
+     */
+    public void updateMaxSize(final long maxSizeInBytes) {
+        boolean wasEnabled = isEnabled();
+        this.maxSizeInBytes = maxSizeInBytes;
+        if (wasEnabled == false && isEnabled()) {
+            loadSegments();
+            return;
+        }
+        trimToMaxSize();
+    }
+
+    /**
+     * Delete the largest segments until the disk tier fits in its max size
+     */
+    private void trimToMaxSize() {
+        List<String> indexNames = new ArrayList<>(segments.keySet());
+        indexNames.sort((left, right) -> Long.compare(segmentSize(right), segmentSize(left)));
+        for (String indexName : indexNames) {
+            if (sizeInBytes.get() <= maxSizeInBytes && maxSizeInBytes > 0) {
+                return;
+            }
+            removeIndex(indexName);
+        }
+    }
+
+    private long segmentSize(final String indexName) {
+        Segment segment = segments.get(indexName);
+        return segment == null ? 0 : segment.size;
+    }
+
+    /**
+     * Return geo data of a given cache key
+     *
+     * @param indexName the index name
+     * @param high the high 64 bits of the ip address, or the start of the ip range, in IPv6 form
+     * @param low the low 64 bits of the ip address, or the start of the ip range, in IPv6 form
+     * @param range the ip range, or null if the key is an ip address
+     * @return the geo data or null if it is not in the disk tier
+     */
+    public Map<String, Object> get(final String indexName, final long high, final long low, final IpRange range) {
+        if (isEnabled() == false) {
+            return null;
+        }
+        Segment segment = segments.get(indexName);
+        if (segment == null) {
+            return null;
+        }
+        Long offset = segment.offsets.get(new Key(high, low, range));
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return segment.read(offset);
+        } catch (IOException e) {
+            if (segments.get(indexName) != segment) {
+                // The segment was deleted while being read
+                return null;
+            }
+            log.warn("Dropping unreadable ip2geo cache segment of index {}", indexName, e);
+            removeIndex(indexName);
+            return null;
+        }
+    }
+
+    /**
+     * Write geo data of a given cache key if it is not in the disk tier yet and the disk tier has room
+     *
+     * @param indexName the index name
+     * @param high the high 64 bits of the ip address, or the start of the ip range, in IPv6 form
+     * @param low the low 64 bits of the ip address, or the start of the ip range, in IPv6 form
+     * @param range the ip range, or null if the key is an ip address
+     * @param geoData the geo data
+     * @return true if the geo data is in the disk tier
+     */
+    public boolean put(final String indexName, final long high, final long low, final IpRange range, final Map<String, Object> geoData) {
+        if (isEnabled() == false) {
+            return false;
+        }
+        Key key = new Key(high, low, range);
+        try {
+            Segment segment = segments.get(indexName);
+            if (segment == null) {
+                segment = segments.computeIfAbsent(indexName, this::createSegment);
+            }
+            if (segment.offsets.containsKey(key)) {
+                return true;
+            }
+            ByteBuffer record = encode(key, geoData);
+            if (sizeInBytes.get() + record.remaining() > maxSizeInBytes) {
+                return false;
+            }
+            return segment.append(key, record);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Failed to write geo data to ip2geo cache segment of index {}", indexName, e);
+            removeIndex(indexName);
+            return false;
+        }
+    }
+
+    /**
+     * Visit ip ranges in the disk tier, for example, to serve ip addresses in the ranges after the node restarted
+     *
+     * @param consumer the consumer of the index name and the ip range
+     */
+    public void forEachRange(final BiConsumer<String, IpRange> consumer) {
+        segments.forEach((indexName, segment) -> segment.offsets.keySet().forEach(key -> {
+            if (key.range != null) {
+                consumer.accept(indexName, key.range);
+            }
+        }));
+    }
+
+    /**
+     * Delete the segment of an index
+     *
+     * @param indexName the index name
+     */
+    public void removeIndex(final String indexName) {
+        Segment segment = segments.remove(indexName);
+        if (segment != null) {
+            segment.delete();
+        }
+    }
+
+    /**
+     * Delete segments of indices other than given ones, for example, of indices deleted while the node was down
+     *
+     * @param indexNames the index names to keep segments of
+     */
+    public void retainIndices(final Set<String> indexNames) {
+        for (String indexName : List.copyOf(segments.keySet())) {
+            if (indexNames.contains(indexName) == false) {
+                removeIndex(indexName);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private Segment createSegment(final String indexName) {
+        try {
+            Path directory = directory();
+            Files.createDirectories(directory);
+            return new Segment(directory.resolve(indexName + SEGMENT_FILE_SUFFIX), true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void loadSegments() {
+        for (Path path : listSegmentFiles()) {
+            String fileName = path.getFileName().toString();
+            String indexName = fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length());
+            try {
+                Segment segment = new Segment(path, false);
+                segments.put(indexName, segment);
+                log.info("Loaded {} geo data of index {} from ip2geo cache segment", segment.offsets.size(), indexName);
+            } catch (IOException e) {
+                log.warn("Deleting unreadable ip2geo cache segment {}", path, e);
+                deleteFile(path);
+            }
+        }
+        trimToMaxSize();
+    }
+
+    private Collection<Path> listSegmentFiles() {
+        List<Path> paths = new ArrayList<>();
+        Path directory = directory();
+        if (Files.isDirectory(directory) == false) {
+            return paths;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_FILE_SUFFIX)) {
+            files.forEach(paths::add);
+        } catch (IOException e) {
+            log.warn("Failed to list ip2geo cache segments in {}", directory, e);
+        }
+        return paths;
+    }
+
+    private static void deleteFile(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete ip2geo cache segment {}", path, e);
+        }
+    }
+
+    private static ByteBuffer encode(final Key key, final Map<String, Object> geoData) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeByte(key.range == null ? IP_KEY : RANGE_KEY);
+            out.writeLong(key.high);
+            out.writeLong(key.low);
+            if (key.range != null) {
+                out.writeLong(key.range.getEndHigh());
+                out.writeLong(key.range.getEndLow());
+            }
+            out.writeMap(geoData);
+            BytesReference bytes = out.bytes();
+            ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + bytes.length());
+            record.putInt(bytes.length());
+            record.put(BytesReference.toBytes(bytes));
+            return record.flip();
+        }
+    }
+
+    private static Key decodeKey(final StreamInput in) throws IOException {
+        byte type = in.readByte();
+        long high = in.readLong();
+        long low = in.readLong();
+        if (type == IP_KEY) {
+            return new Key(high, low, null);
+        }
+        if (type != RANGE_KEY) {
+            throw new IOException("unknown key type " + type);
+        }
+        return new Key(high, low, IpRange.of(high, low, in.readLong(), in.readLong()));
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("unexpected end of ip2geo cache segment");
+            }
+            current += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Key of a record, which is either an ip address or an ip range
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final long high;
+        private final long low;
+        private final IpRange range;
+    }
+
+    /**
+     * Append-only file of records of a single index
+     */
+    private final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final Map<Key, Long> offsets = new ConcurrentHashMap<>();
+        private volatile long size;
+
+        private Segment(final Path path, final boolean create) throws IOException {
+            this.path = path;
+            this.channel = create
+                ? FileChannel.open(path, CREATE_OPTIONS.toArray(StandardOpenOption[]::new))
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                load();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            sizeInBytes.addAndGet(size);
+        }
+
+        /**
+         * Index all complete records and truncate the rest
+         */
+        private void load() throws IOException {
+            long fileSize = channel.size();
+            long position = 0;
+            ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+            while (position + LENGTH_BYTES <= fileSize) {
+                length.clear();
+                readFully(channel, length, position);
+                int recordLength = length.getInt();
+                if (recordLength <= 0 || position + LENGTH_BYTES + recordLength > fileSize) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(recordLength);
+                readFully(channel, record, position + LENGTH_BYTES);
+                try (StreamInput in = new BytesArray(record.array()).streamInput()) {
+                    offsets.put(decodeKey(in), position);
+                }
+                position += LENGTH_BYTES + recordLength;
+            }
+            if (position < fileSize) {
+                channel.truncate(position);
+            }
+            size = position;
+        }
+
+        private Map<String, Object> read(final long offset) throws IOException {
+            ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+            readFully(channel, length, offset);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt());
+            readFully(channel, record, offset + LENGTH_BYTES);
+            try (StreamInput in = new BytesArray(record.array()).streamInput()) {
+                decodeKey(in);
+                return in.readMap();
+            }
+        }
+
+        private synchronized boolean append(final Key key, final ByteBuffer record) throws IOException {
+            if (offsets.containsKey(key)) {
+                return true;
+            }
+            if (channel.isOpen() == false) {
+                return false;
+            }
+            long offset = size;
+            int recordSize = record.remaining();
+            long position = offset;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            size = offset + recordSize;
+            sizeInBytes.addAndGet(recordSize);
+            offsets.put(key, offset);
+            return true;
+        }
+
+        private synchronized void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close ip2geo cache segment {}", path, e);
+            }
+        }
+
+        private synchronized void delete() {
+            close();
+            sizeInBytes.addAndGet(-size);
+            size = 0;
+            deleteFile(path);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+
+/**
+ * Index of the cached ip ranges of each GeoIP data index
+ *
+ * Cached ranges of an index are kept in a navigable map so that every ip address in an already resolved range is
+ * found with a floor search over the ranges. The index only holds keys; the geo data of a range stays in the cache.
+ */
+final class GeoDataRangeIndex {
+    private final Map<String, NavigableMap<IpRange, GeoDataCacheKey>> ranges = new ConcurrentHashMap<>();
+
+    /**
+     * Add the key of a cached ip range
+     *
+     * @param rangeKey the key of the ip range
+     */
+    void put(final GeoDataCacheKey rangeKey) {
+        ranges.computeIfAbsent(rangeKey.getIndexName(), name -> new ConcurrentSkipListMap<>()).put(rangeKey.getRange(), rangeKey);
+    }
+
+    /**
+     * Find the key of the cached ip range which contains a given ip address
+     *
+     * @param ipKey the key of the ip address
+     * @return the key of the ip range or null if no cached ip range contains the ip address
+     */
+    GeoDataCacheKey find(final GeoDataCacheKey ipKey) {
+        NavigableMap<IpRange, GeoDataCacheKey> indexRanges = ranges.get(ipKey.getIndexName());
+        if (indexRanges == null) {
+            return null;
+        }
+        IpRange address = ipKey.toAddress();
+        Map.Entry<IpRange, GeoDataCacheKey> entry = indexRanges.floorEntry(address);
+        if (entry == null || entry.getKey().contains(address) == false) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Remove the key of an ip range which is not cached anymore
+     *
+     * @param rangeKey the key of the ip range
+     */
+    void remove(final GeoDataCacheKey rangeKey) {
+        NavigableMap<IpRange, GeoDataCacheKey> indexRanges = ranges.get(rangeKey.getIndexName());
+        if (indexRanges != null) {
+            indexRanges.remove(rangeKey.getRange(), rangeKey);
+        }
+    }
+
+    /**
+     * Remove the keys of all ip ranges of an index
+     *
+     * @param indexName the index name
+     */
+    void removeIndex(final String indexName) {
+        ranges.remove(indexName);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded tracker of the most frequently accessed keys
+ *
+ * Access counts are kept for up to twice the capacity of keys. Once the limit is reached, keys with the lowest counts
+ * are dropped down to the capacity and the remaining counts are halved so that keys which are not accessed anymore
+ * age out. Counts are approximate under concurrent access.
+ *
+ * @param <K> the key type
+ */
+public class HotKeyTracker<K> {
+    private final Map<K, LongAdder> counts = new ConcurrentHashMap<>();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    private volatile int capacity;
+
+    public HotKeyTracker(final int capacity) {
+        setCapacity(capacity);
+    }
+
+    /**
+     * @param capacity max number of keys to return as hot keys, or 0 to disable tracking
+     */
+    public void setCapacity(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be 0 or greater");
+        }
+        this.capacity = capacity;
+        if (capacity == 0) {
+            counts.clear();
+        }
+    }
+
+    /**
+     * Record an access of a given key
+     *
+     * @param key the key
+     */
+    public void record(final K key) {
+        int currentCapacity = capacity;
+        if (currentCapacity == 0) {
+            return;
+        }
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= currentCapacity * 2) {
+                prune(currentCapacity);
+            }
+            count = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private void prune(final int currentCapacity) {
+        if (pruneLock.tryLock() == false) {
+            return;
+        }
+        try {
+            if (counts.size() < currentCapacity * 2) {
+                return;
+            }
+            List<Map.Entry<K, Long>> sorted = snapshot();
+            for (int i = 0; i < sorted.size(); i++) {
+                K key = sorted.get(i).getKey();
+                if (i >= currentCapacity) {
+                    counts.remove(key);
+                    continue;
+                }
+                LongAdder count = counts.get(key);
+                if (count != null) {
+                    count.add(-count.sum() / 2);
+                }
+            }
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    /**
+     * Return the most frequently accessed keys
+     *
+     * @return up to capacity keys in descending order of their access count
+     */
+    public List<K> getHotKeys() {
+        int currentCapacity = capacity;
+        if (currentCapacity == 0) {
+            return Collections.emptyList();
+        }
+        List<Map.Entry<K, Long>> sorted = snapshot();
+        List<K> hotKeys = new ArrayList<>(Math.min(currentCapacity, sorted.size()));
+        for (int i = 0; i < sorted.size() && i < currentCapacity; i++) {
+            hotKeys.add(sorted.get(i).getKey());
+        }
+        return hotKeys;
+    }
+
+    private List<Map.Entry<K, Long>> snapshot() {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> entries.add(Map.entry(key, count.sum())));
+        entries.sort(Map.Entry.<K, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    /**
+     * Stop tracking keys matching a given predicate
+     *
+     * @param predicate the predicate
+     */
+    public void removeIf(final Predicate<K> predicate) {
+        counts.keySet().removeIf(predicate);
+    }
+
+    /**
+     * @return the number of tracked keys
+     */
+    public int size() {
+        return counts.size();
+    }
+}
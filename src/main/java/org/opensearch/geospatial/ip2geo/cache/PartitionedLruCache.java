@@ -0,0 +1,571 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongBiFunction;
+
+import org.opensearch.common.cache.CacheLoader;
+import org.opensearch.common.cache.RemovalListener;
+import org.opensearch.common.cache.RemovalNotification;
+import org.opensearch.common.cache.RemovalReason;
+
+/**
+ * Weight bounded LRU cache whose entries are partitioned by a name derived from their keys
+ *
+ * Each partition keeps its own LRU order and may be given a quota, a share of the max weight reserved for it.
+ * A partition grows beyond its quota as long as the cache has room, borrowing the quota other partitions do not use.
+ * Once the cache is full, entries are evicted from the partition which exceeds its quota the most, so a partition
+ * within its quota is not evicted by a busy partition which is not.
+ *
+ * An admission filter can be set to make the cache resistant to scans. Each lookup with {@link #get(Object)} is then
+ * recorded once in a {@link FrequencySketch}, and a new entry which needs room is only admitted if its key was looked up
+ * more often than the key of the entry it would evict, even if its partition is within its quota. Otherwise the loaded
+ * value is returned without being cached, so a burst of keys which are looked up once does not flush entries which
+ * are reused.
+ *
+ * Entries of a partition are spread over segments by key hash, each with its own lock and LRU order, so concurrent
+ * lookups of the same partition only contend when their keys fall in the same segment. Eviction is serialized.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class PartitionedLruCache<K, V> {
+    private static final int SEGMENTS = 16;
+    private final Function<K, String> partitioner;
+    private final ToLongBiFunction<K, V> weigher;
+    private final RemovalListener<K, V> removalListener;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<String, Double> quotas = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final AtomicLong ticker = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private volatile long maxWeight;
+    private volatile FrequencySketch<K> admissionFilter;
+
+    public PartitionedLruCache(
+        final long maxWeight,
+        final Function<K, String> partitioner,
+        final ToLongBiFunction<K, V> weigher,
+        final RemovalListener<K, V> removalListener
+    ) {
+        this.partitioner = partitioner;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+        setMaxWeight(maxWeight);
+    }
+
+    /**
+     * Update the max weight of the cache, evicting entries in place if the cache does not fit anymore
+     *
+     * @param maxWeight the max weight
+     */
+    public void setMaxWeight(final long maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("max weight must be 0 or greater");
+        }
+        this.maxWeight = maxWeight;
+        evictIfNeeded();
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @param admissionFilter the sketch to estimate access frequency of keys for admission, or null to admit all entries
+     */
+    public void setAdmissionFilter(final FrequencySketch<K> admissionFilter) {
+        this.admissionFilter = admissionFilter;
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated number of recent accesses of a key, or 0 if no admission filter is set
+     */
+    public int frequency(final K key) {
+        FrequencySketch<K> filter = admissionFilter;
+        return filter == null ? 0 : filter.frequency(key);
+    }
+
+    /**
+     * Reserve a share of the max weight for a partition
+     *
+     * @param partitionName the partition name
+     * @param quota the share of the max weight between 0 and 1, where 0 removes the quota
+     */
+    public void setQuota(final String partitionName, final double quota) {
+        if (quota < 0 || quota > 1) {
+            throw new IllegalArgumentException("quota must be between 0 and 1");
+        }
+        if (quota == 0) {
+            quotas.remove(partitionName);
+        } else {
+            quotas.put(partitionName, quota);
+        }
+    }
+
+    /**
+     * @param partitionName the partition name
+     * @return the weight reserved for a partition
+     */
+    public long getQuota(final String partitionName) {
+        return (long) (quotas.getOrDefault(partitionName, 0.0) * maxWeight);
+    }
+
+    /**
+     * @param partitionName the partition name
+     * @return the weight of entries in a partition
+     */
+    public long getWeight(final String partitionName) {
+        Partition partition = partitions.get(partitionName);
+        return partition == null ? 0 : partition.weight.get();
+    }
+
+    /**
+     * @param partitionName the partition name
+     * @return the number of loaded values of a partition which were not cached by the admission filter
+     */
+    public long getRejections(final String partitionName) {
+        Partition partition = partitions.get(partitionName);
+        return partition == null ? 0 : partition.rejections.sum();
+    }
+
+    /**
+     * Charge a partition with weight which is not held by its entries, for example, of data its entries share
+     *
+     * The weight counts against the max weight and the quota of the partition, and entries are evicted for it
+     * by the next put. A negative weight releases weight charged before.
+     *
+     * @param partitionName the partition name
+     * @param delta the weight to add, or to subtract if negative
+     */
+    public void addWeight(final String partitionName, final long delta) {
+        Partition partition = delta > 0
+            ? partitions.computeIfAbsent(partitionName, name -> new Partition())
+            : partitions.get(partitionName);
+        if (partition == null) {
+            return;
+        }
+        partition.weight.addAndGet(delta);
+        weight.addAndGet(delta);
+    }
+
+    /**
+     * @return the weight of all entries
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int count() {
+        int count = 0;
+        for (Partition partition : partitions.values()) {
+            count += partition.count();
+        }
+        return count;
+    }
+
+    /**
+     * Return the value of a given key, marking it as the most recently used entry of its partition
+     *
+     * @param key the key
+     * @return the value or null if the key is not in the cache
+     */
+    public V get(final K key) {
+        FrequencySketch<K> filter = admissionFilter;
+        if (filter != null) {
+            filter.increment(key);
+        }
+        Partition partition = partitions.get(partitioner.apply(key));
+        return partition == null ? null : partition.get(key);
+    }
+
+    /**
+     * Return the value of a given key, loading it if the key is not in the cache
+     *
+     * The loader runs without holding the partition lock, so concurrent lookups of the same key may load it
+     * more than once. The first loaded value is kept and returned to all of them.
+     *
+     * @param key the key
+     * @param loader the loader
+     * @return the value
+     * @throws ExecutionException if the loader fails
+     */
+    public V computeIfAbsent(final K key, final CacheLoader<K, V> loader) throws ExecutionException {
+        String partitionName = partitioner.apply(key);
+        Partition partition = partitions.computeIfAbsent(partitionName, name -> new Partition());
+        V value = partition.get(key);
+        if (value != null) {
+            return value;
+        }
+        V loaded;
+        try {
+            loaded = loader.load(key);
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+        if (loaded == null) {
+            throw new ExecutionException(new NullPointerException("loader returned a null value"));
+        }
+        long entryWeight = weigher.applyAsLong(key, loaded);
+        if (admit(key, entryWeight) == false) {
+            partition.rejections.increment();
+            return loaded;
+        }
+        V existing = partition.putIfAbsent(key, loaded, entryWeight);
+        if (existing != null) {
+            return existing;
+        }
+        evictIfNeeded();
+        return loaded;
+    }
+
+    /**
+     * Decide whether a new entry is cached, comparing the access frequency of its key with that of the entry it would evict
+     *
+     * Accesses are only recorded by {@link #get(Object)}, so loading a key does not count as another access of it.
+     */
+    private boolean admit(final K key, final long entryWeight) {
+        FrequencySketch<K> filter = admissionFilter;
+        if (filter == null || weight.get() + entryWeight <= maxWeight) {
+            return true;
+        }
+        Partition victim = selectVictim(Collections.emptySet());
+        K victimKey = victim == null ? null : victim.peekEldest();
+        return victimKey == null || filter.frequency(key) > filter.frequency(victimKey);
+    }
+
+    /**
+     * Evict entries until the cache fits its max weight
+     *
+     * Eviction is guarded by a single lock and the weight is checked again under it, so writers which overflow
+     * the cache at the same time evict the overflow once instead of each evicting for it. A partition whose weight
+     * is not held by entries is skipped once it has no entries left.
+     */
+    private void evictIfNeeded() {
+        if (weight.get() <= maxWeight) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            Set<Partition> exhausted = new HashSet<>();
+            while (weight.get() > maxWeight) {
+                Partition victim = selectVictim(exhausted);
+                if (victim == null) {
+                    return;
+                }
+                Map.Entry<K, Entry<V>> evicted = victim.evictEldest();
+                if (evicted == null) {
+                    exhausted.add(victim);
+                } else {
+                    removalListener.onRemoval(new RemovalNotification<>(evicted.getKey(), evicted.getValue().value, RemovalReason.EVICTED));
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a partition and all of its entries, for example, when the source of its entries is deleted
+     *
+     * Removed entries are notified as invalidated. An entry loaded concurrently into the removed partition
+     * is returned to its caller without being cached.
+     *
+     * @param partitionName the partition name
+     */
+    public void removePartition(final String partitionName) {
+        Partition partition = partitions.remove(partitionName);
+        if (partition == null) {
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> removedEntries = partition.removeAll();
+        // Release weight charged to the partition which is not held by its entries
+        weight.addAndGet(-partition.weight.getAndSet(0));
+        for (Map.Entry<K, Entry<V>> removed : removedEntries) {
+            removalListener.onRemoval(new RemovalNotification<>(removed.getKey(), removed.getValue().value, RemovalReason.INVALIDATED));
+        }
+    }
+
+    /**
+     * Remove all entries whose keys match a given predicate, for example, entries loaded from a source which is retired
+     *
+     * Removed entries are notified as invalidated.
+     *
+     * @param predicate the predicate of keys to remove
+     */
+    public void invalidateAll(final Predicate<K> predicate) {
+        for (Partition partition : partitions.values()) {
+            for (Map.Entry<K, Entry<V>> removed : partition.removeIf(predicate)) {
+                removalListener.onRemoval(new RemovalNotification<>(removed.getKey(), removed.getValue().value, RemovalReason.INVALIDATED));
+            }
+        }
+    }
+
+    /**
+     * Select the partition which exceeds its quota the most, other than given partitions
+     */
+    private Partition selectVictim(final Set<Partition> skipped) {
+        Partition victim = null;
+        long victimOverQuota = Long.MIN_VALUE;
+        for (Map.Entry<String, Partition> entry : partitions.entrySet()) {
+            long partitionWeight = entry.getValue().weight.get();
+            if (partitionWeight == 0 || skipped.contains(entry.getValue())) {
+                continue;
+            }
+            long overQuota = partitionWeight - getQuota(entry.getKey());
+            if (overQuota > victimOverQuota) {
+                victim = entry.getValue();
+                victimOverQuota = overQuota;
+            }
+        }
+        return victim;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        /**
+         * Tick of the last access, guarded by the lock of the segment of the entry
+         */
+        private long accessTick;
+
+        private Entry(final V value, final long weight, final long accessTick) {
+            this.value = value;
+            this.weight = weight;
+            this.accessTick = accessTick;
+        }
+    }
+
+    /**
+     * Entries of a partition, spread over segments by key hash
+     *
+     * Each segment keeps its own LRU order under its own lock, so lookups of the same partition only contend when
+     * their keys fall in the same segment. Every access is stamped with a tick of the cache, and the least recently
+     * used entry of the partition is the eldest entry of the segment whose eldest entry has the lowest tick.
+     */
+    private final class Partition {
+        private final List<Segment> segments = new ArrayList<>(SEGMENTS);
+        private final AtomicLong weight = new AtomicLong();
+        private final LongAdder rejections = new LongAdder();
+
+        private Partition() {
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments.add(new Segment());
+            }
+        }
+
+        private Segment segmentFor(final K key) {
+            int hash = key.hashCode();
+            return segments.get((hash ^ (hash >>> 16)) & (SEGMENTS - 1));
+        }
+
+        private V get(final K key) {
+            return segmentFor(key).get(key);
+        }
+
+        private V putIfAbsent(final K key, final V value, final long entryWeight) {
+            return segmentFor(key).putIfAbsent(key, value, entryWeight, this);
+        }
+
+        private K peekEldest() {
+            Segment eldest = eldestSegment();
+            return eldest == null ? null : eldest.peekEldest();
+        }
+
+        private Map.Entry<K, Entry<V>> evictEldest() {
+            while (true) {
+                Segment eldest = eldestSegment();
+                if (eldest == null) {
+                    return null;
+                }
+                Map.Entry<K, Entry<V>> evicted = eldest.evictEldest(this);
+                if (evicted != null) {
+                    return evicted;
+                }
+                // The segment was emptied concurrently
+            }
+        }
+
+        private Segment eldestSegment() {
+            Segment eldest = null;
+            long eldestTick = Long.MAX_VALUE;
+            for (Segment segment : segments) {
+                long tick = segment.eldestTick();
+                if (tick < eldestTick) {
+                    eldest = segment;
+                    eldestTick = tick;
+                }
+            }
+            return eldest;
+        }
+
+        private List<Map.Entry<K, Entry<V>>> removeAll() {
+            List<Map.Entry<K, Entry<V>>> removed = new ArrayList<>();
+            for (Segment segment : segments) {
+                segment.removeAll(this, removed);
+            }
+            return removed;
+        }
+
+        private List<Map.Entry<K, Entry<V>>> removeIf(final Predicate<K> predicate) {
+            List<Map.Entry<K, Entry<V>>> removed = new ArrayList<>();
+            for (Segment segment : segments) {
+                segment.removeIf(predicate, this, removed);
+            }
+            return removed;
+        }
+
+        private int count() {
+            int count = 0;
+            for (Segment segment : segments) {
+                count += segment.count();
+            }
+            return count;
+        }
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * Whether the partition of the segment is removed, guarded by the lock
+         */
+        private boolean removed;
+
+        private V get(final K key) {
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                entry.accessTick = ticker.incrementAndGet();
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private V putIfAbsent(final K key, final V value, final long entryWeight, final Partition partition) {
+            lock.lock();
+            try {
+                if (removed) {
+                    return value;
+                }
+                Entry<V> existing = entries.putIfAbsent(key, new Entry<>(value, entryWeight, ticker.incrementAndGet()));
+                if (existing != null) {
+                    return existing.value;
+                }
+                partition.weight.addAndGet(entryWeight);
+                weight.addAndGet(entryWeight);
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the tick of the last access of the eldest entry, or {@link Long#MAX_VALUE} if the segment is empty
+         */
+        private long eldestTick() {
+            lock.lock();
+            try {
+                Iterator<Entry<V>> iterator = entries.values().iterator();
+                return iterator.hasNext() ? iterator.next().accessTick : Long.MAX_VALUE;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private K peekEldest() {
+            lock.lock();
+            try {
+                Iterator<K> iterator = entries.keySet().iterator();
+                return iterator.hasNext() ? iterator.next() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Map.Entry<K, Entry<V>> evictEldest(final Partition partition) {
+            lock.lock();
+            try {
+                Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+                if (iterator.hasNext() == false) {
+                    return null;
+                }
+                Map.Entry<K, Entry<V>> eldest = iterator.next();
+                iterator.remove();
+                partition.weight.addAndGet(-eldest.getValue().weight);
+                weight.addAndGet(-eldest.getValue().weight);
+                return Map.entry(eldest.getKey(), eldest.getValue());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeAll(final Partition partition, final List<Map.Entry<K, Entry<V>>> removedEntries) {
+            lock.lock();
+            try {
+                removed = true;
+                for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                    partition.weight.addAndGet(-entry.getValue().weight);
+                    weight.addAndGet(-entry.getValue().weight);
+                    removedEntries.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeIf(final Predicate<K> predicate, final Partition partition, final List<Map.Entry<K, Entry<V>>> removedEntries) {
+            lock.lock();
+            try {
+                Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<K, Entry<V>> entry = iterator.next();
+                    if (predicate.test(entry.getKey())) {
+                        iterator.remove();
+                        partition.weight.addAndGet(-entry.getValue().weight);
+                        weight.addAndGet(-entry.getValue().weight);
+                        removedEntries.add(Map.entry(entry.getKey(), entry.getValue()));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int count() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
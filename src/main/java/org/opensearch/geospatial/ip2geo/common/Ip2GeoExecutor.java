@@ -8,8 +8,11 @@ package org.opensearch.geospatial.ip2geo.common;
 import java.util.concurrent.ExecutorService;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.threadpool.ExecutorBuilder;
 import org.opensearch.threadpool.FixedExecutorBuilder;
+import org.opensearch.threadpool.Scheduler;
 import org.opensearch.threadpool.ThreadPool;
 
 /**
@@ -17,6 +20,15 @@ import org.opensearch.threadpool.ThreadPool;
  */
 public class Ip2GeoExecutor {
     private static final String THREAD_POOL_NAME = "_plugin_geospatial_ip2geo_datasource_update";
+    private static final String IMPORT_THREAD_POOL_NAME = "_plugin_geospatial_ip2geo_datasource_import";
+    private static final String LOOKUP_LOAD_THREAD_POOL_NAME = "_plugin_geospatial_ip2geo_lookup_load";
+    private static final String LOOKUP_THREAD_POOL_NAME = "_plugin_geospatial_ip2geo_lookup";
+    private static final int LOOKUP_QUEUE_SIZE = 1000;
+    /**
+     * Threads of a datasource import other than serializer workers, which decompress and parse the database
+     */
+    private static final int IMPORT_STAGE_THREADS = 2;
+    private static final int IMPORT_QUEUE_SIZE = 100;
     private final ThreadPool threadPool;
 
     public Ip2GeoExecutor(final ThreadPool threadPool) {
@@ -34,6 +46,56 @@ public class Ip2GeoExecutor {
         return new FixedExecutorBuilder(settings, THREAD_POOL_NAME, 1, 1000, THREAD_POOL_NAME, false);
     }
 
+    /**
+     * We use a bounded pool for the stages of a datasource import, decompressing, parsing and serializing GeoIP data,
+     * which run while the datasource update task indexes the serialized data. A single datasource is updated at a time,
+     * so the pool runs the serializer workers of one import next to its decompress and parse stages. Serializer workers
+     * beyond the pool size wait in the queue until a worker exits.
+     *
+     * @param settings the settings
+     * @return the executor builder
+     */
+    public static ExecutorBuilder importExecutorBuilder(final Settings settings) {
+        return new FixedExecutorBuilder(
+            settings,
+            IMPORT_THREAD_POOL_NAME,
+            OpenSearchExecutors.allocatedProcessors(settings) + IMPORT_STAGE_THREADS,
+            IMPORT_QUEUE_SIZE,
+            IMPORT_THREAD_POOL_NAME,
+            false
+        );
+    }
+
+    /**
+     * We use fixed thread count of 1 for loading GeoIP data into lookup structures so that only one GeoIP data index
+     * is held in memory for loading at a time.
+     *
+     * @param settings the settings
+     * @return the executor builder
+     */
+    public static ExecutorBuilder lookupLoadExecutorBuilder(final Settings settings) {
+        return new FixedExecutorBuilder(settings, LOOKUP_LOAD_THREAD_POOL_NAME, 1, 100, LOOKUP_LOAD_THREAD_POOL_NAME, false);
+    }
+
+    /**
+     * We use a bounded pool sized to the allocated processors for completing GeoIP data lookups so that
+     * ingest threads never block on a cache miss or a datasource metadata refresh. A full queue rejects the lookup
+     * which fails the document instead of piling up requests.
+     *
+     * @param settings the settings
+     * @return the executor builder
+     */
+    public static ExecutorBuilder lookupExecutorBuilder(final Settings settings) {
+        return new FixedExecutorBuilder(
+            settings,
+            LOOKUP_THREAD_POOL_NAME,
+            OpenSearchExecutors.allocatedProcessors(settings),
+            LOOKUP_QUEUE_SIZE,
+            LOOKUP_THREAD_POOL_NAME,
+            false
+        );
+    }
+
     /**
      * Return an executor service for datasource update task
      *
@@ -42,4 +104,42 @@ public class Ip2GeoExecutor {
     public ExecutorService forDatasourceUpdate() {
         return threadPool.executor(THREAD_POOL_NAME);
     }
+
+    /**
+     * Return an executor service for the stages of a datasource import
+     *
+     * @return the executor service
+     */
+    public ExecutorService forDatasourceImport() {
+        return threadPool.executor(IMPORT_THREAD_POOL_NAME);
+    }
+
+    /**
+     * Return an executor service for loading GeoIP data into lookup structures
+     *
+     * @return the executor service
+     */
+    public ExecutorService forLookupLoad() {
+        return threadPool.executor(LOOKUP_LOAD_THREAD_POOL_NAME);
+    }
+
+    /**
+     * Return an executor service for completing GeoIP data lookups
+     *
+     * @return the executor service
+     */
+    public ExecutorService forLookup() {
+        return threadPool.executor(LOOKUP_THREAD_POOL_NAME);
+    }
+
+    /**
+     * Run a given task on the lookup executor after a given delay
+     *
+     * @param command the task
+     * @param delay the delay
+     * @return a handle to cancel the task
+     */
+    public Scheduler.ScheduledCancellable scheduleLookup(final Runnable command, final TimeValue delay) {
+        return threadPool.schedule(command, delay, LOOKUP_THREAD_POOL_NAME);
+    }
 }
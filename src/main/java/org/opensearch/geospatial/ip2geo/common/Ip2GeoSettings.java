@@ -9,11 +9,14 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.common.unit.ByteSizeValue;
 
 /**
  * Settings for Ip2Geo datasource operations
@@ -53,6 +56,39 @@ public class Ip2GeoSettings {
         Setting.Property.Dynamic
     );
 
+    /**
+     * Maximum number of bulk requests in flight while indexing GeoIP data
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_BULK_REQUESTS = Setting.intSetting(
+        "plugins.geospatial.ip2geo.datasource.max_concurrent_bulk_requests",
+        4,
+        1,
+        64,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Number of workers serializing GeoIP data records into documents while updating a datasource
+     */
+    public static final Setting<Integer> UPDATE_WORKERS = new Setting<>(
+        "plugins.geospatial.ip2geo.datasource.update_workers",
+        settings -> Integer.toString(Math.max(1, OpenSearchExecutors.allocatedProcessors(settings) / 2)),
+        value -> Setting.parseInt(value, 1, 64, "plugins.geospatial.ip2geo.datasource.update_workers"),
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Whether a GeoIP data index keeps geo data in _source in addition to the compact binary record used for lookups
+     */
+    public static final Setting<Boolean> STORE_SOURCE = Setting.boolSetting(
+        "plugins.geospatial.ip2geo.datasource.store_source",
+        true,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
     /**
      * Timeout value for Ip2Geo processor
      */
@@ -65,13 +101,117 @@ public class Ip2GeoSettings {
     );
 
     /**
-     * Max size for geo data cache
+     * Max number of entries for geo data cache
+     *
+     * Deprecated in favor of {@link #CACHE_MEMORY_SIZE}. When set explicitly, it still caps the number of entries,
+     * where 0 disables the cache, and {@link #CACHE_MEMORY_SIZE} is ignored.
      */
+    @Deprecated
     public static final Setting<Long> CACHE_SIZE = Setting.longSetting(
         "plugins.geospatial.ip2geo.processor.cache_size",
         1000,
         0,
         Setting.Property.NodeScope,
+        Setting.Property.Dynamic,
+        Setting.Property.Deprecated
+    );
+
+    /**
+     * Max heap size for geo data cache, either as a percentage of the heap or as an absolute byte size
+     */
+    public static final Setting<ByteSizeValue> CACHE_MEMORY_SIZE = Setting.memorySizeSetting(
+        "plugins.geospatial.ip2geo.processor.cache_memory_size",
+        "1%",
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Whether geo data retrieved by a search request is cached by the ip range it belongs to instead of by the ip address
+     */
+    public static final Setting<Boolean> CACHE_BY_RANGE = Setting.boolSetting(
+        "plugins.geospatial.ip2geo.processor.cache_by_range",
+        false,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Whether geo data is only cached if its ip address was looked up more often than the cache entry it would evict,
+     * which keeps a scan over many ip addresses from flushing geo data which is reused
+     */
+    public static final Setting<Boolean> CACHE_ADMISSION = Setting.boolSetting(
+        "plugins.geospatial.ip2geo.processor.cache_admission",
+        false,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Max size of the disk tier of the geo data cache in the node data directory, or 0 to disable it
+     *
+     * Geo data evicted from the heap is kept on disk and read back on a later miss. Once the disk tier is full,
+     * no more geo data is written to it.
+     */
+    public static final Setting<ByteSizeValue> CACHE_DISK_SIZE = Setting.byteSizeSetting(
+        "plugins.geospatial.ip2geo.processor.cache_disk_size",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Max number of the most frequently looked up ip addresses tracked per datasource, which are looked up again
+     * in the background to warm up the cache when the datasource switches to a new GeoIP data index
+     */
+    public static final Setting<Integer> CACHE_WARMUP_SIZE = Setting.intSetting(
+        "plugins.geospatial.ip2geo.processor.cache_warmup_size",
+        1000,
+        0,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Share of the geo data cache size reserved for a datasource, between 0 and 1, keyed by the datasource name
+     *
+     * Entries of a datasource within its quota are not evicted by other datasources. Quota a datasource does not use
+     * is lent to the others.
+     */
+    public static final Setting.AffixSetting<Double> CACHE_QUOTA = Setting.prefixKeySetting(
+        "plugins.geospatial.ip2geo.processor.cache_quota.",
+        key -> Setting.doubleSetting(key, 0.0, 0.0, 1.0, Setting.Property.NodeScope, Setting.Property.Dynamic)
+    );
+
+    /**
+     * Whether geo data is read directly from the local shard of a GeoIP data index instead of through a search request
+     */
+    public static final Setting<Boolean> LOCAL_SHARD_LOOKUP = Setting.boolSetting(
+        "plugins.geospatial.ip2geo.processor.local_shard_lookup",
+        true,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * A list of datasources whose GeoIP data is loaded into an in-memory lookup table on each node
+     */
+    public static final Setting<List<String>> IN_MEMORY_LOOKUP_DATASOURCES = Setting.listSetting(
+        "plugins.geospatial.ip2geo.lookup.in_memory_datasources",
+        Collections.emptyList(),
+        Function.identity(),
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * A list of datasources whose GeoIP data is served from a memory-mapped lookup file under the node data path
+     */
+    public static final Setting<List<String>> FILE_LOOKUP_DATASOURCES = Setting.listSetting(
+        "plugins.geospatial.ip2geo.lookup.file_datasources",
+        Collections.emptyList(),
+        Function.identity(),
+        Setting.Property.NodeScope,
         Setting.Property.Dynamic
     );
 
@@ -115,7 +255,26 @@ public class Ip2GeoSettings {
      * @return a list of all settings for Ip2Geo feature
      */
     public static final List<Setting<?>> settings() {
-        return List.of(DATASOURCE_ENDPOINT, DATASOURCE_UPDATE_INTERVAL, BATCH_SIZE, TIMEOUT, CACHE_SIZE, DATASOURCE_ENDPOINT_DENYLIST);
+        return List.of(
+            DATASOURCE_ENDPOINT,
+            DATASOURCE_UPDATE_INTERVAL,
+            BATCH_SIZE,
+            MAX_CONCURRENT_BULK_REQUESTS,
+            UPDATE_WORKERS,
+            STORE_SOURCE,
+            TIMEOUT,
+            CACHE_SIZE,
+            CACHE_MEMORY_SIZE,
+            CACHE_BY_RANGE,
+            CACHE_ADMISSION,
+            CACHE_DISK_SIZE,
+            CACHE_WARMUP_SIZE,
+            CACHE_QUOTA,
+            LOCAL_SHARD_LOOKUP,
+            IN_MEMORY_LOOKUP_DATASOURCES,
+            FILE_LOOKUP_DATASOURCES,
+            DATASOURCE_ENDPOINT_DENYLIST
+        );
     }
 
     /**
@@ -0,0 +1,76 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.time.Instant;
+
+import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of datasource metadata needed to serve lookups
+ *
+ * The expiration date is precomputed as epoch milliseconds so that checking it neither allocates nor reads the datasource.
+ */
+@Getter
+@AllArgsConstructor
+public final class DatasourceMetadata {
+    /**
+     * Metadata of a datasource which does not exist
+     */
+    public static final DatasourceMetadata EMPTY_METADATA = new DatasourceMetadata(null, null, Long.MIN_VALUE);
+    /**
+     * @return the current GeoIP data index name of the datasource or null if there is none
+     */
+    private final String indexName;
+    /**
+     * @return the state of the datasource
+     */
+    private final DatasourceState state;
+    /**
+     * @return the expiration date of the datasource in epoch milliseconds
+     */
+    private final long expirationEpochMillis;
+
+    public DatasourceMetadata(final Datasource datasource) {
+        this(datasource.currentIndexName(), datasource.getState(), toEpochMillis(datasource.expirationDay()));
+    }
+
+    private static long toEpochMillis(final Instant instant) {
+        if (instant.isAfter(Instant.ofEpochMilli(Long.MAX_VALUE))) {
+            return Long.MAX_VALUE;
+        }
+        if (instant.isBefore(Instant.ofEpochMilli(Long.MIN_VALUE))) {
+            return Long.MIN_VALUE;
+        }
+        return instant.toEpochMilli();
+    }
+
+    /**
+     * @param nowInMillis the current time in epoch milliseconds
+     * @return true if the datasource is expired at a given time
+     */
+    public boolean isExpired(final long nowInMillis) {
+        return expirationEpochMillis < nowInMillis;
+    }
+
+    /**
+     * @return true if the datasource is expired now
+     */
+    public boolean isExpired() {
+        return isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @return true if the datasource is available, has a current index, and is not expired
+     */
+    public boolean canServeLookup() {
+        return DatasourceState.AVAILABLE.equals(state) && indexName != null && isExpired() == false;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.OpenSearchException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.geospatial.annotation.VisibleForTesting;
+import org.opensearch.transport.client.Requests;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pipelined bulk ingester of GeoIP data
+ *
+ * Bulk requests are sent asynchronously, so the calling thread keeps parsing records while up to a given number of
+ * bulk requests are in flight. Items rejected because the write thread pool of a node is full are retried after an
+ * exponential backoff. A rejection also halves the number of bulk requests allowed in flight, which grows back by one
+ * with each bulk request that succeeds without rejections.
+ *
+ * All waiting, including the backoff, happens on the calling thread; response handlers never block.
+ */
+@Log4j2
+final class GeoIpDataBulkIngester {
+    @VisibleForTesting
+    static final int MAX_RETRIES = 8;
+    private static final long INITIAL_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final String indexName;
+    private final BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkAction;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final TimeValue timeout;
+    /**
+     * Index requests of completed bulk requests, which are reused to build new ones
+     */
+    private final Queue<IndexRequest> requestPool = new ConcurrentLinkedQueue<>();
+    private BulkRequest bulkRequest = new BulkRequest();
+    // Guarded by this
+    private final Deque<Retry> retries = new ArrayDeque<>();
+    private int inFlight;
+    private int inFlightLimit;
+    private Exception failure;
+
+    /**
+     * @param indexName the GeoIP data index name
+     * @param bulkAction the action to send a bulk request
+     * @param batchSize the number of records in a bulk request
+     * @param maxInFlight the maximum number of bulk requests in flight
+     * @param timeout the maximum time to wait for a bulk request to complete
+     */
+    GeoIpDataBulkIngester(
+        final String indexName,
+        final BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkAction,
+        final int batchSize,
+        final int maxInFlight,
+        final TimeValue timeout
+    ) {
+        this.indexName = indexName;
+        this.bulkAction = bulkAction;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.inFlightLimit = maxInFlight;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return an index request for the GeoIP data index, reused from a completed bulk request if there is one
+     */
+    IndexRequest newIndexRequest() {
+        IndexRequest indexRequest = requestPool.poll();
+        return indexRequest == null ? Requests.indexRequest(indexName) : indexRequest;
+    }
+
+    /**
+     * Add an index request, sending a bulk request once a batch is full
+     *
+     * This blocks while the maximum number of bulk requests is in flight.
+     *
+     * @param indexRequest the index request
+     */
+    void add(final IndexRequest indexRequest) {
+        bulkRequest.add(indexRequest);
+        if (bulkRequest.numberOfActions() >= batchSize) {
+            BulkRequest request = bulkRequest;
+            bulkRequest = new BulkRequest();
+            send(request);
+        }
+    }
+
+    /**
+     * Send the remaining index requests and wait until all bulk requests complete
+     */
+    void flush() {
+        if (bulkRequest.numberOfActions() > 0) {
+            BulkRequest request = bulkRequest;
+            bulkRequest = new BulkRequest();
+            send(request);
+        }
+        awaitCapacity(true);
+    }
+
+    @VisibleForTesting
+    synchronized int getInFlightLimit() {
+        return inFlightLimit;
+    }
+
+    private void send(final BulkRequest request) {
+        awaitCapacity(false);
+        execute(request, 0);
+    }
+
+    /**
+     * Wait until a bulk request can be sent, or until all bulk requests complete if draining,
+     * sending rejected items again on the way
+     *
+     * A slot for a bulk request is taken before returning if not draining.
+     */
+    private void awaitCapacity(final boolean drain) {
+        while (true) {
+            Retry retry;
+            long deadline = System.nanoTime() + timeout.nanos();
+            synchronized (this) {
+                while (true) {
+                    throwIfFailed();
+                    retry = retries.pollFirst();
+                    if (retry != null) {
+                        inFlight++;
+                        break;
+                    }
+                    if (drain ? inFlight == 0 : inFlight < inFlightLimit) {
+                        if (drain == false) {
+                            inFlight++;
+                        }
+                        return;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new OpenSearchException("timed out after {} while ingesting GeoIP data in {}", timeout, indexName);
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new OpenSearchException("interrupted while ingesting GeoIP data in {}", e, indexName);
+                    }
+                }
+            }
+            backoff(retry.attempt);
+            execute(retry.request, retry.attempt);
+        }
+    }
+
+    private void backoff(final int attempt) {
+        long millis = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempt - 1));
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (this) {
+                inFlight--;
+            }
+            throw new OpenSearchException("interrupted while ingesting GeoIP data in {}", e, indexName);
+        }
+    }
+
+    private void execute(final BulkRequest request, final int attempt) {
+        try {
+            bulkAction.accept(
+                request,
+                ActionListener.wrap(response -> onResponse(request, response, attempt), e -> onFailure(request, e, attempt))
+            );
+        } catch (Exception e) {
+            onFailure(request, e, attempt);
+        }
+    }
+
+    private void onResponse(final BulkRequest request, final BulkResponse response, final int attempt) {
+        if (response.hasFailures() == false) {
+            recycle(request);
+            complete(null, null, attempt);
+            return;
+        }
+
+        BulkRequest rejected = new BulkRequest();
+        String failureMessage = null;
+        BulkItemResponse[] items = response.getItems();
+        for (int i = 0; i < items.length; i++) {
+            DocWriteRequest<?> itemRequest = request.requests().get(i);
+            if (items[i].isFailed() == false) {
+                recycle(itemRequest);
+            } else if (items[i].status() == RestStatus.TOO_MANY_REQUESTS) {
+                rejected.add(itemRequest);
+            } else {
+                failureMessage = response.buildFailureMessage();
+            }
+        }
+        if (failureMessage != null) {
+            complete(
+                new OpenSearchException(
+                    "error occurred while ingesting GeoIP data in {} with an error {}",
+                    indexName,
+                    failureMessage
+                ),
+                null,
+                attempt
+            );
+        } else {
+            complete(null, rejected, attempt);
+        }
+    }
+
+    private void onFailure(final BulkRequest request, final Exception e, final int attempt) {
+        if (ExceptionsHelper.unwrapCause(e) instanceof OpenSearchRejectedExecutionException) {
+            complete(null, request, attempt);
+        } else {
+            complete(e, null, attempt);
+        }
+    }
+
+    private synchronized void complete(final Exception e, final BulkRequest rejected, final int attempt) {
+        inFlight--;
+        if (e != null) {
+            fail(e);
+        } else if (rejected != null) {
+            if (attempt >= MAX_RETRIES) {
+                fail(
+                    new OpenSearchException(
+                        "{} GeoIP data records in {} were rejected after {} retries",
+                        rejected.numberOfActions(),
+                        indexName,
+                        attempt
+                    )
+                );
+            } else {
+                inFlightLimit = Math.max(1, inFlightLimit / 2);
+                log.debug("GeoIP data ingestion into {} was rejected, reducing bulk requests in flight to {}", indexName, inFlightLimit);
+                retries.addLast(new Retry(rejected, attempt + 1));
+            }
+        } else if (inFlightLimit < maxInFlight) {
+            inFlightLimit++;
+        }
+        notifyAll();
+    }
+
+    private void fail(final Exception e) {
+        if (failure == null) {
+            failure = e;
+        } else if (failure != e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new OpenSearchException(failure);
+    }
+
+    private void recycle(final BulkRequest request) {
+        for (DocWriteRequest<?> itemRequest : request.requests()) {
+            recycle(itemRequest);
+        }
+    }
+
+    private void recycle(final DocWriteRequest<?> itemRequest) {
+        if (itemRequest instanceof IndexRequest) {
+            requestPool.add((IndexRequest) itemRequest);
+        }
+    }
+
+    private static final class Retry {
+        private final BulkRequest request;
+        private final int attempt;
+
+        private Retry(final BulkRequest request, final int attempt) {
+            this.request = request;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -8,69 +8,101 @@ package org.opensearch.geospatial.ip2geo.dao;
 import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import org.apache.lucene.util.BytesRef;
 import org.opensearch.OpenSearchException;
 import org.opensearch.SpecialPermission;
-import org.opensearch.action.DocWriteRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
-import org.opensearch.action.bulk.BulkRequest;
-import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.MultiSearchRequestBuilder;
+import org.opensearch.action.search.MultiSearchResponse;
+import org.opensearch.action.search.SearchRequestBuilder;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.action.support.clustermanager.AcknowledgedResponse;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.Metadata;
 import org.opensearch.cluster.routing.Preference;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.CheckedSupplier;
 import org.opensearch.common.SuppressForbidden;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.document.DocumentField;
 import org.opensearch.common.settings.ClusterSettings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.common.Strings;
+import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.geospatial.annotation.VisibleForTesting;
 import org.opensearch.geospatial.constants.IndexSetting;
 import org.opensearch.geospatial.ip2geo.common.DatasourceManifest;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoExecutor;
 import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
 import org.opensearch.geospatial.ip2geo.common.URLDenyListChecker;
-import org.opensearch.geospatial.shared.Constants;
+import org.opensearch.index.mapper.SourceFieldMapper;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.SortOrder;
 import org.opensearch.secure_sm.AccessController;
 import org.opensearch.transport.client.Client;
-import org.opensearch.transport.client.Requests;
 
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 
 /**
  * Data access object  for GeoIp data
+ *
+ * Geo data of ip addresses is read from the local shard of a GeoIP data index when there is one,
+ * see {@link GeoIpDataShardReader}, and searched otherwise.
+ *
+ * Each document keeps its CSV row as a compact binary stored field, see {@link GeoIpRecordCodec}, whose attribute names
+ * are kept once in the index mapping. Lookups decode the record instead of parsing _source, which is optional.
+ * Indices created before the record was added have no record and are read from _source.
  */
 @Log4j2
 public class GeoIpDataDao {
-    private static final String IP_RANGE_FIELD_NAME = "_cidr";
-    private static final String DATA_FIELD_NAME = "_data";
+    static final String IP_RANGE_FIELD_NAME = "_cidr";
+    static final String DATA_FIELD_NAME = "_data";
+    static final String RECORD_FIELD_NAME = "_record";
+    static final String RECORD_FIELDS_META_KEY = "record_fields";
+    private static final String META_FIELD_NAME = "_meta";
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
     private static final Map<String, Object> INDEX_SETTING_TO_CREATE = Map.of(
         IndexSetting.NUMBER_OF_SHARDS,
         1,
@@ -91,18 +123,31 @@ public class GeoIpDataDao {
     private final ClusterSettings clusterSettings;
     private final Client pluginClient;
     private final URLDenyListChecker urlDenyListChecker;
+    private final GeoIpDataShardReader shardReader;
+    private final Ip2GeoExecutor ip2GeoExecutor;
+    private final GeoIpDatabaseDownloader downloader = new GeoIpDatabaseDownloader();
+    private final Map<String, List<String>> recordFields = new ConcurrentHashMap<>();
 
-    public GeoIpDataDao(final ClusterService clusterService, final Client pluginClient, final URLDenyListChecker urlDenyListChecker) {
+    public GeoIpDataDao(
+        final ClusterService clusterService,
+        final Client pluginClient,
+        final URLDenyListChecker urlDenyListChecker,
+        final GeoIpDataShardReader shardReader,
+        final Ip2GeoExecutor ip2GeoExecutor
+    ) {
         this.clusterService = clusterService;
         this.clusterSettings = clusterService.getClusterSettings();
         this.pluginClient = pluginClient;
         this.urlDenyListChecker = urlDenyListChecker;
+        this.shardReader = shardReader;
+        this.ip2GeoExecutor = ip2GeoExecutor;
     }
 
     /**
      * Create an index for GeoIP data
      *
      * Index setting start with single shard, zero replica, no refresh interval, and hidden.
+     * _source keeps geo data only if {@link Ip2GeoSettings#STORE_SOURCE} is enabled, and is disabled otherwise.
      * Once the GeoIP data is indexed, do refresh and force merge.
      * Then, change the index setting to expand replica to all nodes, and read only allow delete.
      * See {@link #freezeIndex}
@@ -135,10 +180,17 @@ public class GeoIpDataDao {
      *
      * {
      *     "dynamic": false,
+     *     "_source": {
+     *         "excludes": ["_record"]
+     *     },
      *     "properties": {
      *         "_cidr": {
      *             "type": "ip_range",
      *             "doc_values": false
+     *         },
+     *         "_record": {
+     *             "type": "binary",
+     *             "store": true
      *         }
      *     }
      * }
@@ -147,11 +199,23 @@ public class GeoIpDataDao {
      */
     private String getIndexMapping() {
         try {
+            Map<String, Object> mapping;
             try (InputStream is = DatasourceDao.class.getResourceAsStream("/mappings/ip2geo_geoip.json")) {
                 try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                    return reader.lines().map(String::trim).collect(Collectors.joining());
+                    mapping = XContentHelper.convertToMap(
+                        JsonXContent.jsonXContent,
+                        reader.lines().map(String::trim).collect(Collectors.joining()),
+                        true
+                    );
                 }
             }
+            mapping.put(
+                SourceFieldMapper.NAME,
+                clusterSettings.get(Ip2GeoSettings.STORE_SOURCE)
+                    ? Map.of("excludes", List.of(RECORD_FIELD_NAME))
+                    : Map.of("enabled", false)
+            );
+            return XContentFactory.jsonBuilder().map(mapping).toString();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -160,6 +224,9 @@ public class GeoIpDataDao {
     /**
      * Create CSVParser of a GeoIP data
      *
+     * The database archive is downloaded into a local temporary file first, see {@link GeoIpDatabaseDownloader},
+     * which is deleted when the parser is closed.
+     *
      * @param manifest Datasource manifest
      * @return CSVParser for GeoIP data
      */
@@ -169,7 +236,7 @@ public class GeoIpDataDao {
         return AccessController.doPrivileged(() -> {
             try {
                 URL zipUrl = urlDenyListChecker.toUrlIfNotInDenyList(manifest.getUrl());
-                return internalGetDatabaseReader(manifest, zipUrl.openConnection());
+                return internalGetDatabaseReader(manifest, zipUrl::openConnection);
             } catch (IOException e) {
                 throw new OpenSearchException("failed to read geoip data from {}", manifest.getUrl(), e);
             }
@@ -178,26 +245,82 @@ public class GeoIpDataDao {
 
     @VisibleForTesting
     @SuppressForbidden(reason = "Need to connect to http endpoint to read GeoIP database file")
-    protected CSVParser internalGetDatabaseReader(final DatasourceManifest manifest, final URLConnection connection) throws IOException {
-        connection.addRequestProperty(Constants.USER_AGENT_KEY, Constants.USER_AGENT_VALUE);
-        ZipInputStream zipIn = new ZipInputStream(connection.getInputStream());
-        ZipEntry zipEntry = zipIn.getNextEntry();
-        while (zipEntry != null) {
-            if (zipEntry.getName().equalsIgnoreCase(manifest.getDbName()) == false) {
-                zipEntry = zipIn.getNextEntry();
-                continue;
+    protected CSVParser internalGetDatabaseReader(
+        final DatasourceManifest manifest,
+        final CheckedSupplier<URLConnection, IOException> connect
+    ) throws IOException {
+        Path archive = downloader.download(manifest.getUrl(), connect, manifest.getSha256Hash());
+        ZipFile zipFile = null;
+        boolean opened = false;
+        try {
+            zipFile = new ZipFile(archive.toString());
+            ZipEntry zipEntry = findZipEntry(zipFile, manifest.getDbName());
+            if (zipEntry == null) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        Locale.ROOT,
+                        "database file [%s] does not exist in the zip file [%s]",
+                        manifest.getDbName(),
+                        manifest.getUrl()
+                    )
+                );
+            }
+            InputStream database = new DatabaseInputStream(zipFile, zipEntry, archive);
+            CSVParser parser = new CSVParser(
+                new BufferedReader(new InputStreamReader(ReadAheadInputStream.start(database, ip2GeoExecutor.forDatasourceImport()))),
+                CSVFormat.RFC4180
+            );
+            opened = true;
+            return parser;
+        } finally {
+            if (opened == false) {
+                if (zipFile != null) {
+                    zipFile.close();
+                }
+                Files.deleteIfExists(archive);
+            }
+        }
+    }
+
+    private ZipEntry findZipEntry(final ZipFile zipFile, final String dbName) {
+        Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            ZipEntry zipEntry = zipEntries.nextElement();
+            if (zipEntry.getName().equalsIgnoreCase(dbName)) {
+                return zipEntry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Input stream of a database file in a downloaded archive, which closes the archive and deletes it when closed
+     */
+    private static final class DatabaseInputStream extends FilterInputStream {
+        private final ZipFile zipFile;
+        private final Path archive;
+
+        private DatabaseInputStream(final ZipFile zipFile, final ZipEntry zipEntry, final Path archive) throws IOException {
+            super(zipFile.getInputStream(zipEntry));
+            this.zipFile = zipFile;
+            this.archive = archive;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                zipFile.close();
+            } finally {
+                Files.deleteIfExists(archive);
             }
-            return new CSVParser(new BufferedReader(new InputStreamReader(zipIn)), CSVFormat.RFC4180);
         }
-        throw new IllegalArgumentException(
-            String.format(Locale.ROOT, "database file [%s] does not exist in the zip file [%s]", manifest.getDbName(), manifest.getUrl())
-        );
     }
 
     /**
      * Create a document to ingest in datasource database index
      *
-     * It assumes the first field as ip_range. The rest is added under data field.
+     * It assumes the first field as ip_range. The rest is added under data field
+     * and, in the order of fields, into the binary record field.
      *
      * Document example
      * {
@@ -206,7 +329,8 @@ public class GeoIpDataDao {
      *       "country": "USA",
      *       "city": "Seattle",
      *       "location":"13.23,42.12"
-     *   }
+     *   },
+     *   "_record":"CjEuMC4wLjEvMjUDAQNVU0EBB1NlYXR0bGUBCzEzLjIzLDQyLjEy"
      * }
      *
      * @param fields a list of field name
@@ -215,20 +339,27 @@ public class GeoIpDataDao {
      * @throws IOException the exception
      */
     public XContentBuilder createDocument(final String[] fields, final String[] values) throws IOException {
+        return createDocument(fields, values, true);
+    }
+
+    private XContentBuilder createDocument(final String[] fields, final String[] values, final boolean withData) throws IOException {
         if (fields.length != values.length) {
             throw new OpenSearchException("header[{}] and record[{}] length does not match", fields, values);
         }
         XContentBuilder builder = XContentFactory.jsonBuilder();
         builder.startObject();
         builder.field(IP_RANGE_FIELD_NAME, values[0]);
-        builder.startObject(DATA_FIELD_NAME);
-        for (int i = 1; i < fields.length; i++) {
-            if (!Strings.hasText(values[i])) {
-                continue;
+        if (withData) {
+            builder.startObject(DATA_FIELD_NAME);
+            for (int i = 1; i < fields.length; i++) {
+                if (!Strings.hasText(values[i])) {
+                    continue;
+                }
+                builder.field(fields[i], values[i]);
             }
-            builder.field(fields[i], values[i]);
+            builder.endObject();
         }
-        builder.endObject();
+        builder.field(RECORD_FIELD_NAME, GeoIpRecordCodec.encode(values));
         builder.endObject();
         builder.close();
         return builder;
@@ -242,68 +373,467 @@ public class GeoIpDataDao {
      * @return geoIP data
      */
     public Map<String, Object> getGeoIpData(final String indexName, final String ip) {
-        SearchResponse response = pluginClient.prepareSearch(indexName)
-            .setSize(1)
-            .setQuery(QueryBuilders.termQuery(IP_RANGE_FIELD_NAME, ip))
-            .setPreference(Preference.LOCAL.type())
-            .setRequestCache(true)
-            .get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        Tuple<String, Map<String, Object>> localData = shardReader.read(indexName, ip);
+        if (localData != null) {
+            return localData.v2();
+        }
+        SearchResponse response = prepareGeoIpDataSearch(indexName, ip).get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        return toGeoIpData(indexName, response);
+    }
+
+    /**
+     * Query a given index using a given ip address to get geoip data without blocking the calling thread
+     *
+     * Geo data is read from the local shard on the lookup executor, or searched with an asynchronous search request.
+     *
+     * @param indexName index
+     * @param ip ip address
+     * @param actionListener the action listener
+     */
+    public void getGeoIpData(final String indexName, final String ip, final ActionListener<Map<String, Object>> actionListener) {
+        readLocalOrSearch(
+            indexName,
+            () -> Optional.ofNullable(shardReader.read(indexName, ip)).map(Tuple::v2).orElse(null),
+            listener -> pluginClient.search(
+                prepareGeoIpDataSearch(indexName, ip).request(),
+                ActionListener.wrap(response -> listener.onResponse(toGeoIpData(indexName, response)), listener::onFailure)
+            ),
+            actionListener
+        );
+    }
+
+    /**
+     * Query a given index using a given list of ip addresses to get geoip data in a single multi search request
+     *
+     * @param indexName index
+     * @param ips distinct ip addresses
+     * @return geoIP data of each ip address. An ip address without geoIP data is mapped to an empty map.
+     */
+    public Map<String, Map<String, Object>> getBatchGeoIpData(final String indexName, final Collection<String> ips) {
+        Map<String, Tuple<String, Map<String, Object>>> localData = readLocalGeoIpRangeData(indexName, ips);
+        if (localData != null) {
+            return toGeoIpData(localData);
+        }
+        MultiSearchResponse response = prepareBatchGeoIpDataSearch(indexName, ips).get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        return toBatchGeoIpData(indexName, ips, response);
+    }
 
+    /**
+     * Query a given index using a given list of ip addresses to get geoip data in a single multi search request
+     * without blocking the calling thread
+     *
+     * Geo data is read from the local shard on the lookup executor, or searched with an asynchronous multi search request.
+     *
+     * @param indexName index
+     * @param ips distinct ip addresses
+     * @param actionListener the action listener
+     */
+    public void getBatchGeoIpData(
+        final String indexName,
+        final Collection<String> ips,
+        final ActionListener<Map<String, Map<String, Object>>> actionListener
+    ) {
+        readLocalOrSearch(
+            indexName,
+            () -> Optional.ofNullable(readLocalGeoIpRangeData(indexName, ips)).map(this::toGeoIpData).orElse(null),
+            listener -> pluginClient.multiSearch(
+                prepareBatchGeoIpDataSearch(indexName, ips).request(),
+                ActionListener.wrap(response -> listener.onResponse(toBatchGeoIpData(indexName, ips, response)), listener::onFailure)
+            ),
+            actionListener
+        );
+    }
+
+    /**
+     * Query a given index using a given ip address to get geoip data with the ip range it belongs to
+     *
+     * @param indexName index
+     * @param ip ip address
+     * @return a tuple of the matched ip range in CIDR notation and its geoIP data. The ip range is null if nothing matches.
+     */
+    public Tuple<String, Map<String, Object>> getGeoIpRangeData(final String indexName, final String ip) {
+        Tuple<String, Map<String, Object>> localData = shardReader.read(indexName, ip);
+        if (localData != null) {
+            return localData;
+        }
+        SearchResponse response = prepareGeoIpDataSearch(indexName, ip).get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        return toGeoIpRangeData(indexName, response);
+    }
+
+    /**
+     * Query a given index using a given ip address to get geoip data with the ip range it belongs to
+     * without blocking the calling thread
+     *
+     * Geo data is read from the local shard on the lookup executor, or searched with an asynchronous search request.
+     *
+     * @param indexName index
+     * @param ip ip address
+     * @param actionListener the action listener
+     */
+    public void getGeoIpRangeData(
+        final String indexName,
+        final String ip,
+        final ActionListener<Tuple<String, Map<String, Object>>> actionListener
+    ) {
+        readLocalOrSearch(
+            indexName,
+            () -> shardReader.read(indexName, ip),
+            listener -> pluginClient.search(
+                prepareGeoIpDataSearch(indexName, ip).request(),
+                ActionListener.wrap(response -> listener.onResponse(toGeoIpRangeData(indexName, response)), listener::onFailure)
+            ),
+            actionListener
+        );
+    }
+
+    /**
+     * Query a given index using a given list of ip addresses to get geoip data with the ip range each ip address
+     * belongs to in a single multi search request
+     *
+     * @param indexName index
+     * @param ips distinct ip addresses
+     * @return a tuple of the matched ip range and its geoIP data for each ip address
+     */
+    public Map<String, Tuple<String, Map<String, Object>>> getBatchGeoIpRangeData(final String indexName, final Collection<String> ips) {
+        Map<String, Tuple<String, Map<String, Object>>> localData = readLocalGeoIpRangeData(indexName, ips);
+        if (localData != null) {
+            return localData;
+        }
+        MultiSearchResponse response = prepareBatchGeoIpDataSearch(indexName, ips).get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        return toBatchGeoIpRangeData(indexName, ips, response);
+    }
+
+    /**
+     * Query a given index using a given list of ip addresses to get geoip data with the ip range each ip address
+     * belongs to in a single multi search request without blocking the calling thread
+     *
+     * Geo data is read from the local shard on the lookup executor, or searched with an asynchronous multi search request.
+     *
+     * @param indexName index
+     * @param ips distinct ip addresses
+     * @param actionListener the action listener
+     */
+    public void getBatchGeoIpRangeData(
+        final String indexName,
+        final Collection<String> ips,
+        final ActionListener<Map<String, Tuple<String, Map<String, Object>>>> actionListener
+    ) {
+        readLocalOrSearch(
+            indexName,
+            () -> readLocalGeoIpRangeData(indexName, ips),
+            listener -> pluginClient.multiSearch(
+                prepareBatchGeoIpDataSearch(indexName, ips).request(),
+                ActionListener.wrap(response -> listener.onResponse(toBatchGeoIpRangeData(indexName, ips, response)), listener::onFailure)
+            ),
+            actionListener
+        );
+    }
+
+    /**
+     * Read geo data from the local shard of a given index on the lookup executor, or search it if it cannot be read locally
+     *
+     * Reading the local shard runs a Lucene search, so it is forked off the calling thread, which can be an ingest thread.
+     * A search request is sent from the calling thread without forking when the index has no local shard to read from.
+     *
+     * @param indexName the index name
+     * @param localRead reads geo data from the local shard, returning null if it cannot be read locally
+     * @param search searches geo data with an asynchronous request
+     * @param actionListener the action listener
+     */
+    private <T> void readLocalOrSearch(
+        final String indexName,
+        final CheckedSupplier<T, Exception> localRead,
+        final Consumer<ActionListener<T>> search,
+        final ActionListener<T> actionListener
+    ) {
+        if (shardReader.canRead(indexName) == false) {
+            search.accept(actionListener);
+            return;
+        }
+        try {
+            ip2GeoExecutor.forLookup().execute(() -> {
+                T localData;
+                try {
+                    localData = localRead.get();
+                } catch (Exception e) {
+                    actionListener.onFailure(e);
+                    return;
+                }
+                if (localData != null) {
+                    actionListener.onResponse(localData);
+                } else {
+                    search.accept(actionListener);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            actionListener.onFailure(e);
+        }
+    }
+
+    /**
+     * Read geo data of given ip addresses from the local shard of a given index
+     *
+     * @return geo data with the ip range of each ip address, or null if any of them cannot be read from a local shard
+     */
+    private Map<String, Tuple<String, Map<String, Object>>> readLocalGeoIpRangeData(final String indexName, final Collection<String> ips) {
+        if (shardReader.canRead(indexName) == false) {
+            return null;
+        }
+        Map<String, Tuple<String, Map<String, Object>>> result = new HashMap<>(ips.size() * 2);
+        for (String ip : ips) {
+            Tuple<String, Map<String, Object>> data = shardReader.read(indexName, ip);
+            if (data == null) {
+                return null;
+            }
+            result.put(ip, data);
+        }
+        return result;
+    }
+
+    private Map<String, Map<String, Object>> toGeoIpData(final Map<String, Tuple<String, Map<String, Object>>> rangeData) {
+        Map<String, Map<String, Object>> result = new HashMap<>(rangeData.size() * 2);
+        rangeData.forEach((ip, data) -> result.put(ip, data.v2()));
+        return result;
+    }
+
+    private SearchRequestBuilder prepareGeoIpDataSearch(final String indexName, final String ip) {
+        return fetchRecord(
+            indexName,
+            pluginClient.prepareSearch(indexName)
+                .setSize(1)
+                .setQuery(QueryBuilders.termQuery(IP_RANGE_FIELD_NAME, ip))
+                .setPreference(Preference.LOCAL.type())
+                .setRequestCache(true)
+        );
+    }
+
+    /**
+     * Fetch the binary record instead of _source if a given index has records
+     */
+    private SearchRequestBuilder fetchRecord(final String indexName, final SearchRequestBuilder requestBuilder) {
+        if (getRecordFields(indexName) != null) {
+            requestBuilder.setFetchSource(false).addStoredField(RECORD_FIELD_NAME);
+        }
+        return requestBuilder;
+    }
+
+    /**
+     * Return the fields of binary records in a given index from its mapping
+     *
+     * @param indexName the index name
+     * @return the fields in the order of values in a record, or null if the index has no record
+     */
+    private List<String> getRecordFields(final String indexName) {
+        List<String> fields = recordFields.get(indexName);
+        if (fields != null) {
+            return fields;
+        }
+        Metadata metadata = clusterService.state().metadata();
+        IndexMetadata indexMetadata = metadata.index(indexName);
+        if (indexMetadata == null || indexMetadata.mapping() == null) {
+            return null;
+        }
+        fields = toRecordFields((Map<String, Object>) indexMetadata.mapping().getSourceAsMap().get(META_FIELD_NAME));
+        if (fields != null) {
+            // Index names are unique. Drop the fields of deleted indices whenever the fields of a new index are added.
+            recordFields.keySet().removeIf(name -> metadata.hasIndex(name) == false);
+            recordFields.put(indexName, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * @param meta the _meta of a GeoIP data index mapping
+     * @return the fields in the order of values in a record, or null if there is none
+     */
+    static List<String> toRecordFields(final Map<String, Object> meta) {
+        if (meta == null || meta.get(RECORD_FIELDS_META_KEY) instanceof List == false) {
+            return null;
+        }
+        return List.copyOf((List<String>) meta.get(RECORD_FIELDS_META_KEY));
+    }
+
+    private MultiSearchRequestBuilder prepareBatchGeoIpDataSearch(final String indexName, final Collection<String> ips) {
+        MultiSearchRequestBuilder requestBuilder = pluginClient.prepareMultiSearch();
+        for (String ip : ips) {
+            requestBuilder.add(prepareGeoIpDataSearch(indexName, ip));
+        }
+        return requestBuilder;
+    }
+
+    private Map<String, Object> toGeoIpData(final String indexName, final SearchResponse response) {
+        return toGeoIpRangeData(indexName, response).v2();
+    }
+
+    private Tuple<String, Map<String, Object>> toGeoIpRangeData(final String indexName, final SearchResponse response) {
         if (response.getHits().getHits().length == 0) {
-            return Collections.emptyMap();
-        } else {
-            return (Map<String, Object>) XContentHelper.convertToMap(response.getHits().getAt(0).getSourceRef(), false, XContentType.JSON)
-                .v2()
-                .get(DATA_FIELD_NAME);
+            return new Tuple<>(null, Collections.emptyMap());
         }
+        return toGeoIpRangeData(indexName, response.getHits().getAt(0));
     }
 
     /**
-     * Puts GeoIP data from CSVRecord iterator into a given index in bulk
+     * Decode the binary record of a given hit, or parse its _source if it has no record
+     */
+    private Tuple<String, Map<String, Object>> toGeoIpRangeData(final String indexName, final SearchHit hit) {
+        DocumentField record = hit.field(RECORD_FIELD_NAME);
+        if (record != null) {
+            List<String> fields = getRecordFields(indexName);
+            if (fields == null) {
+                throw new OpenSearchException("fields of records in [{}] are not found in its mapping", indexName);
+            }
+            return GeoIpRecordCodec.decode(toBytesRef(record.getValue()), fields);
+        }
+        Map<String, Object> source = XContentHelper.convertToMap(hit.getSourceRef(), false, XContentType.JSON).v2();
+        Map<String, Object> geoData = (Map<String, Object>) source.get(DATA_FIELD_NAME);
+        return new Tuple<>((String) source.get(IP_RANGE_FIELD_NAME), geoData == null ? Collections.emptyMap() : geoData);
+    }
+
+    private static BytesRef toBytesRef(final Object value) {
+        if (value instanceof BytesReference) {
+            return ((BytesReference) value).toBytesRef();
+        }
+        if (value instanceof BytesRef) {
+            return (BytesRef) value;
+        }
+        if (value instanceof byte[]) {
+            return new BytesRef((byte[]) value);
+        }
+        return new BytesRef(Base64.getDecoder().decode(value.toString()));
+    }
+
+    private Map<String, Map<String, Object>> toBatchGeoIpData(
+        final String indexName,
+        final Collection<String> ips,
+        final MultiSearchResponse response
+    ) {
+        return toBatchResult(indexName, ips, response, searchResponse -> toGeoIpData(indexName, searchResponse));
+    }
+
+    private Map<String, Tuple<String, Map<String, Object>>> toBatchGeoIpRangeData(
+        final String indexName,
+        final Collection<String> ips,
+        final MultiSearchResponse response
+    ) {
+        return toBatchResult(indexName, ips, response, searchResponse -> toGeoIpRangeData(indexName, searchResponse));
+    }
+
+    private <T> Map<String, T> toBatchResult(
+        final String indexName,
+        final Collection<String> ips,
+        final MultiSearchResponse response,
+        final Function<SearchResponse, T> parser
+    ) {
+        Map<String, T> result = new HashMap<>(ips.size() * 2);
+        Iterator<String> ipIterator = ips.iterator();
+        for (MultiSearchResponse.Item item : response.getResponses()) {
+            String ip = ipIterator.next();
+            if (item.isFailure()) {
+                throw new OpenSearchException("failed to get geoip data of [{}] from [{}]", item.getFailure(), ip, indexName);
+            }
+            result.put(ip, parser.apply(item.getResponse()));
+        }
+        return result;
+    }
+
+    /**
+     * Read all GeoIP data in a given index
+     *
+     * The data is read from the local shard copy in index order using scroll.
+     *
+     * @param indexName index
+     * @param consumer consumer of an ip range in CIDR notation and its geoIP data
+     */
+    public void getAllGeoIpData(final String indexName, final BiConsumer<String, Map<String, Object>> consumer) {
+        TimeValue timeout = clusterSettings.get(Ip2GeoSettings.TIMEOUT);
+        SearchResponse response = fetchRecord(
+            indexName,
+            pluginClient.prepareSearch(indexName)
+                .setSize(clusterSettings.get(Ip2GeoSettings.BATCH_SIZE))
+                .setQuery(QueryBuilders.matchAllQuery())
+                .addSort(FieldSortBuilder.DOC_FIELD_NAME, SortOrder.ASC)
+                .setScroll(SCROLL_KEEP_ALIVE)
+                .setPreference(Preference.LOCAL.type())
+        ).get(timeout);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length != 0) {
+                for (SearchHit hit : response.getHits().getHits()) {
+                    Tuple<String, Map<String, Object>> rangeData = toGeoIpRangeData(indexName, hit);
+                    consumer.accept(rangeData.v1(), rangeData.v2());
+                }
+                response = pluginClient.prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).get(timeout);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            if (scrollId != null) {
+                pluginClient.prepareClearScroll().addScrollId(scrollId).get(timeout);
+            }
+        }
+    }
+
+    /**
+     * Puts GeoIP data from a CSV reader into a given index in bulk
+     *
+     * Records are parsed and serialized by {@link Ip2GeoSettings#UPDATE_WORKERS} workers while previous bulk requests
+     * are being indexed, with up to {@link Ip2GeoSettings#MAX_CONCURRENT_BULK_REQUESTS} bulk requests in flight.
      *
      * @param indexName Index name to puts the GeoIP data
      * @param fields Field name matching with data in CSVRecord in order
-     * @param iterator GeoIP data to insert
+     * @param reader GeoIP data to insert, which is closed once the data is put
      * @param renewLock Runnable to renew lock
      */
     public void putGeoIpData(
         @NonNull final String indexName,
         @NonNull final String[] fields,
-        @NonNull final Iterator<CSVRecord> iterator,
+        @NonNull final CSVParser reader,
         @NonNull final Runnable renewLock
     ) throws IOException {
         TimeValue timeout = clusterSettings.get(Ip2GeoSettings.TIMEOUT);
         Integer batchSize = clusterSettings.get(Ip2GeoSettings.BATCH_SIZE);
-        final BulkRequest bulkRequest = new BulkRequest();
-        Queue<DocWriteRequest> requests = new LinkedList<>();
-        for (int i = 0; i < batchSize; i++) {
-            requests.add(Requests.indexRequest(indexName));
-        }
-        while (iterator.hasNext()) {
-            CSVRecord record = iterator.next();
-            XContentBuilder document = createDocument(fields, record.values());
-            IndexRequest indexRequest = (IndexRequest) requests.poll();
+        boolean storeSource = clusterSettings.get(Ip2GeoSettings.STORE_SOURCE);
+        putRecordFields(indexName, fields);
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(
+            indexName,
+            pluginClient::bulk,
+            batchSize,
+            clusterSettings.get(Ip2GeoSettings.MAX_CONCURRENT_BULK_REQUESTS),
+            timeout
+        );
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(
+            ip2GeoExecutor.forDatasourceImport(),
+            clusterSettings.get(Ip2GeoSettings.UPDATE_WORKERS)
+        );
+        pipeline.run(reader.iterator(), reader, values -> {
+            XContentBuilder document = createDocument(fields, values, storeSource);
+            IndexRequest indexRequest = ingester.newIndexRequest();
             indexRequest.source(document);
-            indexRequest.id(record.get(0));
-            bulkRequest.add(indexRequest);
-            if (iterator.hasNext() == false || bulkRequest.requests().size() == batchSize) {
-                BulkResponse response = pluginClient.bulk(bulkRequest).actionGet(timeout);
-                if (response.hasFailures()) {
-                    throw new OpenSearchException(
-                        "error occurred while ingesting GeoIP data in {} with an error {}",
-                        indexName,
-                        response.buildFailureMessage()
-                    );
-                }
-                requests.addAll(bulkRequest.requests());
-                bulkRequest.requests().clear();
-            }
+            indexRequest.id(values[0]);
+            return indexRequest;
+        }, indexRequest -> {
+            ingester.add(indexRequest);
             renewLock.run();
-        }
+        });
+        ingester.flush();
         freezeIndex(indexName);
 
     }
 
+    /**
+     * Keep the fields of binary records in the mapping of a given index so that any node can decode them
+     */
+    private void putRecordFields(final String indexName, final String[] fields) {
+        List<String> fieldsToStore = Arrays.asList(fields).subList(1, fields.length);
+        AcknowledgedResponse response = pluginClient.admin()
+            .indices()
+            .preparePutMapping(indexName)
+            .setSource(Map.of(META_FIELD_NAME, Map.of(RECORD_FIELDS_META_KEY, fieldsToStore)))
+            .get(clusterSettings.get(Ip2GeoSettings.TIMEOUT));
+        if (response.isAcknowledged() == false) {
+            throw new OpenSearchException("failed to put fields of records in [{}]", indexName);
+        }
+    }
+
     public void deleteIp2GeoDataIndex(final String index) {
         deleteIp2GeoDataIndex(Arrays.asList(index));
     }
@@ -0,0 +1,270 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.apache.commons.csv.CSVRecord;
+import org.opensearch.OpenSearchException;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.CheckedFunction;
+import org.opensearch.geospatial.annotation.VisibleForTesting;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Staged import of GeoIP data records into index requests
+ *
+ * Stages are connected by bounded queues of batches of records. A parser task reads CSV records, a given number of
+ * serializer workers build index requests from the records, and the calling thread hands the index requests to the
+ * indexer. Records are read from a {@link ReadAheadInputStream} which decompresses the database in a stage of its own.
+ * The parser and the workers run on the import executor of the plugin, which is shared by all imports of a node.
+ *
+ * Index requests are not handed to the indexer in the order of the records.
+ */
+@Log4j2
+final class GeoIpDataImportPipeline {
+    @VisibleForTesting
+    static final int RECORDS_PER_BATCH = 1000;
+    private static final int QUEUE_CAPACITY_PER_WORKER = 2;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final long TERMINATION_TIMEOUT_SECONDS = 1;
+    private static final List<?> END = new ArrayList<>(0);
+
+    private final Executor executor;
+    private final int workers;
+
+    /**
+     * @param executor the executor running the parser and the serializer workers
+     * @param workers the number of serializer workers
+     */
+    GeoIpDataImportPipeline(final Executor executor, final int workers) {
+        this.executor = executor;
+        this.workers = workers;
+    }
+
+    /**
+     * Import all records of a given iterator
+     *
+     * The source of the records is closed once the import ends, before waiting for the stages to exit,
+     * so that a parser blocked reading the source exits as well.
+     *
+     * @param iterator the records
+     * @param source the source of the records
+     * @param serializer the function building an index request from the values of a record, called by serializer workers
+     * @param indexer the consumer of index requests, called by the calling thread
+     * @throws IOException if the serializer fails with it
+     */
+    void run(
+        final Iterator<CSVRecord> iterator,
+        final Closeable source,
+        final CheckedFunction<String[], IndexRequest, IOException> serializer,
+        final Consumer<IndexRequest> indexer
+    ) throws IOException {
+        BlockingQueue<List<String[]>> records = new ArrayBlockingQueue<>(workers * QUEUE_CAPACITY_PER_WORKER);
+        BlockingQueue<List<IndexRequest>> requests = new ArrayBlockingQueue<>(workers * QUEUE_CAPACITY_PER_WORKER);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger activeWorkers = new AtomicInteger(workers);
+        Stages stages = new Stages(workers + 1, failure);
+        try {
+            stages.start(() -> parse(iterator, records));
+            for (int i = 0; i < workers; i++) {
+                stages.start(() -> serialize(records, requests, serializer, activeWorkers));
+            }
+
+            while (true) {
+                List<IndexRequest> batch = poll(requests, failure);
+                if (batch == END) {
+                    break;
+                }
+                for (IndexRequest indexRequest : batch) {
+                    indexer.accept(indexRequest);
+                }
+            }
+        } finally {
+            closeSource(source);
+            stages.stop();
+        }
+    }
+
+    private void closeSource(final Closeable source) {
+        try {
+            source.close();
+        } catch (IOException e) {
+            log.warn("Failed to close GeoIP data source", e);
+        }
+    }
+
+    private void parse(final Iterator<CSVRecord> iterator, final BlockingQueue<List<String[]>> records) throws Exception {
+        List<String[]> batch = new ArrayList<>(RECORDS_PER_BATCH);
+        while (iterator.hasNext()) {
+            batch.add(iterator.next().values());
+            if (batch.size() == RECORDS_PER_BATCH) {
+                records.put(batch);
+                batch = new ArrayList<>(RECORDS_PER_BATCH);
+            }
+        }
+        if (batch.isEmpty() == false) {
+            records.put(batch);
+        }
+        for (int i = 0; i < workers; i++) {
+            records.put((List<String[]>) END);
+        }
+    }
+
+    private void serialize(
+        final BlockingQueue<List<String[]>> records,
+        final BlockingQueue<List<IndexRequest>> requests,
+        final CheckedFunction<String[], IndexRequest, IOException> serializer,
+        final AtomicInteger activeWorkers
+    ) throws Exception {
+        while (true) {
+            List<String[]> batch = records.take();
+            if (batch == END) {
+                break;
+            }
+            List<IndexRequest> indexRequests = new ArrayList<>(batch.size());
+            for (String[] values : batch) {
+                indexRequests.add(serializer.apply(values));
+            }
+            requests.put(indexRequests);
+        }
+        if (activeWorkers.decrementAndGet() == 0) {
+            requests.put((List<IndexRequest>) END);
+        }
+    }
+
+    /**
+     * Wait for the next batch of index requests, failing if another stage failed
+     */
+    private List<IndexRequest> poll(final BlockingQueue<List<IndexRequest>> requests, final AtomicReference<Throwable> failure)
+        throws IOException {
+        try {
+            while (true) {
+                Throwable e = failure.get();
+                if (e instanceof IOException) {
+                    throw (IOException) e;
+                }
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+                if (e != null) {
+                    throw new OpenSearchException("failed to import GeoIP data", e);
+                }
+                List<IndexRequest> batch = requests.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    return batch;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenSearchException("interrupted while importing GeoIP data", e);
+        }
+    }
+
+    /**
+     * A stage body, which may block on the queues between stages
+     */
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    /**
+     * Stages of a single import running on the shared executor
+     *
+     * Stages cannot be stopped by shutting the executor down, so each stage registers the pooled thread running it
+     * to be interrupted when the import ends. Any failure of a stage, including an error, is recorded for the
+     * calling thread, which polls it. A stage which starts after the import ended exits right away.
+     */
+    private final class Stages {
+        private final CountDownLatch exited;
+        private final AtomicReference<Throwable> failure;
+        private final Set<Thread> threads = new HashSet<>();
+        private int unsubmitted;
+        private boolean stopped;
+
+        private Stages(final int count, final AtomicReference<Throwable> failure) {
+            this.exited = new CountDownLatch(count);
+            this.failure = failure;
+            this.unsubmitted = count;
+        }
+
+        /**
+         * @throws RejectedExecutionException if the executor rejects the stage
+         */
+        private void start(final Stage stage) {
+            executor.execute(() -> run(stage));
+            unsubmitted--;
+        }
+
+        private void run(final Stage stage) {
+            Thread thread = Thread.currentThread();
+            synchronized (this) {
+                if (stopped) {
+                    exited.countDown();
+                    return;
+                }
+                threads.add(thread);
+            }
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                // the import ended
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                synchronized (this) {
+                    threads.remove(thread);
+                }
+                // clear an interrupt from stop so that it does not leak into the next task of the pooled thread
+                Thread.interrupted();
+                exited.countDown();
+            }
+        }
+
+        /**
+         * Interrupt all running stages and wait shortly for them to exit
+         *
+         * A stage blocked in I/O which is not interruptible exits once the source is closed. Stages which do not
+         * exit in time are logged and left to exit on their own.
+         */
+        private void stop() {
+            synchronized (this) {
+                stopped = true;
+                threads.forEach(Thread::interrupt);
+            }
+            for (int i = 0; i < unsubmitted; i++) {
+                exited.countDown();
+            }
+            try {
+                if (exited.await(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS) == false) {
+                    log.warn("GeoIP data import stages did not exit within {} seconds", TERMINATION_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
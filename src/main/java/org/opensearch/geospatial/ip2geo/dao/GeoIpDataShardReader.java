@@ -0,0 +1,154 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.InetAddressRange;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.Nullable;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.index.engine.Engine;
+import org.opensearch.index.mapper.DocumentMapper;
+import org.opensearch.index.mapper.MapperService;
+import org.opensearch.index.mapper.SourceFieldMapper;
+import org.opensearch.index.shard.IllegalIndexShardStateException;
+import org.opensearch.index.shard.IndexEventListener;
+import org.opensearch.index.shard.IndexShard;
+import org.opensearch.index.shard.IndexShardState;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Reader of GeoIP data from the local shard of a GeoIP data index
+ *
+ * A GeoIP data index has a single shard and is expanded to all nodes once it is frozen, so every node holds a full copy.
+ * Reading from the local shard searcher runs the ip range point query and decodes the stored binary record of the matched document,
+ * or parses its stored source if it has no record, without going through the search action, which saves request parsing,
+ * shard routing and the fetch phase on every cache miss.
+ *
+ * Started shards of GeoIP data indices are tracked through {@link IndexEventListener}. Callers fall back to a search request
+ * when there is no started local shard, for example, while the index is being created on the primary node.
+ */
+@Log4j2
+public class GeoIpDataShardReader implements IndexEventListener {
+    private static final String SEARCHER_SOURCE = "ip2geo";
+    private static final Set<String> STORED_FIELDS = Set.of(GeoIpDataDao.RECORD_FIELD_NAME, SourceFieldMapper.NAME);
+    private static final Tuple<String, Map<String, Object>> NO_DATA = new Tuple<>(null, Collections.emptyMap());
+    private final Map<String, IndexShard> shards = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public GeoIpDataShardReader(final ClusterSettings clusterSettings) {
+        this.enabled = clusterSettings.get(Ip2GeoSettings.LOCAL_SHARD_LOOKUP);
+        clusterSettings.addSettingsUpdateConsumer(Ip2GeoSettings.LOCAL_SHARD_LOOKUP, value -> this.enabled = value);
+    }
+
+    /**
+     * @param indexName the index name
+     * @return true if geo data of a given index can be read from a local shard
+     */
+    public boolean canRead(final String indexName) {
+        return getShard(indexName) != null;
+    }
+
+    private IndexShard getShard(final String indexName) {
+        if (enabled == false) {
+            return null;
+        }
+        IndexShard shard = shards.get(indexName);
+        return shard != null && shard.state() == IndexShardState.STARTED ? shard : null;
+    }
+
+    /**
+     * Read geo data of a given ip address from the local shard of a given index
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @return a tuple of the matched ip range in CIDR notation and its geo data, whose ip range is null if nothing matches,
+     *         or null if there is no local shard to read from
+     */
+    @Nullable
+    public Tuple<String, Map<String, Object>> read(final String indexName, final String ip) {
+        IndexShard shard = getShard(indexName);
+        if (shard == null) {
+            return null;
+        }
+        InetAddress address = InetAddresses.forString(ip);
+        try (Engine.Searcher searcher = shard.acquireSearcher(SEARCHER_SOURCE)) {
+            TopDocs topDocs = searcher.search(InetAddressRange.newIntersectsQuery(GeoIpDataDao.IP_RANGE_FIELD_NAME, address, address), 1);
+            if (topDocs.scoreDocs.length == 0) {
+                return NO_DATA;
+            }
+            Document document = searcher.storedFields().document(topDocs.scoreDocs[0].doc, STORED_FIELDS);
+            BytesRef record = document.getBinaryValue(GeoIpDataDao.RECORD_FIELD_NAME);
+            if (record != null) {
+                List<String> fields = getRecordFields(shard);
+                return fields == null ? null : GeoIpRecordCodec.decode(record, fields);
+            }
+            BytesRef source = document.getBinaryValue(SourceFieldMapper.NAME);
+            if (source == null) {
+                return null;
+            }
+            Map<String, Object> sourceMap = XContentHelper.convertToMap(
+                new BytesArray(source.bytes, source.offset, source.length),
+                false,
+                XContentType.JSON
+            ).v2();
+            return new Tuple<>(
+                (String) sourceMap.get(GeoIpDataDao.IP_RANGE_FIELD_NAME),
+                (Map<String, Object>) sourceMap.get(GeoIpDataDao.DATA_FIELD_NAME)
+            );
+        } catch (AlreadyClosedException | IllegalIndexShardStateException e) {
+            log.debug("Local shard of index {} is not readable", indexName, e);
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read geo data from local shard of index {}", indexName, e);
+            return null;
+        }
+    }
+
+    private List<String> getRecordFields(final IndexShard shard) {
+        MapperService mapperService = shard.mapperService();
+        DocumentMapper documentMapper = mapperService == null ? null : mapperService.documentMapper();
+        return documentMapper == null ? null : GeoIpDataDao.toRecordFields(documentMapper.meta());
+    }
+
+    @Override
+    public void afterIndexShardStarted(final IndexShard indexShard) {
+        String indexName = indexShard.shardId().getIndexName();
+        if (indexName.startsWith(IP2GEO_DATA_INDEX_NAME_PREFIX)) {
+            shards.put(indexName, indexShard);
+        }
+    }
+
+    @Override
+    public void beforeIndexShardClosed(final ShardId shardId, @Nullable final IndexShard indexShard, final Settings indexSettings) {
+        if (indexShard == null) {
+            shards.remove(shardId.getIndexName());
+        } else {
+            shards.remove(shardId.getIndexName(), indexShard);
+        }
+    }
+}
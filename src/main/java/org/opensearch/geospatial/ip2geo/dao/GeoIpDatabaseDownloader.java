@@ -0,0 +1,213 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.CheckedSupplier;
+import org.opensearch.common.io.PathUtils;
+import org.opensearch.geospatial.annotation.VisibleForTesting;
+import org.opensearch.geospatial.shared.Constants;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Downloader of a GeoIP database archive into a local temporary file
+ *
+ * A download interrupted by a network error is resumed from the bytes already written, with a range request, after
+ * an exponential backoff. If the server does not honor the range request, the download starts over. The SHA-256 hash
+ * of the archive is computed while downloading and checked against the hash in the manifest, either hex or base64 encoded.
+ */
+@Log4j2
+final class GeoIpDatabaseDownloader {
+    @VisibleForTesting
+    static final int MAX_ATTEMPTS = 5;
+    private static final String FILE_PREFIX = "ip2geo-";
+    private static final String FILE_SUFFIX = ".zip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int SHA256_HEX_LENGTH = 64;
+
+    private final Path directory;
+    private final long initialBackoffMillis;
+
+    GeoIpDatabaseDownloader() {
+        this(tempDirectory(), DEFAULT_INITIAL_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @param directory the directory of temporary files
+     * @param initialBackoffMillis the backoff before the first resume, which doubles with each attempt
+     */
+    @VisibleForTesting
+    GeoIpDatabaseDownloader(final Path directory, final long initialBackoffMillis) {
+        this.directory = directory;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    private static Path tempDirectory() {
+        return PathUtils.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Download a GeoIP database archive into a temporary file, which the caller deletes once it is read
+     *
+     * @param url the url of the archive, used in messages
+     * @param connect the supplier of a new connection to the archive, called once per attempt
+     * @param sha256Hash the expected SHA-256 hash of the archive
+     * @return the path of the downloaded archive
+     * @throws IOException if the download still fails after {@link #MAX_ATTEMPTS} attempts
+     */
+    Path download(final String url, final CheckedSupplier<URLConnection, IOException> connect, final String sha256Hash)
+        throws IOException {
+        Path path = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        boolean downloaded = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            Download download = new Download(channel, newDigest());
+            for (int attempt = 1;; attempt++) {
+                try {
+                    download.transfer(connect.get());
+                    break;
+                } catch (IOException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn(
+                        "Failed to download GeoIP database from {} after {} bytes, resuming [attempt {}]",
+                        url,
+                        download.length,
+                        attempt,
+                        e
+                    );
+                    backoff(attempt);
+                }
+            }
+            verify(url, download.digest.digest(), sha256Hash);
+            downloaded = true;
+            return path;
+        } finally {
+            if (downloaded == false) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void backoff(final int attempt) {
+        try {
+            Thread.sleep(initialBackoffMillis << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenSearchException("interrupted while downloading GeoIP database", e);
+        }
+    }
+
+    private static void verify(final String url, final byte[] actual, final String expected) {
+        if (MessageDigest.isEqual(actual, decode(expected)) == false) {
+            throw new OpenSearchException(
+                "SHA-256 hash [{}] of GeoIP database downloaded from {} does not match [{}] in the manifest",
+                Base64.getEncoder().encodeToString(actual),
+                url,
+                expected
+            );
+        }
+    }
+
+    private static byte[] decode(final String hash) {
+        try {
+            if (hash.length() == SHA256_HEX_LENGTH) {
+                return HexFormat.of().parseHex(hash.toLowerCase(Locale.ROOT));
+            }
+            return Base64.getDecoder().decode(hash);
+        } catch (IllegalArgumentException e) {
+            return new byte[0];
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * State of a download across attempts
+     *
+     * Only bytes written to the file are digested, so a failed attempt leaves both consistent to resume from.
+     */
+    private static final class Download {
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private long length;
+
+        private Download(final FileChannel channel, final MessageDigest digest) {
+            this.channel = channel;
+            this.digest = digest;
+        }
+
+        private void transfer(final URLConnection connection) throws IOException {
+            connection.addRequestProperty(Constants.USER_AGENT_KEY, Constants.USER_AGENT_VALUE);
+            if (length > 0) {
+                connection.setRequestProperty("Range", String.format(Locale.ROOT, "bytes=%d-", length));
+            }
+            try (InputStream in = connection.getInputStream()) {
+                if (length > 0 && isResumed(connection) == false) {
+                    log.info("GeoIP database server ignored the range request, downloading from the start");
+                    length = 0;
+                    digest.reset();
+                }
+                channel.truncate(length);
+                channel.position(length);
+                long expectedLength = connection.getContentLengthLong() < 0 ? -1 : length + connection.getContentLengthLong();
+
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer);
+                    }
+                    digest.update(buffer, 0, read);
+                    length += read;
+                }
+                if (expectedLength >= 0 && length < expectedLength) {
+                    throw new EOFException(
+                        String.format(Locale.ROOT, "GeoIP database ended after %d bytes of %d bytes", length, expectedLength)
+                    );
+                }
+            }
+        }
+
+        /**
+         * @return whether the server responded with the requested range
+         */
+        private boolean isResumed(final URLConnection connection) throws IOException {
+            if (connection instanceof HttpURLConnection == false
+                || ((HttpURLConnection) connection).getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                return false;
+            }
+            String contentRange = connection.getHeaderField("Content-Range");
+            return contentRange != null && contentRange.startsWith(String.format(Locale.ROOT, "bytes %d-", length));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.Strings;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+
+/**
+ * Codec of the compact binary record of a GeoIP data document
+ *
+ * A record holds the ip range in CIDR notation followed by the values of a CSV row in the order of its header.
+ * Attribute names are not repeated in each record. They are kept once in the mapping of the GeoIP data index,
+ * see {@link GeoIpDataDao#RECORD_FIELDS_META_KEY}, and given to {@link #decode} so that a record decodes straight
+ * into geo data without parsing JSON.
+ */
+final class GeoIpRecordCodec {
+    private GeoIpRecordCodec() {}
+
+    /**
+     * Encode a CSV row whose first value is the ip range
+     *
+     * @param values the values of a CSV row
+     * @return the encoded record
+     */
+    static byte[] encode(final String[] values) {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeString(values[0]);
+            out.writeVInt(values.length - 1);
+            for (int i = 1; i < values.length; i++) {
+                out.writeOptionalString(Strings.hasText(values[i]) ? values[i] : null);
+            }
+            return BytesReference.toBytes(out.bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode a record
+     *
+     * @param record the encoded record
+     * @param fields the header of the CSV file without the ip range column
+     * @return a tuple of the ip range in CIDR notation and its geo data
+     */
+    static Tuple<String, Map<String, Object>> decode(final BytesRef record, final List<String> fields) {
+        try (StreamInput in = new BytesArray(record.bytes, record.offset, record.length).streamInput()) {
+            String cidr = in.readString();
+            int count = in.readVInt();
+            if (count != fields.size()) {
+                throw new OpenSearchException("record of [{}] has {} values but there are {} fields", cidr, count, fields.size());
+            }
+            Map<String, Object> geoData = null;
+            for (int i = 0; i < count; i++) {
+                String value = in.readOptionalString();
+                if (value != null) {
+                    if (geoData == null) {
+                        geoData = new HashMap<>(count * 2);
+                    }
+                    geoData.put(fields.get(i), value);
+                }
+            }
+            return new Tuple<>(cidr, geoData == null ? Collections.emptyMap() : geoData);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -7,31 +7,56 @@ package org.opensearch.geospatial.ip2geo.dao;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.function.Function;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.cluster.ClusterStateListener;
 import org.opensearch.cluster.service.ClusterService;
-import org.opensearch.common.cache.Cache;
-import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.CheckedRunnable;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.rest.RestStatus;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.core.xcontent.XContentParser;
 import org.opensearch.geospatial.annotation.VisibleForTesting;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCache;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCacheStats;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataDiskTier;
 import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoExecutor;
 import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
 import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookup;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookupRegistry;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpRangeTable;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.engine.Engine;
 import org.opensearch.index.shard.IndexingOperationListener;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -42,50 +67,133 @@ import lombok.extern.log4j.Log4j2;
  * it through injection.
  *
  * All IP2Geo processors share single Ip2GeoCachedDao instance.
+ *
+ * Datasource metadata is never dropped once loaded. When it may be outdated, the last known metadata keeps serving
+ * lookups while a single background reload rebuilds it, retrying a bounded number of times with backoff.
+ * Concurrent refreshes of the same datasource share a single request. The metadata is published as an immutable
+ * snapshot with compare-and-set, so no lock is held while datasources are read from the datasource index.
+ * Synchronous accessors, which run on search and transport threads, answer from the snapshot and refresh
+ * a datasource whose metadata cannot serve lookups in the background.
  */
 @Log4j2
-public class Ip2GeoCachedDao implements IndexingOperationListener {
+public class Ip2GeoCachedDao implements IndexingOperationListener, ClusterStateListener {
+    private static final Tuple<String, Map<String, Object>> NO_RANGE_DATA = new Tuple<>(null, Collections.emptyMap());
+    @VisibleForTesting
+    static final int MAX_METADATA_RELOAD_ATTEMPTS = 3;
+    private static final TimeValue METADATA_RELOAD_BACKOFF = TimeValue.timeValueMillis(500);
     private final DatasourceDao datasourceDao;
     private final GeoIpDataDao geoIpDataDao;
+    private final GeoIpLookupRegistry geoIpLookupRegistry;
+    private final Ip2GeoExecutor ip2GeoExecutor;
     private final GeoDataCache geoDataCache;
-    private Map<String, DatasourceMetadata> metadata;
+    private final GeoDataDiskTier geoDataDiskTier;
+    private final Map<String, List<ActionListener<DatasourceMetadata>>> datasourceRefreshes = new ConcurrentHashMap<>();
+    private final AtomicBoolean metadataReloading = new AtomicBoolean();
+    private final AtomicReference<StepListener<Map<String, DatasourceMetadata>>> metadataLoad = new AtomicReference<>();
+    private final AtomicReference<MetadataSnapshot> metadataSnapshot = new AtomicReference<>(MetadataSnapshot.NOT_LOADED);
+    private volatile TimeValue timeout;
 
-    public Ip2GeoCachedDao(final ClusterService clusterService, final DatasourceDao datasourceDao, final GeoIpDataDao geoIpDataDao) {
+    public Ip2GeoCachedDao(
+        final ClusterService clusterService,
+        final DatasourceDao datasourceDao,
+        final GeoIpDataDao geoIpDataDao,
+        final GeoIpLookupRegistry geoIpLookupRegistry,
+        final GeoDataDiskTier geoDataDiskTier,
+        final Ip2GeoExecutor ip2GeoExecutor
+    ) {
         this.datasourceDao = datasourceDao;
         this.geoIpDataDao = geoIpDataDao;
-        this.geoDataCache = new GeoDataCache(clusterService.getClusterSettings().get(Ip2GeoSettings.CACHE_SIZE));
+        this.geoIpLookupRegistry = geoIpLookupRegistry;
+        this.geoDataDiskTier = geoDataDiskTier;
+        this.ip2GeoExecutor = ip2GeoExecutor;
+        this.timeout = clusterService.getClusterSettings().get(Ip2GeoSettings.TIMEOUT);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(Ip2GeoSettings.TIMEOUT, value -> this.timeout = value);
+        this.geoDataCache = new GeoDataCache(toCacheMaxSizeInBytes(clusterService.getSettings()));
+        clusterService.getClusterSettings()
+            .addSettingsUpdateConsumer(
+                settings -> this.geoDataCache.updateMaxSize(toCacheMaxSizeInBytes(settings)),
+                List.of(Ip2GeoSettings.CACHE_SIZE, Ip2GeoSettings.CACHE_MEMORY_SIZE)
+            );
+        this.geoDataCache.setCacheByRange(clusterService.getClusterSettings().get(Ip2GeoSettings.CACHE_BY_RANGE));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(Ip2GeoSettings.CACHE_BY_RANGE, this.geoDataCache::setCacheByRange);
+        this.geoDataCache.setAdmission(clusterService.getClusterSettings().get(Ip2GeoSettings.CACHE_ADMISSION));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(Ip2GeoSettings.CACHE_ADMISSION, this.geoDataCache::setAdmission);
+        this.geoDataCache.setWarmupSize(clusterService.getClusterSettings().get(Ip2GeoSettings.CACHE_WARMUP_SIZE));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(Ip2GeoSettings.CACHE_WARMUP_SIZE, this.geoDataCache::setWarmupSize);
+        Ip2GeoSettings.CACHE_QUOTA.getAsMap(clusterService.getSettings()).forEach(this.geoDataCache::setQuota);
         clusterService.getClusterSettings()
-            .addSettingsUpdateConsumer(Ip2GeoSettings.CACHE_SIZE, setting -> this.geoDataCache.updateMaxSize(setting.longValue()));
+            .addAffixUpdateConsumer(Ip2GeoSettings.CACHE_QUOTA, this.geoDataCache::setQuota, (datasourceName, quota) -> {});
+        this.geoDataCache.setDiskTier(geoDataDiskTier, task -> ip2GeoExecutor.forLookupLoad().execute(task));
+        clusterService.addListener(this);
+    }
+
+    /**
+     * Return the max heap size of the geo data cache
+     *
+     * An explicitly set deprecated cache size keeps bounding the cache by entry count. It is mapped to the heap size
+     * of that many entries with empty geo data, so that 0 disables the cache and N holds at most N entries.
+     * Otherwise, the cache is bounded by the cache memory size.
+     *
+     * @param settings the settings
+     * @return the max heap size of the geo data cache in bytes
+     */
+    @VisibleForTesting
+    static long toCacheMaxSizeInBytes(final Settings settings) {
+        if (Ip2GeoSettings.CACHE_SIZE.exists(settings) == false) {
+            return Ip2GeoSettings.CACHE_MEMORY_SIZE.get(settings).getBytes();
+        }
+        long maxEntries = Ip2GeoSettings.CACHE_SIZE.get(settings);
+        long minEntrySizeInBytes = GeoDataCache.weigh(Collections.emptyMap());
+        return maxEntries > Long.MAX_VALUE / minEntrySizeInBytes ? Long.MAX_VALUE : maxEntries * minEntrySizeInBytes;
+    }
+
+    private DatasourceMetadata getDatasourceMetadata(final String datasourceName) {
+        return getMetadata().getOrDefault(datasourceName, DatasourceMetadata.EMPTY_METADATA);
     }
 
     private String doGetIndexName(final String datasourceName) {
-        return getMetadata().getOrDefault(datasourceName, DatasourceMetadata.EMPTY_METADATA).getIndexName();
+        return getDatasourceMetadata(datasourceName).getIndexName();
     }
 
+    /**
+     * Return the current index name of a datasource from the metadata snapshot, refreshing it in the background if unknown
+     *
+     * @param datasourceName the datasource name
+     * @return the index name or null if it is not known yet
+     */
     public String getIndexName(final String datasourceName) {
         String indexName = doGetIndexName(datasourceName);
         if (indexName == null) {
-            refreshDatasource(datasourceName);
-            indexName = doGetIndexName(datasourceName);
+            refreshDatasourceInBackground(datasourceName);
         }
         return indexName;
     }
 
     private boolean doIsExpired(final String datasourceName) {
-        final Instant expirationDate = getMetadata().getOrDefault(datasourceName, DatasourceMetadata.EMPTY_METADATA).getExpirationDate();
-        final Instant now = Instant.now();
-        final boolean isExpired = expirationDate.isBefore(now);
+        final DatasourceMetadata datasourceMetadata = getDatasourceMetadata(datasourceName);
+        final long now = System.currentTimeMillis();
+        final boolean isExpired = datasourceMetadata.isExpired(now);
         if (isExpired) {
-            log.warn("Datasource {} is expired. Expiration date is {} and now is {}.", datasourceName, expirationDate, now);
+            log.warn(
+                "Datasource {} is expired. Expiration date is {} and now is {}.",
+                datasourceName,
+                Instant.ofEpochMilli(datasourceMetadata.getExpirationEpochMillis()),
+                Instant.ofEpochMilli(now)
+            );
         }
         return isExpired;
     }
 
+    /**
+     * Return whether a datasource is expired according to the metadata snapshot, refreshing it in the background if so
+     *
+     * @param datasourceName the datasource name
+     * @return true if the datasource is expired
+     */
     public boolean isExpired(final String datasourceName) {
         boolean isExpired = doIsExpired(datasourceName);
         if (isExpired) {
-            refreshDatasource(datasourceName);
-            isExpired = doIsExpired(datasourceName);
+            refreshDatasourceInBackground(datasourceName);
         }
         return isExpired;
     }
@@ -94,107 +202,857 @@ public class Ip2GeoCachedDao implements IndexingOperationListener {
         return getMetadata().containsKey(datasourceName);
     }
 
+    /**
+     * Return whether a datasource exists according to the metadata snapshot, refreshing it in the background if not
+     *
+     * @param datasourceName the datasource name
+     * @return true if the datasource exists
+     */
     public boolean has(final String datasourceName) {
         boolean isExist = doHas(datasourceName);
         if (isExist == false) {
-            refreshDatasource(datasourceName);
-            isExist = doHas(datasourceName);
+            refreshDatasourceInBackground(datasourceName);
         }
         return isExist;
     }
 
     private DatasourceState doGetState(final String datasourceName) {
-        return getMetadata().getOrDefault(datasourceName, DatasourceMetadata.EMPTY_METADATA).getState();
+        return getDatasourceMetadata(datasourceName).getState();
     }
 
+    /**
+     * Return the state of a datasource from the metadata snapshot, refreshing it in the background if it is not available
+     *
+     * @param datasourceName the datasource name
+     * @return the state or null if it is not known yet
+     */
     public DatasourceState getState(final String datasourceName) {
         DatasourceState state = doGetState(datasourceName);
         if (DatasourceState.AVAILABLE.equals(state) == false) {
-            refreshDatasource(datasourceName);
-            state = doGetState(datasourceName);
+            refreshDatasourceInBackground(datasourceName);
         }
         return state;
     }
 
-    private Map<String, Object> doGetGeoData(final String indexName, final String ip) throws ExecutionException {
-        return geoDataCache.putIfAbsent(indexName, ip, addr -> geoIpDataDao.getGeoIpData(indexName, ip));
+    /**
+     * Acquire the lookup of the current index of a datasource, for example, to resolve geo data of ip field values at search time
+     *
+     * The caller releases the lookup with {@link GeoIpLookup#release()} once it is done with lookups.
+     *
+     * @param datasourceName the datasource name
+     * @return the acquired lookup
+     * @throws ResourceNotFoundException if the datasource does not exist
+     * @throws IllegalArgumentException if the datasource does not use a lookup
+     * @throws OpenSearchStatusException if the datasource is expired, or its lookup is not loaded on this node yet
+     */
+    public GeoIpLookup getLookup(final String datasourceName) {
+        if (has(datasourceName) == false) {
+            throw new ResourceNotFoundException("datasource[{}] does not exist", datasourceName);
+        }
+        if (geoIpLookupRegistry.isEnabled(datasourceName) == false) {
+            throw new IllegalArgumentException(
+                String.format(
+                    Locale.ROOT,
+                    "datasource [%s] does not use a lookup, add it to [%s] or [%s]",
+                    datasourceName,
+                    Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES.getKey(),
+                    Ip2GeoSettings.FILE_LOOKUP_DATASOURCES.getKey()
+                )
+            );
+        }
+        if (isExpired(datasourceName)) {
+            throw new OpenSearchStatusException("datasource[{}] is expired", RestStatus.SERVICE_UNAVAILABLE, datasourceName);
+        }
+        GeoIpLookup lookup = geoIpLookupRegistry.acquire(datasourceName, getIndexName(datasourceName));
+        if (lookup == null) {
+            throw new OpenSearchStatusException(
+                "lookup of datasource[{}] is being loaded, retry later",
+                RestStatus.SERVICE_UNAVAILABLE,
+                datasourceName
+            );
+        }
+        return lookup;
     }
 
+    private Map<String, Object> doGetGeoData(final String indexName, final String ip, final GeoIpLookup lookup)
+        throws ExecutionException {
+        Map<String, Object> cached = geoDataCache.get(indexName, ip);
+        if (cached != null) {
+            return cached;
+        }
+        return loadGeoData(indexName, ip, lookup);
+    }
+
+    /**
+     * Retrieve geo data of a given ip address which is not in the cache and put it into the cache
+     */
+    private Map<String, Object> loadGeoData(final String indexName, final String ip, final GeoIpLookup lookup)
+        throws ExecutionException {
+        if (lookup == null && geoDataCache.isCacheByRange()) {
+            long startTime = System.nanoTime();
+            Tuple<String, Map<String, Object>> rangeData = geoIpDataDao.getGeoIpRangeData(indexName, ip);
+            geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+            return geoDataCache.putRangeIfAbsent(indexName, ip, rangeData);
+        }
+        return geoDataCache.putIfAbsent(
+            indexName,
+            ip,
+            addr -> lookup == null ? geoIpDataDao.getGeoIpData(indexName, ip) : lookup.lookup(ip)
+        );
+    }
+
+    /**
+     * Return geo data of a given ip address
+     *
+     * If the datasource has a lookup loaded for the index, the geo data is served from the lookup without a search request.
+     * An in-memory lookup table returns shared geo data by itself, so it is not cached again.
+     * If the lookup fails, the datasource is refreshed in the background and the geo data is searched once more.
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @param datasourceName the datasource name
+     * @return geo data of the ip address
+     */
     public Map<String, Object> getGeoData(final String indexName, final String ip, final String datasourceName) {
+        GeoIpLookup lookup = geoIpLookupRegistry.acquire(datasourceName, indexName);
+        try {
+            if (lookup instanceof GeoIpRangeTable) {
+                return lookup.lookup(ip);
+            }
+            try {
+                return doGetGeoData(indexName, ip, lookup);
+            } catch (Exception e) {
+                refreshDatasourceInBackground(datasourceName);
+                try {
+                    return loadGeoData(indexName, ip, null);
+                } catch (Exception ex) {
+                    log.error("Fail to get geo data.", e);
+                    throw new RuntimeException(ex);
+                }
+            }
+        } finally {
+            release(lookup);
+        }
+    }
+
+    private static void release(final GeoIpLookup lookup) {
+        if (lookup != null) {
+            lookup.release();
+        }
+    }
+
+    /**
+     * Return geo data of given ip addresses
+     *
+     * Duplicated ip addresses are looked up once. Cache hits are served from the cache and all cache misses are
+     * resolved together, from the lookup if the datasource has one loaded for the index or in a single multi search request.
+     * If the lookup fails, the datasource is refreshed in the background and the misses are searched once more.
+     *
+     * @param indexName the index name
+     * @param ips the ip addresses
+     * @param datasourceName the datasource name
+     * @return geo data of each distinct ip address
+     */
+    public Map<String, Map<String, Object>> getBatchGeoData(final String indexName, final List<String> ips, final String datasourceName) {
+        GeoIpLookup lookup = geoIpLookupRegistry.acquire(datasourceName, indexName);
+        try {
+            if (lookup instanceof GeoIpRangeTable) {
+                return lookUpAll(ips, lookup);
+            }
+
+            Map<String, Map<String, Object>> geoData = new HashMap<>(ips.size() * 2);
+            Set<String> misses = getCachedGeoData(indexName, ips, geoData);
+            if (misses.isEmpty()) {
+                return geoData;
+            }
+            try {
+                loadBatchGeoData(indexName, misses, lookup, geoData);
+            } catch (Exception e) {
+                refreshDatasourceInBackground(datasourceName);
+                try {
+                    loadBatchGeoData(indexName, misses, null, geoData);
+                } catch (Exception ex) {
+                    log.error("Fail to get geo data.", e);
+                    throw new RuntimeException(ex);
+                }
+            }
+            return geoData;
+        } finally {
+            release(lookup);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> lookUpAll(final List<String> ips, final GeoIpLookup lookup) {
+        Map<String, Map<String, Object>> geoData = new HashMap<>(ips.size() * 2);
+        for (String ip : ips) {
+            geoData.computeIfAbsent(ip, lookup::lookup);
+        }
+        return geoData;
+    }
+
+    private Map<String, Map<String, Object>> doGetBatchGeoData(final String indexName, final List<String> ips, final GeoIpLookup lookup)
+        throws ExecutionException {
+        Map<String, Map<String, Object>> geoData = new HashMap<>(ips.size() * 2);
+        Set<String> misses = getCachedGeoData(indexName, ips, geoData);
+        if (misses.isEmpty() == false) {
+            loadBatchGeoData(indexName, misses, lookup, geoData);
+        }
+        return geoData;
+    }
+
+    /**
+     * Retrieve geo data of given ip addresses which are not in the cache and put them into the cache and a given map
+     */
+    private void loadBatchGeoData(
+        final String indexName,
+        final Set<String> misses,
+        final GeoIpLookup lookup,
+        final Map<String, Map<String, Object>> geoData
+    ) throws ExecutionException {
+        long startTime = System.nanoTime();
+        if (lookup == null && geoDataCache.isCacheByRange()) {
+            Map<String, Tuple<String, Map<String, Object>>> retrieved = geoIpDataDao.getBatchGeoIpRangeData(indexName, misses);
+            geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+            putRetrievedRangeData(indexName, misses, retrieved, geoData);
+            return;
+        }
+
+        Map<String, Map<String, Object>> retrieved;
+        if (lookup == null) {
+            retrieved = geoIpDataDao.getBatchGeoIpData(indexName, misses);
+        } else {
+            retrieved = new HashMap<>(misses.size() * 2);
+            for (String ip : misses) {
+                retrieved.put(ip, lookup.lookup(ip));
+            }
+        }
+        geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+        putRetrievedGeoData(indexName, misses, retrieved, geoData);
+    }
+
+    /**
+     * Put cached geo data of given ip addresses into a given map
+     *
+     * @return distinct ip addresses which are not in the cache
+     */
+    private Set<String> getCachedGeoData(final String indexName, final List<String> ips, final Map<String, Map<String, Object>> geoData) {
+        Set<String> misses = new LinkedHashSet<>();
+        for (String ip : ips) {
+            if (geoData.containsKey(ip) || misses.contains(ip)) {
+                continue;
+            }
+            Map<String, Object> cached = geoDataCache.get(indexName, ip);
+            if (cached == null) {
+                misses.add(ip);
+            } else {
+                geoData.put(ip, cached);
+            }
+        }
+        return misses;
+    }
+
+    private void putRetrievedGeoData(
+        final String indexName,
+        final Set<String> misses,
+        final Map<String, Map<String, Object>> retrieved,
+        final Map<String, Map<String, Object>> geoData
+    ) throws ExecutionException {
+        for (String ip : misses) {
+            geoData.put(ip, geoDataCache.putIfAbsent(indexName, ip, addr -> retrieved.getOrDefault(addr, Collections.emptyMap())));
+        }
+    }
+
+    private void putRetrievedRangeData(
+        final String indexName,
+        final Set<String> misses,
+        final Map<String, Tuple<String, Map<String, Object>>> retrieved,
+        final Map<String, Map<String, Object>> geoData
+    ) throws ExecutionException {
+        for (String ip : misses) {
+            geoData.put(ip, geoDataCache.putRangeIfAbsent(indexName, ip, retrieved.getOrDefault(ip, NO_RANGE_DATA)));
+        }
+    }
+
+    /**
+     * Return metadata of a datasource without blocking the calling thread, refreshing it first if it cannot serve lookups
+     *
+     * The metadata is an immutable snapshot read with a single lookup. If the snapshot shows that the datasource is
+     * available and not expired, the listener is completed on the calling thread. Otherwise, the metadata is refreshed
+     * and the listener is completed on the lookup executor. Concurrent refreshes of the same datasource are served by
+     * a single request. If the refresh fails, the last known metadata is returned.
+     *
+     * @param datasourceName the datasource name
+     * @param listener the listener, which receives null if the datasource does not exist
+     */
+    public void refreshDatasourceIfNeeded(final String datasourceName, final ActionListener<DatasourceMetadata> listener) {
+        Map<String, DatasourceMetadata> currentMetadata = metadataSnapshot.get().datasources;
+        DatasourceMetadata datasourceMetadata = currentMetadata == null ? null : currentMetadata.get(datasourceName);
+        if (datasourceMetadata != null && datasourceMetadata.canServeLookup()) {
+            listener.onResponse(datasourceMetadata);
+            return;
+        }
+        loadMetadata(ActionListener.wrap(loadedMetadata -> {
+            DatasourceMetadata current = loadedMetadata.get(datasourceName);
+            if (current != null && current.canServeLookup()) {
+                respond(listener, current);
+                return;
+            }
+            refreshDatasourceOnce(datasourceName, listener);
+        }, e -> fail(listener, e)));
+    }
+
+    /**
+     * Refresh metadata of a datasource, joining a refresh of the datasource which is already in flight
+     *
+     * @param datasourceName the datasource name
+     * @param listener the listener, which receives null if the datasource does not exist or the last known metadata if the refresh fails
+     */
+    private void refreshDatasourceOnce(final String datasourceName, final ActionListener<DatasourceMetadata> listener) {
+        boolean[] inFlight = new boolean[1];
+        datasourceRefreshes.compute(datasourceName, (name, listeners) -> {
+            inFlight[0] = listeners != null;
+            List<ActionListener<DatasourceMetadata>> waiting = listeners == null ? new ArrayList<>() : listeners;
+            waiting.add(listener);
+            return waiting;
+        });
+        if (inFlight[0]) {
+            return;
+        }
+
+        log.debug("Refresh datasource {}.", datasourceName);
+        ActionListener<Datasource> datasourceListener = ActionListener.wrap(datasource -> {
+            if (datasource != null) {
+                completeRefresh(datasourceName, updateMetadata(datasource), null);
+            } else {
+                publishMetadata(datasourceName, null);
+                completeRefresh(datasourceName, null, null);
+            }
+        }, e -> {
+            log.error("Fail to refresh the datasource.", e);
+            invalidateMetadata();
+            Map<String, DatasourceMetadata> currentMetadata = metadataSnapshot.get().datasources;
+            DatasourceMetadata lastKnown = currentMetadata == null ? null : currentMetadata.get(datasourceName);
+            completeRefresh(datasourceName, lastKnown, lastKnown == null ? e : null);
+        });
+        try {
+            datasourceDao.getDatasource(datasourceName, datasourceListener);
+        } catch (Exception e) {
+            datasourceListener.onFailure(e);
+        }
+    }
+
+    private void completeRefresh(final String datasourceName, final DatasourceMetadata datasourceMetadata, final Exception failure) {
+        List<ActionListener<DatasourceMetadata>> listeners = datasourceRefreshes.remove(datasourceName);
+        if (listeners == null) {
+            return;
+        }
+        for (ActionListener<DatasourceMetadata> listener : listeners) {
+            if (failure == null) {
+                respond(listener, datasourceMetadata);
+            } else {
+                fail(listener, failure);
+            }
+        }
+    }
+
+    /**
+     * Return geo data of a given ip address without blocking the calling thread
+     *
+     * Geo data found in a lookup or in the cache is returned on the calling thread. A cache miss is resolved with
+     * an asynchronous search request and the listener is completed on the lookup executor.
+     *
+     * @param indexName the index name
+     * @param ip the ip address
+     * @param datasourceName the datasource name
+     * @param listener the listener
+     */
+    public void getGeoData(
+        final String indexName,
+        final String ip,
+        final String datasourceName,
+        final ActionListener<Map<String, Object>> listener
+    ) {
         Map<String, Object> geoData;
+        GeoIpLookup lookup = geoIpLookupRegistry.acquire(datasourceName, indexName);
         try {
-            geoData = doGetGeoData(indexName, ip);
+            if (lookup instanceof GeoIpRangeTable) {
+                geoData = lookup.lookup(ip);
+            } else if (lookup != null) {
+                geoData = doGetGeoData(indexName, ip, lookup);
+            } else {
+                geoData = geoDataCache.get(indexName, ip);
+            }
         } catch (Exception e) {
-            refreshDatasource(datasourceName);
-            try {
-                geoData = doGetGeoData(indexName, ip);
-            } catch (Exception ex) {
+            listener.onFailure(e);
+            return;
+        } finally {
+            release(lookup);
+        }
+        if (geoData != null) {
+            listener.onResponse(geoData);
+            return;
+        }
+
+        searchGeoData(indexName, ip, ActionListener.wrap(data -> respond(listener, data), e -> {
+            ActionListener<Map<String, Object>> retryListener = ActionListener.wrap(data -> respond(listener, data), ex -> {
                 log.error("Fail to get geo data.", e);
-                throw new RuntimeException(ex);
+                fail(listener, ex);
+            });
+            refreshAndRetry(datasourceName, () -> searchGeoData(indexName, ip, retryListener));
+        }));
+    }
+
+    /**
+     * Refresh metadata of a datasource without blocking the calling thread and run a given retry once the refresh completes,
+     * whether it succeeded or not
+     */
+    private void refreshAndRetry(final String datasourceName, final Runnable retry) {
+        refreshDatasourceOnce(datasourceName, ActionListener.wrap(datasourceMetadata -> retry.run(), e -> retry.run()));
+    }
+
+    /**
+     * Search geo data of a given ip address and put it into the cache, by ip range if caching by range is enabled
+     */
+    private void searchGeoData(final String indexName, final String ip, final ActionListener<Map<String, Object>> listener) {
+        long startTime = System.nanoTime();
+        if (geoDataCache.isCacheByRange()) {
+            geoIpDataDao.getGeoIpRangeData(indexName, ip, ActionListener.wrap(rangeData -> {
+                geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+                listener.onResponse(geoDataCache.putRangeIfAbsent(indexName, ip, rangeData));
+            }, listener::onFailure));
+        } else {
+            geoIpDataDao.getGeoIpData(indexName, ip, ActionListener.wrap(data -> {
+                geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+                listener.onResponse(geoDataCache.putIfAbsent(indexName, ip, addr -> data));
+            }, listener::onFailure));
+        }
+    }
+
+    /**
+     * Return geo data of given ip addresses without blocking the calling thread
+     *
+     * Geo data found in a lookup or in the cache is returned on the calling thread. All cache misses are resolved with
+     * a single asynchronous multi search request and the listener is completed on the lookup executor.
+     *
+     * @param indexName the index name
+     * @param ips the ip addresses
+     * @param datasourceName the datasource name
+     * @param listener the listener
+     */
+    public void getBatchGeoData(
+        final String indexName,
+        final List<String> ips,
+        final String datasourceName,
+        final ActionListener<Map<String, Map<String, Object>>> listener
+    ) {
+        Map<String, Map<String, Object>> geoData = new HashMap<>(ips.size() * 2);
+        Set<String> misses;
+        GeoIpLookup lookup = geoIpLookupRegistry.acquire(datasourceName, indexName);
+        try {
+            if (lookup != null) {
+                geoData = lookup instanceof GeoIpRangeTable
+                    ? lookUpAll(ips, lookup)
+                    : doGetBatchGeoData(indexName, ips, lookup);
+                misses = Collections.emptySet();
+            } else {
+                misses = getCachedGeoData(indexName, ips, geoData);
             }
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        } finally {
+            release(lookup);
+        }
+        if (misses.isEmpty()) {
+            listener.onResponse(geoData);
+            return;
         }
 
-        return geoData;
+        Map<String, Map<String, Object>> cachedGeoData = geoData;
+        Set<String> missedIps = misses;
+        searchBatchGeoData(indexName, missedIps, cachedGeoData, ActionListener.wrap(data -> respond(listener, data), e -> {
+            ActionListener<Map<String, Map<String, Object>>> retryListener = ActionListener.wrap(data -> respond(listener, data), ex -> {
+                log.error("Fail to get geo data.", e);
+                fail(listener, ex);
+            });
+            refreshAndRetry(datasourceName, () -> searchBatchGeoData(indexName, missedIps, cachedGeoData, retryListener));
+        }));
+    }
+
+    /**
+     * Search geo data of given ip addresses in a single multi search request and put them into the cache and a given map,
+     * by ip range if caching by range is enabled
+     */
+    private void searchBatchGeoData(
+        final String indexName,
+        final Set<String> misses,
+        final Map<String, Map<String, Object>> geoData,
+        final ActionListener<Map<String, Map<String, Object>>> listener
+    ) {
+        long startTime = System.nanoTime();
+        if (geoDataCache.isCacheByRange()) {
+            geoIpDataDao.getBatchGeoIpRangeData(indexName, misses, ActionListener.wrap(retrieved -> {
+                geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+                putRetrievedRangeData(indexName, misses, retrieved, geoData);
+                listener.onResponse(geoData);
+            }, listener::onFailure));
+        } else {
+            geoIpDataDao.getBatchGeoIpData(indexName, misses, ActionListener.wrap(retrieved -> {
+                geoDataCache.addLoadTime(indexName, System.nanoTime() - startTime);
+                putRetrievedGeoData(indexName, misses, retrieved, geoData);
+                listener.onResponse(geoData);
+            }, listener::onFailure));
+        }
+    }
+
+    /**
+     * Return geo data cache stats of each datasource in this node
+     *
+     * @return cache stats keyed by datasource name
+     */
+    public Map<String, GeoDataCacheStats> getCacheStats() {
+        return geoDataCache.getStats();
+    }
+
+    private <T> void respond(final ActionListener<T> listener, final T response) {
+        fork(listener, () -> listener.onResponse(response));
+    }
+
+    private <T> void fail(final ActionListener<T> listener, final Exception e) {
+        fork(listener, () -> listener.onFailure(e));
+    }
+
+    /**
+     * Run a given task on the lookup executor, failing the listener if the task cannot be run
+     */
+    private <T> void fork(final ActionListener<T> listener, final CheckedRunnable<Exception> task) {
+        try {
+            ip2GeoExecutor.forLookup().execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    listener.onFailure(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            listener.onFailure(e);
+        }
     }
 
+    /**
+     * Return the metadata snapshot of all datasources, waiting up to the ip2geo timeout for the first load if it is not loaded yet
+     *
+     * Once loaded, the snapshot is returned without blocking I/O. Only the first synchronous lookups after the node started
+     * wait for the load, which concurrent callers share.
+     */
     private Map<String, DatasourceMetadata> getMetadata() {
-        // Use a local variable to hold the reference of the metadata in case another thread set the metadata as null,
-        // and we unexpectedly return the null. Using this local variable we ensure we return a non-null value.
-        Map<String, DatasourceMetadata> currentMetadata = metadata;
+        Map<String, DatasourceMetadata> currentMetadata = metadataSnapshot.get().datasources;
         if (currentMetadata != null) {
             return currentMetadata;
         }
-        synchronized (this) {
-            currentMetadata = metadata;
-            if (currentMetadata != null) {
-                return currentMetadata;
+        PlainActionFuture<Map<String, DatasourceMetadata>> future = PlainActionFuture.newFuture();
+        loadMetadata(future);
+        return future.actionGet(timeout);
+    }
+
+    /**
+     * Load metadata of all datasources from the primary index shard if it is not loaded yet, without blocking the calling thread
+     *
+     * Concurrent callers share a single request. The listener is completed on the calling thread if the metadata is
+     * already loaded, and on the thread completing the request otherwise.
+     *
+     * @param listener the listener
+     */
+    private void loadMetadata(final ActionListener<Map<String, DatasourceMetadata>> listener) {
+        Map<String, DatasourceMetadata> currentMetadata = metadataSnapshot.get().datasources;
+        if (currentMetadata != null) {
+            listener.onResponse(currentMetadata);
+            return;
+        }
+        StepListener<Map<String, DatasourceMetadata>> load = new StepListener<>();
+        StepListener<Map<String, DatasourceMetadata>> inFlight = metadataLoad.compareAndExchange(null, load);
+        if (inFlight != null) {
+            inFlight.whenComplete(listener::onResponse, listener::onFailure);
+            return;
+        }
+        load.whenComplete(listener::onResponse, listener::onFailure);
+        currentMetadata = metadataSnapshot.get().datasources;
+        if (currentMetadata != null) {
+            // Loaded by another load which completed in the meantime
+            metadataLoad.set(null);
+            load.onResponse(currentMetadata);
+            return;
+        }
+        doLoadMetadata(load);
+    }
+
+    private void doLoadMetadata(final StepListener<Map<String, DatasourceMetadata>> load) {
+        final long version = metadataSnapshot.get().version;
+        ActionListener<List<Datasource>> listener = ActionListener.wrap(
+            datasources -> publishLoadedMetadata(load, datasources, version),
+            e -> {
+                if (e instanceof IndexNotFoundException) {
+                    log.debug("Datasource has never been created");
+                    publishLoadedMetadata(load, Collections.emptyList(), version);
+                    return;
+                }
+                metadataLoad.set(null);
+                load.onFailure(e);
             }
-            currentMetadata = new ConcurrentHashMap<>();
-            try {
-                for (Datasource datasource : datasourceDao.getAllDatasources()) {
-                    currentMetadata.put(datasource.getName(), new DatasourceMetadata(datasource));
+        );
+        try {
+            datasourceDao.getAllDatasources(listener);
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    private void publishLoadedMetadata(
+        final StepListener<Map<String, DatasourceMetadata>> load,
+        final List<Datasource> datasources,
+        final long version
+    ) {
+        if (replaceMetadata(datasources, version) == null) {
+            // A datasource was updated while loading and the loaded metadata may be older than the update
+            doLoadMetadata(load);
+            return;
+        }
+        Map<String, DatasourceMetadata> loadedMetadata = metadataSnapshot.get().datasources;
+        metadataLoad.set(null);
+        retainDiskTierIndices(loadedMetadata);
+        load.onResponse(loadedMetadata);
+    }
+
+    /**
+     * Publish a new metadata snapshot with the metadata of a datasource replaced, or removed if the given metadata is null
+     *
+     * Readers never lock. Writers publish with compare-and-set and retry on contention, so concurrent updates are not lost.
+     * If the metadata is not loaded yet, only the version is bumped so that a load in flight, which may have read
+     * the datasource before the update, is retried.
+     *
+     * @param datasourceName the datasource name
+     * @param datasourceMetadata the metadata of the datasource or null to remove it
+     * @return the previous metadata of the datasource
+     */
+    private DatasourceMetadata publishMetadata(final String datasourceName, final DatasourceMetadata datasourceMetadata) {
+        while (true) {
+            MetadataSnapshot current = metadataSnapshot.get();
+            Map<String, DatasourceMetadata> newMetadata = null;
+            DatasourceMetadata previous = null;
+            if (current.datasources != null) {
+                if (datasourceMetadata == null && current.datasources.containsKey(datasourceName) == false) {
+                    return null;
                 }
-            } catch (IndexNotFoundException e) {
-                log.debug("Datasource has never been created");
+                Map<String, DatasourceMetadata> copy = new HashMap<>(current.datasources);
+                previous = datasourceMetadata == null ? copy.remove(datasourceName) : copy.put(datasourceName, datasourceMetadata);
+                newMetadata = Map.copyOf(copy);
             }
-            metadata = currentMetadata;
-            return currentMetadata;
+            if (metadataSnapshot.compareAndSet(current, new MetadataSnapshot(newMetadata, current.version + 1))) {
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * Publish metadata of all datasources loaded from the datasource index
+     *
+     * @param datasources all datasources
+     * @param version the metadata version when the load started
+     * @return the previous metadata, or null if the metadata was updated while loading and the loaded one may be older
+     */
+    private Map<String, DatasourceMetadata> replaceMetadata(final List<Datasource> datasources, final long version) {
+        MetadataSnapshot current = metadataSnapshot.get();
+        if (version != current.version) {
+            return null;
+        }
+        Map<String, DatasourceMetadata> newMetadata = new HashMap<>();
+        for (Datasource datasource : datasources) {
+            newMetadata.put(datasource.getName(), new DatasourceMetadata(datasource));
+        }
+        if (metadataSnapshot.compareAndSet(current, new MetadataSnapshot(Map.copyOf(newMetadata), version + 1)) == false) {
+            return null;
+        }
+        return current.datasources == null ? Collections.emptyMap() : current.datasources;
+    }
+
+    /**
+     * Delete disk tier segments of indices which no datasource uses, for example, of indices deleted while the node was down
+     */
+    private void retainDiskTierIndices(final Map<String, DatasourceMetadata> currentMetadata) {
+        Set<String> indexNames = new HashSet<>();
+        for (DatasourceMetadata datasourceMetadata : currentMetadata.values()) {
+            if (datasourceMetadata.getIndexName() != null) {
+                indexNames.add(datasourceMetadata.getIndexName());
+            }
+        }
+        runInBackground("delete unused disk tier segments", () -> geoDataDiskTier.retainIndices(indexNames));
+    }
+
+    /**
+     * Run a given cleanup task, which may delete files, on the lookup load executor
+     *
+     * Metadata is updated on transport and indexing threads, which must not wait for disk I/O.
+     */
+    private void runInBackground(final String description, final Runnable task) {
+        try {
+            ip2GeoExecutor.forLookupLoad().execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Failed to {} in the background", description, e);
         }
     }
 
     private void put(final Datasource datasource) {
+        DatasourceMetadata metadata = updateMetadata(datasource);
+        geoIpLookupRegistry.load(datasource.getName(), metadata.getIndexName());
+    }
+
+    /**
+     * Update metadata of a datasource, warming up the cache for the new index if the datasource switched to a new index
+     */
+    private DatasourceMetadata updateMetadata(final Datasource datasource) {
         DatasourceMetadata metadata = new DatasourceMetadata(datasource);
-        getMetadata().put(datasource.getName(), metadata);
+        DatasourceMetadata previous = publishMetadata(datasource.getName(), metadata);
+        onIndexSwitched(datasource.getName(), previous, metadata);
+        return metadata;
     }
 
-    private void remove(final String datasourceName) {
-        getMetadata().remove(datasourceName);
+    private void onIndexSwitched(final String datasourceName, final DatasourceMetadata previous, final DatasourceMetadata metadata) {
+        if (previous == null || previous.getIndexName() == null) {
+            return;
+        }
+        String indexName = metadata == null ? null : metadata.getIndexName();
+        if (previous.getIndexName().equals(indexName) == false) {
+            warmUp(datasourceName, indexName);
+            String previousIndexName = previous.getIndexName();
+            runInBackground("remove cached geo data of index " + previousIndexName, () -> geoDataCache.removeIndex(previousIndexName));
+        }
     }
 
-    private void refreshDatasource(final String datasourceName) {
+    /**
+     * Look up the most frequently looked up ip addresses of a datasource against its new index in the background
+     *
+     * Geo data of the previous index is keyed by the previous index name and cannot serve lookups against the new index.
+     * Without a warm-up, every node would miss on its hottest ip addresses at once right after the switch.
+     * Datasources using a lookup do not depend on the cache and are not warmed up.
+     */
+    private void warmUp(final String datasourceName, final String indexName) {
+        if (indexName == null || geoIpLookupRegistry.isEnabled(datasourceName)) {
+            return;
+        }
+        List<String> hotIps = geoDataCache.getHotIps(datasourceName);
+        if (hotIps.isEmpty()) {
+            return;
+        }
         try {
-            log.info("Refresh datasource.");
-            Datasource datasource = datasourceDao.getDatasource(datasourceName);
-            if (datasource != null) {
-                getMetadata().put(datasourceName, new DatasourceMetadata(datasource));
-            } else {
-                getMetadata().remove(datasourceName);
+            searchBatchGeoData(
+                indexName,
+                new LinkedHashSet<>(hotIps),
+                new HashMap<>(hotIps.size() * 2),
+                ActionListener.wrap(
+                    geoData -> log.info(
+                        "Warmed up ip2geo cache of datasource {} with {} ip addresses of index {}",
+                        datasourceName,
+                        geoData.size(),
+                        indexName
+                    ),
+                    e -> log.warn("Failed to warm up ip2geo cache of datasource {} with index {}", datasourceName, indexName, e)
+                )
+            );
+        } catch (Exception e) {
+            log.warn("Failed to warm up ip2geo cache of datasource {} with index {}", datasourceName, indexName, e);
+        }
+    }
+
+    private void remove(final String datasourceName) {
+        DatasourceMetadata previous = publishMetadata(datasourceName, null);
+        runInBackground("remove cached geo data of datasource " + datasourceName, () -> {
+            if (previous != null && previous.getIndexName() != null) {
+                geoDataCache.removeIndex(previous.getIndexName());
             }
+            geoDataCache.removeStats(datasourceName);
+            geoIpLookupRegistry.remove(datasourceName);
+        });
+    }
+
+    /**
+     * Reload metadata of all datasources from the primary index shard in the background
+     *
+     * The last known metadata keeps serving lookups during the reload. Only a single reload runs at a time,
+     * so invalidating the metadata while a reload is in flight is a no-op.
+     */
+    private void invalidateMetadata() {
+        if (metadataSnapshot.get().datasources == null) {
+            // Not loaded yet. It will be loaded from the primary index shard on first use.
+            return;
+        }
+        if (metadataReloading.compareAndSet(false, true) == false) {
+            return;
+        }
+        log.info("Reloading all datasource metadata from the primary index shard in the background.");
+        reloadMetadata(0);
+    }
+
+    private void reloadMetadata(final int attempt) {
+        final long version = metadataSnapshot.get().version;
+        ActionListener<List<Datasource>> listener = ActionListener.wrap(
+            datasources -> publishReloadedMetadata(datasources, attempt, version),
+            e -> {
+                if (e instanceof IndexNotFoundException) {
+                    log.debug("Datasource has never been created");
+                    publishReloadedMetadata(Collections.emptyList(), attempt, version);
+                    return;
+                }
+                retryReloadMetadata(attempt, e);
+            }
+        );
+        try {
+            datasourceDao.getAllDatasources(listener);
         } catch (Exception e) {
-            log.error("Fail to refresh the datasource.", e);
-            clearMetadata();
+            listener.onFailure(e);
         }
     }
 
-    private void clearMetadata() {
-        log.info("Resetting all datasource metadata to force a refresh from the primary index shard.");
-        metadata = null;
+    private void publishReloadedMetadata(final List<Datasource> datasources, final int attempt, final long version) {
+        Map<String, DatasourceMetadata> previous = replaceMetadata(datasources, version);
+        if (previous == null) {
+            retryReloadMetadata(attempt, null);
+            return;
+        }
+        metadataReloading.set(false);
+        Map<String, DatasourceMetadata> current = metadataSnapshot.get().datasources;
+        previous.forEach(
+            (datasourceName, datasourceMetadata) -> onIndexSwitched(datasourceName, datasourceMetadata, current.get(datasourceName))
+        );
+        retainDiskTierIndices(current);
+        log.info("Reloaded metadata of {} datasources.", current.size());
+    }
+
+    /**
+     * Retry a failed reload with exponential backoff, giving up after {@link #MAX_METADATA_RELOAD_ATTEMPTS} attempts
+     *
+     * A reload which raced with an update of a single datasource is retried as well, as its result may be older than the update.
+     * After giving up, the last known metadata keeps serving lookups until the next update or invalidation.
+     */
+    private void retryReloadMetadata(final int attempt, final Exception e) {
+        if (attempt + 1 >= MAX_METADATA_RELOAD_ATTEMPTS) {
+            log.error("Fail to reload datasource metadata after {} attempts. Serving the last known metadata.", attempt + 1, e);
+            metadataReloading.set(false);
+            return;
+        }
+        TimeValue delay = TimeValue.timeValueMillis(METADATA_RELOAD_BACKOFF.millis() << attempt);
+        log.warn("Fail to reload datasource metadata. Retrying in {}.", delay, e);
+        try {
+            ip2GeoExecutor.scheduleLookup(() -> reloadMetadata(attempt + 1), delay);
+        } catch (Exception ex) {
+            log.error("Fail to schedule reloading datasource metadata. Serving the last known metadata.", ex);
+            metadataReloading.set(false);
+        }
     }
 
     @Override
     public void postIndex(ShardId shardId, Engine.Index index, Exception ex) {
         log.error("Skipped updating datasource metadata for datasource {} due to an indexing exception.", index.id(), ex);
-        clearMetadata();
+        invalidateMetadata();
     }
 
     @Override
@@ -205,7 +1063,7 @@ public class Ip2GeoCachedDao implements IndexingOperationListener {
                 index.id(),
                 result.getFailure()
             );
-            clearMetadata();
+            invalidateMetadata();
             return;
         }
 
@@ -218,14 +1076,43 @@ public class Ip2GeoCachedDao implements IndexingOperationListener {
             log.info("Updated datasource metadata for datasource {} successfully.", index.id());
         } catch (IOException e) {
             log.error("IOException occurred updating datasource metadata for datasource {} ", index.id(), e);
-            clearMetadata();
+            invalidateMetadata();
         }
     }
 
+    /**
+     * Refresh metadata of datasources whose current index is deleted
+     *
+     * Only nodes holding a shard of the datasource index are notified of datasource updates through
+     * {@link IndexingOperationListener}. Other nodes learn that a datasource switched to a new index when its previous
+     * index is deleted, and refresh the metadata in the background instead of on the next lookup.
+     */
+    @Override
+    public void clusterChanged(final ClusterChangedEvent event) {
+        Map<String, DatasourceMetadata> currentMetadata = metadataSnapshot.get().datasources;
+        if (currentMetadata == null || event.indicesDeleted().isEmpty()) {
+            return;
+        }
+        Set<String> deletedIndices = new HashSet<>();
+        event.indicesDeleted().forEach(index -> deletedIndices.add(index.getName()));
+        currentMetadata.forEach((datasourceName, datasourceMetadata) -> {
+            if (datasourceMetadata.getIndexName() != null && deletedIndices.contains(datasourceMetadata.getIndexName())) {
+                refreshDatasourceInBackground(datasourceName);
+            }
+        });
+    }
+
+    /**
+     * Refresh metadata of a datasource without blocking the calling thread, joining a refresh of the datasource already in flight
+     */
+    private void refreshDatasourceInBackground(final String datasourceName) {
+        refreshDatasourceOnce(datasourceName, ActionListener.wrap(() -> {}));
+    }
+
     @Override
     public void postDelete(ShardId shardId, Engine.Delete delete, Exception ex) {
         log.error("Skipped updating datasource metadata for datasource {} due to an exception.", delete.id(), ex);
-        clearMetadata();
+        invalidateMetadata();
     }
 
     @Override
@@ -236,88 +1123,25 @@ public class Ip2GeoCachedDao implements IndexingOperationListener {
                 delete.id(),
                 result.getFailure()
             );
-            clearMetadata();
+            invalidateMetadata();
             return;
         }
         remove(delete.id());
     }
 
-    @Getter
-    private static class DatasourceMetadata {
-        private static DatasourceMetadata EMPTY_METADATA = new DatasourceMetadata();
-        private String indexName;
-        private Instant expirationDate;
-        private DatasourceState state;
-
-        private DatasourceMetadata() {
-            expirationDate = Instant.MIN;
-        }
-
-        public DatasourceMetadata(final Datasource datasource) {
-            this.indexName = datasource.currentIndexName();
-            this.expirationDate = datasource.expirationDay();
-            this.state = datasource.getState();
-        }
-    }
-
     /**
-     * Cache to hold geo data
+     * Immutable metadata of all datasources, replaced as a whole with compare-and-set
      *
-     * GeoData in an index in immutable. Therefore, invalidation is not needed.
+     * The version is bumped with each update so that a load or a reload which started before an update does not
+     * overwrite it with older metadata.
      */
-    @VisibleForTesting
-    protected static class GeoDataCache {
-        private Cache<CacheKey, Map<String, Object>> cache;
-
-        public GeoDataCache(final long maxSize) {
-            if (maxSize < 0) {
-                throw new IllegalArgumentException("ip2geo max cache size must be 0 or greater");
-            }
-            this.cache = CacheBuilder.<CacheKey, Map<String, Object>>builder().setMaximumWeight(maxSize).build();
-        }
-
-        public Map<String, Object> putIfAbsent(
-            final String indexName,
-            final String ip,
-            final Function<String, Map<String, Object>> retrieveFunction
-        ) throws ExecutionException {
-            CacheKey cacheKey = new CacheKey(indexName, ip);
-            return cache.computeIfAbsent(cacheKey, key -> retrieveFunction.apply(key.ip));
-        }
-
-        public Map<String, Object> get(final String indexName, final String ip) {
-            return cache.get(new CacheKey(indexName, ip));
-        }
-
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class MetadataSnapshot {
+        private static final MetadataSnapshot NOT_LOADED = new MetadataSnapshot(null, 0);
         /**
-         * Create a new cache with give size and replace existing cache
-         *
-         * Try to populate the existing value from previous cache to the new cache in best effort
-         *
-         * @param maxSize
+         * Metadata keyed by datasource name, or null if it is not loaded yet
          */
-        public void updateMaxSize(final long maxSize) {
-            if (maxSize < 0) {
-                throw new IllegalArgumentException("ip2geo max cache size must be 0 or greater");
-            }
-            Cache<CacheKey, Map<String, Object>> temp = CacheBuilder.<CacheKey, Map<String, Object>>builder()
-                .setMaximumWeight(maxSize)
-                .build();
-            int count = 0;
-            Iterator<CacheKey> it = cache.keys().iterator();
-            while (it.hasNext() && count < maxSize) {
-                CacheKey key = it.next();
-                temp.put(key, cache.get(key));
-                count++;
-            }
-            cache = temp;
-        }
-
-        @AllArgsConstructor
-        @EqualsAndHashCode
-        private static class CacheKey {
-            private final String indexName;
-            private final String ip;
-        }
+        private final Map<String, DatasourceMetadata> datasources;
+        private final long version;
     }
 }
@@ -34,7 +34,7 @@ public class Ip2GeoProcessorDao {
             .keySet()
             .stream()
             .flatMap(pipelineId -> ingestService.getProcessorsInPipeline(pipelineId, Ip2GeoProcessor.class).stream())
-            .filter(ip2GeoProcessor -> ip2GeoProcessor.getDatasourceName().equals(datasourceName))
+            .filter(ip2GeoProcessor -> ip2GeoProcessor.getDatasourceNames().contains(datasourceName))
             .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Input stream reading ahead of its consumer on a separate thread
+ *
+ * Used for the decompression stage of a GeoIP database update: a task on the import executor inflates the zip entry
+ * into a bounded queue of chunks while the consumer parses CSV records from the chunks already inflated.
+ * Closing the stream closes the source and interrupts the task, so it never outlives the stream.
+ */
+final class ReadAheadInputStream extends InputStream {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final byte[] END = new byte[0];
+
+    private final InputStream in;
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    /**
+     * The thread running the read ahead task, guarded by this stream
+     */
+    private Thread reader;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private byte[] chunk = new byte[0];
+    private int position;
+
+    private ReadAheadInputStream(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Start reading ahead of a given input stream
+     *
+     * @param in the input stream, which is closed with the returned stream
+     * @param executor the executor running the read ahead task
+     * @return the input stream reading ahead
+     * @throws RejectedExecutionException if the executor rejects the read ahead task, in which case the input stream is closed
+     */
+    static ReadAheadInputStream start(final InputStream in, final Executor executor) {
+        ReadAheadInputStream stream = new ReadAheadInputStream(in);
+        try {
+            executor.execute(stream::readAhead);
+        } catch (RejectedExecutionException e) {
+            try {
+                stream.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        return stream;
+    }
+
+    private void readAhead() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            reader = Thread.currentThread();
+        }
+        try {
+            readChunks();
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // the stream is closed
+        } finally {
+            synchronized (this) {
+                reader = null;
+            }
+            // clear an interrupt from close so that it does not leak into the next task of the pooled thread
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Read chunks until the end of the source, recording a failure for the consumer instead of throwing it
+     */
+    private void readChunks() throws InterruptedException {
+        try {
+            while (closed == false) {
+                byte[] buffer = new byte[CHUNK_SIZE];
+                int length = in.readNBytes(buffer, 0, CHUNK_SIZE);
+                if (length == 0) {
+                    break;
+                }
+                chunks.put(length == CHUNK_SIZE ? buffer : Arrays.copyOf(buffer, length));
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (IOException e) {
+            failure = e;
+        } catch (Throwable t) {
+            failure = new IOException("failed to decompress GeoIP data", t);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (nextChunk() == false) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (nextChunk() == false) {
+            return -1;
+        }
+        int length = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Make sure the current chunk has bytes left, waiting for the next chunk if needed
+     *
+     * @return false at the end of the stream
+     */
+    private boolean nextChunk() throws IOException {
+        if (closed) {
+            throw new IOException("stream is closed");
+        }
+        while (chunk != END && position == chunk.length) {
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for GeoIP data to decompress");
+            }
+            position = 0;
+        }
+        if (chunk == END) {
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (reader != null) {
+                reader.interrupt();
+            }
+        }
+        chunks.clear();
+        in.close();
+    }
+}
@@ -387,6 +387,21 @@ public class Datasource implements Writeable, ScheduledJobParameter {
         return String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, name, suffix);
     }
 
+    /**
+     * Datasource name of a GeoIP data index, the reverse of {@link #newIndexName(String)}
+     *
+     * @param indexName the index name
+     * @return the datasource name or null if the index is not a GeoIP data index
+     */
+    public static String toDatasourceName(final String indexName) {
+        int nameStart = IP2GEO_DATA_INDEX_NAME_PREFIX.length() + 1;
+        int nameEnd = indexName.lastIndexOf('.');
+        if (indexName.startsWith(IP2GEO_DATA_INDEX_NAME_PREFIX + ".") == false || nameEnd <= nameStart) {
+            return null;
+        }
+        return indexName.substring(nameStart, nameEnd);
+    }
+
     /**
      * Reset database so that it can be updated in next run regardless there is new update or not
      */
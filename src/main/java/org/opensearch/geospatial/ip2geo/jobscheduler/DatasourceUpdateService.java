@@ -90,7 +90,7 @@ public class DatasourceUpdateService {
                     datasource.getDatabase().getFields().toString()
                 );
             }
-            geoIpDataDao.putGeoIpData(indexName, header, reader.iterator(), renewLock);
+            geoIpDataDao.putGeoIpData(indexName, header, reader, renewLock);
         }
 
         waitUntilAllShardsStarted(indexName, MAX_WAIT_TIME_FOR_REPLICATION_TO_COMPLETE_IN_MILLIS);
@@ -0,0 +1,100 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.Map;
+
+import org.opensearch.common.network.InetAddresses;
+
+/**
+ * Per node lookup structure of GeoIP data in a single GeoIP data index
+ */
+public interface GeoIpLookup {
+    /**
+     * @return the index name this lookup is loaded from
+     */
+    String getIndexName();
+
+    /**
+     * Acquire a reference to this lookup, which the caller releases with {@link #release()} once it is done with lookups
+     *
+     * A lookup backed by a resource, such as a mapped file, stays usable until its last reference is released.
+     *
+     * @return whether the reference is acquired, false if the lookup is already closed
+     */
+    default boolean tryAcquire() {
+        return true;
+    }
+
+    /**
+     * Release a reference acquired with {@link #tryAcquire()}
+     */
+    default void release() {}
+
+    /**
+     * Return geo data of a given ip address
+     *
+     * @param address ip address
+     * @return geo data of the ip address or empty map if no range contains the ip address
+     */
+    default Map<String, Object> lookup(final InetAddress address) {
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            return lookupIpv4(GeoIpRangeTable.toInt(bytes, 0));
+        }
+        return lookupIpv6(GeoIpRangeTable.toLong(bytes, 0), GeoIpRangeTable.toLong(bytes, 8));
+    }
+
+    /**
+     * Return geo data of a given ip address
+     *
+     * IPv4 addresses in dotted-quad notation are parsed without allocation.
+     *
+     * @param ip ip address
+     * @return geo data of the ip address or empty map if no range contains the ip address
+     */
+    default Map<String, Object> lookup(final String ip) {
+        long ipv4 = IpAddresses.parseIpv4(ip);
+        if (ipv4 != IpAddresses.NOT_IPV4) {
+            return lookupIpv4((int) ipv4);
+        }
+        return lookup(InetAddresses.forString(ip));
+    }
+
+    /**
+     * Return geo data of an ip address given in IPv6 form, such as the value of an ip field,
+     * where an IPv4 address is an IPv4-mapped address
+     *
+     * @param high the high 64 bits of the ip address
+     * @param low the low 64 bits of the ip address
+     * @return geo data of the ip address or empty map if no range contains the ip address
+     */
+    default Map<String, Object> lookup(final long high, final long low) {
+        if (IpAddresses.isIpv4Mapped(high, low)) {
+            return lookupIpv4((int) low);
+        }
+        return lookupIpv6(high, low);
+    }
+
+    /**
+     * Return geo data of a given IPv4 address
+     *
+     * @param ip the IPv4 address as an unsigned 32 bits value
+     * @return geo data of the ip address or empty map if no range contains the ip address
+     */
+    Map<String, Object> lookupIpv4(int ip);
+
+    /**
+     * Return geo data of a given IPv6 address
+     *
+     * @param ipHigh the high 64 bits of the IPv6 address
+     * @param ipLow the low 64 bits of the IPv6 address
+     * @return geo data of the ip address or empty map if no range contains the ip address
+     */
+    Map<String, Object> lookupIpv6(long ipHigh, long ipLow);
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.opensearch.common.SuppressForbidden;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Memory-mapped on-disk lookup file of GeoIP data in a single GeoIP data index
+ *
+ * The file holds the same sorted ranges as {@link GeoIpRangeTable} followed by dictionary-encoded geo data.
+ * Lookups are served directly from the page cache through a {@link MappedByteBuffer}. All numbers are big-endian.
+ *
+ * File layout
+ * <pre>
+ * header      : magic(int), version(int), ipv4 count(int), ipv6 count(int), string count(int), value count(int)
+ * ipv4 ranges : starts(int[]), ends(int[]), ordinals(int[])
+ * ipv6 ranges : start highs(long[]), start lows(long[]), end highs(long[]), end lows(long[]), ordinals(int[])
+ * strings     : offsets(int[string count + 1]), utf-8 bytes
+ * values      : offsets(int[value count + 1]), per value [field count(int), (key ordinal(int), value ordinal(int)) * field count]
+ * </pre>
+ *
+ * The file is reference counted, starting with the reference of its owner. Once the last reference is released,
+ * the file is unmapped and handed to the close callback of its owner, which may delete it.
+ */
+@Log4j2
+public final class GeoIpLookupFile implements GeoIpLookup {
+    private static final int MAGIC = 0x49504746; // IPGF
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    @Getter
+    private final String indexName;
+    /**
+     * @return the path of the lookup file
+     */
+    @Getter
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Consumer<Path> onClose;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final int ipv4Count;
+    private final int ipv6Count;
+    private final int stringCount;
+    private final int valueCount;
+    private final int ipv4StartsOffset;
+    private final int ipv4EndsOffset;
+    private final int ipv4OrdinalsOffset;
+    private final int ipv6StartHighsOffset;
+    private final int ipv6StartLowsOffset;
+    private final int ipv6EndHighsOffset;
+    private final int ipv6EndLowsOffset;
+    private final int ipv6OrdinalsOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final int valueOffsetsOffset;
+    private final int valueDataOffset;
+
+    private GeoIpLookupFile(final String indexName, final Path path, final ByteBuffer buffer, final Consumer<Path> onClose)
+        throws IOException {
+        this.indexName = indexName;
+        this.path = path;
+        this.buffer = buffer;
+        this.onClose = onClose;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException(String.format(Locale.ROOT, "[%s] is not a valid ip2geo lookup file", path));
+        }
+        this.ipv4Count = buffer.getInt(2 * Integer.BYTES);
+        this.ipv6Count = buffer.getInt(3 * Integer.BYTES);
+        this.stringCount = buffer.getInt(4 * Integer.BYTES);
+        this.valueCount = buffer.getInt(5 * Integer.BYTES);
+        this.ipv4StartsOffset = HEADER_SIZE;
+        this.ipv4EndsOffset = ipv4StartsOffset + ipv4Count * Integer.BYTES;
+        this.ipv4OrdinalsOffset = ipv4EndsOffset + ipv4Count * Integer.BYTES;
+        this.ipv6StartHighsOffset = ipv4OrdinalsOffset + ipv4Count * Integer.BYTES;
+        this.ipv6StartLowsOffset = ipv6StartHighsOffset + ipv6Count * Long.BYTES;
+        this.ipv6EndHighsOffset = ipv6StartLowsOffset + ipv6Count * Long.BYTES;
+        this.ipv6EndLowsOffset = ipv6EndHighsOffset + ipv6Count * Long.BYTES;
+        this.ipv6OrdinalsOffset = ipv6EndLowsOffset + ipv6Count * Long.BYTES;
+        this.stringOffsetsOffset = ipv6OrdinalsOffset + ipv6Count * Integer.BYTES;
+        this.stringDataOffset = stringOffsetsOffset + (stringCount + 1) * Integer.BYTES;
+        this.valueOffsetsOffset = stringDataOffset + buffer.getInt(stringOffsetsOffset + stringCount * Integer.BYTES);
+        this.valueDataOffset = valueOffsetsOffset + (valueCount + 1) * Integer.BYTES;
+        if (valueDataOffset + buffer.getInt(valueOffsetsOffset + valueCount * Integer.BYTES) != buffer.capacity()) {
+            throw new IOException(String.format(Locale.ROOT, "ip2geo lookup file [%s] is truncated", path));
+        }
+    }
+
+    /**
+     * Memory map an existing lookup file
+     *
+     * @param indexName the index name the file is built from
+     * @param path the path of the file
+     * @return the lookup file
+     * @throws IOException if the file cannot be mapped or is not a valid lookup file
+     */
+    public static GeoIpLookupFile open(final String indexName, final Path path) throws IOException {
+        return open(indexName, path, closedPath -> {});
+    }
+
+    /**
+     * Memory map an existing lookup file
+     *
+     * @param indexName the index name the file is built from
+     * @param path the path of the file
+     * @param onClose the callback called with the path of the file once it is unmapped
+     * @return the lookup file
+     * @throws IOException if the file cannot be mapped or is not a valid lookup file
+     */
+    public static GeoIpLookupFile open(final String indexName, final Path path, final Consumer<Path> onClose) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(String.format(Locale.ROOT, "ip2geo lookup file [%s] is too large", path));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return new GeoIpLookupFile(indexName, path, buffer, onClose);
+            } catch (IOException e) {
+                unmap(buffer);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Write a lookup table into a file
+     *
+     * The file is written to a temporary file first and moved to the given path atomically
+     * so that a partially written file is never mapped.
+     *
+     * @param table the lookup table
+     * @param path the path of the file
+     * @throws IOException the exception
+     * @throws IllegalArgumentException if the table has a value which is not a string
+     */
+    public static void write(final GeoIpRangeTable table, final Path path) throws IOException {
+        Map<String, Integer> stringOrdinals = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        List<int[]> values = new ArrayList<>(table.getValues().size());
+        for (Map<String, Object> value : table.getValues()) {
+            int[] encoded = new int[value.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : value.entrySet()) {
+                encoded[i++] = stringOrdinal(entry.getKey(), stringOrdinals, strings);
+                encoded[i++] = stringOrdinal(toStringValue(table.getIndexName(), entry), stringOrdinals, strings);
+            }
+            values.add(encoded);
+        }
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.getIpv4Starts().length);
+            out.writeInt(table.getIpv6StartHighs().length);
+            out.writeInt(strings.size());
+            out.writeInt(values.size());
+            writeInts(out, table.getIpv4Starts());
+            writeInts(out, table.getIpv4Ends());
+            writeInts(out, table.getIpv4Ordinals());
+            writeLongs(out, table.getIpv6StartHighs());
+            writeLongs(out, table.getIpv6StartLows());
+            writeLongs(out, table.getIpv6EndHighs());
+            writeLongs(out, table.getIpv6EndLows());
+            writeInts(out, table.getIpv6Ordinals());
+
+            int offset = 0;
+            for (byte[] string : strings) {
+                out.writeInt(offset);
+                offset += string.length;
+            }
+            out.writeInt(offset);
+            for (byte[] string : strings) {
+                out.write(string);
+            }
+
+            offset = 0;
+            for (int[] value : values) {
+                out.writeInt(offset);
+                offset += (value.length + 1) * Integer.BYTES;
+            }
+            out.writeInt(offset);
+            for (int[] value : values) {
+                out.writeInt(value.length / 2);
+                writeInts(out, value);
+            }
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Geo data values are stored as strings only, so that a lookup returns the same values as the GeoIP data index does
+     */
+    private static String toStringValue(final String indexName, final Map.Entry<String, Object> entry) {
+        if (entry.getValue() instanceof String == false) {
+            throw new IllegalArgumentException(
+                String.format(
+                    Locale.ROOT,
+                    "ip2geo lookup file supports string values only but field [%s] of index [%s] has a value of type [%s]",
+                    entry.getKey(),
+                    indexName,
+                    entry.getValue() == null ? "null" : entry.getValue().getClass().getSimpleName()
+                )
+            );
+        }
+        return (String) entry.getValue();
+    }
+
+    private static int stringOrdinal(final String string, final Map<String, Integer> stringOrdinals, final List<byte[]> strings) {
+        return stringOrdinals.computeIfAbsent(string, key -> {
+            strings.add(key.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    private static void writeInts(final DataOutputStream out, final int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeLongs(final DataOutputStream out, final long[] values) throws IOException {
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        int count;
+        do {
+            count = references.get();
+            if (count <= 0) {
+                return false;
+            }
+        } while (references.compareAndSet(count, count + 1) == false);
+        return true;
+    }
+
+    /**
+     * Release a reference, unmapping the file once the last reference is released
+     *
+     * No lookup may be done with a released reference as the memory of an unmapped file is not accessible anymore.
+     */
+    @Override
+    public void release() {
+        int count = references.decrementAndGet();
+        assert count >= 0 : "lookup file " + path + " is released more than acquired";
+        if (count == 0) {
+            unmap(buffer);
+            onClose.accept(path);
+        }
+    }
+
+    /**
+     * @return whether the file is unmapped
+     */
+    public boolean isClosed() {
+        return references.get() <= 0;
+    }
+
+    /**
+     * @return the number of ip ranges in the file
+     */
+    public int size() {
+        return ipv4Count + ipv6Count;
+    }
+
+    @Override
+    public Map<String, Object> lookupIpv4(final int ip) {
+        int ordinal = findIpv4(ip);
+        return ordinal < 0 ? Collections.emptyMap() : readValue(ordinal);
+    }
+
+    @Override
+    public Map<String, Object> lookupIpv6(final long ipHigh, final long ipLow) {
+        int ordinal = findIpv6(ipHigh, ipLow);
+        return ordinal < 0 ? Collections.emptyMap() : readValue(ordinal);
+    }
+
+    private int findIpv4(final int ip) {
+        int low = 0;
+        int high = ipv4Count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(buffer.getInt(ipv4StartsOffset + mid * Integer.BYTES), ip) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0 || Integer.compareUnsigned(ip, buffer.getInt(ipv4EndsOffset + high * Integer.BYTES)) > 0) {
+            return -1;
+        }
+        return buffer.getInt(ipv4OrdinalsOffset + high * Integer.BYTES);
+    }
+
+    private int findIpv6(final long ipHigh, final long ipLow) {
+        int low = 0;
+        int high = ipv6Count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long startHigh = buffer.getLong(ipv6StartHighsOffset + mid * Long.BYTES);
+            long startLow = buffer.getLong(ipv6StartLowsOffset + mid * Long.BYTES);
+            if (GeoIpRangeTable.compareUnsigned(startHigh, startLow, ipHigh, ipLow) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        long endHigh = buffer.getLong(ipv6EndHighsOffset + high * Long.BYTES);
+        long endLow = buffer.getLong(ipv6EndLowsOffset + high * Long.BYTES);
+        if (GeoIpRangeTable.compareUnsigned(ipHigh, ipLow, endHigh, endLow) > 0) {
+            return -1;
+        }
+        return buffer.getInt(ipv6OrdinalsOffset + high * Integer.BYTES);
+    }
+
+    private Map<String, Object> readValue(final int ordinal) {
+        int offset = valueDataOffset + buffer.getInt(valueOffsetsOffset + ordinal * Integer.BYTES);
+        int fieldCount = buffer.getInt(offset);
+        Map<String, Object> value = new HashMap<>(fieldCount * 2);
+        for (int i = 0; i < fieldCount; i++) {
+            int keyOrdinal = buffer.getInt(offset + (1 + i * 2) * Integer.BYTES);
+            int valueOrdinal = buffer.getInt(offset + (2 + i * 2) * Integer.BYTES);
+            value.put(readString(keyOrdinal), readString(valueOrdinal));
+        }
+        return Collections.unmodifiableMap(value);
+    }
+
+    private String readString(final int ordinal) {
+        int start = buffer.getInt(stringOffsetsOffset + ordinal * Integer.BYTES);
+        int end = buffer.getInt(stringOffsetsOffset + (ordinal + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringDataOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Find the method which unmaps a mapped buffer right away, as the JDK unmaps it only once it is garbage collected
+     */
+    @SuppressForbidden(reason = "Unmap lookup files as soon as their last reader releases them")
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(unsafeField.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Lookup files are unmapped only when garbage collected as the unmapping method is not accessible", e);
+            return null;
+        }
+    }
+
+    private static void unmap(final ByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact(buffer);
+        } catch (Throwable t) {
+            log.warn("Failed to unmap lookup file", t);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoExecutor;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.geospatial.ip2geo.dao.GeoIpDataDao;
+import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Registry of per node GeoIP lookups
+ *
+ * A lookup is loaded only for datasources listed in {@link Ip2GeoSettings#FILE_LOOKUP_DATASOURCES} or
+ * {@link Ip2GeoSettings#IN_MEMORY_LOOKUP_DATASOURCES}. A datasource listed in both uses a lookup file.
+ * Each datasource has at most one lookup which is bound to the GeoIP data index it was loaded from.
+ * When the current index of a datasource changes, a new lookup is loaded in background and replaces the old one
+ * once it is ready. Until then, {@link #acquire(String, String)} returns null and callers should fall back to a search request.
+ *
+ * Lookup files are stored under the node data path and named after the index they are built from. A lookup file which
+ * already exists is mapped as is so that it survives node restarts without reading the GeoIP data index again.
+ * A lookup file which is replaced or removed is unmapped and deleted only once the last caller which acquired it releases it.
+ */
+@Log4j2
+public class GeoIpLookupRegistry {
+    private static final String LOOKUP_FILE_DIRECTORY = "ip2geo";
+    private static final String LOOKUP_FILE_SUFFIX = ".lookup";
+    private final NodeEnvironment nodeEnvironment;
+    private final GeoIpDataDao geoIpDataDao;
+    private final Ip2GeoExecutor ip2GeoExecutor;
+    private final Map<String, GeoIpLookup> lookups = new ConcurrentHashMap<>();
+    private final Set<String> loadingIndices = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> inMemoryDatasourceNames;
+    private volatile Set<String> fileDatasourceNames;
+
+    public GeoIpLookupRegistry(
+        final ClusterSettings clusterSettings,
+        final NodeEnvironment nodeEnvironment,
+        final GeoIpDataDao geoIpDataDao,
+        final Ip2GeoExecutor ip2GeoExecutor
+    ) {
+        this.nodeEnvironment = nodeEnvironment;
+        this.geoIpDataDao = geoIpDataDao;
+        this.ip2GeoExecutor = ip2GeoExecutor;
+        this.inMemoryDatasourceNames = Set.copyOf(clusterSettings.get(Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES));
+        this.fileDatasourceNames = Set.copyOf(clusterSettings.get(Ip2GeoSettings.FILE_LOOKUP_DATASOURCES));
+        clusterSettings.addSettingsUpdateConsumer(Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES, this::updateInMemoryDatasourceNames);
+        clusterSettings.addSettingsUpdateConsumer(Ip2GeoSettings.FILE_LOOKUP_DATASOURCES, this::updateFileDatasourceNames);
+    }
+
+    /**
+     * Acquire a lookup of a datasource for a given index, which the caller releases with {@link GeoIpLookup#release()}
+     *
+     * If the datasource uses a lookup but the lookup for the index is not loaded yet, loading is triggered in background.
+     *
+     * @param datasourceName the datasource name
+     * @param indexName the current index name of the datasource
+     * @return the lookup or null if the datasource does not use a lookup or the lookup is not ready
+     */
+    public GeoIpLookup acquire(final String datasourceName, final String indexName) {
+        if (isEnabled(datasourceName) == false) {
+            return null;
+        }
+        GeoIpLookup lookup = lookups.get(datasourceName);
+        if (lookup != null && lookup.getIndexName().equals(indexName) && lookup.tryAcquire()) {
+            return lookup;
+        }
+        load(datasourceName, indexName);
+        return null;
+    }
+
+    /**
+     * Load a lookup of a datasource for a given index in background if it is not loaded yet
+     *
+     * @param datasourceName the datasource name
+     * @param indexName the current index name of the datasource
+     */
+    public void load(final String datasourceName, final String indexName) {
+        if (indexName == null || isEnabled(datasourceName) == false || loadingIndices.add(indexName) == false) {
+            return;
+        }
+        try {
+            ip2GeoExecutor.forLookupLoad().submit(() -> {
+                try {
+                    doLoad(datasourceName, indexName);
+                } catch (Exception e) {
+                    log.error("Failed to load lookup of datasource {} from index {}", datasourceName, indexName, e);
+                } finally {
+                    loadingIndices.remove(indexName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipped loading lookup of datasource {} as the executor is busy", datasourceName);
+            loadingIndices.remove(indexName);
+        }
+    }
+
+    private void doLoad(final String datasourceName, final String indexName) throws IOException {
+        GeoIpLookup current = lookups.get(datasourceName);
+        if (current != null && current.getIndexName().equals(indexName)) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        boolean useFile = fileDatasourceNames.contains(datasourceName);
+        GeoIpLookup lookup = useFile ? loadFile(datasourceName, indexName) : loadTable(indexName);
+        if (isEnabled(datasourceName) == false || useFile != fileDatasourceNames.contains(datasourceName)) {
+            lookup.release();
+            return;
+        }
+        GeoIpLookup previous = lookups.put(datasourceName, lookup);
+        if (previous != null) {
+            previous.release();
+        }
+        log.info(
+            "Loaded {} lookup of datasource {} from index {} in {} ms",
+            useFile ? "file" : "in-memory",
+            datasourceName,
+            indexName,
+            (System.nanoTime() - startTime) / 1_000_000
+        );
+    }
+
+    private GeoIpRangeTable loadTable(final String indexName) {
+        GeoIpRangeTable.Builder builder = GeoIpRangeTable.builder(indexName);
+        geoIpDataDao.getAllGeoIpData(indexName, builder::add);
+        return builder.build();
+    }
+
+    private GeoIpLookupFile loadFile(final String datasourceName, final String indexName) throws IOException {
+        Path directory = nodeEnvironment.nodeDataPaths()[0].resolve(LOOKUP_FILE_DIRECTORY);
+        Files.createDirectories(directory);
+        deleteStaleFiles(directory, datasourceName, indexName);
+        Path path = directory.resolve(indexName + LOOKUP_FILE_SUFFIX);
+        if (Files.exists(path)) {
+            try {
+                return GeoIpLookupFile.open(indexName, path, this::onLookupFileClosed);
+            } catch (IOException e) {
+                log.warn("Rebuilding invalid lookup file {}", path, e);
+            }
+        }
+        GeoIpLookupFile.write(loadTable(indexName), path);
+        return GeoIpLookupFile.open(indexName, path, this::onLookupFileClosed);
+    }
+
+    /**
+     * Delete lookup files of a datasource which are left from previous indices, for example, while the node was down
+     *
+     * Files of previous indices which are still mapped are skipped and deleted once they are released.
+     */
+    private void deleteStaleFiles(final Path directory, final String datasourceName, final String indexName) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + LOOKUP_FILE_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String fileIndexName = fileName.substring(0, fileName.length() - LOOKUP_FILE_SUFFIX.length());
+                if (datasourceName.equals(Datasource.toDatasourceName(fileIndexName))
+                    && fileIndexName.equals(indexName) == false
+                    && isMapped(file) == false) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    private boolean isMapped(final Path path) {
+        return lookups.values()
+            .stream()
+            .anyMatch(lookup -> lookup instanceof GeoIpLookupFile && path.equals(((GeoIpLookupFile) lookup).getPath()));
+    }
+
+    /**
+     * Delete a lookup file once its last reference is released, unless the file is mapped again for the current lookup,
+     * for example, when a lookup is removed and loaded again while it is still in use
+     */
+    private void onLookupFileClosed(final Path path) {
+        if (isMapped(path) == false) {
+            deleteFile(path);
+        }
+    }
+
+    private void deleteFile(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete lookup file {}", path, e);
+        }
+    }
+
+    /**
+     * Remove a lookup of a datasource
+     *
+     * A lookup file is unmapped and deleted once callers which acquired it release it.
+     *
+     * @param datasourceName the datasource name
+     */
+    public void remove(final String datasourceName) {
+        GeoIpLookup lookup = lookups.remove(datasourceName);
+        if (lookup != null) {
+            lookup.release();
+        }
+    }
+
+    /**
+     * @param datasourceName the datasource name
+     * @return whether the datasource uses a lookup
+     */
+    public boolean isEnabled(final String datasourceName) {
+        return fileDatasourceNames.contains(datasourceName) || inMemoryDatasourceNames.contains(datasourceName);
+    }
+
+    private void updateInMemoryDatasourceNames(final List<String> names) {
+        inMemoryDatasourceNames = Set.copyOf(names);
+        removeMismatchedLookups();
+    }
+
+    private void updateFileDatasourceNames(final List<String> names) {
+        fileDatasourceNames = Set.copyOf(names);
+        removeMismatchedLookups();
+    }
+
+    private void removeMismatchedLookups() {
+        for (Map.Entry<String, GeoIpLookup> entry : lookups.entrySet()) {
+            boolean useFile = fileDatasourceNames.contains(entry.getKey());
+            if (isEnabled(entry.getKey()) == false || useFile != (entry.getValue() instanceof GeoIpLookupFile)) {
+                remove(entry.getKey());
+            }
+        }
+    }
+}
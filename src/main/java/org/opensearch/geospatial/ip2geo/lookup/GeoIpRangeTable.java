@@ -0,0 +1,487 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.IntroSorter;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.network.InetAddresses;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * In-memory lookup table of GeoIP data in a single GeoIP data index
+ *
+ * IP ranges are kept in primitive arrays sorted by the start of a range. IPv4 ranges are stored as int and IPv6 ranges
+ * are stored as two longs. A lookup is a binary search over the start of ranges followed by a check on the end of the
+ * matched range. Geo data of each range is deduplicated so that ranges with identical geo data share a single map.
+ *
+ * Overlapping ranges are split into disjoint ranges when the table is built, where the innermost range wins, so that
+ * an ip address in a nested range falls back to its enclosing range outside of the nested one. The IPv4-mapped part of
+ * an IPv6 range is added to the IPv4 ranges as well, as IPv4 addresses are looked up in the IPv4 ranges only.
+ */
+public final class GeoIpRangeTable implements GeoIpLookup {
+    private static final int IPV4_BITS = 32;
+    private static final int LONG_BITS = 64;
+    private static final int IPV6_BITS = 128;
+    private static final long IPV4_MAPPED_HIGH = 0;
+    private static final long IPV4_MAPPED_END_LOW = IpAddresses.IPV4_MAPPED_LOW | 0xFFFF_FFFFL;
+
+    @Getter
+    private final String indexName;
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] ipv4Starts;
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] ipv4Ends;
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] ipv4Ordinals;
+    @Getter(AccessLevel.PACKAGE)
+    private final long[] ipv6StartHighs;
+    @Getter(AccessLevel.PACKAGE)
+    private final long[] ipv6StartLows;
+    @Getter(AccessLevel.PACKAGE)
+    private final long[] ipv6EndHighs;
+    @Getter(AccessLevel.PACKAGE)
+    private final long[] ipv6EndLows;
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] ipv6Ordinals;
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Map<String, Object>> values;
+
+    private GeoIpRangeTable(final Builder builder) {
+        this.indexName = builder.indexName;
+        this.ipv4Starts = Arrays.copyOf(builder.ipv4Starts, builder.ipv4Size);
+        this.ipv4Ends = Arrays.copyOf(builder.ipv4Ends, builder.ipv4Size);
+        this.ipv4Ordinals = Arrays.copyOf(builder.ipv4Ordinals, builder.ipv4Size);
+        this.ipv6StartHighs = Arrays.copyOf(builder.ipv6StartHighs, builder.ipv6Size);
+        this.ipv6StartLows = Arrays.copyOf(builder.ipv6StartLows, builder.ipv6Size);
+        this.ipv6EndHighs = Arrays.copyOf(builder.ipv6EndHighs, builder.ipv6Size);
+        this.ipv6EndLows = Arrays.copyOf(builder.ipv6EndLows, builder.ipv6Size);
+        this.ipv6Ordinals = Arrays.copyOf(builder.ipv6Ordinals, builder.ipv6Size);
+        this.values = Collections.unmodifiableList(new ArrayList<>(builder.values));
+    }
+
+    /**
+     * Create a builder of a lookup table
+     *
+     * @param indexName the index name the table is loaded from
+     * @return the builder
+     */
+    public static Builder builder(final String indexName) {
+        return new Builder(indexName);
+    }
+
+    /**
+     * @return the number of disjoint ip ranges in the table
+     */
+    public int size() {
+        return ipv4Starts.length + ipv6StartHighs.length;
+    }
+
+    /**
+     * @return the number of distinct geo data in the table
+     */
+    public int valueCount() {
+        return values.size();
+    }
+
+    @Override
+    public Map<String, Object> lookupIpv4(final int ip) {
+        int ordinal = findIpv4(ip);
+        return ordinal < 0 ? Collections.emptyMap() : values.get(ordinal);
+    }
+
+    @Override
+    public Map<String, Object> lookupIpv6(final long ipHigh, final long ipLow) {
+        int ordinal = findIpv6(ipHigh, ipLow);
+        return ordinal < 0 ? Collections.emptyMap() : values.get(ordinal);
+    }
+
+    private int findIpv4(final int ip) {
+        int low = 0;
+        int high = ipv4Starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(ipv4Starts[mid], ip) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0 || Integer.compareUnsigned(ip, ipv4Ends[high]) > 0) {
+            return -1;
+        }
+        return ipv4Ordinals[high];
+    }
+
+    private int findIpv6(final long ipHigh, final long ipLow) {
+        int low = 0;
+        int high = ipv6StartHighs.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compareUnsigned(ipv6StartHighs[mid], ipv6StartLows[mid], ipHigh, ipLow) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0 || compareUnsigned(ipHigh, ipLow, ipv6EndHighs[high], ipv6EndLows[high]) > 0) {
+            return -1;
+        }
+        return ipv6Ordinals[high];
+    }
+
+    static int compareUnsigned(final long leftHigh, final long leftLow, final long rightHigh, final long rightLow) {
+        int result = Long.compareUnsigned(leftHigh, rightHigh);
+        return result != 0 ? result : Long.compareUnsigned(leftLow, rightLow);
+    }
+
+    static int toInt(final byte[] bytes, final int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3]
+            & 0xFF);
+    }
+
+    static long toLong(final byte[] bytes, final int offset) {
+        return ((long) toInt(bytes, offset) << 32) | (toInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Builder of {@link GeoIpRangeTable}
+     *
+     * Ranges can be added in any order. They are sorted and split into disjoint ranges when the table is built.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+        private final String indexName;
+        private final Map<Map<String, Object>, Integer> ordinals = new HashMap<>();
+        private final List<Map<String, Object>> values = new ArrayList<>();
+        private int[] ipv4Starts = new int[INITIAL_CAPACITY];
+        private int[] ipv4Ends = new int[INITIAL_CAPACITY];
+        private int[] ipv4Ordinals = new int[INITIAL_CAPACITY];
+        private int[] ipv4PrefixLengths = new int[INITIAL_CAPACITY];
+        private int ipv4Size;
+        private long[] ipv6StartHighs = new long[INITIAL_CAPACITY];
+        private long[] ipv6StartLows = new long[INITIAL_CAPACITY];
+        private long[] ipv6EndHighs = new long[INITIAL_CAPACITY];
+        private long[] ipv6EndLows = new long[INITIAL_CAPACITY];
+        private int[] ipv6Ordinals = new int[INITIAL_CAPACITY];
+        private int ipv6Size;
+
+        private Builder(final String indexName) {
+            this.indexName = indexName;
+        }
+
+        /**
+         * Add an ip range with its geo data
+         *
+         * @param cidr ip range in CIDR notation
+         * @param geoData geo data of the ip range
+         * @return this builder
+         */
+        public Builder add(final String cidr, final Map<String, Object> geoData) {
+            Tuple<InetAddress, Integer> range = InetAddresses.parseCidr(cidr);
+            byte[] bytes = range.v1().getAddress();
+            int prefixLength = range.v2();
+            int ordinal = ordinal(geoData == null ? Collections.emptyMap() : geoData);
+            if (bytes.length == 4) {
+                addIpv4(toInt(bytes, 0), prefixLength, ordinal);
+            } else {
+                addIpv6(toLong(bytes, 0), toLong(bytes, 8), prefixLength, ordinal);
+            }
+            return this;
+        }
+
+        private int ordinal(final Map<String, Object> geoData) {
+            Integer ordinal = ordinals.get(geoData);
+            if (ordinal == null) {
+                ordinal = values.size();
+                Map<String, Object> value = Collections.unmodifiableMap(geoData);
+                values.add(value);
+                ordinals.put(value, ordinal);
+            }
+            return ordinal;
+        }
+
+        private void addIpv4(final int ip, final int prefixLength, final int ordinal) {
+            if (prefixLength < 0 || prefixLength > IPV4_BITS) {
+                throw new IllegalArgumentException(String.format(Locale.ROOT, "invalid prefix length [%d] for ipv4", prefixLength));
+            }
+            int mask = prefixLength == 0 ? 0 : -1 << (IPV4_BITS - prefixLength);
+            appendIpv4(ip & mask, (ip & mask) | ~mask, ordinal, IPV6_BITS - IPV4_BITS + prefixLength);
+        }
+
+        /**
+         * @param prefixLength the prefix length of the range as an IPv6 range, which decides the innermost of identical ranges
+         */
+        private void appendIpv4(final int start, final int end, final int ordinal, final int prefixLength) {
+            ipv4Starts = ArrayUtil.grow(ipv4Starts, ipv4Size + 1);
+            ipv4Ends = ArrayUtil.grow(ipv4Ends, ipv4Size + 1);
+            ipv4Ordinals = ArrayUtil.grow(ipv4Ordinals, ipv4Size + 1);
+            ipv4PrefixLengths = ArrayUtil.grow(ipv4PrefixLengths, ipv4Size + 1);
+            ipv4Starts[ipv4Size] = start;
+            ipv4Ends[ipv4Size] = end;
+            ipv4Ordinals[ipv4Size] = ordinal;
+            ipv4PrefixLengths[ipv4Size] = prefixLength;
+            ipv4Size++;
+        }
+
+        private void addIpv6(final long high, final long low, final int prefixLength, final int ordinal) {
+            if (prefixLength < 0 || prefixLength > IPV6_BITS) {
+                throw new IllegalArgumentException(String.format(Locale.ROOT, "invalid prefix length [%d] for ipv6", prefixLength));
+            }
+            long highMask = prefixLength == 0 ? 0 : prefixLength >= LONG_BITS ? -1L : -1L << (LONG_BITS - prefixLength);
+            long lowMask = prefixLength <= LONG_BITS ? 0 : -1L << (IPV6_BITS - prefixLength);
+            long startHigh = high & highMask;
+            long startLow = low & lowMask;
+            long endHigh = startHigh | ~highMask;
+            long endLow = startLow | ~lowMask;
+            appendIpv6(startHigh, startLow, endHigh, endLow, ordinal);
+            addIpv4Mapped(startHigh, startLow, endHigh, endLow, ordinal, prefixLength);
+        }
+
+        /**
+         * Add the part of an IPv6 range which covers IPv4-mapped addresses as an IPv4 range
+         */
+        private void addIpv4Mapped(
+            final long startHigh,
+            final long startLow,
+            final long endHigh,
+            final long endLow,
+            final int ordinal,
+            final int prefixLength
+        ) {
+            if (compareUnsigned(startHigh, startLow, IPV4_MAPPED_HIGH, IPV4_MAPPED_END_LOW) > 0
+                || compareUnsigned(endHigh, endLow, IPV4_MAPPED_HIGH, IpAddresses.IPV4_MAPPED_LOW) < 0) {
+                return;
+            }
+            int start = compareUnsigned(startHigh, startLow, IPV4_MAPPED_HIGH, IpAddresses.IPV4_MAPPED_LOW) < 0 ? 0 : (int) startLow;
+            int end = compareUnsigned(endHigh, endLow, IPV4_MAPPED_HIGH, IPV4_MAPPED_END_LOW) > 0 ? -1 : (int) endLow;
+            appendIpv4(start, end, ordinal, prefixLength);
+        }
+
+        private void appendIpv6(final long startHigh, final long startLow, final long endHigh, final long endLow, final int ordinal) {
+            ipv6StartHighs = ArrayUtil.grow(ipv6StartHighs, ipv6Size + 1);
+            ipv6StartLows = ArrayUtil.grow(ipv6StartLows, ipv6Size + 1);
+            ipv6EndHighs = ArrayUtil.grow(ipv6EndHighs, ipv6Size + 1);
+            ipv6EndLows = ArrayUtil.grow(ipv6EndLows, ipv6Size + 1);
+            ipv6Ordinals = ArrayUtil.grow(ipv6Ordinals, ipv6Size + 1);
+            ipv6StartHighs[ipv6Size] = startHigh;
+            ipv6StartLows[ipv6Size] = startLow;
+            ipv6EndHighs[ipv6Size] = endHigh;
+            ipv6EndLows[ipv6Size] = endLow;
+            ipv6Ordinals[ipv6Size] = ordinal;
+            ipv6Size++;
+        }
+
+        /**
+         * Build a lookup table
+         *
+         * @return the lookup table
+         */
+        public GeoIpRangeTable build() {
+            new Ipv4Sorter().sort(0, ipv4Size);
+            new Ipv6Sorter().sort(0, ipv6Size);
+            splitIpv4Overlaps();
+            splitIpv6Overlaps();
+            return new GeoIpRangeTable(this);
+        }
+
+        /**
+         * Split sorted IPv4 ranges into disjoint ranges, where the innermost range wins
+         *
+         * Ranges enclosing the current range are kept on a stack. The part of an enclosing range before a nested range
+         * is added when the nested range is reached, and the part after it when the nested range ends.
+         */
+        private void splitIpv4Overlaps() {
+            int[] starts = ipv4Starts;
+            int[] ends = ipv4Ends;
+            int[] rangeOrdinals = ipv4Ordinals;
+            int size = ipv4Size;
+            ipv4Starts = new int[size];
+            ipv4Ends = new int[size];
+            ipv4Ordinals = new int[size];
+            ipv4PrefixLengths = new int[size];
+            ipv4Size = 0;
+            int[] enclosing = new int[size];
+            int depth = 0;
+            long cursor = 0;
+            for (int i = 0; i <= size; i++) {
+                long start = i < size ? Integer.toUnsignedLong(starts[i]) : Long.MAX_VALUE;
+                while (depth > 0 && Integer.toUnsignedLong(ends[enclosing[depth - 1]]) < start) {
+                    int closed = enclosing[--depth];
+                    long end = Integer.toUnsignedLong(ends[closed]);
+                    if (cursor <= end) {
+                        appendIpv4((int) cursor, (int) end, rangeOrdinals[closed], 0);
+                        cursor = end + 1;
+                    }
+                }
+                if (i == size) {
+                    break;
+                }
+                if (depth > 0 && cursor < start) {
+                    appendIpv4((int) cursor, (int) (start - 1), rangeOrdinals[enclosing[depth - 1]], 0);
+                }
+                enclosing[depth++] = i;
+                cursor = start;
+            }
+        }
+
+        /**
+         * Split sorted IPv6 ranges into disjoint ranges, where the innermost range wins
+         *
+         * Same as {@link #splitIpv4Overlaps()} over 128 bits addresses, where no address follows a range ending at
+         * the last address.
+         */
+        private void splitIpv6Overlaps() {
+            long[] startHighs = ipv6StartHighs;
+            long[] startLows = ipv6StartLows;
+            long[] endHighs = ipv6EndHighs;
+            long[] endLows = ipv6EndLows;
+            int[] rangeOrdinals = ipv6Ordinals;
+            int size = ipv6Size;
+            ipv6StartHighs = new long[size];
+            ipv6StartLows = new long[size];
+            ipv6EndHighs = new long[size];
+            ipv6EndLows = new long[size];
+            ipv6Ordinals = new int[size];
+            ipv6Size = 0;
+            int[] enclosing = new int[size];
+            int depth = 0;
+            long cursorHigh = 0;
+            long cursorLow = 0;
+            boolean exhausted = false;
+            for (int i = 0; i <= size; i++) {
+                while (depth > 0) {
+                    int closed = enclosing[depth - 1];
+                    if (i < size && compareUnsigned(endHighs[closed], endLows[closed], startHighs[i], startLows[i]) >= 0) {
+                        break;
+                    }
+                    depth--;
+                    if (exhausted == false && compareUnsigned(cursorHigh, cursorLow, endHighs[closed], endLows[closed]) <= 0) {
+                        appendIpv6(cursorHigh, cursorLow, endHighs[closed], endLows[closed], rangeOrdinals[closed]);
+                        exhausted = endHighs[closed] == -1L && endLows[closed] == -1L;
+                        cursorLow = endLows[closed] + 1;
+                        cursorHigh = cursorLow == 0 ? endHighs[closed] + 1 : endHighs[closed];
+                    }
+                }
+                if (i == size) {
+                    break;
+                }
+                if (depth > 0 && compareUnsigned(cursorHigh, cursorLow, startHighs[i], startLows[i]) < 0) {
+                    long endLow = startLows[i] - 1;
+                    long endHigh = startLows[i] == 0 ? startHighs[i] - 1 : startHighs[i];
+                    appendIpv6(cursorHigh, cursorLow, endHigh, endLow, rangeOrdinals[enclosing[depth - 1]]);
+                }
+                enclosing[depth++] = i;
+                cursorHigh = startHighs[i];
+                cursorLow = startLows[i];
+            }
+        }
+
+        /**
+         * Sort IPv4 ranges by start, then by end in descending order and then by prefix length so that enclosing ranges come first
+         */
+        private class Ipv4Sorter extends IntroSorter {
+            private int pivotStart;
+            private int pivotEnd;
+            private int pivotPrefixLength;
+
+            @Override
+            protected void swap(final int i, final int j) {
+                swapInt(ipv4Starts, i, j);
+                swapInt(ipv4Ends, i, j);
+                swapInt(ipv4Ordinals, i, j);
+                swapInt(ipv4PrefixLengths, i, j);
+            }
+
+            @Override
+            protected int compare(final int i, final int j) {
+                return compareIpv4(ipv4Starts[i], ipv4Ends[i], ipv4PrefixLengths[i], j);
+            }
+
+            @Override
+            protected void setPivot(final int i) {
+                pivotStart = ipv4Starts[i];
+                pivotEnd = ipv4Ends[i];
+                pivotPrefixLength = ipv4PrefixLengths[i];
+            }
+
+            @Override
+            protected int comparePivot(final int j) {
+                return compareIpv4(pivotStart, pivotEnd, pivotPrefixLength, j);
+            }
+
+            private int compareIpv4(final int start, final int end, final int prefixLength, final int j) {
+                int result = Integer.compareUnsigned(start, ipv4Starts[j]);
+                if (result == 0) {
+                    result = Integer.compareUnsigned(ipv4Ends[j], end);
+                }
+                return result != 0 ? result : Integer.compare(prefixLength, ipv4PrefixLengths[j]);
+            }
+        }
+
+        /**
+         * Sort IPv6 ranges by start, and ranges with the same start by end in descending order so that enclosing ranges come first
+         */
+        private class Ipv6Sorter extends IntroSorter {
+            private long pivotStartHigh;
+            private long pivotStartLow;
+            private long pivotEndHigh;
+            private long pivotEndLow;
+
+            @Override
+            protected void swap(final int i, final int j) {
+                swapLong(ipv6StartHighs, i, j);
+                swapLong(ipv6StartLows, i, j);
+                swapLong(ipv6EndHighs, i, j);
+                swapLong(ipv6EndLows, i, j);
+                swapInt(ipv6Ordinals, i, j);
+            }
+
+            @Override
+            protected int compare(final int i, final int j) {
+                int result = compareUnsigned(ipv6StartHighs[i], ipv6StartLows[i], ipv6StartHighs[j], ipv6StartLows[j]);
+                return result != 0 ? result : compareUnsigned(ipv6EndHighs[j], ipv6EndLows[j], ipv6EndHighs[i], ipv6EndLows[i]);
+            }
+
+            @Override
+            protected void setPivot(final int i) {
+                pivotStartHigh = ipv6StartHighs[i];
+                pivotStartLow = ipv6StartLows[i];
+                pivotEndHigh = ipv6EndHighs[i];
+                pivotEndLow = ipv6EndLows[i];
+            }
+
+            @Override
+            protected int comparePivot(final int j) {
+                int result = compareUnsigned(pivotStartHigh, pivotStartLow, ipv6StartHighs[j], ipv6StartLows[j]);
+                return result != 0 ? result : compareUnsigned(ipv6EndHighs[j], ipv6EndLows[j], pivotEndHigh, pivotEndLow);
+            }
+        }
+
+        private static void swapInt(final int[] array, final int i, final int j) {
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+
+        private static void swapLong(final long[] array, final int i, final int j) {
+            long temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+}
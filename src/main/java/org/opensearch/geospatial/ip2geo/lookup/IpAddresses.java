@@ -0,0 +1,107 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+
+import org.opensearch.common.network.InetAddresses;
+
+/**
+ * Utility to convert ip addresses from and to primitive values
+ *
+ * Only IPv4 addresses in dotted-quad notation are parsed here, without allocation. They are by far the most common input of the ip2geo
+ * processor. Other notations are left to {@link org.opensearch.common.network.InetAddresses}.
+ */
+public final class IpAddresses {
+    /**
+     * Low 64 bits of the IPv4-mapped IPv6 address space (::ffff:0:0/96) without the IPv4 address
+     */
+    public static final long IPV4_MAPPED_LOW = 0xFFFF_0000_0000L;
+    /**
+     * Returned by {@link #parseIpv4(String)} when a given string is not an IPv4 address in dotted-quad notation
+     */
+    public static final long NOT_IPV4 = -1L;
+    private static final int IPV4_OCTETS = 4;
+    private static final int MAX_OCTET = 255;
+    private static final int MAX_OCTET_DIGITS = 3;
+    private static final long IPV4_MAPPED_MASK = 0xFFFF_FFFF_0000_0000L;
+
+    private IpAddresses() {}
+
+    /**
+     * Parse an IPv4 address in dotted-quad notation
+     *
+     * Octets with leading zeros are rejected as they are ambiguous, which is consistent with
+     * {@link org.opensearch.common.network.InetAddresses#forString(String)}.
+     *
+     * @param ip the ip address
+     * @return the unsigned 32 bits value of the IPv4 address or {@link #NOT_IPV4}
+     */
+    public static long parseIpv4(final String ip) {
+        int length = ip.length();
+        long value = 0;
+        int octets = 0;
+        int i = 0;
+        while (i < length && octets < IPV4_OCTETS) {
+            int start = i;
+            int octet = 0;
+            while (i < length && i - start < MAX_OCTET_DIGITS) {
+                char c = ip.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                octet = octet * 10 + (c - '0');
+                i++;
+            }
+            if (i == start || octet > MAX_OCTET || (i - start > 1 && ip.charAt(start) == '0')) {
+                return NOT_IPV4;
+            }
+            value = (value << 8) | octet;
+            octets++;
+            if (octets < IPV4_OCTETS) {
+                if (i >= length || ip.charAt(i) != '.') {
+                    return NOT_IPV4;
+                }
+                i++;
+            }
+        }
+        return octets == IPV4_OCTETS && i == length ? value : NOT_IPV4;
+    }
+
+    /**
+     * @param high the high 64 bits of the ip address
+     * @param low the low 64 bits of the ip address
+     * @return whether an ip address given in IPv6 form as two longs is an IPv4-mapped address
+     */
+    public static boolean isIpv4Mapped(final long high, final long low) {
+        return high == 0 && (low & IPV4_MAPPED_MASK) == IPV4_MAPPED_LOW;
+    }
+
+    /**
+     * Format an ip address given in IPv6 form as two longs
+     *
+     * An IPv4-mapped address is formatted in dotted-quad notation.
+     *
+     * @param high the high 64 bits of the ip address
+     * @param low the low 64 bits of the ip address
+     * @return the ip address in its canonical notation
+     */
+    public static String format(final long high, final long low) {
+        byte[] bytes;
+        if (isIpv4Mapped(high, low)) {
+            bytes = ByteBuffer.allocate(Integer.BYTES).putInt((int) low).array();
+        } else {
+            bytes = ByteBuffer.allocate(2 * Long.BYTES).putLong(high).putLong(low).array();
+        }
+        try {
+            return InetAddresses.toAddrString(InetAddress.getByAddress(bytes));
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
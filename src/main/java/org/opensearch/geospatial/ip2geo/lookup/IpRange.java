@@ -0,0 +1,139 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.Locale;
+
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.network.InetAddresses;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Inclusive range of ip addresses
+ *
+ * IPv4 addresses are mapped into the IPv4-mapped IPv6 address space (::ffff:0:0/96) so that IPv4 and IPv6 ranges
+ * can be ordered together. Ranges are ordered by their start address, which allows finding the range containing
+ * an ip address with a floor search over non-overlapping ranges.
+ */
+@EqualsAndHashCode
+public final class IpRange implements Comparable<IpRange> {
+    private static final int IPV4_MAPPED_PREFIX_LENGTH = 96;
+    private static final int LONG_BITS = 64;
+    private static final int IPV6_BITS = 128;
+
+    /**
+     * @return the high 64 bits of the start of the range in IPv6 form
+     */
+    @Getter
+    private final long startHigh;
+    /**
+     * @return the low 64 bits of the start of the range in IPv6 form
+     */
+    @Getter
+    private final long startLow;
+    /**
+     * @return the high 64 bits of the end of the range in IPv6 form
+     */
+    @Getter
+    private final long endHigh;
+    /**
+     * @return the low 64 bits of the end of the range in IPv6 form
+     */
+    @Getter
+    private final long endLow;
+
+    private IpRange(final long startHigh, final long startLow, final long endHigh, final long endLow) {
+        this.startHigh = startHigh;
+        this.startLow = startLow;
+        this.endHigh = endHigh;
+        this.endLow = endLow;
+    }
+
+    /**
+     * Create a range holding a single ip address
+     *
+     * @param address the ip address
+     * @return the range
+     */
+    public static IpRange of(final InetAddress address) {
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            long low = IpAddresses.IPV4_MAPPED_LOW | (GeoIpRangeTable.toInt(bytes, 0) & 0xFFFFFFFFL);
+            return new IpRange(0, low, 0, low);
+        }
+        long high = GeoIpRangeTable.toLong(bytes, 0);
+        long low = GeoIpRangeTable.toLong(bytes, 8);
+        return new IpRange(high, low, high, low);
+    }
+
+    /**
+     * Create a range holding a single ip address
+     *
+     * @param high the high 64 bits of the ip address in IPv6 form
+     * @param low the low 64 bits of the ip address in IPv6 form
+     * @return the range
+     */
+    public static IpRange of(final long high, final long low) {
+        return new IpRange(high, low, high, low);
+    }
+
+    /**
+     * Create a range from its start and end
+     *
+     * @param startHigh the high 64 bits of the start of the range in IPv6 form
+     * @param startLow the low 64 bits of the start of the range in IPv6 form
+     * @param endHigh the high 64 bits of the end of the range in IPv6 form
+     * @param endLow the low 64 bits of the end of the range in IPv6 form
+     * @return the range
+     */
+    public static IpRange of(final long startHigh, final long startLow, final long endHigh, final long endLow) {
+        if (GeoIpRangeTable.compareUnsigned(startHigh, startLow, endHigh, endLow) > 0) {
+            throw new IllegalArgumentException("start of an ip range must not be greater than its end");
+        }
+        return new IpRange(startHigh, startLow, endHigh, endLow);
+    }
+
+    /**
+     * Create a range from an ip range in CIDR notation
+     *
+     * @param cidr the ip range in CIDR notation
+     * @return the range
+     */
+    public static IpRange fromCidr(final String cidr) {
+        Tuple<InetAddress, Integer> range = InetAddresses.parseCidr(cidr);
+        IpRange address = of(range.v1());
+        int prefixLength = range.v1() instanceof Inet4Address ? range.v2() + IPV4_MAPPED_PREFIX_LENGTH : range.v2();
+        if (prefixLength < 0 || prefixLength > IPV6_BITS) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT, "invalid prefix length in [%s]", cidr));
+        }
+        long highMask = prefixLength == 0 ? 0 : prefixLength >= LONG_BITS ? -1L : -1L << (LONG_BITS - prefixLength);
+        long lowMask = prefixLength <= LONG_BITS ? 0 : -1L << (IPV6_BITS - prefixLength);
+        return new IpRange(
+            address.startHigh & highMask,
+            address.startLow & lowMask,
+            (address.startHigh & highMask) | ~highMask,
+            (address.startLow & lowMask) | ~lowMask
+        );
+    }
+
+    /**
+     * @param other the other range
+     * @return true if the other range is within this range
+     */
+    public boolean contains(final IpRange other) {
+        return GeoIpRangeTable.compareUnsigned(startHigh, startLow, other.startHigh, other.startLow) <= 0
+            && GeoIpRangeTable.compareUnsigned(other.endHigh, other.endLow, endHigh, endLow) <= 0;
+    }
+
+    @Override
+    public int compareTo(final IpRange other) {
+        return GeoIpRangeTable.compareUnsigned(startHigh, startLow, other.startHigh, other.startLow);
+    }
+}
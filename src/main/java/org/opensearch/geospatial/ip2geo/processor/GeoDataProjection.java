@@ -0,0 +1,87 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.processor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataDictionary;
+
+import lombok.Getter;
+
+/**
+ * Projection of geo data onto the properties configured in ip2geo processors
+ *
+ * Cached geo data is shared and immutable. The projection of each distinct geo data is computed once, interned,
+ * and cached, so that enriching documents with the same location does not filter the geo data again.
+ * Processors configured with the same properties share a single projection.
+ *
+ * Projected geo data is read-only. It is copied when it is put into a document, which later processors may modify.
+ */
+public final class GeoDataProjection {
+    /**
+     * Projection of all properties, which returns geo data as is
+     */
+    public static final GeoDataProjection ALL_PROPERTIES = new GeoDataProjection(null);
+    static final int MAX_ENTRIES = 10_000;
+    /**
+     * @return the projected properties or null if all properties are kept
+     */
+    @Getter
+    private final Set<String> properties;
+    private final GeoDataDictionary dictionary;
+    private final Cache<Map<String, Object>, Map<String, Object>> projections;
+
+    /**
+     * @param properties the properties to keep or null to keep all properties
+     */
+    public GeoDataProjection(final Set<String> properties) {
+        this.properties = properties == null ? null : Set.copyOf(properties);
+        this.dictionary = properties == null ? null : new GeoDataDictionary();
+        this.projections = properties == null
+            ? null
+            : CacheBuilder.<Map<String, Object>, Map<String, Object>>builder().setMaximumWeight(MAX_ENTRIES).build();
+    }
+
+    /**
+     * Return a shared immutable projection of a given geo data
+     *
+     * @param geoData the shared immutable geo data
+     * @return the projected geo data, which must not be modified
+     */
+    public Map<String, Object> project(final Map<String, Object> geoData) {
+        if (properties == null || geoData.isEmpty()) {
+            return geoData;
+        }
+        try {
+            return projections.computeIfAbsent(geoData, this::doProject);
+        } catch (ExecutionException e) {
+            return doProject(geoData);
+        }
+    }
+
+    private Map<String, Object> doProject(final Map<String, Object> geoData) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : geoData.entrySet()) {
+            if (properties.contains(entry.getKey())) {
+                projected.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return projected.isEmpty() ? Collections.emptyMap() : dictionary.intern(projected);
+    }
+
+    /**
+     * @return the number of cached projections
+     */
+    public int count() {
+        return projections == null ? 0 : projections.count();
+    }
+}
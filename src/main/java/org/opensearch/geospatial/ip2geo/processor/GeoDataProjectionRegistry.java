@@ -0,0 +1,41 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.processor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of geo data projections of a node
+ *
+ * Ingest and search response ip2geo processors configured with the same properties share a single projection,
+ * so each distinct geo data is projected once whichever processor enriches with it.
+ */
+public final class GeoDataProjectionRegistry {
+    private final Map<Set<String>, GeoDataProjection> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Return the projection of geo data onto given properties
+     *
+     * @param propertyNames the properties or null to keep all properties
+     * @return the projection shared by processors with the same properties
+     */
+    public GeoDataProjection get(final List<String> propertyNames) {
+        if (propertyNames == null) {
+            return GeoDataProjection.ALL_PROPERTIES;
+        }
+        return projections.computeIfAbsent(Set.copyOf(propertyNames), GeoDataProjection::new);
+    }
+
+    /**
+     * @return the number of projections other than the projection of all properties
+     */
+    public int size() {
+        return projections.size();
+    }
+}
@@ -7,33 +7,48 @@ package org.opensearch.geospatial.ip2geo.processor;
 import static org.opensearch.ingest.ConfigurationUtils.newConfigurationException;
 import static org.opensearch.ingest.ConfigurationUtils.readBooleanProperty;
 import static org.opensearch.ingest.ConfigurationUtils.readOptionalList;
+import static org.opensearch.ingest.ConfigurationUtils.readOptionalStringProperty;
 import static org.opensearch.ingest.ConfigurationUtils.readStringProperty;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.geospatial.ip2geo.common.DatasourceState;
 import org.opensearch.geospatial.ip2geo.common.ParameterValidator;
 import org.opensearch.geospatial.ip2geo.dao.DatasourceDao;
+import org.opensearch.geospatial.ip2geo.dao.DatasourceMetadata;
 import org.opensearch.geospatial.ip2geo.dao.GeoIpDataDao;
 import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
 import org.opensearch.ingest.AbstractProcessor;
 import org.opensearch.ingest.IngestDocument;
+import org.opensearch.ingest.IngestDocumentWrapper;
 import org.opensearch.ingest.IngestService;
 import org.opensearch.ingest.Processor;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
 /**
  * Ip2Geo processor
+ *
+ * A processor enriches documents with geo data from one or more datasources, each into its own target field.
+ * The ip field is read once per document, and all datasources are looked up together.
  */
 @Log4j2
 public final class Ip2GeoProcessor extends AbstractProcessor {
@@ -41,17 +56,16 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
     public static final String CONFIG_FIELD = "field";
     public static final String CONFIG_TARGET_FIELD = "target_field";
     public static final String CONFIG_DATASOURCE = "datasource";
+    public static final String CONFIG_DATASOURCES = "datasources";
     public static final String CONFIG_PROPERTIES = "properties";
     public static final String CONFIG_IGNORE_MISSING = "ignore_missing";
 
     private final String field;
-    private final String targetField;
     /**
-     * @return The datasource name
+     * @return The datasources to enrich documents from, each with its own target field
      */
     @Getter
-    private final String datasourceName;
-    private final Set<String> properties;
+    private final List<Target> targets;
     private final boolean ignoreMissing;
     private final ClusterSettings clusterSettings;
     private final DatasourceDao datasourceDao;
@@ -70,7 +84,7 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
      * @param field          the source field to geo-IP map
      * @param targetField    the target field
      * @param datasourceName the datasourceName
-     * @param properties     the properties
+     * @param projection     the projection of geo data onto the properties
      * @param ignoreMissing  true if documents with a missing value for the field should be ignored
      * @param clusterSettings the cluster settings
      * @param datasourceDao the datasource facade
@@ -83,7 +97,43 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
         final String field,
         final String targetField,
         final String datasourceName,
-        final Set<String> properties,
+        final GeoDataProjection projection,
+        final boolean ignoreMissing,
+        final ClusterSettings clusterSettings,
+        final DatasourceDao datasourceDao,
+        final GeoIpDataDao geoIpDataDao,
+        final Ip2GeoCachedDao ip2GeoCachedDao
+    ) {
+        this(
+            tag,
+            description,
+            field,
+            List.of(new Target(datasourceName, targetField, projection)),
+            ignoreMissing,
+            clusterSettings,
+            datasourceDao,
+            geoIpDataDao,
+            ip2GeoCachedDao
+        );
+    }
+
+    /**
+     * Construct an Ip2Geo processor enriching documents from multiple datasources.
+     * @param tag            the processor tag
+     * @param description    the processor description
+     * @param field          the source field to geo-IP map
+     * @param targets        the datasources with their target fields
+     * @param ignoreMissing  true if documents with a missing value for the field should be ignored
+     * @param clusterSettings the cluster settings
+     * @param datasourceDao the datasource facade
+     * @param geoIpDataDao the geoip data facade
+     * @param ip2GeoCachedDao the cache
+     */
+    public Ip2GeoProcessor(
+        final String tag,
+        final String description,
+        final String field,
+        final List<Target> targets,
         final boolean ignoreMissing,
         final ClusterSettings clusterSettings,
         final DatasourceDao datasourceDao,
@@ -92,9 +142,7 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
     ) {
         super(tag, description);
         this.field = field;
-        this.targetField = targetField;
-        this.datasourceName = datasourceName;
-        this.properties = properties;
+        this.targets = List.copyOf(targets);
         this.ignoreMissing = ignoreMissing;
         this.clusterSettings = clusterSettings;
         this.datasourceDao = datasourceDao;
@@ -102,34 +150,40 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
         this.ip2GeoCachedDao = ip2GeoCachedDao;
     }
 
+    /**
+     * @return The names of datasources this processor enriches documents from
+     */
+    public List<String> getDatasourceNames() {
+        List<String> datasourceNames = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            datasourceNames.add(target.getDatasourceName());
+        }
+        return datasourceNames;
+    }
+
     /**
      * Add geo data of a given ip address to ingestDocument in asynchronous way
      *
+     * The calling thread never waits for a search request or a datasource metadata refresh. If geo data cannot be
+     * served from a lookup or the cache, the handler is called on the ip2geo lookup executor once the data is retrieved.
+     *
      * @param ingestDocument the document
      * @param handler the handler
      */
     @Override
     public void execute(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
         try {
-            Object ip = ingestDocument.getFieldValue(field, Object.class, ignoreMissing);
+            Object ips = readIps(ingestDocument);
 
-            if (ip == null) {
+            if (ips == null) {
                 handler.accept(ingestDocument, null);
                 return;
             }
 
-            if (ip instanceof String) {
-                executeInternal(ingestDocument, handler, (String) ip);
-            } else if (ip instanceof List) {
-                executeInternal(ingestDocument, handler, ((List<?>) ip));
-            } else {
-                handler.accept(
-                    null,
-                    new IllegalArgumentException(
-                        String.format(Locale.ROOT, "field [%s] should contain only string or array of strings", field)
-                    )
-                );
-            }
+            getGeoData(ips, ActionListener.wrap(geoDataPerTarget -> {
+                setGeoData(ingestDocument, ips, geoDataPerTarget);
+                handler.accept(ingestDocument, null);
+            }, e -> handler.accept(null, e)));
         } catch (Exception e) {
             handler.accept(null, e);
         }
@@ -146,91 +200,224 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
         throw new IllegalStateException("Not implemented");
     }
 
-    private void executeInternal(
-        final IngestDocument ingestDocument,
-        final BiConsumer<IngestDocument, Exception> handler,
-        final String ip
+    /**
+     * Add geo data of ip addresses to all documents in a batch in asynchronous way
+     *
+     * Ip addresses across the documents are deduped and resolved together, so an ip address repeated in many documents
+     * of a bulk request costs a single cache lookup per datasource, and all cache misses of the batch cost a single
+     * multi search request per datasource.
+     *
+     * @param ingestDocumentWrappers the documents
+     * @param handler the handler
+     */
+    @Override
+    public void batchExecute(
+        final List<IngestDocumentWrapper> ingestDocumentWrappers,
+        final Consumer<List<IngestDocumentWrapper>> handler
     ) {
-        validateDatasourceIsInAvailableState(datasourceName);
-        String indexName = ip2GeoCachedDao.getIndexName(datasourceName);
-        if (ip2GeoCachedDao.isExpired(datasourceName) || indexName == null) {
-            handleExpiredData(ingestDocument, handler);
+        if (ingestDocumentWrappers.isEmpty()) {
+            handler.accept(Collections.emptyList());
             return;
         }
 
-        Map<String, Object> geoData = ip2GeoCachedDao.getGeoData(indexName, ip, datasourceName);
-        if (geoData.isEmpty() == false) {
-            ingestDocument.setFieldValue(targetField, filteredGeoData(geoData));
+        IngestDocumentWrapper[] results = new IngestDocumentWrapper[ingestDocumentWrappers.size()];
+        Object[] ipsPerDocument = new Object[ingestDocumentWrappers.size()];
+        Set<String> distinctIps = new LinkedHashSet<>();
+        boolean hasPending = false;
+        for (int i = 0; i < ingestDocumentWrappers.size(); i++) {
+            IngestDocumentWrapper wrapper = ingestDocumentWrappers.get(i);
+            try {
+                Object ips = readIps(wrapper.getIngestDocument());
+                if (ips == null) {
+                    results[i] = new IngestDocumentWrapper(wrapper.getSlot(), wrapper.getIngestDocument(), null);
+                } else if (ips instanceof String) {
+                    ipsPerDocument[i] = ips;
+                    distinctIps.add((String) ips);
+                    hasPending = true;
+                } else {
+                    ipsPerDocument[i] = ips;
+                    distinctIps.addAll((List<String>) ips);
+                    hasPending = true;
+                }
+            } catch (Exception e) {
+                results[i] = new IngestDocumentWrapper(wrapper.getSlot(), null, e);
+            }
         }
-        handler.accept(ingestDocument, null);
-    }
-
-    private Map<String, Object> filteredGeoData(final Map<String, Object> geoData) {
-        if (properties == null) {
-            return geoData;
+        if (hasPending == false) {
+            handler.accept(Arrays.asList(results));
+            return;
         }
 
-        return properties.stream().filter(p -> geoData.containsKey(p)).collect(Collectors.toMap(p -> p, p -> geoData.get(p)));
+        getGeoData(new ArrayList<>(distinctIps), ActionListener.wrap(geoDataPerTarget -> {
+            for (int i = 0; i < results.length; i++) {
+                if (ipsPerDocument[i] == null) {
+                    continue;
+                }
+                IngestDocumentWrapper wrapper = ingestDocumentWrappers.get(i);
+                setGeoData(wrapper.getIngestDocument(), ipsPerDocument[i], geoDataPerTarget);
+                results[i] = new IngestDocumentWrapper(wrapper.getSlot(), wrapper.getIngestDocument(), null);
+            }
+            handler.accept(Arrays.asList(results));
+        }, e -> {
+            for (int i = 0; i < results.length; i++) {
+                if (ipsPerDocument[i] != null) {
+                    results[i] = new IngestDocumentWrapper(ingestDocumentWrappers.get(i).getSlot(), null, e);
+                }
+            }
+            handler.accept(Arrays.asList(results));
+        }));
     }
 
-    private void validateDatasourceIsInAvailableState(final String datasourceName) {
-        if (ip2GeoCachedDao.has(datasourceName) == false) {
-            throw new IllegalStateException("datasource does not exist");
+    /**
+     * Read ip addresses from the source field of a document
+     *
+     * @param ingestDocument the document
+     * @return null if the field is missing and ignored, a string for a single ip address, or a list of ip addresses
+     */
+    private Object readIps(final IngestDocument ingestDocument) {
+        Object ip = ingestDocument.getFieldValue(field, Object.class, ignoreMissing);
+        if (ip == null || ip instanceof String) {
+            return ip;
         }
-
-        final DatasourceState currentState = ip2GeoCachedDao.getState(datasourceName);
-        if (DatasourceState.AVAILABLE.equals(currentState) == false) {
-            throw new IllegalStateException(
-                String.format(
-                    Locale.ROOT,
-                    "datasource %s is not in an available state, current state is %s.",
-                    datasourceName,
-                    currentState.name()
-                )
+        if (ip instanceof List == false) {
+            throw new IllegalArgumentException(
+                String.format(Locale.ROOT, "field [%s] should contain only string or array of strings", field)
             );
         }
-    }
-
-    private void handleExpiredData(final IngestDocument ingestDocument, final BiConsumer<IngestDocument, Exception> handler) {
-        ingestDocument.setFieldValue(targetField, DATA_EXPIRED);
-        handler.accept(ingestDocument, null);
+        List<String> ips = new ArrayList<>(((List<?>) ip).size());
+        for (Object element : (List<?>) ip) {
+            if (element instanceof String == false) {
+                throw new IllegalArgumentException("array in field [" + field + "] should only contain strings");
+            }
+            ips.add((String) element);
+        }
+        return ips;
     }
 
     /**
-     * Handle multiple ips
+     * Look up given ip addresses in all datasources at once
      *
-     * @param ingestDocument the document
-     * @param handler the handler
-     * @param ips the ip list
+     * The listener is called once all datasources respond, or with the first failure.
+     *
+     * @param ips a single ip address or a list of ip addresses
+     * @param listener the listener, which receives geo data keyed by ip address for each target in order,
+     *                 or null for a target whose datasource is expired
      */
-    private void executeInternal(
+    private void getGeoData(final Object ips, final ActionListener<List<Map<String, Map<String, Object>>>> listener) {
+        Map<String, Map<String, Object>>[] geoDataPerTarget = new Map[targets.size()];
+        AtomicInteger pending = new AtomicInteger(targets.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        for (int i = 0; i < targets.size(); i++) {
+            int index = i;
+            getGeoData(targets.get(i).getDatasourceName(), ips, ActionListener.wrap(geoDataByIp -> {
+                geoDataPerTarget[index] = geoDataByIp;
+                if (pending.decrementAndGet() == 0) {
+                    listener.onResponse(Arrays.asList(geoDataPerTarget));
+                }
+            }, e -> {
+                if (failed.compareAndSet(false, true)) {
+                    listener.onFailure(e);
+                }
+            }));
+        }
+    }
+
+    private void getGeoData(
+        final String datasourceName,
+        final Object ips,
+        final ActionListener<Map<String, Map<String, Object>>> listener
+    ) {
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasourceName, ActionListener.wrap(datasourceMetadata -> {
+            validateDatasourceIsInAvailableState(datasourceName, datasourceMetadata);
+            String indexName = datasourceMetadata.getIndexName();
+            if (datasourceMetadata.isExpired() || indexName == null) {
+                listener.onResponse(null);
+                return;
+            }
+
+            if (ips instanceof String) {
+                String ip = (String) ips;
+                ip2GeoCachedDao.getGeoData(
+                    indexName,
+                    ip,
+                    datasourceName,
+                    ActionListener.wrap(geoData -> listener.onResponse(Map.of(ip, geoData)), listener::onFailure)
+                );
+            } else {
+                ip2GeoCachedDao.getBatchGeoData(indexName, (List<String>) ips, datasourceName, listener);
+            }
+        }, listener::onFailure));
+    }
+
+    private void setGeoData(
         final IngestDocument ingestDocument,
-        final BiConsumer<IngestDocument, Exception> handler,
-        final List<?> ips
+        final Object ips,
+        final List<Map<String, Map<String, Object>>> geoDataPerTarget
     ) {
-        for (Object ip : ips) {
-            if (ip instanceof String == false) {
-                throw new IllegalArgumentException("array in field [" + field + "] should only contain strings");
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            Map<String, Map<String, Object>> geoDataByIp = geoDataPerTarget.get(i);
+            if (geoDataByIp == null) {
+                ingestDocument.setFieldValue(target.getTargetField(), DATA_EXPIRED);
+            } else if (ips instanceof String) {
+                setGeoData(ingestDocument, target, geoDataByIp.get(ips));
+            } else {
+                setGeoData(ingestDocument, target, (List<String>) ips, geoDataByIp);
             }
         }
+    }
 
-        validateDatasourceIsInAvailableState(datasourceName);
-        String indexName = ip2GeoCachedDao.getIndexName(datasourceName);
-        if (ip2GeoCachedDao.isExpired(datasourceName) || indexName == null) {
-            handleExpiredData(ingestDocument, handler);
-            return;
+    private void setGeoData(final IngestDocument ingestDocument, final Target target, final Map<String, Object> geoData) {
+        if (geoData.isEmpty() == false) {
+            ingestDocument.setFieldValue(target.getTargetField(), toDocumentGeoData(target, geoData));
         }
+    }
 
-        List<Map<String, Object>> geoDataList = ips.stream()
-            .map(ip -> ip2GeoCachedDao.getGeoData(indexName, (String) ip, datasourceName))
-            .filter(geoData -> geoData.isEmpty() == false)
-            .map(this::filteredGeoData)
-            .collect(Collectors.toList());
+    private void setGeoData(
+        final IngestDocument ingestDocument,
+        final Target target,
+        final List<String> ips,
+        final Map<String, Map<String, Object>> geoDataByIp
+    ) {
+        List<Map<String, Object>> geoDataList = new ArrayList<>(ips.size());
+        for (String ip : ips) {
+            Map<String, Object> geoData = geoDataByIp.get(ip);
+            if (geoData.isEmpty() == false) {
+                geoDataList.add(toDocumentGeoData(target, geoData));
+            }
+        }
 
         if (geoDataList.isEmpty() == false) {
-            ingestDocument.setFieldValue(targetField, geoDataList);
+            ingestDocument.setFieldValue(target.getTargetField(), geoDataList);
+        }
+    }
+
+    /**
+     * Return geo data projected onto the properties of a target, to put in a document
+     *
+     * The projection is shared with the cache and with other documents, and is read-only.
+     * Copy it so that following processors can modify the document.
+     */
+    private Map<String, Object> toDocumentGeoData(final Target target, final Map<String, Object> geoData) {
+        return new HashMap<>(target.getProjection().project(geoData));
+    }
+
+    private void validateDatasourceIsInAvailableState(final String datasourceName, final DatasourceMetadata datasourceMetadata) {
+        if (datasourceMetadata == null) {
+            throw new IllegalStateException("datasource does not exist");
+        }
+
+        final DatasourceState currentState = datasourceMetadata.getState();
+        if (DatasourceState.AVAILABLE.equals(currentState) == false) {
+            throw new IllegalStateException(
+                String.format(
+                    Locale.ROOT,
+                    "datasource %s is not in an available state, current state is %s.",
+                    datasourceName,
+                    currentState.name()
+                )
+            );
         }
-        handler.accept(ingestDocument, null);
     }
 
     @Override
@@ -238,18 +425,45 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
         return TYPE;
     }
 
+    /**
+     * A datasource to enrich documents from, with the field to put its geo data in
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Target {
+        /**
+         * @return The datasource name
+         */
+        private final String datasourceName;
+        /**
+         * @return The target field
+         */
+        private final String targetField;
+        /**
+         * @return The projection of geo data onto the properties
+         */
+        private final GeoDataProjection projection;
+    }
+
     /**
      * Ip2Geo processor factory
      */
     public static final class Factory implements Processor.Factory {
         private static final ParameterValidator VALIDATOR = new ParameterValidator();
+        private static final String DEFAULT_TARGET_FIELD = "ip2geo";
         private final IngestService ingestService;
+        private final GeoDataProjectionRegistry projectionRegistry;
         private DatasourceDao datasourceDao;
         private GeoIpDataDao geoIpDataDao;
         private Ip2GeoCachedDao ip2GeoCachedDao;
 
-        public Factory(final IngestService ingestService) {
+        /**
+         * @param ingestService the ingest service
+         * @param projectionRegistry the projections of geo data, shared with search response processors
+         */
+        public Factory(final IngestService ingestService, final GeoDataProjectionRegistry projectionRegistry) {
             this.ingestService = ingestService;
+            this.projectionRegistry = projectionRegistry;
         }
 
         public void initialize(final DatasourceDao datasourceDao, final GeoIpDataDao geoIpDataDao, final Ip2GeoCachedDao ip2GeoCachedDao) {
@@ -261,6 +475,10 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
         /**
          * Within this method, blocking request cannot be called because this method is executed in a transport thread.
          * This means, validation using data in an index won't work.
+         *
+         * Either a single datasource is configured with {@code datasource}, {@code target_field} and {@code properties},
+         * or multiple datasources are configured with {@code datasources}, a list of objects with the same three keys
+         * whose target field defaults to the datasource name.
          */
         @Override
         public Ip2GeoProcessor create(
@@ -270,23 +488,35 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
             final Map<String, Object> config
         ) throws IOException {
             String ipField = readStringProperty(TYPE, processorTag, config, CONFIG_FIELD);
-            String targetField = readStringProperty(TYPE, processorTag, config, CONFIG_TARGET_FIELD, "ip2geo");
-            String datasourceName = readStringProperty(TYPE, processorTag, config, CONFIG_DATASOURCE);
-            List<String> propertyNames = readOptionalList(TYPE, processorTag, config, CONFIG_PROPERTIES);
+            String datasourceName = readOptionalStringProperty(TYPE, processorTag, config, CONFIG_DATASOURCE);
+            List<Map<String, Object>> datasourceConfigs = readOptionalList(TYPE, processorTag, config, CONFIG_DATASOURCES);
             boolean ignoreMissing = readBooleanProperty(TYPE, processorTag, config, CONFIG_IGNORE_MISSING, false);
 
-            List<String> error = VALIDATOR.validateDatasourceName(datasourceName);
-            if (error.isEmpty() == false) {
-                throw newConfigurationException(TYPE, processorTag, "datasource", error.get(0));
+            List<Target> targets;
+            if (datasourceConfigs == null) {
+                if (datasourceName == null) {
+                    throw newConfigurationException(TYPE, processorTag, CONFIG_DATASOURCE, "required property is missing");
+                }
+                String targetField = readStringProperty(TYPE, processorTag, config, CONFIG_TARGET_FIELD, DEFAULT_TARGET_FIELD);
+                List<String> propertyNames = readOptionalList(TYPE, processorTag, config, CONFIG_PROPERTIES);
+                targets = List.of(createTarget(processorTag, datasourceName, targetField, propertyNames));
+            } else {
+                if (datasourceName != null) {
+                    throw newConfigurationException(
+                        TYPE,
+                        processorTag,
+                        CONFIG_DATASOURCES,
+                        "cannot be used together with [" + CONFIG_DATASOURCE + "]"
+                    );
+                }
+                targets = createTargets(processorTag, datasourceConfigs);
             }
 
             return new Ip2GeoProcessor(
                 processorTag,
                 description,
                 ipField,
-                targetField,
-                datasourceName,
-                propertyNames == null ? null : new HashSet<>(propertyNames),
+                targets,
                 ignoreMissing,
                 ingestService.getClusterService().getClusterSettings(),
                 datasourceDao,
@@ -294,5 +524,50 @@ public final class Ip2GeoProcessor extends AbstractProcessor {
                 ip2GeoCachedDao
             );
         }
+
+        private List<Target> createTargets(final String processorTag, final List<Map<String, Object>> datasourceConfigs) {
+            if (datasourceConfigs.isEmpty()) {
+                throw newConfigurationException(TYPE, processorTag, CONFIG_DATASOURCES, "should not be empty");
+            }
+            List<Target> targets = new ArrayList<>(datasourceConfigs.size());
+            Set<String> targetFields = new HashSet<>();
+            for (Map<String, Object> datasourceConfig : datasourceConfigs) {
+                Map<String, Object> entry = new HashMap<>(datasourceConfig);
+                String datasourceName = readStringProperty(TYPE, processorTag, entry, CONFIG_DATASOURCE);
+                String targetField = readStringProperty(TYPE, processorTag, entry, CONFIG_TARGET_FIELD, datasourceName);
+                List<String> propertyNames = readOptionalList(TYPE, processorTag, entry, CONFIG_PROPERTIES);
+                if (entry.isEmpty() == false) {
+                    throw newConfigurationException(
+                        TYPE,
+                        processorTag,
+                        CONFIG_DATASOURCES,
+                        "unsupported properties " + entry.keySet() + " for datasource [" + datasourceName + "]"
+                    );
+                }
+                if (targetFields.add(targetField) == false) {
+                    throw newConfigurationException(
+                        TYPE,
+                        processorTag,
+                        CONFIG_DATASOURCES,
+                        "target field [" + targetField + "] is used by more than one datasource"
+                    );
+                }
+                targets.add(createTarget(processorTag, datasourceName, targetField, propertyNames));
+            }
+            return targets;
+        }
+
+        private Target createTarget(
+            final String processorTag,
+            final String datasourceName,
+            final String targetField,
+            final List<String> propertyNames
+        ) {
+            List<String> error = VALIDATOR.validateDatasourceName(datasourceName);
+            if (error.isEmpty() == false) {
+                throw newConfigurationException(TYPE, processorTag, "datasource", error.get(0));
+            }
+            return new Target(datasourceName, targetField, projectionRegistry.get(propertyNames));
+        }
     }
 }
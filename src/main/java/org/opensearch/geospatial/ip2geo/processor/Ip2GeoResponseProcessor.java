@@ -0,0 +1,382 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.geospatial.ip2geo.processor;
+
+import static org.opensearch.ingest.ConfigurationUtils.newConfigurationException;
+import static org.opensearch.ingest.ConfigurationUtils.readBooleanProperty;
+import static org.opensearch.ingest.ConfigurationUtils.readOptionalList;
+import static org.opensearch.ingest.ConfigurationUtils.readStringProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.support.XContentMapValues;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.MediaType;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.common.ParameterValidator;
+import org.opensearch.geospatial.ip2geo.dao.DatasourceMetadata;
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.pipeline.AbstractProcessor;
+import org.opensearch.search.pipeline.PipelineProcessingContext;
+import org.opensearch.search.pipeline.Processor;
+import org.opensearch.search.pipeline.SearchResponseProcessor;
+
+import lombok.Getter;
+
+/**
+ * Ip2Geo search response processor
+ *
+ * Enriches the source of search hits with geo data of an ip field at search time, for documents that were indexed
+ * without enrichment. Ip addresses across all hits of a page are deduped and resolved together, so a page costs
+ * a single batched lookup rather than one lookup per hit.
+ */
+public final class Ip2GeoResponseProcessor extends AbstractProcessor implements SearchResponseProcessor {
+    private static final Map<String, Object> DATA_EXPIRED = Map.of("error", "ip2geo_data_expired");
+
+    /**
+     * Ip2Geo search response processor type
+     */
+    public static final String TYPE = "ip2geo";
+
+    /**
+     * @return The source field of hits to geo-IP map
+     */
+    @Getter
+    private final String field;
+    /**
+     * @return The field of hits to put geo data in
+     */
+    @Getter
+    private final String targetField;
+    /**
+     * @return The datasource name
+     */
+    @Getter
+    private final String datasourceName;
+    /**
+     * @return The projection of geo data onto the properties
+     */
+    @Getter
+    private final GeoDataProjection projection;
+    private final boolean ignoreMissing;
+    private final Ip2GeoCachedDao ip2GeoCachedDao;
+
+    /**
+     * Construct an Ip2Geo search response processor.
+     * @param tag            the processor tag
+     * @param description    the processor description
+     * @param ignoreFailure  true if the search response should be returned as is when the processor fails
+     * @param field          the source field to geo-IP map
+     * @param targetField    the target field
+     * @param datasourceName the datasource name
+     * @param projection     the projection of geo data onto the properties
+     * @param ignoreMissing  true if hits with a missing value for the field should be ignored
+     * @param ip2GeoCachedDao the cache
+     */
+    public Ip2GeoResponseProcessor(
+        final String tag,
+        final String description,
+        final boolean ignoreFailure,
+        final String field,
+        final String targetField,
+        final String datasourceName,
+        final GeoDataProjection projection,
+        final boolean ignoreMissing,
+        final Ip2GeoCachedDao ip2GeoCachedDao
+    ) {
+        super(tag, description, ignoreFailure);
+        this.field = field;
+        this.targetField = targetField;
+        this.datasourceName = datasourceName;
+        this.projection = projection;
+        this.ignoreMissing = ignoreMissing;
+        this.ip2GeoCachedDao = ip2GeoCachedDao;
+    }
+
+    /**
+     * Use {@code processResponseAsync} instead, which does not block the calling thread on a lookup
+     *
+     * @param request the search request
+     * @param response the search response
+     * @return none
+     */
+    @Override
+    public SearchResponse processResponse(final SearchRequest request, final SearchResponse response) {
+        throw new IllegalStateException("Not implemented");
+    }
+
+    /**
+     * Add geo data of ip addresses to all hits of a search response in asynchronous way
+     *
+     * @param request the search request
+     * @param response the search response
+     * @param requestContext the pipeline processing context
+     * @param responseListener the listener, which receives the search response with enriched hits
+     */
+    @Override
+    public void processResponseAsync(
+        final SearchRequest request,
+        final SearchResponse response,
+        final PipelineProcessingContext requestContext,
+        final ActionListener<SearchResponse> responseListener
+    ) {
+        try {
+            SearchHit[] hits = response.getHits().getHits();
+            List<HitSource> hitSources = new ArrayList<>(hits.length);
+            Set<String> distinctIps = new LinkedHashSet<>();
+            for (SearchHit hit : hits) {
+                HitSource hitSource = readHitSource(hit);
+                if (hitSource != null) {
+                    hitSources.add(hitSource);
+                    distinctIps.addAll(hitSource.ips);
+                }
+            }
+            if (hitSources.isEmpty()) {
+                responseListener.onResponse(response);
+                return;
+            }
+
+            getGeoData(new ArrayList<>(distinctIps), ActionListener.wrap(geoDataByIp -> {
+                for (HitSource hitSource : hitSources) {
+                    setGeoData(hitSource, geoDataByIp);
+                }
+                responseListener.onResponse(response);
+            }, responseListener::onFailure));
+        } catch (Exception e) {
+            responseListener.onFailure(e);
+        }
+    }
+
+    /**
+     * Read ip addresses from the source of a hit
+     *
+     * @param hit the search hit
+     * @return null if the hit has no source, or the field is missing and ignored
+     */
+    private HitSource readHitSource(final SearchHit hit) {
+        if (hit.hasSource() == false) {
+            return null;
+        }
+        Tuple<? extends MediaType, Map<String, Object>> typeAndSource = XContentHelper.convertToMap(
+            hit.getSourceRef(),
+            true,
+            (MediaType) null
+        );
+        Object ip = XContentMapValues.extractValue(field, typeAndSource.v2());
+        if (ip == null) {
+            if (ignoreMissing) {
+                return null;
+            }
+            throw new IllegalArgumentException(
+                String.format(Locale.ROOT, "field [%s] not present as part of the source of hit [%s]", field, hit.getId())
+            );
+        }
+        if (ip instanceof String) {
+            return new HitSource(hit, typeAndSource.v1(), typeAndSource.v2(), List.of((String) ip), false);
+        }
+        if (ip instanceof List == false) {
+            throw new IllegalArgumentException(
+                String.format(Locale.ROOT, "field [%s] should contain only string or array of strings", field)
+            );
+        }
+        List<String> ips = new ArrayList<>(((List<?>) ip).size());
+        for (Object element : (List<?>) ip) {
+            if (element instanceof String == false) {
+                throw new IllegalArgumentException("array in field [" + field + "] should only contain strings");
+            }
+            ips.add((String) element);
+        }
+        return new HitSource(hit, typeAndSource.v1(), typeAndSource.v2(), ips, true);
+    }
+
+    /**
+     * Look up given ip addresses in the datasource at once
+     *
+     * @param ips the ip addresses
+     * @param listener the listener, which receives geo data keyed by ip address, or null if the datasource is expired
+     */
+    private void getGeoData(final List<String> ips, final ActionListener<Map<String, Map<String, Object>>> listener) {
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasourceName, ActionListener.wrap(datasourceMetadata -> {
+            validateDatasourceIsInAvailableState(datasourceMetadata);
+            String indexName = datasourceMetadata.getIndexName();
+            if (datasourceMetadata.isExpired() || indexName == null) {
+                listener.onResponse(null);
+                return;
+            }
+            ip2GeoCachedDao.getBatchGeoData(indexName, ips, datasourceName, listener);
+        }, listener::onFailure));
+    }
+
+    private void setGeoData(final HitSource hitSource, final Map<String, Map<String, Object>> geoDataByIp) {
+        Object value;
+        if (geoDataByIp == null) {
+            value = DATA_EXPIRED;
+        } else if (hitSource.isList == false) {
+            Map<String, Object> geoData = geoDataByIp.get(hitSource.ips.get(0));
+            value = geoData.isEmpty() ? null : projection.project(geoData);
+        } else {
+            List<Map<String, Object>> geoDataList = new ArrayList<>(hitSource.ips.size());
+            for (String ip : hitSource.ips) {
+                Map<String, Object> geoData = geoDataByIp.get(ip);
+                if (geoData.isEmpty() == false) {
+                    geoDataList.add(projection.project(geoData));
+                }
+            }
+            value = geoDataList.isEmpty() ? null : geoDataList;
+        }
+        if (value == null) {
+            return;
+        }
+
+        putValue(hitSource.source, targetField, value);
+        try {
+            XContentBuilder builder = XContentBuilder.builder(hitSource.mediaType.xContent());
+            builder.map(hitSource.source);
+            hitSource.hit.sourceRef(BytesReference.bytes(builder));
+        } catch (Exception e) {
+            throw new IllegalStateException("failed to write the source of hit [" + hitSource.hit.getId() + "]", e);
+        }
+    }
+
+    /**
+     * Put a value in a source map at a dotted path, creating intermediate objects as needed
+     */
+    private static void putValue(final Map<String, Object> source, final String path, final Object value) {
+        String[] names = path.split("\\.");
+        Map<String, Object> current = source;
+        for (int i = 0; i < names.length - 1; i++) {
+            Object child = current.get(names[i]);
+            if (child instanceof Map == false) {
+                child = new HashMap<String, Object>();
+                current.put(names[i], child);
+            }
+            current = (Map<String, Object>) child;
+        }
+        current.put(names[names.length - 1], value);
+    }
+
+    private void validateDatasourceIsInAvailableState(final DatasourceMetadata datasourceMetadata) {
+        if (datasourceMetadata == null) {
+            throw new IllegalStateException("datasource does not exist");
+        }
+
+        final DatasourceState currentState = datasourceMetadata.getState();
+        if (DatasourceState.AVAILABLE.equals(currentState) == false) {
+            throw new IllegalStateException(
+                String.format(
+                    Locale.ROOT,
+                    "datasource %s is not in an available state, current state is %s.",
+                    datasourceName,
+                    currentState.name()
+                )
+            );
+        }
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    /**
+     * The parsed source of a hit with its ip addresses
+     */
+    private static final class HitSource {
+        private final SearchHit hit;
+        private final MediaType mediaType;
+        private final Map<String, Object> source;
+        private final List<String> ips;
+        private final boolean isList;
+
+        private HitSource(
+            final SearchHit hit,
+            final MediaType mediaType,
+            final Map<String, Object> source,
+            final List<String> ips,
+            final boolean isList
+        ) {
+            this.hit = hit;
+            this.mediaType = mediaType;
+            this.source = source;
+            this.ips = ips;
+            this.isList = isList;
+        }
+    }
+
+    /**
+     * Ip2Geo search response processor factory
+     */
+    public static final class Factory implements Processor.Factory<SearchResponseProcessor> {
+        private static final ParameterValidator VALIDATOR = new ParameterValidator();
+        private static final String CONFIG_FIELD = "field";
+        private static final String CONFIG_TARGET_FIELD = "target_field";
+        private static final String CONFIG_DATASOURCE = "datasource";
+        private static final String CONFIG_PROPERTIES = "properties";
+        private static final String CONFIG_IGNORE_MISSING = "ignore_missing";
+        private static final String DEFAULT_TARGET_FIELD = "ip2geo";
+        private final Supplier<Ip2GeoCachedDao> ip2GeoCachedDao;
+        private final GeoDataProjectionRegistry projectionRegistry;
+
+        /**
+         * @param ip2GeoCachedDao supplier of the cache, which is created after search pipeline processors are registered
+         * @param projectionRegistry the projections of geo data, shared with ingest processors
+         */
+        public Factory(final Supplier<Ip2GeoCachedDao> ip2GeoCachedDao, final GeoDataProjectionRegistry projectionRegistry) {
+            this.ip2GeoCachedDao = ip2GeoCachedDao;
+            this.projectionRegistry = projectionRegistry;
+        }
+
+        @Override
+        public Ip2GeoResponseProcessor create(
+            final Map<String, Processor.Factory<SearchResponseProcessor>> processorFactories,
+            final String tag,
+            final String description,
+            final boolean ignoreFailure,
+            final Map<String, Object> config,
+            final Processor.PipelineContext pipelineContext
+        ) {
+            String ipField = readStringProperty(TYPE, tag, config, CONFIG_FIELD);
+            String datasourceName = readStringProperty(TYPE, tag, config, CONFIG_DATASOURCE);
+            String targetField = readStringProperty(TYPE, tag, config, CONFIG_TARGET_FIELD, DEFAULT_TARGET_FIELD);
+            List<String> propertyNames = readOptionalList(TYPE, tag, config, CONFIG_PROPERTIES);
+            boolean ignoreMissing = readBooleanProperty(TYPE, tag, config, CONFIG_IGNORE_MISSING, false);
+
+            List<String> error = VALIDATOR.validateDatasourceName(datasourceName);
+            if (error.isEmpty() == false) {
+                throw newConfigurationException(TYPE, tag, CONFIG_DATASOURCE, error.get(0));
+            }
+            Ip2GeoCachedDao dao = ip2GeoCachedDao.get();
+            if (dao == null) {
+                throw new IllegalStateException("ip2geo is not initialized yet");
+            }
+
+            return new Ip2GeoResponseProcessor(
+                tag,
+                description,
+                ignoreFailure,
+                ipField,
+                targetField,
+                datasourceName,
+                projectionRegistry.get(propertyNames),
+                ignoreMissing,
+                dao
+            );
+        }
+    }
+}
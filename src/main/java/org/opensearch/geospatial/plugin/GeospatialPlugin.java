@@ -34,6 +34,7 @@ import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
 import org.opensearch.geospatial.action.IpEnrichmentAction;
+import org.opensearch.geospatial.action.IpEnrichmentBatchAction;
 import org.opensearch.geospatial.action.upload.geojson.UploadGeoJSONAction;
 import org.opensearch.geospatial.action.upload.geojson.UploadGeoJSONTransportAction;
 import org.opensearch.geospatial.index.mapper.xypoint.XYPointFieldMapper;
@@ -45,31 +46,41 @@ import org.opensearch.geospatial.ip2geo.action.DeleteDatasourceAction;
 import org.opensearch.geospatial.ip2geo.action.DeleteDatasourceTransportAction;
 import org.opensearch.geospatial.ip2geo.action.GetDatasourceAction;
 import org.opensearch.geospatial.ip2geo.action.GetDatasourceTransportAction;
+import org.opensearch.geospatial.ip2geo.action.Ip2GeoStatsAction;
+import org.opensearch.geospatial.ip2geo.action.Ip2GeoStatsTransportAction;
+import org.opensearch.geospatial.ip2geo.action.IpEnrichmentBatchTransportAction;
 import org.opensearch.geospatial.ip2geo.action.IpEnrichmentTransportAction;
 import org.opensearch.geospatial.ip2geo.action.PutDatasourceAction;
 import org.opensearch.geospatial.ip2geo.action.PutDatasourceTransportAction;
 import org.opensearch.geospatial.ip2geo.action.RestDeleteDatasourceHandler;
 import org.opensearch.geospatial.ip2geo.action.RestGetDatasourceHandler;
+import org.opensearch.geospatial.ip2geo.action.RestIp2GeoStatsHandler;
 import org.opensearch.geospatial.ip2geo.action.RestPutDatasourceHandler;
 import org.opensearch.geospatial.ip2geo.action.RestUpdateDatasourceHandler;
 import org.opensearch.geospatial.ip2geo.action.UpdateDatasourceAction;
 import org.opensearch.geospatial.ip2geo.action.UpdateDatasourceTransportAction;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataDiskTier;
 import org.opensearch.geospatial.ip2geo.common.Ip2GeoExecutor;
 import org.opensearch.geospatial.ip2geo.common.Ip2GeoLockService;
 import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
 import org.opensearch.geospatial.ip2geo.common.URLDenyListChecker;
 import org.opensearch.geospatial.ip2geo.dao.DatasourceDao;
 import org.opensearch.geospatial.ip2geo.dao.GeoIpDataDao;
+import org.opensearch.geospatial.ip2geo.dao.GeoIpDataShardReader;
 import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceExtension;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceRunner;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceUpdateService;
 import org.opensearch.geospatial.ip2geo.listener.Ip2GeoListener;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookupRegistry;
+import org.opensearch.geospatial.ip2geo.processor.GeoDataProjectionRegistry;
 import org.opensearch.geospatial.ip2geo.processor.Ip2GeoProcessor;
+import org.opensearch.geospatial.ip2geo.processor.Ip2GeoResponseProcessor;
 import org.opensearch.geospatial.processor.FeatureProcessor;
 import org.opensearch.geospatial.rest.action.upload.geojson.RestUploadGeoJSONAction;
 import org.opensearch.geospatial.search.aggregations.bucket.geogrid.GeoHexGrid;
 import org.opensearch.geospatial.search.aggregations.bucket.geogrid.GeoHexGridAggregationBuilder;
+import org.opensearch.geospatial.search.aggregations.bucket.ip2geo.Ip2GeoTermsAggregationBuilder;
 import org.opensearch.geospatial.shared.PluginClient;
 import org.opensearch.geospatial.stats.upload.RestUploadStatsAction;
 import org.opensearch.geospatial.stats.upload.UploadStats;
@@ -87,12 +98,14 @@ import org.opensearch.plugins.IdentityAwarePlugin;
 import org.opensearch.plugins.IngestPlugin;
 import org.opensearch.plugins.MapperPlugin;
 import org.opensearch.plugins.Plugin;
+import org.opensearch.plugins.SearchPipelinePlugin;
 import org.opensearch.plugins.SearchPlugin;
 import org.opensearch.plugins.SystemIndexPlugin;
 import org.opensearch.repositories.RepositoriesService;
 import org.opensearch.rest.RestController;
 import org.opensearch.rest.RestHandler;
 import org.opensearch.script.ScriptService;
+import org.opensearch.search.pipeline.SearchResponseProcessor;
 import org.opensearch.threadpool.ExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.client.Client;
@@ -111,13 +124,17 @@ public class GeospatialPlugin extends Plugin
         ActionPlugin,
         MapperPlugin,
         SearchPlugin,
+        SearchPipelinePlugin,
         SystemIndexPlugin,
         ClusterPlugin,
         IdentityAwarePlugin {
     private Ip2GeoCachedDao ip2GeoCachedDao;
+    private GeoDataDiskTier geoDataDiskTier;
     private DatasourceDao datasourceDao;
     private GeoIpDataDao geoIpDataDao;
+    private GeoIpDataShardReader geoIpDataShardReader;
     private Ip2GeoProcessor.Factory ip2geoProcessor;
+    private final GeoDataProjectionRegistry geoDataProjectionRegistry = new GeoDataProjectionRegistry();
     private URLDenyListChecker urlDenyListChecker;
     private ClusterService clusterService;
     private Ip2GeoLockService ip2GeoLockService;
@@ -135,7 +152,7 @@ public class GeospatialPlugin extends Plugin
 
     @Override
     public Map<String, Processor.Factory> getProcessors(Processor.Parameters parameters) {
-        this.ip2geoProcessor = new Ip2GeoProcessor.Factory(parameters.ingestService);
+        this.ip2geoProcessor = new Ip2GeoProcessor.Factory(parameters.ingestService, geoDataProjectionRegistry);
         return MapBuilder.<String, Processor.Factory>newMapBuilder()
             .put(FeatureProcessor.TYPE, new FeatureProcessor.Factory())
             .put(Ip2GeoProcessor.TYPE, ip2geoProcessor)
@@ -148,6 +165,9 @@ public class GeospatialPlugin extends Plugin
             indexModule.addIndexOperationListener(ip2GeoCachedDao);
             log.info("Ip2GeoListener started listening to operations on index {}", DatasourceExtension.JOB_INDEX_NAME);
         }
+        if (indexModule.getIndex().getName().startsWith(IP2GEO_DATA_INDEX_NAME_PREFIX)) {
+            indexModule.addIndexEventListener(geoIpDataShardReader);
+        }
     }
 
     @Override
@@ -162,6 +182,9 @@ public class GeospatialPlugin extends Plugin
     public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
         List<ExecutorBuilder<?>> executorBuilders = new ArrayList<>();
         executorBuilders.add(Ip2GeoExecutor.executorBuilder(settings));
+        executorBuilders.add(Ip2GeoExecutor.importExecutorBuilder(settings));
+        executorBuilders.add(Ip2GeoExecutor.lookupLoadExecutorBuilder(settings));
+        executorBuilders.add(Ip2GeoExecutor.lookupExecutorBuilder(settings));
         return executorBuilders;
     }
 
@@ -188,13 +211,28 @@ public class GeospatialPlugin extends Plugin
         this.pluginClient = new PluginClient(client);
         this.urlDenyListChecker = new URLDenyListChecker(clusterService.getClusterSettings());
         this.datasourceDao = new DatasourceDao(pluginClient, clusterService);
-        this.geoIpDataDao = new GeoIpDataDao(clusterService, pluginClient, urlDenyListChecker);
-        this.ip2GeoCachedDao = new Ip2GeoCachedDao(clusterService, datasourceDao, geoIpDataDao);
+        this.geoIpDataShardReader = new GeoIpDataShardReader(clusterService.getClusterSettings());
+        this.ip2GeoExecutor = new Ip2GeoExecutor(threadPool);
+        this.geoIpDataDao = new GeoIpDataDao(clusterService, pluginClient, urlDenyListChecker, geoIpDataShardReader, ip2GeoExecutor);
+        GeoIpLookupRegistry geoIpLookupRegistry = new GeoIpLookupRegistry(
+            clusterService.getClusterSettings(),
+            nodeEnvironment,
+            geoIpDataDao,
+            ip2GeoExecutor
+        );
+        this.geoDataDiskTier = new GeoDataDiskTier(clusterService.getClusterSettings(), nodeEnvironment);
+        this.ip2GeoCachedDao = new Ip2GeoCachedDao(
+            clusterService,
+            datasourceDao,
+            geoIpDataDao,
+            geoIpLookupRegistry,
+            geoDataDiskTier,
+            ip2GeoExecutor
+        );
         if (this.ip2geoProcessor != null) {
             this.ip2geoProcessor.initialize(datasourceDao, geoIpDataDao, ip2GeoCachedDao);
         }
         this.datasourceUpdateService = new DatasourceUpdateService(clusterService, datasourceDao, geoIpDataDao, urlDenyListChecker);
-        this.ip2GeoExecutor = new Ip2GeoExecutor(threadPool);
         this.ip2GeoLockService = new Ip2GeoLockService(clusterService);
 
         return List.of(
@@ -224,7 +262,8 @@ public class GeospatialPlugin extends Plugin
             new RestPutDatasourceHandler(clusterSettings, urlDenyListChecker),
             new RestGetDatasourceHandler(),
             new RestUpdateDatasourceHandler(urlDenyListChecker),
-            new RestDeleteDatasourceHandler()
+            new RestDeleteDatasourceHandler(),
+            new RestIp2GeoStatsHandler()
         );
 
         List<RestHandler> allHandlers = new ArrayList<>();
@@ -244,12 +283,14 @@ public class GeospatialPlugin extends Plugin
             new ActionHandler<>(PutDatasourceAction.INSTANCE, PutDatasourceTransportAction.class),
             new ActionHandler<>(GetDatasourceAction.INSTANCE, GetDatasourceTransportAction.class),
             new ActionHandler<>(UpdateDatasourceAction.INSTANCE, UpdateDatasourceTransportAction.class),
-            new ActionHandler<>(DeleteDatasourceAction.INSTANCE, DeleteDatasourceTransportAction.class)
+            new ActionHandler<>(DeleteDatasourceAction.INSTANCE, DeleteDatasourceTransportAction.class),
+            new ActionHandler<>(Ip2GeoStatsAction.INSTANCE, Ip2GeoStatsTransportAction.class)
         );
 
         // Inter-cluster IP enrichment request
         List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> ipEnrichmentHandlers = List.of(
-            new ActionHandler<>(IpEnrichmentAction.INSTANCE, IpEnrichmentTransportAction.class)
+            new ActionHandler<>(IpEnrichmentAction.INSTANCE, IpEnrichmentTransportAction.class),
+            new ActionHandler<>(IpEnrichmentBatchAction.INSTANCE, IpEnrichmentBatchTransportAction.class)
         );
 
         List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> allHandlers = new ArrayList<>();
@@ -276,7 +317,7 @@ public class GeospatialPlugin extends Plugin
     }
 
     /**
-     * Registering {@link GeoHexGrid} aggregation on GeoPoint field.
+     * Registering {@link GeoHexGrid} aggregation on GeoPoint field and {@link Ip2GeoTermsAggregationBuilder} aggregation on ip field.
      */
     @Override
     public List<AggregationSpec> getAggregations() {
@@ -287,7 +328,23 @@ public class GeospatialPlugin extends Plugin
             GeoHexGridAggregationBuilder.PARSER
         ).addResultReader(GeoHexGrid::new).setAggregatorRegistrar(GeoHexGridAggregationBuilder::registerAggregators);
 
-        return List.of(geoHexGridSpec);
+        final var ip2GeoTermsSpec = new AggregationSpec(
+            Ip2GeoTermsAggregationBuilder.NAME,
+            Ip2GeoTermsAggregationBuilder::new,
+            Ip2GeoTermsAggregationBuilder.PARSER
+        ).setAggregatorRegistrar(builder -> Ip2GeoTermsAggregationBuilder.registerAggregators(builder, () -> ip2GeoCachedDao));
+
+        return List.of(geoHexGridSpec, ip2GeoTermsSpec);
+    }
+
+    @Override
+    public Map<String, org.opensearch.search.pipeline.Processor.Factory<SearchResponseProcessor>> getResponseProcessors(
+        SearchPipelinePlugin.Parameters parameters
+    ) {
+        return Map.of(
+            Ip2GeoResponseProcessor.TYPE,
+            new Ip2GeoResponseProcessor.Factory(() -> ip2GeoCachedDao, geoDataProjectionRegistry)
+        );
     }
 
     @Override
@@ -299,6 +356,13 @@ public class GeospatialPlugin extends Plugin
             .initialize(this.clusterService, this.datasourceUpdateService, this.ip2GeoExecutor, this.datasourceDao, this.ip2GeoLockService);
     }
 
+    @Override
+    public void close() {
+        if (geoDataDiskTier != null) {
+            geoDataDiskTier.close();
+        }
+    }
+
     @Override
     public void assignSubject(PluginSubject pluginSubject) {
         // When security is not installed, the pluginSubject will still be assigned.
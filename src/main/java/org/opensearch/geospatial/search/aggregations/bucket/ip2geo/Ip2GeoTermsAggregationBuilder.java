@@ -0,0 +1,261 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.search.aggregations.bucket.ip2geo;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.opensearch.core.ParseField;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ObjectParser;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.AggregatorFactories;
+import org.opensearch.search.aggregations.AggregatorFactory;
+import org.opensearch.search.aggregations.bucket.BucketUtils;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregator;
+import org.opensearch.search.aggregations.support.CoreValuesSourceType;
+import org.opensearch.search.aggregations.support.ValuesSourceAggregationBuilder;
+import org.opensearch.search.aggregations.support.ValuesSourceAggregatorFactory;
+import org.opensearch.search.aggregations.support.ValuesSourceConfig;
+import org.opensearch.search.aggregations.support.ValuesSourceRegistry;
+import org.opensearch.search.aggregations.support.ValuesSourceType;
+
+/**
+ * Aggregation Builder for ip2geo terms
+ *
+ * Buckets documents by an attribute of the geo data, such as country or city, of the values of an ip field,
+ * resolved at search time through the lookup of a datasource. The result is a string terms aggregation.
+ */
+public class Ip2GeoTermsAggregationBuilder extends ValuesSourceAggregationBuilder<Ip2GeoTermsAggregationBuilder> {
+
+    /**
+     * Aggregation context name
+     */
+    public static final String NAME = "ip2geo_terms";
+    public static final ValuesSourceRegistry.RegistryKey<Ip2GeoTermsAggregatorSupplier> REGISTRY_KEY =
+        new ValuesSourceRegistry.RegistryKey<>(NAME, Ip2GeoTermsAggregatorSupplier.class);
+    public static final ParseField DATASOURCE_FIELD = new ParseField("datasource");
+    public static final ParseField ATTRIBUTE_FIELD = new ParseField("attribute");
+    public static final ParseField SIZE_FIELD = new ParseField("size");
+    public static final ParseField SHARD_SIZE_FIELD = new ParseField("shard_size");
+    public static final ObjectParser<Ip2GeoTermsAggregationBuilder, String> PARSER = ObjectParser.fromBuilder(
+        NAME,
+        Ip2GeoTermsAggregationBuilder::new
+    );
+    private static final int DEFAULT_SIZE = 10;
+    private static final int DEFAULT_SHARD_SIZE = -1;
+
+    static {
+        ValuesSourceAggregationBuilder.declareFields(PARSER, false, false, false);
+        PARSER.declareString(Ip2GeoTermsAggregationBuilder::datasource, DATASOURCE_FIELD);
+        PARSER.declareString(Ip2GeoTermsAggregationBuilder::attribute, ATTRIBUTE_FIELD);
+        PARSER.declareInt(Ip2GeoTermsAggregationBuilder::size, SIZE_FIELD);
+        PARSER.declareInt(Ip2GeoTermsAggregationBuilder::shardSize, SHARD_SIZE_FIELD);
+    }
+
+    private String datasource;
+    private String attribute;
+    private int size = DEFAULT_SIZE;
+    private int shardSize = DEFAULT_SHARD_SIZE;
+
+    public Ip2GeoTermsAggregationBuilder(String name) {
+        super(name);
+    }
+
+    public Ip2GeoTermsAggregationBuilder(StreamInput in) throws IOException {
+        super(in);
+        datasource = in.readOptionalString();
+        attribute = in.readOptionalString();
+        size = in.readVInt();
+        shardSize = in.readInt();
+    }
+
+    protected Ip2GeoTermsAggregationBuilder(
+        Ip2GeoTermsAggregationBuilder clone,
+        AggregatorFactories.Builder factoriesBuilder,
+        Map<String, Object> metadata
+    ) {
+        super(clone, factoriesBuilder, metadata);
+        this.datasource = clone.datasource;
+        this.attribute = clone.attribute;
+        this.size = clone.size;
+        this.shardSize = clone.shardSize;
+    }
+
+    /**
+     * Register's ip2geo terms aggregation
+     * @param builder Builder to register new Aggregation
+     * @param ip2GeoCachedDao supplier of the dao to resolve the lookup of a datasource, which is created after aggregations are registered
+     */
+    public static void registerAggregators(final ValuesSourceRegistry.Builder builder, final Supplier<Ip2GeoCachedDao> ip2GeoCachedDao) {
+        Ip2GeoTermsAggregatorFactory.registerAggregators(builder, ip2GeoCachedDao);
+    }
+
+    /**
+     * @param datasource the name of the datasource whose geo data is used
+     * @return this builder
+     */
+    public Ip2GeoTermsAggregationBuilder datasource(String datasource) {
+        if (datasource == null || datasource.isEmpty()) {
+            throw new IllegalArgumentException("[" + DATASOURCE_FIELD.getPreferredName() + "] must not be empty: [" + name + "]");
+        }
+        this.datasource = datasource;
+        return this;
+    }
+
+    public String datasource() {
+        return datasource;
+    }
+
+    /**
+     * @param attribute the geo data attribute to bucket by, such as country_name or city_name
+     * @return this builder
+     */
+    public Ip2GeoTermsAggregationBuilder attribute(String attribute) {
+        if (attribute == null || attribute.isEmpty()) {
+            throw new IllegalArgumentException("[" + ATTRIBUTE_FIELD.getPreferredName() + "] must not be empty: [" + name + "]");
+        }
+        this.attribute = attribute;
+        return this;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * @param size the number of buckets to return
+     * @return this builder
+     */
+    public Ip2GeoTermsAggregationBuilder size(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(
+                "[" + SIZE_FIELD.getPreferredName() + "] must be greater than 0. Found [" + size + "] in [" + name + "]"
+            );
+        }
+        this.size = size;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param shardSize the number of buckets to return from each shard, or -1 to derive it from the size
+     * @return this builder
+     */
+    public Ip2GeoTermsAggregationBuilder shardSize(int shardSize) {
+        if (shardSize <= 0 && shardSize != DEFAULT_SHARD_SIZE) {
+            throw new IllegalArgumentException(
+                "[" + SHARD_SIZE_FIELD.getPreferredName() + "] must be greater than 0. Found [" + shardSize + "] in [" + name + "]"
+            );
+        }
+        this.shardSize = shardSize;
+        return this;
+    }
+
+    public int shardSize() {
+        return shardSize;
+    }
+
+    @Override
+    public String getType() {
+        return NAME;
+    }
+
+    @Override
+    public BucketCardinality bucketCardinality() {
+        return BucketCardinality.MANY;
+    }
+
+    @Override
+    protected ValuesSourceType defaultValueSourceType() {
+        return CoreValuesSourceType.IP;
+    }
+
+    @Override
+    protected ValuesSourceRegistry.RegistryKey<?> getRegistryKey() {
+        return REGISTRY_KEY;
+    }
+
+    @Override
+    protected void innerWriteTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(datasource);
+        out.writeOptionalString(attribute);
+        out.writeVInt(size);
+        out.writeInt(shardSize);
+    }
+
+    @Override
+    protected ValuesSourceAggregatorFactory innerBuild(
+        QueryShardContext queryShardContext,
+        ValuesSourceConfig config,
+        AggregatorFactory parent,
+        AggregatorFactories.Builder subFactoriesBuilder
+    ) throws IOException {
+        if (datasource == null) {
+            throw new IllegalArgumentException("[" + DATASOURCE_FIELD.getPreferredName() + "] is required: [" + name + "]");
+        }
+        if (attribute == null) {
+            throw new IllegalArgumentException("[" + ATTRIBUTE_FIELD.getPreferredName() + "] is required: [" + name + "]");
+        }
+        int requiredShardSize = shardSize == DEFAULT_SHARD_SIZE ? BucketUtils.suggestShardSideQueueSize(size) : Math.max(shardSize, size);
+        return new Ip2GeoTermsAggregatorFactory(
+            name,
+            config,
+            datasource,
+            attribute,
+            new TermsAggregator.BucketCountThresholds(1, 0, size, requiredShardSize),
+            queryShardContext,
+            parent,
+            subFactoriesBuilder,
+            metadata
+        );
+    }
+
+    @Override
+    protected XContentBuilder doXContentBody(XContentBuilder builder, Params params) throws IOException {
+        builder.field(DATASOURCE_FIELD.getPreferredName(), datasource);
+        builder.field(ATTRIBUTE_FIELD.getPreferredName(), attribute);
+        builder.field(SIZE_FIELD.getPreferredName(), size);
+        if (shardSize != DEFAULT_SHARD_SIZE) {
+            builder.field(SHARD_SIZE_FIELD.getPreferredName(), shardSize);
+        }
+        return builder;
+    }
+
+    @Override
+    protected AggregationBuilder shallowCopy(AggregatorFactories.Builder factoriesBuilder, Map<String, Object> metadata) {
+        return new Ip2GeoTermsAggregationBuilder(this, factoriesBuilder, metadata);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), datasource, attribute, size, shardSize);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass() || super.equals(obj) == false) {
+            return false;
+        }
+        Ip2GeoTermsAggregationBuilder other = (Ip2GeoTermsAggregationBuilder) obj;
+        return Objects.equals(datasource, other.datasource)
+            && Objects.equals(attribute, other.attribute)
+            && size == other.size
+            && shardSize == other.shardSize;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.search.aggregations.bucket.ip2geo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.BitUtil;
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.lease.Releasables;
+import org.opensearch.common.util.IntArray;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookup;
+import org.opensearch.index.fielddata.SortedBinaryDocValues;
+import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.aggregations.Aggregator;
+import org.opensearch.search.aggregations.AggregatorFactories;
+import org.opensearch.search.aggregations.BucketOrder;
+import org.opensearch.search.aggregations.CardinalityUpperBound;
+import org.opensearch.search.aggregations.InternalAggregation;
+import org.opensearch.search.aggregations.InternalAggregations;
+import org.opensearch.search.aggregations.LeafBucketCollector;
+import org.opensearch.search.aggregations.LeafBucketCollectorBase;
+import org.opensearch.search.aggregations.bucket.BucketsAggregator;
+import org.opensearch.search.aggregations.bucket.terms.LongKeyedBucketOrds;
+import org.opensearch.search.aggregations.bucket.terms.StringTerms;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregator;
+import org.opensearch.search.aggregations.support.ValuesSource;
+import org.opensearch.search.internal.SearchContext;
+
+/**
+ * Aggregates values of an ip field by an attribute of their geo data
+ *
+ * Each distinct attribute value gets an id and documents are bucketed by the attribute id. With ordinals, which ip fields
+ * have in doc values, the attribute id of each ordinal of a segment is resolved through the lookup once, on its first
+ * occurrence, and documents with the same ip address are bucketed without looking it up again.
+ * A document is counted once per distinct attribute value of its ip addresses.
+ * The aggregator owns an acquired reference to the lookup and releases it when it is closed.
+ */
+public class Ip2GeoTermsAggregator extends BucketsAggregator {
+    /**
+     * Order of buckets, by descending doc count and then by ascending attribute value
+     */
+    static final BucketOrder ORDER = BucketOrder.compound(BucketOrder.count(false), BucketOrder.key(true));
+    private static final int NO_ATTRIBUTE = -1;
+    /**
+     * Stored in the per segment ordinal table for an ordinal whose attribute id is not resolved yet.
+     * Resolved attribute ids are stored with an offset so that the table starts cleared.
+     */
+    private static final int UNRESOLVED = 0;
+    private static final int RESOLVED_OFFSET = 2;
+    private static final int ADDRESS_BYTES = 16;
+    private static final Comparator<BucketCandidate> WORST_FIRST = Comparator.comparingLong(
+        (BucketCandidate candidate) -> candidate.docCount
+    ).thenComparing(candidate -> candidate.term, Comparator.reverseOrder());
+
+    private final ValuesSource valuesSource;
+    private final GeoIpLookup lookup;
+    private final String attribute;
+    private final TermsAggregator.BucketCountThresholds bucketCountThresholds;
+    private final LongKeyedBucketOrds bucketOrds;
+    private final Map<String, Integer> attributeIds = new HashMap<>();
+    private final List<BytesRef> attributeValues = new ArrayList<>();
+    private IntArray segmentAttributeIds;
+    private int[] docAttributeIds = new int[4];
+    private int docAttributeCount;
+
+    public Ip2GeoTermsAggregator(
+        String name,
+        AggregatorFactories factories,
+        ValuesSource valuesSource,
+        GeoIpLookup lookup,
+        String attribute,
+        TermsAggregator.BucketCountThresholds bucketCountThresholds,
+        SearchContext context,
+        Aggregator parent,
+        CardinalityUpperBound cardinality,
+        Map<String, Object> metadata
+    ) throws IOException {
+        super(name, factories, context, parent, cardinality, metadata);
+        this.valuesSource = valuesSource;
+        this.lookup = lookup;
+        this.attribute = attribute;
+        this.bucketCountThresholds = bucketCountThresholds;
+        this.bucketOrds = LongKeyedBucketOrds.build(context.bigArrays(), cardinality);
+    }
+
+    @Override
+    protected LeafBucketCollector getLeafCollector(LeafReaderContext ctx, LeafBucketCollector sub) throws IOException {
+        if (valuesSource instanceof ValuesSource.Bytes.WithOrdinals) {
+            return getOrdinalsLeafCollector(((ValuesSource.Bytes.WithOrdinals) valuesSource).ordinalsValues(ctx), sub);
+        }
+        final SortedBinaryDocValues values = valuesSource.bytesValues(ctx);
+        return new LeafBucketCollectorBase(sub, values) {
+            @Override
+            public void collect(int doc, long owningBucketOrd) throws IOException {
+                if (values.advanceExact(doc) == false) {
+                    return;
+                }
+                docAttributeCount = 0;
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    collectAttribute(sub, doc, owningBucketOrd, resolveAttributeId(values.nextValue()));
+                }
+            }
+        };
+    }
+
+    private LeafBucketCollector getOrdinalsLeafCollector(final SortedSetDocValues values, final LeafBucketCollector sub) {
+        Releasables.close(segmentAttributeIds);
+        segmentAttributeIds = context.bigArrays().newIntArray(values.getValueCount(), true);
+        final IntArray ordAttributeIds = segmentAttributeIds;
+        return new LeafBucketCollectorBase(sub, values) {
+            @Override
+            public void collect(int doc, long owningBucketOrd) throws IOException {
+                if (values.advanceExact(doc) == false) {
+                    return;
+                }
+                docAttributeCount = 0;
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    long ord = values.nextOrd();
+                    int resolved = ordAttributeIds.get(ord);
+                    if (resolved == UNRESOLVED) {
+                        resolved = resolveAttributeId(values.lookupOrd(ord)) + RESOLVED_OFFSET;
+                        ordAttributeIds.set(ord, resolved);
+                    }
+                    collectAttribute(sub, doc, owningBucketOrd, resolved - RESOLVED_OFFSET);
+                }
+            }
+        };
+    }
+
+    /**
+     * Collect a document into the bucket of an attribute id unless the document is already in it
+     */
+    private void collectAttribute(final LeafBucketCollector sub, final int doc, final long owningBucketOrd, final int attributeId)
+        throws IOException {
+        if (attributeId == NO_ATTRIBUTE) {
+            return;
+        }
+        for (int i = 0; i < docAttributeCount; i++) {
+            if (docAttributeIds[i] == attributeId) {
+                return;
+            }
+        }
+        if (docAttributeCount == docAttributeIds.length) {
+            docAttributeIds = Arrays.copyOf(docAttributeIds, docAttributeCount * 2);
+        }
+        docAttributeIds[docAttributeCount++] = attributeId;
+        long bucketOrd = bucketOrds.add(owningBucketOrd, attributeId);
+        if (bucketOrd < 0) {
+            collectExistingBucket(sub, doc, -1 - bucketOrd);
+        } else {
+            collectBucket(sub, doc, bucketOrd);
+        }
+    }
+
+    /**
+     * Resolve the attribute id of an ip address, which is encoded in 16 bytes in doc values
+     * or is a string when it comes from a script
+     */
+    private int resolveAttributeId(final BytesRef address) {
+        Map<String, Object> geoData;
+        if (address.length == ADDRESS_BYTES) {
+            long high = (long) BitUtil.VH_BE_LONG.get(address.bytes, address.offset);
+            long low = (long) BitUtil.VH_BE_LONG.get(address.bytes, address.offset + Long.BYTES);
+            geoData = lookup.lookup(high, low);
+        } else {
+            try {
+                geoData = lookup.lookup(address.utf8ToString());
+            } catch (IllegalArgumentException e) {
+                return NO_ATTRIBUTE;
+            }
+        }
+        Object value = geoData.get(attribute);
+        if (value == null) {
+            return NO_ATTRIBUTE;
+        }
+        return attributeIds.computeIfAbsent(value.toString(), key -> {
+            attributeValues.add(new BytesRef(key));
+            return attributeValues.size() - 1;
+        });
+    }
+
+    @Override
+    public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
+        BucketCandidate[][] topCandidates = new BucketCandidate[owningBucketOrds.length][];
+        long[] otherDocCounts = new long[owningBucketOrds.length];
+        int bucketCount = 0;
+        for (int i = 0; i < owningBucketOrds.length; i++) {
+            PriorityQueue<BucketCandidate> queue = new PriorityQueue<>(WORST_FIRST);
+            LongKeyedBucketOrds.BucketOrdsEnum ordsEnum = bucketOrds.ordsEnum(owningBucketOrds[i]);
+            while (ordsEnum.next()) {
+                long docCount = bucketDocCount(ordsEnum.ord());
+                otherDocCounts[i] += docCount;
+                queue.add(new BucketCandidate(attributeValues.get((int) ordsEnum.value()), ordsEnum.ord(), docCount));
+                if (queue.size() > bucketCountThresholds.getShardSize()) {
+                    queue.poll();
+                }
+            }
+            topCandidates[i] = new BucketCandidate[queue.size()];
+            for (int b = queue.size() - 1; b >= 0; b--) {
+                BucketCandidate candidate = queue.poll();
+                topCandidates[i][b] = candidate;
+                otherDocCounts[i] -= candidate.docCount;
+            }
+            bucketCount += topCandidates[i].length;
+        }
+
+        long[] bucketOrdsToCollect = new long[bucketCount];
+        int next = 0;
+        for (BucketCandidate[] candidates : topCandidates) {
+            for (BucketCandidate candidate : candidates) {
+                bucketOrdsToCollect[next++] = candidate.bucketOrd;
+            }
+        }
+        InternalAggregations[] subAggregations = buildSubAggsForBuckets(bucketOrdsToCollect);
+
+        InternalAggregation[] results = new InternalAggregation[owningBucketOrds.length];
+        next = 0;
+        for (int i = 0; i < owningBucketOrds.length; i++) {
+            List<StringTerms.Bucket> buckets = new ArrayList<>(topCandidates[i].length);
+            for (BucketCandidate candidate : topCandidates[i]) {
+                buckets.add(
+                    new StringTerms.Bucket(candidate.term, candidate.docCount, subAggregations[next++], false, 0, DocValueFormat.RAW)
+                );
+            }
+            results[i] = buildResult(buckets, otherDocCounts[i]);
+        }
+        return results;
+    }
+
+    @Override
+    public InternalAggregation buildEmptyAggregation() {
+        return buildResult(List.of(), 0);
+    }
+
+    private StringTerms buildResult(final List<StringTerms.Bucket> buckets, final long otherDocCount) {
+        return new StringTerms(
+            name,
+            ORDER,
+            ORDER,
+            metadata(),
+            DocValueFormat.RAW,
+            bucketCountThresholds.getShardSize(),
+            false,
+            otherDocCount,
+            buckets,
+            0,
+            bucketCountThresholds
+        );
+    }
+
+    @Override
+    public void doClose() {
+        Releasables.close(bucketOrds, segmentAttributeIds, lookup::release);
+    }
+
+    private static final class BucketCandidate {
+        private final BytesRef term;
+        private final long bucketOrd;
+        private final long docCount;
+
+        private BucketCandidate(final BytesRef term, final long bucketOrd, final long docCount) {
+            this.term = term;
+            this.bucketOrd = bucketOrd;
+            this.docCount = docCount;
+        }
+    }
+}
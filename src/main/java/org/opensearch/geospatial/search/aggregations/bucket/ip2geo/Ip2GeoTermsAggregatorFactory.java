@@ -0,0 +1,134 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.search.aggregations.bucket.ip2geo;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookup;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.aggregations.Aggregator;
+import org.opensearch.search.aggregations.AggregatorFactories;
+import org.opensearch.search.aggregations.AggregatorFactory;
+import org.opensearch.search.aggregations.CardinalityUpperBound;
+import org.opensearch.search.aggregations.InternalAggregation;
+import org.opensearch.search.aggregations.NonCollectingAggregator;
+import org.opensearch.search.aggregations.bucket.terms.StringTerms;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregator;
+import org.opensearch.search.aggregations.support.CoreValuesSourceType;
+import org.opensearch.search.aggregations.support.ValuesSourceAggregatorFactory;
+import org.opensearch.search.aggregations.support.ValuesSourceConfig;
+import org.opensearch.search.aggregations.support.ValuesSourceRegistry;
+import org.opensearch.search.internal.SearchContext;
+
+/**
+ * Aggregation Factory for ip2geo_terms agg
+ */
+public class Ip2GeoTermsAggregatorFactory extends ValuesSourceAggregatorFactory {
+    private final String datasourceName;
+    private final String attribute;
+    private final TermsAggregator.BucketCountThresholds bucketCountThresholds;
+
+    Ip2GeoTermsAggregatorFactory(
+        String name,
+        ValuesSourceConfig config,
+        String datasourceName,
+        String attribute,
+        TermsAggregator.BucketCountThresholds bucketCountThresholds,
+        QueryShardContext queryShardContext,
+        AggregatorFactory parent,
+        AggregatorFactories.Builder subFactoriesBuilder,
+        Map<String, Object> metadata
+    ) throws IOException {
+        super(name, config, queryShardContext, parent, subFactoriesBuilder, metadata);
+        this.datasourceName = datasourceName;
+        this.attribute = attribute;
+        this.bucketCountThresholds = bucketCountThresholds;
+    }
+
+    @Override
+    protected Aggregator createUnmapped(SearchContext searchContext, Aggregator parent, Map<String, Object> metadata) throws IOException {
+        final var aggregation = new StringTerms(
+            name,
+            Ip2GeoTermsAggregator.ORDER,
+            Ip2GeoTermsAggregator.ORDER,
+            metadata,
+            DocValueFormat.RAW,
+            bucketCountThresholds.getShardSize(),
+            false,
+            0,
+            List.of(),
+            0,
+            bucketCountThresholds
+        );
+
+        return new NonCollectingAggregator(name, searchContext, parent, factories, metadata) {
+            @Override
+            public InternalAggregation buildEmptyAggregation() {
+                return aggregation;
+            }
+        };
+    }
+
+    @Override
+    protected Aggregator doCreateInternal(
+        SearchContext searchContext,
+        Aggregator parent,
+        CardinalityUpperBound cardinality,
+        Map<String, Object> metadata
+    ) throws IOException {
+        return queryShardContext.getValuesSourceRegistry()
+            .getAggregator(Ip2GeoTermsAggregationBuilder.REGISTRY_KEY, config)
+            .build(
+                name,
+                factories,
+                config.getValuesSource(),
+                datasourceName,
+                attribute,
+                bucketCountThresholds,
+                searchContext,
+                parent,
+                cardinality,
+                metadata
+            );
+    }
+
+    static void registerAggregators(final ValuesSourceRegistry.Builder builder, final Supplier<Ip2GeoCachedDao> ip2GeoCachedDao) {
+        builder.register(
+            Ip2GeoTermsAggregationBuilder.REGISTRY_KEY,
+            CoreValuesSourceType.IP,
+            (name, factories, valuesSource, datasourceName, attribute, bucketCountThresholds, context, parent, cardinality, metadata) -> {
+                Ip2GeoCachedDao dao = ip2GeoCachedDao.get();
+                if (dao == null) {
+                    throw new IllegalStateException("ip2geo is not initialized yet");
+                }
+                GeoIpLookup lookup = dao.getLookup(datasourceName);
+                try {
+                    return new Ip2GeoTermsAggregator(
+                        name,
+                        factories,
+                        valuesSource,
+                        lookup,
+                        attribute,
+                        bucketCountThresholds,
+                        context,
+                        parent,
+                        cardinality,
+                        metadata
+                    );
+                } catch (IOException | RuntimeException e) {
+                    lookup.release();
+                    throw e;
+                }
+            },
+            true
+        );
+    }
+}
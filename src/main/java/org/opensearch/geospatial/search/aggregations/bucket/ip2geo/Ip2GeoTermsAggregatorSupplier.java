@@ -0,0 +1,35 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.search.aggregations.bucket.ip2geo;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.opensearch.search.aggregations.Aggregator;
+import org.opensearch.search.aggregations.AggregatorFactories;
+import org.opensearch.search.aggregations.CardinalityUpperBound;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregator;
+import org.opensearch.search.aggregations.support.ValuesSource;
+import org.opensearch.search.internal.SearchContext;
+
+/**
+ * Supplier of ip2geo_terms aggregators registered per values source type
+ */
+@FunctionalInterface
+public interface Ip2GeoTermsAggregatorSupplier {
+    Aggregator build(
+        String name,
+        AggregatorFactories factories,
+        ValuesSource valuesSource,
+        String datasourceName,
+        String attribute,
+        TermsAggregator.BucketCountThresholds bucketCountThresholds,
+        SearchContext context,
+        Aggregator parent,
+        CardinalityUpperBound cardinality,
+        Map<String, Object> metadata
+    ) throws IOException;
+}
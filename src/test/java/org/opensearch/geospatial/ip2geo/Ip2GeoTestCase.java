@@ -20,6 +20,9 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -55,6 +58,8 @@ import org.opensearch.geospatial.ip2geo.dao.Ip2GeoProcessorDao;
 import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceTask;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceUpdateService;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookupRegistry;
+import org.opensearch.geospatial.ip2geo.processor.GeoDataProjection;
 import org.opensearch.geospatial.ip2geo.processor.Ip2GeoProcessor;
 import org.opensearch.ingest.IngestMetadata;
 import org.opensearch.ingest.IngestService;
@@ -105,12 +110,15 @@ public abstract class Ip2GeoTestCase extends RestActionTestCase {
     protected LockService lockService;
     @Mock
     protected URLDenyListChecker urlDenyListChecker;
+    @Mock
+    protected GeoIpLookupRegistry geoIpLookupRegistry;
     protected IngestMetadata ingestMetadata;
     protected NoOpNodeClient client;
     protected VerifyingClient verifyingClient;
     protected ClusterSettings clusterSettings;
     protected Settings settings;
     private AutoCloseable openMocks;
+    private ExecutorService importExecutor;
 
     @Before
     public void prepareIp2GeoTestCase() {
@@ -129,12 +137,18 @@ public abstract class Ip2GeoTestCase extends RestActionTestCase {
         when(clusterState.getMetadata()).thenReturn(metadata);
         when(clusterState.routingTable()).thenReturn(routingTable);
         when(ip2GeoExecutor.forDatasourceUpdate()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
+        // stages of an import block on each other, so they run on threads of their own
+        importExecutor = Executors.newCachedThreadPool(OpenSearchExecutors.daemonThreadFactory("test_ip2geo_import"));
+        when(ip2GeoExecutor.forDatasourceImport()).thenReturn(importExecutor);
+        when(ip2GeoExecutor.forLookupLoad()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
+        when(ip2GeoExecutor.forLookup()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
         when(ingestService.getClusterService()).thenReturn(clusterService);
         when(threadPool.generic()).thenReturn(OpenSearchExecutors.newDirectExecutorService());
     }
 
     @After
     public void clean() throws Exception {
+        ThreadPool.terminate(importExecutor, 10, TimeUnit.SECONDS);
         openMocks.close();
         client.close();
         verifyingClient.close();
@@ -262,14 +276,14 @@ public abstract class Ip2GeoTestCase extends RestActionTestCase {
         String description = GeospatialTestHelper.randomLowerCaseString();
         String field = GeospatialTestHelper.randomLowerCaseString();
         String targetField = GeospatialTestHelper.randomLowerCaseString();
-        Set<String> properties = Set.of(GeospatialTestHelper.randomLowerCaseString());
+        GeoDataProjection projection = new GeoDataProjection(Set.of(GeospatialTestHelper.randomLowerCaseString()));
         Ip2GeoProcessor ip2GeoProcessor = new Ip2GeoProcessor(
             tag,
             description,
             field,
             targetField,
             datasourceName,
-            properties,
+            projection,
             true,
             clusterSettings,
             datasourceDao,
@@ -0,0 +1,109 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.opensearch.Version;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCacheStats;
+import org.opensearch.test.OpenSearchTestCase;
+
+import lombok.SneakyThrows;
+
+public class Ip2GeoStatsResponseTests extends OpenSearchTestCase {
+
+    @SneakyThrows
+    public void testStreamInOut_whenValidInput_thenSucceed() {
+        Ip2GeoStatsResponse response = new Ip2GeoStatsResponse(
+            new ClusterName(GeospatialTestHelper.randomLowerCaseString()),
+            Arrays.asList(randomNodeResponse(), randomNodeResponse()),
+            Collections.emptyList()
+        );
+
+        // Run
+        BytesStreamOutput output = new BytesStreamOutput();
+        response.writeTo(output);
+        StreamInput input = output.bytes().streamInput();
+        Ip2GeoStatsResponse copiedResponse = new Ip2GeoStatsResponse(input);
+
+        // Verify
+        assertEquals(response.getClusterName(), copiedResponse.getClusterName());
+        assertEquals(response.getNodes().size(), copiedResponse.getNodes().size());
+        for (int i = 0; i < response.getNodes().size(); i++) {
+            assertEquals(response.getNodes().get(i).getNode(), copiedResponse.getNodes().get(i).getNode());
+            assertEquals(response.getNodes().get(i).getCacheStats(), copiedResponse.getNodes().get(i).getCacheStats());
+        }
+    }
+
+    @SneakyThrows
+    public void testToXContent_whenValidInput_thenSucceed() {
+        Ip2GeoStatsNodeResponse nodeResponse = randomNodeResponse();
+        Ip2GeoStatsResponse response = new Ip2GeoStatsResponse(
+            new ClusterName(GeospatialTestHelper.randomLowerCaseString()),
+            List.of(nodeResponse),
+            Collections.emptyList()
+        );
+
+        // Run
+        XContentBuilder builder = JsonXContent.contentBuilder();
+        response.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        String json = builder.toString();
+
+        // Verify
+        assertTrue(json.contains(nodeResponse.getNode().getId()));
+        for (Map.Entry<String, GeoDataCacheStats> entry : nodeResponse.getCacheStats().entrySet()) {
+            assertTrue(json.contains(entry.getKey()));
+            assertTrue(json.contains(String.format(Locale.ROOT, "\"hit_count\":%d", entry.getValue().getHitCount())));
+            assertTrue(json.contains(String.format(Locale.ROOT, "\"memory_size_in_bytes\":%d", entry.getValue().getMemorySizeInBytes())));
+            assertTrue(json.contains(String.format(Locale.ROOT, "\"quota_in_bytes\":%d", entry.getValue().getQuotaInBytes())));
+            assertTrue(json.contains("\"hit_rate\":"));
+        }
+    }
+
+    private Ip2GeoStatsNodeResponse randomNodeResponse() {
+        DiscoveryNode node = new DiscoveryNode(
+            GeospatialTestHelper.randomLowerCaseString(),
+            GeospatialTestHelper.randomLowerCaseString(),
+            buildNewFakeTransportAddress(),
+            emptyMap(),
+            emptySet(),
+            Version.CURRENT
+        );
+        Map<String, GeoDataCacheStats> cacheStats = new TreeMap<>();
+        cacheStats.put(GeospatialTestHelper.randomLowerCaseString(), randomCacheStats());
+        cacheStats.put(GeospatialTestHelper.randomLowerCaseString(), randomCacheStats());
+        return new Ip2GeoStatsNodeResponse(node, cacheStats);
+    }
+
+    private GeoDataCacheStats randomCacheStats() {
+        return new GeoDataCacheStats(
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong()
+        );
+    }
+}
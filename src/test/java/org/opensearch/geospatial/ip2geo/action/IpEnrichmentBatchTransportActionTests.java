@@ -0,0 +1,93 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.action.IpEnrichmentBatchRequest;
+import org.opensearch.geospatial.action.IpEnrichmentBatchResponse;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.dao.DatasourceMetadata;
+import org.opensearch.tasks.Task;
+
+public class IpEnrichmentBatchTransportActionTests extends Ip2GeoTestCase {
+
+    private IpEnrichmentBatchTransportAction action;
+
+    @Mock
+    Task task;
+
+    @Mock
+    ActionListener<ActionResponse> listener;
+
+    @Before
+    public void init() {
+        action = new IpEnrichmentBatchTransportAction(transportService, actionFilters, ip2GeoCachedDao);
+    }
+
+    public void testDoExecute_whenDatasourceExists_thenReturnGeoDataInOrder() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, new DatasourceMetadata(indexName, DatasourceState.AVAILABLE, Long.MAX_VALUE));
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Map<String, Object>>> geoDataListener = invocation.getArgument(3);
+            geoDataListener.onResponse(Map.of("1.1.1.1", Map.of("city", "Seattle"), "2.2.2.2", Map.of("city", "Sydney")));
+            return null;
+        }).when(ip2GeoCachedDao).getBatchGeoData(eq(indexName), any(), eq(datasourceName), any(ActionListener.class));
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(
+            List.of("2.2.2.2", "1.1.1.1", "3.3.3.3", "2.2.2.2"),
+            datasourceName
+        );
+
+        // Run
+        action.doExecute(task, request, listener);
+
+        // Verify
+        ArgumentCaptor<ActionResponse> captor = ArgumentCaptor.forClass(ActionResponse.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(
+            List.of(Map.of("city", "Sydney"), Map.of("city", "Seattle"), Map.of(), Map.of("city", "Sydney")),
+            ((IpEnrichmentBatchResponse) captor.getValue()).getGeoLocationData()
+        );
+    }
+
+    public void testDoExecute_whenDatasourceNotExist_thenFail() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, null);
+        IpEnrichmentBatchRequest request = new IpEnrichmentBatchRequest(List.of("1.1.1.1"), datasourceName);
+
+        // Run
+        action.doExecute(task, request, listener);
+
+        // Verify
+        verify(listener).onFailure(any(ResourceNotFoundException.class));
+        verify(listener, never()).onResponse(any());
+        verify(ip2GeoCachedDao, never()).getBatchGeoData(any(), any(), any(), any(ActionListener.class));
+    }
+
+    private void mockDatasourceMetadata(final String datasourceName, final DatasourceMetadata datasourceMetadata) {
+        doAnswer(invocation -> {
+            ActionListener<DatasourceMetadata> metadataListener = invocation.getArgument(1);
+            metadataListener.onResponse(datasourceMetadata);
+            return null;
+        }).when(ip2GeoCachedDao).refreshDatasourceIfNeeded(eq(datasourceName), any(ActionListener.class));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.action;
+
+import static org.opensearch.geospatial.shared.URLBuilder.URL_DELIMITER;
+import static org.opensearch.geospatial.shared.URLBuilder.getPluginURLPrefix;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.test.rest.FakeRestRequest;
+import org.opensearch.test.rest.RestActionTestCase;
+
+public class RestIp2GeoStatsHandlerTests extends RestActionTestCase {
+    private String path;
+    private RestIp2GeoStatsHandler action;
+
+    @Before
+    public void setupAction() {
+        action = new RestIp2GeoStatsHandler();
+        controller().registerHandler(action);
+        path = String.join(URL_DELIMITER, getPluginURLPrefix(), "ip2geo/_stats");
+    }
+
+    public void testPrepareRequest_whenCalled_thenSucceed() {
+        RestRequest request = new FakeRestRequest.Builder(xContentRegistry()).withMethod(RestRequest.Method.GET).withPath(path).build();
+
+        AtomicBoolean isExecuted = new AtomicBoolean(false);
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            // Verifying
+            assertTrue(actionRequest instanceof Ip2GeoStatsRequest);
+            isExecuted.set(true);
+            return null;
+        });
+
+        // Run
+        dispatchRequest(request);
+
+        // Verify
+        assertTrue(isExecuted.get());
+    }
+}
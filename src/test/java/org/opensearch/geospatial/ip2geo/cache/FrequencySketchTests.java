@@ -0,0 +1,57 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class FrequencySketchTests extends OpenSearchTestCase {
+    public void testFrequency_whenIncremented_thenCountAccesses() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(1000);
+
+        // Run
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        sketch.increment("warm");
+
+        // Verify
+        assertEquals(5, sketch.frequency("hot"));
+        assertEquals(1, sketch.frequency("warm"));
+        assertEquals(0, sketch.frequency("cold"));
+    }
+
+    public void testIncrement_whenManyAccesses_thenCapFrequency() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(1000);
+
+        // Run
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+
+        // Verify
+        assertEquals(15, sketch.frequency("hot"));
+    }
+
+    public void testIncrement_whenSampleSizeReached_thenHalveFrequencies() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(0);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("hot");
+        }
+        int frequency = sketch.frequency("hot");
+
+        // Run
+        for (int i = 0; i < 10000; i++) {
+            sketch.increment("key" + i);
+        }
+
+        // Verify
+        assertTrue(sketch.frequency("hot") < frequency);
+    }
+
+    public void testConstructor_whenNegative_thenException() {
+        expectThrows(IllegalArgumentException.class, () -> new FrequencySketch<>(-1));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoDataCacheCountersTests extends OpenSearchTestCase {
+    public void testToStats_whenRecorded_thenCountPerDatasource() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = newIndexName(datasourceName);
+        String nextIndexName = newIndexName(datasourceName);
+        GeoDataCacheCounters counters = new GeoDataCacheCounters();
+        PartitionedLruCache<String, String> cache = new PartitionedLruCache<>(10, key -> key, (key, value) -> 1, notification -> {});
+
+        // Run
+        counters.recordLookup(GeoDataCacheKey.ofIp(indexName, "1.0.0.1"), true);
+        counters.recordLookup(GeoDataCacheKey.ofIp(nextIndexName, "1.0.0.1"), false);
+        counters.recordEviction(indexName);
+        counters.recordDiskHit(nextIndexName);
+        counters.recordLoadTime(indexName, 5);
+
+        // Verify
+        GeoDataCacheStats stats = counters.toStats(cache).get(datasourceName);
+        assertEquals(1, counters.toStats(cache).size());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(1, stats.getDiskHitCount());
+        assertEquals(5, stats.getLoadTimeInNanos());
+    }
+
+    public void testRecordEviction_whenDatasourceRemoved_thenNotCounted() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = newIndexName(datasourceName);
+        GeoDataCacheCounters counters = new GeoDataCacheCounters();
+        PartitionedLruCache<String, String> cache = new PartitionedLruCache<>(10, key -> key, (key, value) -> 1, notification -> {});
+        counters.recordLookup(GeoDataCacheKey.ofIp(indexName, "1.0.0.1"), true);
+
+        // Run
+        counters.removeDatasource(datasourceName);
+        counters.recordEviction(indexName);
+
+        // Verify
+        assertTrue(counters.toStats(cache).isEmpty());
+    }
+
+    public void testGetHotKeys_whenIndexRemoved_thenDropHotKeysOfIndex() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = newIndexName(datasourceName);
+        String nextIndexName = newIndexName(datasourceName);
+        GeoDataCacheCounters counters = new GeoDataCacheCounters();
+        counters.setWarmupSize(2);
+        GeoDataCacheKey key = GeoDataCacheKey.ofIp(indexName, "1.0.0.1");
+        GeoDataCacheKey nextKey = GeoDataCacheKey.ofIp(nextIndexName, "2.0.0.1");
+        counters.recordLookup(key, true);
+        counters.recordLookup(nextKey, true);
+        counters.recordLookup(nextKey, true);
+
+        // Verify
+        assertEquals(Arrays.asList(nextKey, key), counters.getHotKeys(datasourceName));
+
+        // Run
+        counters.removeIndex(indexName);
+
+        // Verify
+        assertEquals(Arrays.asList(nextKey), counters.getHotKeys(datasourceName));
+        assertTrue(counters.getHotKeys(GeospatialTestHelper.randomLowerCaseString()).isEmpty());
+    }
+
+    private String newIndexName(final String datasourceName) {
+        return String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID());
+    }
+}
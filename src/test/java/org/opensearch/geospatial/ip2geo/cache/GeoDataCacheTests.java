@@ -0,0 +1,555 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.test.OpenSearchTestCase;
+
+import lombok.SneakyThrows;
+
+public class GeoDataCacheTests extends OpenSearchTestCase {
+    @SneakyThrows
+    public void testUpdateMaxSize_whenBiggerSize_thenContainsAllData() {
+        int cacheSize = 10;
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
+        String datasource = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(cacheSize * entrySize);
+        List<String> ips = new ArrayList<>(cacheSize);
+        for (int i = 0; i < cacheSize; i++) {
+            String ip = fixedLengthIp(i);
+            ips.add(ip);
+            geoDataCache.putIfAbsent(datasource, ip, addr -> Collections.emptyMap());
+        }
+
+        // Verify all data exist in the cache
+        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+
+        // Update cache size
+        int newCacheSize = 15;
+        geoDataCache.updateMaxSize(newCacheSize * entrySize);
+
+        // Verify all data exist in the cache
+        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+
+        // Add (newCacheSize - cacheSize + 1) data and the first data should not be available in the cache
+        for (int i = 0; i < newCacheSize - cacheSize + 1; i++) {
+            geoDataCache.putIfAbsent(datasource, fixedLengthIp(cacheSize + i), addr -> Collections.emptyMap());
+        }
+        assertNull(geoDataCache.get(datasource, ips.get(0)));
+    }
+
+    @SneakyThrows
+    public void testUpdateMaxSize_whenSmallerSize_thenContainsPartialData() {
+        int cacheSize = 10;
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
+        String datasource = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(cacheSize * entrySize);
+        List<String> ips = new ArrayList<>(cacheSize);
+        for (int i = 0; i < cacheSize; i++) {
+            String ip = fixedLengthIp(i);
+            ips.add(ip);
+            geoDataCache.putIfAbsent(datasource, ip, addr -> Collections.emptyMap());
+        }
+
+        // Verify all data exist in the cache
+        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+
+        // Update cache size
+        int newCacheSize = 5;
+        geoDataCache.updateMaxSize(newCacheSize * entrySize);
+
+        // Verify the last (cacheSize - newCacheSize) data is available in the cache
+        List<String> deleted = ips.subList(0, ips.size() - newCacheSize);
+        List<String> retained = ips.subList(ips.size() - newCacheSize, ips.size());
+        assertTrue(deleted.stream().allMatch(ip -> geoDataCache.get(datasource, ip) == null));
+        assertTrue(retained.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+        assertEquals(newCacheSize * entrySize, geoDataCache.getStats().get(datasource).getMemorySizeInBytes());
+    }
+
+    @SneakyThrows
+    public void testGetStats_whenCacheIsUsed_thenCountHitsMissesAndEvictions() {
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID());
+        GeoDataCache geoDataCache = new GeoDataCache(2 * entrySize);
+
+        // Run
+        lookUp(geoDataCache, indexName, fixedLengthIp(0));
+        lookUp(geoDataCache, indexName, fixedLengthIp(0));
+        lookUp(geoDataCache, indexName, fixedLengthIp(0));
+        lookUp(geoDataCache, indexName, fixedLengthIp(1));
+        lookUp(geoDataCache, indexName, fixedLengthIp(2));
+
+        // Verify
+        GeoDataCacheStats stats = geoDataCache.getStats().get(datasourceName);
+        assertEquals(2, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2 * entrySize, stats.getMemorySizeInBytes());
+
+        // Run
+        geoDataCache.removeStats(datasourceName);
+
+        // Verify
+        assertTrue(geoDataCache.getStats().isEmpty());
+        assertNull(geoDataCache.get(indexName, fixedLengthIp(2)));
+        assertEquals(0, geoDataCache.getStats().get(datasourceName).getMemorySizeInBytes());
+    }
+
+    @SneakyThrows
+    public void testPutIfAbsent_whenDatasourceWithinQuota_thenNotEvictedByOtherDatasource() {
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String busyIndexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(4 * entrySize);
+        geoDataCache.setQuota(indexName, 0.5);
+        geoDataCache.putIfAbsent(indexName, fixedLengthIp(0), addr -> Collections.emptyMap());
+        geoDataCache.putIfAbsent(indexName, fixedLengthIp(1), addr -> Collections.emptyMap());
+
+        // Run
+        for (int i = 0; i < 10; i++) {
+            geoDataCache.putIfAbsent(busyIndexName, fixedLengthIp(i), addr -> Collections.emptyMap());
+        }
+
+        // Verify
+        assertNotNull(geoDataCache.get(indexName, fixedLengthIp(0)));
+        assertNotNull(geoDataCache.get(indexName, fixedLengthIp(1)));
+        GeoDataCacheStats stats = geoDataCache.getStats().get(indexName);
+        assertEquals(0, stats.getEvictionCount());
+        assertEquals(2 * entrySize, stats.getQuotaInBytes());
+        assertEquals(0.5, stats.getHitRate(), 0.0);
+        GeoDataCacheStats busyStats = geoDataCache.getStats().get(busyIndexName);
+        assertEquals(8, busyStats.getEvictionCount());
+        assertEquals(2 * entrySize, busyStats.getMemorySizeInBytes());
+        assertEquals(0, busyStats.getQuotaInBytes());
+    }
+
+    @SneakyThrows
+    public void testPutIfAbsent_whenAdmissionAndScan_thenKeepReusedGeoData() {
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(2 * entrySize);
+        geoDataCache.setAdmission(true);
+        for (int i = 0; i < 2; i++) {
+            geoDataCache.putIfAbsent(indexName, fixedLengthIp(i), addr -> Collections.emptyMap());
+            geoDataCache.get(indexName, fixedLengthIp(i));
+        }
+
+        // Run
+        for (int i = 2; i < 100; i++) {
+            String ip = fixedLengthIp(i);
+            assertNull(geoDataCache.get(indexName, ip));
+            geoDataCache.putIfAbsent(indexName, ip, addr -> Collections.emptyMap());
+        }
+
+        // Verify
+        assertNotNull(geoDataCache.get(indexName, fixedLengthIp(0)));
+        assertNotNull(geoDataCache.get(indexName, fixedLengthIp(1)));
+        GeoDataCacheStats stats = geoDataCache.getStats().get(indexName);
+        assertEquals(98, stats.getRejectionCount());
+        assertEquals(0, stats.getEvictionCount());
+
+        // Run
+        geoDataCache.setAdmission(false);
+        geoDataCache.putIfAbsent(indexName, fixedLengthIp(100), addr -> Collections.emptyMap());
+
+        // Verify
+        assertNotNull(geoDataCache.get(indexName, fixedLengthIp(100)));
+    }
+
+    public void testWeigh_whenMoreGeoData_thenHeavier() {
+        long emptySize = GeoDataCache.weigh(Collections.emptyMap());
+        long citySize = GeoDataCache.weigh(Map.of("city", "Seattle"));
+        long cityAndCountrySize = GeoDataCache.weigh(Map.of("city", "Seattle", "country", "USA"));
+
+        assertTrue(emptySize > 0);
+        assertTrue(citySize > emptySize);
+        assertTrue(cityAndCountrySize > citySize);
+    }
+
+    @SneakyThrows
+    public void testPutRangeIfAbsent_whenIpInCachedRange_thenHit() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setCacheByRange(true);
+
+        // Run
+        Tuple<String, Map<String, Object>> rangeData = new Tuple<>("1.0.0.0/16", Map.of("city", "Seattle"));
+        Map<String, Object> geoData = geoDataCache.putRangeIfAbsent(indexName, "1.0.0.1", rangeData);
+
+        // Verify
+        assertEquals(Map.of("city", "Seattle"), geoData);
+        assertSame(geoData, geoDataCache.get(indexName, "1.0.0.1"));
+        assertSame(geoData, geoDataCache.get(indexName, "1.0.255.255"));
+        assertNull(geoDataCache.get(indexName, "1.1.0.0"));
+        assertNull(geoDataCache.get(indexName, "0.255.255.255"));
+
+        // Run
+        geoDataCache.setCacheByRange(false);
+
+        // Verify
+        assertNull(geoDataCache.get(indexName, "1.0.0.2"));
+    }
+
+    @SneakyThrows
+    public void testPutRangeIfAbsent_whenNoRange_thenCacheIp() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setCacheByRange(true);
+
+        // Run
+        Map<String, Object> geoData = geoDataCache.putRangeIfAbsent(indexName, "1.0.0.1", new Tuple<>(null, Collections.emptyMap()));
+
+        // Verify
+        assertTrue(geoData.isEmpty());
+        assertNotNull(geoDataCache.get(indexName, "1.0.0.1"));
+        assertNull(geoDataCache.get(indexName, "1.0.0.2"));
+    }
+
+    @SneakyThrows
+    public void testPutRangeIfAbsent_whenRangeEvicted_thenMiss() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setCacheByRange(true);
+        geoDataCache.putRangeIfAbsent(indexName, "1.0.0.1", new Tuple<>("1.0.0.0/16", Map.of("city", "Seattle")));
+
+        // Run
+        geoDataCache.updateMaxSize(0);
+
+        // Verify the dictionary of the index stays until the index is removed
+        assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+        long dictionarySize = geoDataCache.getDictionary(indexName).ramBytesUsed();
+        assertEquals(dictionarySize, geoDataCache.getStats().get(indexName).getMemorySizeInBytes());
+    }
+
+    @SneakyThrows
+    public void testGet_whenSameIpInDifferentNotation_thenHit() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        Map<String, Object> geoData = geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+
+        // Verify
+        assertSame(geoData, geoDataCache.get(indexName, "::ffff:1.0.0.1"));
+        assertNull(geoDataCache.get(indexName, "1.0.0.2"));
+        assertNull(geoDataCache.get(indexName, "::1.0.0.1"));
+    }
+
+    @SneakyThrows
+    public void testGet_whenIpv6_thenHit() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        Map<String, Object> geoData = geoDataCache.putIfAbsent(indexName, "2001:db8::1", addr -> Map.of("city", "Seattle"));
+
+        // Verify
+        assertSame(geoData, geoDataCache.get(indexName, "2001:0db8:0:0:0:0:0:1"));
+        assertNull(geoDataCache.get(indexName, "2001:db8::2"));
+    }
+
+    @SneakyThrows
+    public void testGet_whenInvalidIp_thenException() {
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+
+        // Verify
+        expectThrows(IllegalArgumentException.class, () -> geoDataCache.get(GeospatialTestHelper.randomLowerCaseString(), "1.0.0"));
+    }
+
+    @SneakyThrows
+    public void testGetHotIps_whenLookedUp_thenReturnMostFrequentIps() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID());
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setWarmupSize(2);
+
+        // Run
+        for (String ip : Arrays.asList("1.0.0.1", "2001:db8::1", "2001:db8::1", "3.0.0.1", "3.0.0.1", "3.0.0.1")) {
+            geoDataCache.get(indexName, ip);
+        }
+
+        // Verify
+        assertEquals(Arrays.asList("3.0.0.1", "2001:db8::1"), geoDataCache.getHotIps(datasourceName));
+
+        // Run
+        geoDataCache.removeIndex(indexName);
+
+        // Verify
+        assertTrue(geoDataCache.getHotIps(datasourceName).isEmpty());
+    }
+
+    @SneakyThrows
+    public void testGet_whenLoadedByConcurrentLookup_thenCountLookupOnce() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setWarmupSize(2);
+
+        // Run three concurrent lookups of 1.0.0.1, which all miss the cache before the first one loads the geo data
+        for (int i = 0; i < 3; i++) {
+            assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+        }
+        for (int i = 0; i < 3; i++) {
+            geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+        }
+        for (int i = 0; i < 4; i++) {
+            lookUp(geoDataCache, indexName, "2.0.0.1");
+        }
+
+        // Verify each lookup is counted once
+        GeoDataCacheStats stats = geoDataCache.getStats().get(indexName);
+        assertEquals(3, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+        assertEquals(Arrays.asList("2.0.0.1", "1.0.0.1"), geoDataCache.getHotIps(indexName));
+    }
+
+    public void testGetHotIps_whenWarmupSizeIsZero_thenEmpty() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+        geoDataCache.setWarmupSize(1);
+        geoDataCache.get(indexName, "1.0.0.1");
+
+        // Run
+        geoDataCache.setWarmupSize(0);
+        geoDataCache.get(indexName, "1.0.0.1");
+
+        // Verify
+        assertTrue(geoDataCache.getHotIps(indexName).isEmpty());
+    }
+
+    @SneakyThrows
+    public void testGet_whenEvictedToDiskTier_thenPromoteFromDisk() {
+        ClusterSettings diskTierSettings = new ClusterSettings(
+            Settings.builder().put(Ip2GeoSettings.CACHE_DISK_SIZE.getKey(), "1mb").build(),
+            new HashSet<>(Ip2GeoSettings.settings())
+        );
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(diskTierSettings, nodeEnvironment);
+            // Every entry is evicted from the heap right away
+            GeoDataCache geoDataCache = new GeoDataCache(0);
+            geoDataCache.setDiskTier(diskTier);
+            geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+
+            // Run
+            Map<String, Object> geoData = geoDataCache.get(indexName, "1.0.0.1");
+            Map<String, Object> loaded = geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> {
+                throw new IllegalStateException("should be read from disk");
+            });
+
+            // Verify
+            assertEquals(Map.of("city", "Seattle"), geoData);
+            assertEquals(Map.of("city", "Seattle"), loaded);
+            assertNull(geoDataCache.get(indexName, "1.0.0.2"));
+            GeoDataCacheStats stats = geoDataCache.getStats().get(indexName);
+            assertEquals(1, stats.getDiskHitCount());
+            assertEquals(1, stats.getHitCount());
+            assertEquals(1, stats.getMissCount());
+
+            // Run
+            geoDataCache.removeIndex(indexName);
+
+            // Verify
+            assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+            assertEquals(0, diskTier.getSizeInBytes());
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testSetDiskTier_whenRangesOnDisk_thenServeByRange() {
+        ClusterSettings diskTierSettings = new ClusterSettings(
+            Settings.builder().put(Ip2GeoSettings.CACHE_DISK_SIZE.getKey(), "1mb").build(),
+            new HashSet<>(Ip2GeoSettings.settings())
+        );
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(diskTierSettings, nodeEnvironment);
+            GeoDataCache geoDataCache = new GeoDataCache(0);
+            geoDataCache.setCacheByRange(true);
+            geoDataCache.setDiskTier(diskTier);
+            geoDataCache.putRangeIfAbsent(indexName, "1.0.0.1", new Tuple<>("1.0.0.0/24", Map.of("city", "Seattle")));
+            assertEquals(Map.of("city", "Seattle"), geoDataCache.get(indexName, "1.0.0.100"));
+            diskTier.close();
+
+            // Run
+            GeoDataDiskTier restarted = new GeoDataDiskTier(diskTierSettings, nodeEnvironment);
+            GeoDataCache restartedCache = new GeoDataCache(1024 * 1024);
+            restartedCache.setCacheByRange(true);
+            restartedCache.setDiskTier(restarted);
+
+            // Verify
+            assertEquals(Map.of("city", "Seattle"), restartedCache.get(indexName, "1.0.0.200"));
+            assertNull(restartedCache.get(indexName, "1.0.1.1"));
+            assertEquals(1, restartedCache.getStats().get(indexName).getDiskHitCount());
+            restarted.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testPutIfAbsent_whenDemotionExecutorPending_thenServeFromQueue() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(newDiskTierSettings(), nodeEnvironment);
+            List<Runnable> tasks = new ArrayList<>();
+            GeoDataCache geoDataCache = new GeoDataCache(0);
+            geoDataCache.setDiskTier(diskTier, tasks::add);
+
+            // Run
+            geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+            geoDataCache.putIfAbsent(indexName, "1.0.0.2", addr -> Map.of("city", "Seattle"));
+
+            // Verify
+            assertEquals(1, tasks.size());
+            assertEquals(0, diskTier.getSizeInBytes());
+            assertEquals(Map.of("city", "Seattle"), geoDataCache.get(indexName, "1.0.0.1"));
+
+            // Run
+            tasks.remove(0).run();
+
+            // Verify
+            GeoDataCacheKey key = GeoDataCacheKey.ofIp(indexName, "1.0.0.2");
+            assertEquals(Map.of("city", "Seattle"), diskTier.get(indexName, key.getHigh(), key.getLow(), null));
+            assertTrue(tasks.isEmpty());
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testPutIfAbsent_whenAdmissionAndLookedUpOnce_thenNotDemoted() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(newDiskTierSettings(), nodeEnvironment);
+            GeoDataCache geoDataCache = new GeoDataCache(0);
+            geoDataCache.setAdmission(true);
+            geoDataCache.setDiskTier(diskTier);
+
+            // Run
+            geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+
+            // Verify
+            assertEquals(0, diskTier.getSizeInBytes());
+
+            // Run
+            for (int i = 0; i < 3; i++) {
+                assertNull(geoDataCache.get(indexName, "1.0.0.2"));
+            }
+            geoDataCache.putIfAbsent(indexName, "1.0.0.2", addr -> Map.of("city", "Seattle"));
+
+            // Verify
+            assertTrue(diskTier.getSizeInBytes() > 0);
+            assertEquals(Map.of("city", "Seattle"), geoDataCache.get(indexName, "1.0.0.2"));
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testRemoveIndex_whenRetired_thenDropHeapEntriesAndNotDemote() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(newDiskTierSettings(), nodeEnvironment);
+            GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+            geoDataCache.setDiskTier(diskTier);
+            geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+
+            // Run
+            geoDataCache.removeIndex(indexName);
+
+            // Verify
+            assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+            assertEquals(0, diskTier.getSizeInBytes());
+
+            // Run
+            Map<String, Object> geoData = geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+
+            // Verify
+            assertEquals(Map.of("city", "Seattle"), geoData);
+            assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+            assertNull(geoDataCache.getDictionary(indexName));
+            assertEquals(0, diskTier.getSizeInBytes());
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testGetStats_whenGeoDataInterned_thenCountDictionaryOnce() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID());
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+
+        // Run
+        Map<String, Object> geoData = geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> Map.of("city", "Seattle"));
+        geoDataCache.putIfAbsent(indexName, "1.0.0.2", addr -> Map.of("city", "Seattle"));
+
+        // Verify
+        long dictionarySize = geoDataCache.getDictionary(indexName).ramBytesUsed();
+        assertTrue(dictionarySize > 0);
+        assertEquals(GeoDataCache.weigh(Collections.emptyMap()), GeoDataCache.weigh(geoData));
+        assertEquals(2 * GeoDataCache.weigh(geoData) + dictionarySize, geoDataCache.getStats().get(datasourceName).getMemorySizeInBytes());
+
+        // Run
+        geoDataCache.removeIndex(indexName);
+
+        // Verify
+        assertEquals(0, geoDataCache.getStats().get(datasourceName).getMemorySizeInBytes());
+    }
+
+    @SneakyThrows
+    public void testPutIfAbsent_whenEqualGeoData_thenShareInstance() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataCache geoDataCache = new GeoDataCache(1024 * 1024);
+
+        // Run
+        Map<String, Object> first = geoDataCache.putIfAbsent(indexName, "1.0.0.1", addr -> new HashMap<>(Map.of("city", "Seattle")));
+        Map<String, Object> second = geoDataCache.putIfAbsent(indexName, "1.0.0.2", addr -> new HashMap<>(Map.of("city", "Seattle")));
+
+        // Verify
+        assertEquals(Map.of("city", "Seattle"), first);
+        assertSame(first, second);
+        assertEquals(1, geoDataCache.getDictionary(indexName).recordCount());
+
+        // Run
+        geoDataCache.removeIndex(indexName);
+
+        // Verify
+        assertNull(geoDataCache.getDictionary(indexName));
+        assertNull(geoDataCache.get(indexName, "1.0.0.1"));
+    }
+
+    private ClusterSettings newDiskTierSettings() {
+        return new ClusterSettings(
+            Settings.builder().put(Ip2GeoSettings.CACHE_DISK_SIZE.getKey(), "1mb").build(),
+            new HashSet<>(Ip2GeoSettings.settings())
+        );
+    }
+
+    /**
+     * Look up geo data of a given ip address in the cache and put empty geo data on a miss, as the dao does
+     */
+    @SneakyThrows
+    private void lookUp(final GeoDataCache geoDataCache, final String indexName, final String ip) {
+        if (geoDataCache.get(indexName, ip) == null) {
+            geoDataCache.putIfAbsent(indexName, ip, addr -> Collections.emptyMap());
+        }
+    }
+
+    private String fixedLengthIp(final int index) {
+        return "10.0.1." + (100 + index);
+    }
+}
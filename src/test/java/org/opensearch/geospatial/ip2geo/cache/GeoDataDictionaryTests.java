@@ -0,0 +1,125 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoDataDictionaryTests extends OpenSearchTestCase {
+    public void testIntern_whenEqualGeoData_thenReturnSameInstance() {
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+        Map<String, Object> geoData = new HashMap<>(Map.of("country", new String("United States"), "continent", "NA"));
+        Map<String, Object> sameGeoData = new HashMap<>(Map.of("continent", "NA", "country", new String("United States")));
+
+        // Run
+        Map<String, Object> interned = dictionary.intern(geoData);
+
+        // Verify
+        assertEquals(geoData, interned);
+        assertEquals(geoData.hashCode(), interned.hashCode());
+        assertSame(interned, dictionary.intern(sameGeoData));
+        assertEquals(1, dictionary.recordCount());
+        assertEquals(4, dictionary.stringCount());
+    }
+
+    public void testIntern_whenDifferentGeoData_thenShareStringValues() {
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+
+        // Run
+        Map<String, Object> seattle = dictionary.intern(Map.of("city", "Seattle", "country", new String("United States")));
+        Map<String, Object> chicago = dictionary.intern(Map.of("city", "Chicago", "country", new String("United States")));
+
+        // Verify
+        assertNotEquals(seattle, chicago);
+        assertSame(seattle.get("country"), chicago.get("country"));
+        assertEquals(2, dictionary.recordCount());
+        assertEquals(5, dictionary.stringCount());
+    }
+
+    public void testIntern_whenNonStringValue_thenKeepValue() {
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+        Map<String, Object> geoData = Map.of("location", Map.of("lat", 1.0, "lon", 2.0), "city", "Seattle");
+
+        // Run
+        Map<String, Object> interned = dictionary.intern(geoData);
+
+        // Verify
+        assertEquals(geoData, interned);
+        assertTrue(interned.containsKey("location"));
+        assertNull(interned.get("country"));
+        assertFalse(interned.containsKey("country"));
+    }
+
+    public void testIntern_whenEmpty_thenReturnEmpty() {
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+
+        // Verify
+        assertTrue(dictionary.intern(null).isEmpty());
+        assertTrue(dictionary.intern(Collections.emptyMap()).isEmpty());
+        assertEquals(0, dictionary.recordCount());
+    }
+
+    public void testIntern_whenCalled_thenReturnImmutable() {
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+
+        // Run
+        Map<String, Object> interned = dictionary.intern(Map.of("city", "Seattle"));
+
+        // Verify
+        expectThrows(UnsupportedOperationException.class, () -> interned.put("city", "Chicago"));
+        expectThrows(UnsupportedOperationException.class, () -> interned.remove("city"));
+        expectThrows(UnsupportedOperationException.class, () -> interned.entrySet().iterator().next().setValue("Chicago"));
+    }
+
+    public void testRamBytesUsed_whenInterned_thenCountOnceInDictionary() {
+        List<Long> growth = new ArrayList<>();
+        GeoDataDictionary dictionary = new GeoDataDictionary(growth::add);
+        Map<String, Object> geoData = new HashMap<>(Map.of("city", "Seattle", "country", "USA"));
+
+        // Run
+        Map<String, Object> interned = dictionary.intern(geoData);
+        long dictionarySize = dictionary.ramBytesUsed();
+        dictionary.intern(new HashMap<>(geoData));
+
+        // Verify
+        assertEquals(0, GeoDataDictionary.ramBytesUsed(null));
+        assertEquals(0, GeoDataDictionary.ramBytesUsed(Collections.emptyMap()));
+        assertEquals(0, GeoDataDictionary.ramBytesUsed(interned));
+        assertTrue(GeoDataDictionary.ramBytesUsed(geoData) > 0);
+        assertTrue(dictionarySize > 0);
+        assertEquals(dictionarySize, dictionary.ramBytesUsed());
+        assertEquals(dictionarySize, growth.stream().mapToLong(Long::longValue).sum());
+        assertEquals(5, growth.size());
+
+        // Run
+        dictionary.intern(Map.of("city", "Seattle", "country", "Canada"));
+
+        // Verify only the new string and record are counted
+        assertEquals(7, growth.size());
+        assertEquals(dictionary.ramBytesUsed(), growth.stream().mapToLong(Long::longValue).sum());
+    }
+
+    public void testRetire_whenRetired_thenNotReportGrowth() {
+        List<Long> growth = new ArrayList<>();
+        GeoDataDictionary dictionary = new GeoDataDictionary(growth::add);
+        dictionary.intern(Map.of("city", "Seattle"));
+        long dictionarySize = dictionary.ramBytesUsed();
+
+        // Run
+        long retiredSize = dictionary.retire();
+        dictionary.intern(Map.of("city", "Chicago"));
+
+        // Verify
+        assertEquals(dictionarySize, retiredSize);
+        assertEquals(dictionarySize, dictionary.ramBytesUsed());
+        assertEquals(3, growth.size());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+
+import lombok.SneakyThrows;
+
+public class GeoDataDiskTierTests extends Ip2GeoTestCase {
+    private static final Map<String, Object> GEO_DATA = Map.of("city", "Seattle", "country", "USA");
+
+    private void setDiskSize(final String diskSize) {
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.CACHE_DISK_SIZE.getKey(), diskSize).build());
+    }
+
+    @SneakyThrows
+    public void testPut_whenIpAndRange_thenGetGeoData() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        IpRange range = IpRange.fromCidr("1.0.0.0/24");
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+
+            // Run
+            assertTrue(diskTier.put(indexName, 0, 1, null, GEO_DATA));
+            assertTrue(diskTier.put(indexName, range.getStartHigh(), range.getStartLow(), range, Map.of("city", "Tacoma")));
+
+            // Verify
+            assertEquals(GEO_DATA, diskTier.get(indexName, 0, 1, null));
+            assertEquals(Map.of("city", "Tacoma"), diskTier.get(indexName, range.getStartHigh(), range.getStartLow(), range));
+            assertNull(diskTier.get(indexName, range.getStartHigh(), range.getStartLow(), null));
+            assertNull(diskTier.get(GeospatialTestHelper.randomLowerCaseString(), 0, 1, null));
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testPut_whenAlreadyPresent_thenNotAppend() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+            diskTier.put(indexName, 0, 1, null, GEO_DATA);
+            long size = diskTier.getSizeInBytes();
+
+            // Run
+            assertTrue(diskTier.put(indexName, 0, 1, null, GEO_DATA));
+
+            // Verify
+            assertEquals(size, diskTier.getSizeInBytes());
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testPut_whenDisabled_thenNotWritten() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+
+            // Run
+            assertFalse(diskTier.put(indexName, 0, 1, null, GEO_DATA));
+
+            // Verify
+            assertFalse(diskTier.isEnabled());
+            assertNull(diskTier.get(indexName, 0, 1, null));
+            assertEquals(0, diskTier.getSizeInBytes());
+        }
+    }
+
+    @SneakyThrows
+    public void testPut_whenFull_thenNotWritten() {
+        setDiskSize("200b");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+
+            // Run
+            List<Boolean> written = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                written.add(diskTier.put(indexName, 0, i, null, GEO_DATA));
+            }
+
+            // Verify
+            assertTrue(written.get(0));
+            assertFalse(written.get(19));
+            assertTrue(diskTier.getSizeInBytes() <= 200);
+            assertEquals(GEO_DATA, diskTier.get(indexName, 0, 0, null));
+            assertNull(diskTier.get(indexName, 0, 19, null));
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testConstructor_whenRestarted_thenLoadSegments() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        IpRange range = IpRange.fromCidr("1.0.0.0/24");
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+            diskTier.put(indexName, 0, 1, null, GEO_DATA);
+            diskTier.put(indexName, range.getStartHigh(), range.getStartLow(), range, GEO_DATA);
+            long size = diskTier.getSizeInBytes();
+            diskTier.close();
+
+            // Run
+            GeoDataDiskTier restarted = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+
+            // Verify
+            assertEquals(size, restarted.getSizeInBytes());
+            assertEquals(GEO_DATA, restarted.get(indexName, 0, 1, null));
+            List<IpRange> ranges = new ArrayList<>();
+            restarted.forEachRange((name, ipRange) -> {
+                assertEquals(indexName, name);
+                ranges.add(ipRange);
+            });
+            assertEquals(List.of(range), ranges);
+            restarted.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testConstructor_whenIncompleteRecord_thenTruncate() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+            diskTier.put(indexName, 0, 1, null, GEO_DATA);
+            long size = diskTier.getSizeInBytes();
+            diskTier.close();
+            Path segment = nodeEnvironment.nodeDataPaths()[0].resolve("ip2geo-cache").resolve(indexName + ".cache");
+            Files.write(segment, new byte[] { 0, 0, 0, 100, 0, 0 }, StandardOpenOption.APPEND);
+
+            // Run
+            GeoDataDiskTier restarted = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+
+            // Verify
+            assertEquals(size, restarted.getSizeInBytes());
+            assertEquals(size, Files.size(segment));
+            assertEquals(GEO_DATA, restarted.get(indexName, 0, 1, null));
+            assertTrue(restarted.put(indexName, 0, 2, null, GEO_DATA));
+            assertEquals(GEO_DATA, restarted.get(indexName, 0, 2, null));
+            restarted.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testRetainIndices_whenNotRetained_thenDeleteSegment() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String deletedIndexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+            diskTier.put(indexName, 0, 1, null, GEO_DATA);
+            long size = diskTier.getSizeInBytes();
+            diskTier.put(deletedIndexName, 0, 1, null, GEO_DATA);
+
+            // Run
+            diskTier.retainIndices(Set.of(indexName));
+
+            // Verify
+            assertEquals(size, diskTier.getSizeInBytes());
+            assertEquals(GEO_DATA, diskTier.get(indexName, 0, 1, null));
+            assertNull(diskTier.get(deletedIndexName, 0, 1, null));
+            assertFalse(Files.exists(nodeEnvironment.nodeDataPaths()[0].resolve("ip2geo-cache").resolve(deletedIndexName + ".cache")));
+            diskTier.close();
+        }
+    }
+
+    @SneakyThrows
+    public void testUpdateMaxSize_whenZero_thenDeleteSegments() {
+        setDiskSize("1mb");
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            GeoDataDiskTier diskTier = new GeoDataDiskTier(clusterSettings, nodeEnvironment);
+            diskTier.put(indexName, 0, 1, null, GEO_DATA);
+
+            // Run
+            setDiskSize("0b");
+
+            // Verify
+            assertFalse(diskTier.isEnabled());
+            assertEquals(0, diskTier.getSizeInBytes());
+            assertNull(diskTier.get(indexName, 0, 1, null));
+            assertFalse(Files.exists(nodeEnvironment.nodeDataPaths()[0].resolve("ip2geo-cache").resolve(indexName + ".cache")));
+            diskTier.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.lookup.IpRange;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoDataRangeIndexTests extends OpenSearchTestCase {
+    public void testFind_whenIpInRange_thenReturnRangeKey() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataRangeIndex ranges = new GeoDataRangeIndex();
+        GeoDataCacheKey rangeKey = GeoDataCacheKey.ofRange(indexName, IpRange.fromCidr("1.0.0.0/16"));
+        ranges.put(rangeKey);
+        ranges.put(GeoDataCacheKey.ofRange(indexName, IpRange.fromCidr("2001:db8::/32")));
+
+        // Verify
+        assertSame(rangeKey, ranges.find(GeoDataCacheKey.ofIp(indexName, "1.0.0.1")));
+        assertSame(rangeKey, ranges.find(GeoDataCacheKey.ofIp(indexName, "1.0.255.255")));
+        assertNull(ranges.find(GeoDataCacheKey.ofIp(indexName, "1.1.0.0")));
+        assertNull(ranges.find(GeoDataCacheKey.ofIp(indexName, "0.255.255.255")));
+        assertNotNull(ranges.find(GeoDataCacheKey.ofIp(indexName, "2001:db8::1")));
+        assertNull(ranges.find(GeoDataCacheKey.ofIp(GeospatialTestHelper.randomLowerCaseString(), "1.0.0.1")));
+    }
+
+    public void testRemove_whenRangeRemoved_thenNotFound() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoDataRangeIndex ranges = new GeoDataRangeIndex();
+        GeoDataCacheKey rangeKey = GeoDataCacheKey.ofRange(indexName, IpRange.fromCidr("1.0.0.0/16"));
+        GeoDataCacheKey otherRangeKey = GeoDataCacheKey.ofRange(indexName, IpRange.fromCidr("2.0.0.0/16"));
+        ranges.put(rangeKey);
+        ranges.put(otherRangeKey);
+
+        // Run
+        ranges.remove(rangeKey);
+
+        // Verify
+        assertNull(ranges.find(GeoDataCacheKey.ofIp(indexName, "1.0.0.1")));
+        assertSame(otherRangeKey, ranges.find(GeoDataCacheKey.ofIp(indexName, "2.0.0.1")));
+
+        // Run
+        ranges.removeIndex(indexName);
+
+        // Verify
+        assertNull(ranges.find(GeoDataCacheKey.ofIp(indexName, "2.0.0.1")));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.Arrays;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class HotKeyTrackerTests extends OpenSearchTestCase {
+    public void testGetHotKeys_whenRecorded_thenReturnInDescendingOrderOfCount() {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(2);
+
+        // Run
+        for (String key : Arrays.asList("a", "b", "b", "c", "c", "c")) {
+            tracker.record(key);
+        }
+
+        // Verify
+        assertEquals(Arrays.asList("c", "b"), tracker.getHotKeys());
+    }
+
+    public void testRecord_whenLimitReached_thenPruneColdKeys() {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(2);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("hot");
+        }
+        for (int i = 0; i < 5; i++) {
+            tracker.record("warm");
+        }
+        tracker.record("cold1");
+        tracker.record("cold2");
+
+        // Run
+        tracker.record("new");
+
+        // Verify
+        assertEquals(3, tracker.size());
+        assertEquals(Arrays.asList("hot", "warm"), tracker.getHotKeys());
+    }
+
+    public void testRecord_whenPruned_thenHalveCounts() {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(1);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("old");
+        }
+        tracker.record("other");
+
+        // Run
+        for (int i = 0; i < 6; i++) {
+            tracker.record("new");
+        }
+
+        // Verify
+        assertEquals(Arrays.asList("new"), tracker.getHotKeys());
+    }
+
+    public void testSetCapacity_whenZero_thenStopTracking() {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(2);
+        tracker.record("a");
+
+        // Run
+        tracker.setCapacity(0);
+        tracker.record("b");
+
+        // Verify
+        assertEquals(0, tracker.size());
+        assertTrue(tracker.getHotKeys().isEmpty());
+        expectThrows(IllegalArgumentException.class, () -> tracker.setCapacity(-1));
+    }
+
+    public void testRemoveIf_whenMatched_thenStopTrackingKeys() {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(2);
+        tracker.record("a");
+        tracker.record("b");
+
+        // Run
+        tracker.removeIf("a"::equals);
+
+        // Verify
+        assertEquals(Arrays.asList("b"), tracker.getHotKeys());
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+
+import org.opensearch.common.cache.RemovalNotification;
+import org.opensearch.common.cache.RemovalReason;
+import org.opensearch.test.OpenSearchTestCase;
+
+import lombok.SneakyThrows;
+
+public class PartitionedLruCacheTests extends OpenSearchTestCase {
+    private final List<RemovalNotification<String, String>> removals = new ArrayList<>();
+
+    /**
+     * Keys are in the format of partition:key, and every entry weighs 1
+     */
+    private PartitionedLruCache<String, String> newCache(final long maxWeight) {
+        return new PartitionedLruCache<>(maxWeight, key -> key.substring(0, key.indexOf(':')), (key, value) -> 1, removals::add);
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenFull_thenEvictLeastRecentlyUsed() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+        cache.get("a:1");
+
+        // Run
+        cache.computeIfAbsent("a:3", key -> "3");
+
+        // Verify
+        assertNull(cache.get("a:2"));
+        assertEquals("1", cache.get("a:1"));
+        assertEquals("3", cache.get("a:3"));
+        assertEquals(2, cache.weight());
+        assertEquals(1, removals.size());
+        assertEquals("a:2", removals.get(0).getKey());
+        assertEquals(RemovalReason.EVICTED, removals.get(0).getRemovalReason());
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenPresent_thenNotLoad() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+        cache.computeIfAbsent("a:1", key -> "1");
+
+        // Run
+        String value = cache.computeIfAbsent("a:1", key -> { throw new IllegalStateException("should not load"); });
+
+        // Verify
+        assertEquals("1", value);
+        assertEquals(1, cache.count());
+    }
+
+    public void testComputeIfAbsent_whenLoaderFails_thenException() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+
+        // Run
+        ExecutionException e = expectThrows(
+            ExecutionException.class,
+            () -> cache.computeIfAbsent("a:1", key -> { throw new IllegalStateException("failed"); })
+        );
+
+        // Verify
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(0, cache.count());
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenPartitionWithinQuota_thenEvictOtherPartition() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.setQuota("a", 0.5);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+
+        // Run
+        for (int i = 0; i < 10; i++) {
+            cache.computeIfAbsent("b:" + i, key -> key);
+        }
+
+        // Verify
+        assertEquals("1", cache.get("a:1"));
+        assertEquals("2", cache.get("a:2"));
+        assertEquals(2, cache.getWeight("a"));
+        assertEquals(2, cache.getWeight("b"));
+        assertEquals("b:9", cache.get("b:9"));
+        assertNull(cache.get("b:7"));
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenQuotaUnused_thenLendToOtherPartitions() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.setQuota("a", 0.5);
+
+        // Run
+        for (int i = 0; i < 4; i++) {
+            cache.computeIfAbsent("b:" + i, key -> key);
+        }
+
+        // Verify
+        assertEquals(4, cache.getWeight("b"));
+        assertTrue(removals.isEmpty());
+
+        // Run
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+
+        // Verify the borrowed quota is taken back from the borrower
+        assertEquals(2, cache.getWeight("a"));
+        assertEquals(2, cache.getWeight("b"));
+        assertNull(cache.get("b:0"));
+        assertNull(cache.get("b:1"));
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenAdmissionFilterAndLessFrequentKey_thenNotCache() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+        cache.setAdmissionFilter(new FrequencySketch<>(100));
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+        cache.get("a:1");
+        cache.get("a:2");
+
+        // Run
+        String value = cache.computeIfAbsent("a:3", key -> "3");
+
+        // Verify
+        assertEquals("3", value);
+        assertNull(cache.get("a:3"));
+        assertEquals("1", cache.get("a:1"));
+        assertEquals("2", cache.get("a:2"));
+        assertEquals(1, cache.getRejections("a"));
+        assertTrue(removals.isEmpty());
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenAdmissionFilterAndMoreFrequentKey_thenEvict() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+        cache.setAdmissionFilter(new FrequencySketch<>(100));
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+        for (int i = 0; i < 3; i++) {
+            cache.get("a:3");
+        }
+
+        // Run
+        cache.computeIfAbsent("a:3", key -> "3");
+
+        // Verify
+        assertEquals("3", cache.get("a:3"));
+        assertNull(cache.get("a:1"));
+        assertEquals(0, cache.getRejections("a"));
+        assertEquals(1, removals.size());
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenAdmissionFilterAndWithinQuota_thenCompareFrequency() {
+        PartitionedLruCache<String, String> cache = newCache(2);
+        cache.setAdmissionFilter(new FrequencySketch<>(100));
+        cache.setQuota("a", 0.5);
+        cache.computeIfAbsent("b:1", key -> "1");
+        cache.computeIfAbsent("b:2", key -> "2");
+        cache.get("b:1");
+        cache.get("b:2");
+
+        // Run
+        assertNull(cache.get("a:1"));
+        String value = cache.computeIfAbsent("a:1", key -> "1");
+
+        // Verify a key looked up as often as the victim is not cached even within the quota
+        assertEquals("1", value);
+        assertEquals(0, cache.getWeight("a"));
+        assertEquals(1, cache.getRejections("a"));
+
+        // Run
+        assertNull(cache.get("a:1"));
+        cache.computeIfAbsent("a:1", key -> "1");
+
+        // Verify
+        assertEquals(1, cache.getWeight("a"));
+        assertEquals(1, cache.getWeight("b"));
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenAdmissionFilter_thenCountLookupOnce() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(100);
+        PartitionedLruCache<String, String> cache = newCache(1);
+        cache.setAdmissionFilter(sketch);
+        cache.computeIfAbsent("a:1", key -> "1");
+
+        // Run
+        assertNull(cache.get("a:2"));
+        cache.computeIfAbsent("a:2", key -> "2");
+
+        // Verify
+        assertEquals(1, sketch.frequency("a:2"));
+        assertEquals(1, cache.frequency("a:2"));
+        assertEquals(0, sketch.frequency("a:1"));
+    }
+
+    @SneakyThrows
+    public void testSetMaxWeight_whenSmaller_thenEvictInPlace() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.setQuota("a", 0.5);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("b:1", key -> "1");
+        cache.computeIfAbsent("b:2", key -> "2");
+        cache.computeIfAbsent("b:3", key -> "3");
+
+        // Run
+        cache.setMaxWeight(2);
+
+        // Verify
+        assertEquals(2, cache.weight());
+        assertEquals(1, cache.getQuota("a"));
+        assertEquals("1", cache.get("a:1"));
+        assertEquals("3", cache.get("b:3"));
+        assertEquals(2, removals.size());
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenKeysInManySegments_thenEvictLeastRecentlyUsedOfPartition() {
+        PartitionedLruCache<String, String> cache = newCache(50);
+        for (int i = 0; i < 50; i++) {
+            cache.computeIfAbsent("a:" + i, key -> key);
+        }
+        for (int i = 0; i < 25; i++) {
+            cache.get("a:" + i);
+        }
+
+        // Run
+        for (int i = 50; i < 75; i++) {
+            cache.computeIfAbsent("a:" + i, key -> key);
+        }
+
+        // Verify
+        assertEquals(25, removals.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals("a:" + (25 + i), removals.get(i).getKey());
+            assertEquals("a:" + i, cache.get("a:" + i));
+        }
+    }
+
+    @SneakyThrows
+    public void testComputeIfAbsent_whenConcurrentWriters_thenEvictOverflowOnce() {
+        int maxWeight = 100;
+        int threadCount = 4;
+        int keysPerThread = 500;
+        List<RemovalNotification<String, String>> evicted = Collections.synchronizedList(new ArrayList<>());
+        PartitionedLruCache<String, String> cache = new PartitionedLruCache<>(
+            maxWeight,
+            key -> key.substring(0, key.indexOf(':')),
+            (key, value) -> 1,
+            evicted::add
+        );
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            String partition = t % 2 == 0 ? "a" : "b";
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < keysPerThread; i++) {
+                        cache.computeIfAbsent(partition + ":" + thread + "-" + i, key -> key);
+                    }
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }));
+        }
+
+        // Run
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Verify
+        assertEquals(maxWeight, cache.weight());
+        assertEquals(maxWeight, cache.count());
+        assertEquals(threadCount * keysPerThread - maxWeight, evicted.size());
+    }
+
+    @SneakyThrows
+    public void testRemovePartition_whenRemoved_thenInvalidateEntries() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+        cache.computeIfAbsent("b:1", key -> "1");
+
+        // Run
+        cache.removePartition("a");
+
+        // Verify
+        assertNull(cache.get("a:1"));
+        assertEquals(0, cache.getWeight("a"));
+        assertEquals(1, cache.weight());
+        assertEquals(1, cache.count());
+        assertEquals(2, removals.size());
+        assertTrue(removals.stream().allMatch(removal -> RemovalReason.INVALIDATED.equals(removal.getRemovalReason())));
+
+        // Run
+        cache.computeIfAbsent("a:1", key -> "1");
+
+        // Verify
+        assertEquals("1", cache.get("a:1"));
+        assertEquals(2, cache.weight());
+    }
+
+    @SneakyThrows
+    public void testInvalidateAll_whenKeysMatch_thenInvalidateMatchingEntries() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("a:2", key -> "2");
+        cache.computeIfAbsent("b:1", key -> "1");
+
+        // Run
+        cache.invalidateAll(key -> key.endsWith(":1"));
+
+        // Verify
+        assertNull(cache.get("a:1"));
+        assertNull(cache.get("b:1"));
+        assertEquals("2", cache.get("a:2"));
+        assertEquals(1, cache.weight());
+        assertEquals(2, removals.size());
+        assertTrue(removals.stream().allMatch(removal -> RemovalReason.INVALIDATED.equals(removal.getRemovalReason())));
+    }
+
+    @SneakyThrows
+    public void testAddWeight_whenWeightNotHeldByEntries_thenEvictEntriesForIt() {
+        PartitionedLruCache<String, String> cache = newCache(4);
+        cache.computeIfAbsent("a:1", key -> "1");
+        cache.computeIfAbsent("b:1", key -> "1");
+
+        // Run
+        cache.addWeight("a", 2);
+        cache.computeIfAbsent("a:2", key -> "2");
+
+        // Verify
+        assertEquals(4, cache.weight());
+        assertEquals(3, cache.getWeight("a"));
+        assertNull(cache.get("a:1"));
+        assertEquals("2", cache.get("a:2"));
+        assertEquals("1", cache.get("b:1"));
+
+        // Run
+        cache.addWeight("a", -2);
+        cache.removePartition("b");
+
+        // Verify
+        assertEquals(1, cache.weight());
+        assertEquals(1, cache.getWeight("a"));
+    }
+
+    public void testSetQuota_whenRemoved_thenNoQuota() {
+        PartitionedLruCache<String, String> cache = newCache(10);
+        cache.setQuota("a", 0.3);
+        assertEquals(3, cache.getQuota("a"));
+
+        // Run
+        cache.setQuota("a", 0);
+
+        // Verify
+        assertEquals(0, cache.getQuota("a"));
+    }
+
+    public void testSetQuota_whenInvalid_thenException() {
+        PartitionedLruCache<String, String> cache = newCache(10);
+
+        expectThrows(IllegalArgumentException.class, () -> cache.setQuota("a", -0.1));
+        expectThrows(IllegalArgumentException.class, () -> cache.setQuota("a", 1.1));
+        expectThrows(IllegalArgumentException.class, () -> cache.setMaxWeight(-1));
+    }
+}
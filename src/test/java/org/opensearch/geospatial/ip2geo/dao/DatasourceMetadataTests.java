@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.time.Instant;
+
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+
+public class DatasourceMetadataTests extends Ip2GeoTestCase {
+    public void testConstructor_whenDatasource_thenPrecomputeExpiration() {
+        Datasource datasource = randomDatasource();
+
+        // Run
+        DatasourceMetadata datasourceMetadata = new DatasourceMetadata(datasource);
+
+        // Verify
+        assertEquals(datasource.currentIndexName(), datasourceMetadata.getIndexName());
+        assertEquals(datasource.getState(), datasourceMetadata.getState());
+        assertEquals(datasource.expirationDay().toEpochMilli(), datasourceMetadata.getExpirationEpochMillis());
+        assertFalse(datasourceMetadata.isExpired());
+    }
+
+    public void testConstructor_whenNoExpiration_thenNeverExpire() {
+        Datasource datasource = randomDatasource();
+        datasource.getDatabase().setValidForInDays(null);
+
+        // Run
+        DatasourceMetadata datasourceMetadata = new DatasourceMetadata(datasource);
+
+        // Verify
+        assertEquals(Instant.MAX, datasource.expirationDay());
+        assertEquals(Long.MAX_VALUE, datasourceMetadata.getExpirationEpochMillis());
+        assertFalse(datasourceMetadata.isExpired(Long.MAX_VALUE));
+    }
+
+    public void testIsExpired_whenExpirationPassed_thenExpired() {
+        long now = System.currentTimeMillis();
+        DatasourceMetadata datasourceMetadata = new DatasourceMetadata(GeospatialTestHelper.randomLowerCaseString(), null, now);
+
+        // Verify
+        assertFalse(datasourceMetadata.isExpired(now));
+        assertTrue(datasourceMetadata.isExpired(now + 1));
+        assertTrue(DatasourceMetadata.EMPTY_METADATA.isExpired());
+    }
+
+    public void testCanServeLookup() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+
+        // Verify
+        assertTrue(new DatasourceMetadata(indexName, DatasourceState.AVAILABLE, Long.MAX_VALUE).canServeLookup());
+        assertFalse(new DatasourceMetadata(indexName, DatasourceState.CREATING, Long.MAX_VALUE).canServeLookup());
+        assertFalse(new DatasourceMetadata(null, DatasourceState.AVAILABLE, Long.MAX_VALUE).canServeLookup());
+        assertFalse(new DatasourceMetadata(indexName, DatasourceState.AVAILABLE, System.currentTimeMillis() - 1).canServeLookup());
+        assertFalse(DatasourceMetadata.EMPTY_METADATA.canServeLookup());
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.opensearch.OpenSearchException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoIpDataBulkIngesterTests extends OpenSearchTestCase {
+    private static final TimeValue TIMEOUT = TimeValue.timeValueSeconds(30);
+
+    public void testAdd_whenBatchIsFull_thenSendBulkRequest() {
+        List<Integer> batchSizes = new ArrayList<>();
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), (request, listener) -> {
+            batchSizes.add(request.numberOfActions());
+            listener.onResponse(successResponse());
+        }, 3, 2, TIMEOUT);
+
+        // Run
+        for (int i = 0; i < 7; i++) {
+            addRecord(ingester, i);
+        }
+        ingester.flush();
+
+        // Verify
+        assertEquals(List.of(3, 3, 1), batchSizes);
+    }
+
+    public void testNewIndexRequest_whenBulkRequestCompleted_thenReuseIndexRequests() {
+        Set<IndexRequest> sent = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), (request, listener) -> {
+            for (DocWriteRequest<?> itemRequest : request.requests()) {
+                sent.add((IndexRequest) itemRequest);
+            }
+            listener.onResponse(successResponse());
+        }, 2, 1, TIMEOUT);
+        addRecord(ingester, 0);
+        addRecord(ingester, 1);
+
+        // Run
+        IndexRequest indexRequest = ingester.newIndexRequest();
+
+        // Verify
+        assertTrue(sent.contains(indexRequest));
+    }
+
+    public void testAdd_whenMaxInFlight_thenWaitForBulkRequestToComplete() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4, OpenSearchExecutors.daemonThreadFactory("test"));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObservedInFlight = new AtomicInteger();
+        AtomicInteger indexed = new AtomicInteger();
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), (request, listener) -> {
+            maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                sleepQuietly(10);
+                inFlight.decrementAndGet();
+                indexed.addAndGet(request.numberOfActions());
+                listener.onResponse(successResponse());
+            });
+        }, 2, 2, TIMEOUT);
+
+        // Run
+        for (int i = 0; i < 40; i++) {
+            addRecord(ingester, i);
+        }
+        ingester.flush();
+
+        // Verify
+        assertEquals(40, indexed.get());
+        assertTrue(maxObservedInFlight.get() <= 2);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void testFlush_whenItemsRejected_thenRetryRejectedItemsAndReduceInFlight() {
+        List<String> indexedIds = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), (request, listener) -> {
+            if (attempts.getAndIncrement() == 0) {
+                // The first item is rejected
+                indexedIds.add(request.requests().get(1).id());
+                listener.onResponse(response(RestStatus.TOO_MANY_REQUESTS, null));
+                return;
+            }
+            for (DocWriteRequest<?> itemRequest : request.requests()) {
+                indexedIds.add(itemRequest.id());
+            }
+            listener.onResponse(successResponse());
+        }, 2, 4, TIMEOUT);
+
+        // Run
+        addRecord(ingester, 0);
+        addRecord(ingester, 1);
+        ingester.flush();
+
+        // Verify
+        assertEquals(List.of("1", "0"), indexedIds);
+        assertEquals(2, attempts.get());
+        // Halved on the rejection, and grown by one on the successful retry
+        assertEquals(3, ingester.getInFlightLimit());
+    }
+
+    public void testFlush_whenBulkRequestRejected_thenRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), (request, listener) -> {
+            if (attempts.getAndIncrement() == 0) {
+                listener.onFailure(new OpenSearchRejectedExecutionException("rejected"));
+                return;
+            }
+            assertEquals(1, request.numberOfActions());
+            listener.onResponse(successResponse());
+        }, 2, 2, TIMEOUT);
+
+        // Run
+        addRecord(ingester, 0);
+        ingester.flush();
+
+        // Verify
+        assertEquals(2, attempts.get());
+    }
+
+    public void testFlush_whenItemFailed_thenException() {
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(
+            GeospatialTestHelper.randomLowerCaseString(),
+            (request, listener) -> listener.onResponse(response(RestStatus.BAD_REQUEST, "failed to parse")),
+            2,
+            2,
+            TIMEOUT
+        );
+        addRecord(ingester, 0);
+        addRecord(ingester, 1);
+
+        // Run
+        OpenSearchException e = expectThrows(OpenSearchException.class, ingester::flush);
+
+        // Verify
+        assertTrue(e.getMessage().contains("failed to parse"));
+    }
+
+    public void testAdd_whenPreviousBulkRequestFailed_thenException() {
+        BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkAction = (request, listener) -> listener.onFailure(
+            new IllegalStateException("failed")
+        );
+        GeoIpDataBulkIngester ingester = new GeoIpDataBulkIngester(GeospatialTestHelper.randomLowerCaseString(), bulkAction, 1, 2, TIMEOUT);
+        addRecord(ingester, 0);
+
+        // Run
+        expectThrows(IllegalStateException.class, () -> addRecord(ingester, 1));
+    }
+
+    private void addRecord(final GeoIpDataBulkIngester ingester, final int id) {
+        IndexRequest indexRequest = ingester.newIndexRequest();
+        indexRequest.id(Integer.toString(id));
+        indexRequest.source("city", "Seattle");
+        ingester.add(indexRequest);
+    }
+
+    private BulkResponse successResponse() {
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.hasFailures()).thenReturn(false);
+        return response;
+    }
+
+    /**
+     * @return a response of two items whose first item failed with a given status
+     */
+    private BulkResponse response(final RestStatus status, final String failureMessage) {
+        BulkItemResponse failed = mock(BulkItemResponse.class);
+        when(failed.isFailed()).thenReturn(true);
+        when(failed.status()).thenReturn(status);
+        BulkItemResponse succeeded = mock(BulkItemResponse.class);
+        when(succeeded.isFailed()).thenReturn(false);
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.hasFailures()).thenReturn(true);
+        when(response.getItems()).thenReturn(new BulkItemResponse[] { failed, succeeded });
+        when(response.buildFailureMessage()).thenReturn(failureMessage);
+        return response;
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package org.opensearch.geospatial.ip2geo.dao;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -19,33 +20,55 @@ import java.net.URLConnection;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.lucene.search.TotalHits;
 import org.junit.Before;
+import org.mockito.ArgumentCaptor;
 import org.opensearch.OpenSearchException;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.opensearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.opensearch.action.admin.indices.mapping.put.PutMappingRequest;
 import org.opensearch.action.admin.indices.refresh.RefreshRequest;
 import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.search.ClearScrollRequest;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
 import org.opensearch.action.support.clustermanager.AcknowledgedResponse;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.MappingMetadata;
 import org.opensearch.cluster.routing.Preference;
 import org.opensearch.common.SuppressForbidden;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.geospatial.GeospatialTestHelper;
 import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
 import org.opensearch.geospatial.ip2geo.common.DatasourceManifest;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
 import org.opensearch.geospatial.shared.Constants;
+import org.opensearch.index.mapper.MapperService;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
@@ -56,13 +79,28 @@ import lombok.SneakyThrows;
 public class GeoIpDataDaoTests extends Ip2GeoTestCase {
     private static final String IP_RANGE_FIELD_NAME = "_cidr";
     private static final String DATA_FIELD_NAME = "_data";
+    private static final String RECORD_FIELD_NAME = "_record";
+    private static final String RECORD_FIELDS_META_KEY = "record_fields";
+    private static final String SAMPLE_VALID_ZIP_SHA256 = "WmogqIs+Q54f9efZhtfgo1bzafP5Otuz/cycsx2Apgc=";
     private GeoIpDataDao noOpsGeoIpDataDao;
     private GeoIpDataDao verifyingGeoIpDataDao;
 
     @Before
     public void init() {
-        noOpsGeoIpDataDao = new GeoIpDataDao(clusterService, client, urlDenyListChecker);
-        verifyingGeoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker);
+        noOpsGeoIpDataDao = new GeoIpDataDao(
+            clusterService,
+            client,
+            urlDenyListChecker,
+            new GeoIpDataShardReader(clusterSettings),
+            ip2GeoExecutor
+        );
+        verifyingGeoIpDataDao = new GeoIpDataDao(
+            clusterService,
+            verifyingClient,
+            urlDenyListChecker,
+            new GeoIpDataShardReader(clusterSettings),
+            ip2GeoExecutor
+        );
     }
 
     public void testCreateIndexIfNotExistsWithExistingIndex() {
@@ -86,20 +124,46 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
             assertEquals(true, request.settings().getAsBoolean("index.hidden", false));
 
             assertEquals(
-                "{\"dynamic\": false,\"properties\": {\"_cidr\": {\"type\": \"ip_range\",\"doc_values\": false}}}",
-                request.mappings()
+                Map.of(
+                    "dynamic",
+                    false,
+                    "_source",
+                    Map.of("excludes", List.of(RECORD_FIELD_NAME)),
+                    "properties",
+                    Map.of(
+                        IP_RANGE_FIELD_NAME,
+                        Map.of("type", "ip_range", "doc_values", false),
+                        RECORD_FIELD_NAME,
+                        Map.of("type", "binary", "store", true)
+                    )
+                ),
+                XContentHelper.convertToMap(JsonXContent.jsonXContent, request.mappings(), false)
             );
             return null;
         });
         verifyingGeoIpDataDao.createIndexIfNotExists(index);
     }
 
+    public void testCreateIndexIfNotExists_whenSourceNotStored_thenDisableSource() {
+        String index = GeospatialTestHelper.randomLowerCaseString();
+        when(metadata.hasIndex(index)).thenReturn(false);
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.STORE_SOURCE.getKey(), false).build());
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            CreateIndexRequest request = (CreateIndexRequest) actionRequest;
+            Map<String, Object> mapping = XContentHelper.convertToMap(JsonXContent.jsonXContent, request.mappings(), false);
+            assertEquals(Map.of("enabled", false), mapping.get("_source"));
+            return null;
+        });
+        verifyingGeoIpDataDao.createIndexIfNotExists(index);
+    }
+
     @SneakyThrows
     public void testCreateDocument_whenBlankValue_thenDoNotAdd() {
         String[] names = { "ip", "country", "location", "city" };
         String[] values = { "1.0.0.0/25", "USA", " ", "Seattle" };
         assertEquals(
-            "{\"_cidr\":\"1.0.0.0/25\",\"_data\":{\"country\":\"USA\",\"city\":\"Seattle\"}}",
+            "{\"_cidr\":\"1.0.0.0/25\",\"_data\":{\"country\":\"USA\",\"city\":\"Seattle\"},"
+                + "\"_record\":\"CjEuMC4wLjAvMjUDAQNVU0EAAQdTZWF0dGxl\"}",
             noOpsGeoIpDataDao.createDocument(names, values).toString()
         );
     }
@@ -121,25 +185,44 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
         DatasourceManifest manifest = new DatasourceManifest(
             zipFile.toURI().toURL().toExternalForm(),
             "sample_valid.csv",
-            "fake_sha256",
+            SAMPLE_VALID_ZIP_SHA256,
             1l,
             Instant.now().toEpochMilli(),
             "tester"
         );
-        CSVParser parser = noOpsGeoIpDataDao.getDatabaseReader(manifest);
-        String[] expectedHeader = { "network", "country_name" };
-        assertArrayEquals(expectedHeader, parser.iterator().next().values());
-        String[] expectedValues = { "1.0.0.0/24", "Australia" };
-        assertArrayEquals(expectedValues, parser.iterator().next().values());
+        try (CSVParser parser = noOpsGeoIpDataDao.getDatabaseReader(manifest)) {
+            String[] expectedHeader = { "network", "country_name" };
+            assertArrayEquals(expectedHeader, parser.iterator().next().values());
+            String[] expectedValues = { "1.0.0.0/24", "Australia" };
+            assertArrayEquals(expectedValues, parser.iterator().next().values());
+        }
         verify(urlDenyListChecker).toUrlIfNotInDenyList(manifest.getUrl());
     }
 
+    public void testGetDatabaseReader_whenHashMismatch_thenException() throws Exception {
+        File zipFile = new File(this.getClass().getClassLoader().getResource("ip2geo/sample_valid.zip").getFile());
+        DatasourceManifest manifest = new DatasourceManifest(
+            zipFile.toURI().toURL().toExternalForm(),
+            "sample_valid.csv",
+            "fake_sha256",
+            1l,
+            Instant.now().toEpochMilli(),
+            "tester"
+        );
+
+        // Run
+        Exception exception = expectThrows(OpenSearchException.class, () -> noOpsGeoIpDataDao.getDatabaseReader(manifest));
+
+        // Verify
+        assertTrue(exception.getMessage().contains("does not match [fake_sha256]"));
+    }
+
     public void testGetDatabaseReaderNoFile() throws Exception {
         File zipFile = new File(this.getClass().getClassLoader().getResource("ip2geo/sample_valid.zip").getFile());
         DatasourceManifest manifest = new DatasourceManifest(
             zipFile.toURI().toURL().toExternalForm(),
             "no_file.csv",
-            "fake_sha256",
+            SAMPLE_VALID_ZIP_SHA256,
             1l,
             Instant.now().toEpochMilli(),
             "tester"
@@ -155,7 +238,7 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
         DatasourceManifest manifest = new DatasourceManifest(
             zipFile.toURI().toURL().toExternalForm(),
             "sample_valid.csv",
-            "fake_sha256",
+            SAMPLE_VALID_ZIP_SHA256,
             1l,
             Instant.now().toEpochMilli(),
             "tester"
@@ -165,7 +248,7 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
         when(connection.getInputStream()).thenReturn(new FileInputStream(zipFile));
 
         // Run
-        noOpsGeoIpDataDao.internalGetDatabaseReader(manifest, connection);
+        noOpsGeoIpDataDao.internalGetDatabaseReader(manifest, () -> connection).close();
 
         // Verify
         verify(connection).addRequestProperty(Constants.USER_AGENT_KEY, Constants.USER_AGENT_VALUE);
@@ -194,7 +277,13 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
     public void testPutGeoIpData_whenValidInput_thenSucceed() {
         String index = GeospatialTestHelper.randomLowerCaseString();
         verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
-            if (actionRequest instanceof BulkRequest) {
+            if (actionRequest instanceof PutMappingRequest) {
+                PutMappingRequest request = (PutMappingRequest) actionRequest;
+                assertEquals(index, request.indices()[0]);
+                Map<String, Object> mapping = XContentHelper.convertToMap(JsonXContent.jsonXContent, request.source(), false);
+                assertEquals(Map.of(RECORD_FIELDS_META_KEY, List.of("country_name")), mapping.get("_meta"));
+                return new AcknowledgedResponse(true);
+            } else if (actionRequest instanceof BulkRequest) {
                 BulkRequest request = (BulkRequest) actionRequest;
                 assertEquals(2, request.numberOfActions());
                 BulkResponse response = mock(BulkResponse.class);
@@ -225,9 +314,8 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
         });
         Runnable renewLock = mock(Runnable.class);
         try (CSVParser csvParser = CSVParser.parse(sampleIp2GeoFile(), StandardCharsets.UTF_8, CSVFormat.RFC4180)) {
-            Iterator<CSVRecord> iterator = csvParser.iterator();
-            String[] fields = iterator.next().values();
-            verifyingGeoIpDataDao.putGeoIpData(index, fields, iterator, renewLock);
+            String[] fields = csvParser.iterator().next().values();
+            verifyingGeoIpDataDao.putGeoIpData(index, fields, csvParser, renewLock);
             verify(renewLock, times(2)).run();
         }
     }
@@ -289,4 +377,398 @@ public class GeoIpDataDaoTests extends Ip2GeoTestCase {
         // Verify
         assertTrue(geoData.isEmpty());
     }
+
+    public void testGetGeoIpDataAsync_whenDataExist_thenReturnTheData() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String ip = randomIpAddress();
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            assert actionRequest instanceof SearchRequest;
+            SearchRequest request = (SearchRequest) actionRequest;
+            assertEquals(Preference.LOCAL.type(), request.preference());
+            assertEquals(QueryBuilders.termQuery(IP_RANGE_FIELD_NAME, ip), request.source().query());
+
+            String data = String.format(
+                Locale.ROOT,
+                "{\"%s\":\"1.0.0.1/16\",\"%s\":{\"city\":\"seattle\"}}",
+                IP_RANGE_FIELD_NAME,
+                DATA_FIELD_NAME
+            );
+            SearchHit searchHit = new SearchHit(1);
+            searchHit.sourceRef(BytesReference.fromByteBuffer(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8))));
+            SearchResponse response = mock(SearchResponse.class);
+            when(response.getHits()).thenReturn(
+                new SearchHits(new SearchHit[] { searchHit }, new TotalHits(1l, TotalHits.Relation.EQUAL_TO), 1)
+            );
+            return response;
+        });
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        verifyingGeoIpDataDao.getGeoIpData(indexName, ip, listener);
+
+        // Verify
+        verify(listener).onResponse(Map.of("city", "seattle"));
+    }
+
+    public void testGetBatchGeoIpData_whenCalled_thenSendMultiSearch() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        List<String> ips = Arrays.asList("1.0.0.1", "2.0.0.1");
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            assert actionRequest instanceof MultiSearchRequest;
+            MultiSearchRequest request = (MultiSearchRequest) actionRequest;
+            assertEquals(2, request.requests().size());
+            for (int i = 0; i < ips.size(); i++) {
+                SearchRequest searchRequest = request.requests().get(i);
+                assertEquals(Preference.LOCAL.type(), searchRequest.preference());
+                assertEquals(1, searchRequest.source().size());
+                assertEquals(QueryBuilders.termQuery(IP_RANGE_FIELD_NAME, ips.get(i)), searchRequest.source().query());
+            }
+
+            String data = String.format(
+                Locale.ROOT,
+                "{\"%s\":\"1.0.0.1/16\",\"%s\":{\"city\":\"seattle\"}}",
+                IP_RANGE_FIELD_NAME,
+                DATA_FIELD_NAME
+            );
+            SearchHit searchHit = new SearchHit(1);
+            searchHit.sourceRef(BytesReference.fromByteBuffer(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8))));
+            SearchResponse hitResponse = mock(SearchResponse.class);
+            when(hitResponse.getHits()).thenReturn(
+                new SearchHits(new SearchHit[] { searchHit }, new TotalHits(1l, TotalHits.Relation.EQUAL_TO), 1)
+            );
+            SearchResponse emptyResponse = mock(SearchResponse.class);
+            when(emptyResponse.getHits()).thenReturn(new SearchHits(new SearchHit[] {}, new TotalHits(0l, TotalHits.Relation.EQUAL_TO), 0));
+            MultiSearchResponse.Item[] items = {
+                new MultiSearchResponse.Item(hitResponse, null),
+                new MultiSearchResponse.Item(emptyResponse, null) };
+            return new MultiSearchResponse(items, 1);
+        });
+
+        // Run
+        Map<String, Map<String, Object>> geoData = verifyingGeoIpDataDao.getBatchGeoIpData(indexName, ips);
+
+        // Verify
+        assertEquals(Map.of("1.0.0.1", Map.of("city", "seattle"), "2.0.0.1", Collections.emptyMap()), geoData);
+    }
+
+    public void testGetBatchGeoIpData_whenItemFailed_thenException() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        verifyingClient.setExecuteVerifier(
+            (actionResponse, actionRequest) -> new MultiSearchResponse(
+                new MultiSearchResponse.Item[] { new MultiSearchResponse.Item(null, new RuntimeException("error")) },
+                1
+            )
+        );
+
+        // Run
+        expectThrows(OpenSearchException.class, () -> verifyingGeoIpDataDao.getBatchGeoIpData(indexName, List.of("1.0.0.1")));
+    }
+
+    public void testGetGeoIpRangeData_whenDataExist_thenReturnRangeAndData() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String ip = randomIpAddress();
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            assert actionRequest instanceof SearchRequest;
+            SearchRequest request = (SearchRequest) actionRequest;
+            assertEquals(QueryBuilders.termQuery(IP_RANGE_FIELD_NAME, ip), request.source().query());
+            return searchResponse("1.0.0.0/16", Map.of("city", "seattle"));
+        });
+
+        // Run
+        Tuple<String, Map<String, Object>> rangeData = verifyingGeoIpDataDao.getGeoIpRangeData(indexName, ip);
+
+        // Verify
+        assertEquals("1.0.0.0/16", rangeData.v1());
+        assertEquals(Map.of("city", "seattle"), rangeData.v2());
+    }
+
+    public void testGetGeoIpRangeData_whenLocalShard_thenReadWithoutSearch() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String ip = randomIpAddress();
+        GeoIpDataShardReader shardReader = mock(GeoIpDataShardReader.class);
+        when(shardReader.canRead(indexName)).thenReturn(true);
+        when(shardReader.read(indexName, ip)).thenReturn(new Tuple<>("1.0.0.0/16", Map.of("city", "seattle")));
+        GeoIpDataDao geoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker, shardReader, ip2GeoExecutor);
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            throw new AssertionError("should not search");
+        });
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        Tuple<String, Map<String, Object>> rangeData = geoIpDataDao.getGeoIpRangeData(indexName, ip);
+        geoIpDataDao.getGeoIpData(indexName, ip, listener);
+
+        // Verify
+        assertEquals("1.0.0.0/16", rangeData.v1());
+        assertEquals(Map.of("city", "seattle"), rangeData.v2());
+        verify(listener).onResponse(Map.of("city", "seattle"));
+    }
+
+    public void testGetGeoIpDataAsync_whenLocalShard_thenReadOnLookupExecutor() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String ip = randomIpAddress();
+        GeoIpDataShardReader shardReader = mock(GeoIpDataShardReader.class);
+        when(shardReader.canRead(indexName)).thenReturn(true);
+        when(shardReader.read(indexName, ip)).thenReturn(new Tuple<>("1.0.0.0/16", Map.of("city", "seattle")));
+        GeoIpDataDao geoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker, shardReader, ip2GeoExecutor);
+        ExecutorService lookupExecutor = mock(ExecutorService.class);
+        when(ip2GeoExecutor.forLookup()).thenReturn(lookupExecutor);
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+        ActionListener<Map<String, Map<String, Object>>> batchListener = mock(ActionListener.class);
+
+        // Run
+        geoIpDataDao.getGeoIpData(indexName, ip, listener);
+        geoIpDataDao.getBatchGeoIpData(indexName, List.of(ip), batchListener);
+
+        // Verify
+        verify(shardReader, never()).read(indexName, ip);
+        verify(listener, never()).onResponse(any());
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(lookupExecutor, times(2)).execute(captor.capture());
+
+        // Run
+        captor.getAllValues().forEach(Runnable::run);
+
+        // Verify
+        verify(listener).onResponse(Map.of("city", "seattle"));
+        verify(batchListener).onResponse(Map.of(ip, Map.of("city", "seattle")));
+    }
+
+    public void testGetGeoIpDataAsync_whenLookupExecutorRejects_thenFail() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoIpDataShardReader shardReader = mock(GeoIpDataShardReader.class);
+        when(shardReader.canRead(indexName)).thenReturn(true);
+        GeoIpDataDao geoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker, shardReader, ip2GeoExecutor);
+        ExecutorService lookupExecutor = mock(ExecutorService.class);
+        RejectedExecutionException exception = new RejectedExecutionException();
+        doThrow(exception).when(lookupExecutor).execute(any(Runnable.class));
+        when(ip2GeoExecutor.forLookup()).thenReturn(lookupExecutor);
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        geoIpDataDao.getGeoIpData(indexName, randomIpAddress(), listener);
+
+        // Verify
+        verify(listener).onFailure(exception);
+        verify(shardReader, never()).read(any(), any());
+    }
+
+    public void testGetBatchGeoIpData_whenLocalShard_thenReadWithoutMultiSearch() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoIpDataShardReader shardReader = mock(GeoIpDataShardReader.class);
+        when(shardReader.canRead(indexName)).thenReturn(true);
+        when(shardReader.read(indexName, "1.0.0.1")).thenReturn(new Tuple<>("1.0.0.0/16", Map.of("city", "seattle")));
+        when(shardReader.read(indexName, "2.0.0.1")).thenReturn(new Tuple<>(null, Collections.emptyMap()));
+        GeoIpDataDao geoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker, shardReader, ip2GeoExecutor);
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            throw new AssertionError("should not search");
+        });
+
+        // Run
+        Map<String, Map<String, Object>> geoData = geoIpDataDao.getBatchGeoIpData(indexName, Arrays.asList("1.0.0.1", "2.0.0.1"));
+
+        // Verify
+        assertEquals(Map.of("1.0.0.1", Map.of("city", "seattle"), "2.0.0.1", Collections.emptyMap()), geoData);
+    }
+
+    public void testGetBatchGeoIpRangeData_whenLocalShardClosed_thenMultiSearch() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        List<String> ips = Arrays.asList("1.0.0.1", "2.0.0.1");
+        GeoIpDataShardReader shardReader = mock(GeoIpDataShardReader.class);
+        when(shardReader.canRead(indexName)).thenReturn(true);
+        when(shardReader.read(indexName, "1.0.0.1")).thenReturn(new Tuple<>("1.0.0.0/16", Map.of("city", "seattle")));
+        when(shardReader.read(indexName, "2.0.0.1")).thenReturn(null);
+        GeoIpDataDao geoIpDataDao = new GeoIpDataDao(clusterService, verifyingClient, urlDenyListChecker, shardReader, ip2GeoExecutor);
+        AtomicInteger multiSearchCount = new AtomicInteger();
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            assert actionRequest instanceof MultiSearchRequest;
+            multiSearchCount.incrementAndGet();
+            MultiSearchResponse.Item[] items = new MultiSearchResponse.Item[ips.size()];
+            for (int i = 0; i < ips.size(); i++) {
+                items[i] = new MultiSearchResponse.Item(searchResponse("1.0.0.0/8", Map.of("city", "seattle")), null);
+            }
+            return new MultiSearchResponse(items, 1L);
+        });
+
+        // Run
+        Map<String, Tuple<String, Map<String, Object>>> rangeData = geoIpDataDao.getBatchGeoIpRangeData(indexName, ips);
+
+        // Verify
+        assertEquals(1, multiSearchCount.get());
+        assertEquals("1.0.0.0/8", rangeData.get("2.0.0.1").v1());
+    }
+
+    public void testGetGeoIpRangeDataAsync_whenNoData_thenReturnNullRange() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> searchResponse(null, null));
+        ActionListener<Tuple<String, Map<String, Object>>> listener = mock(ActionListener.class);
+
+        // Run
+        verifyingGeoIpDataDao.getGeoIpRangeData(indexName, randomIpAddress(), listener);
+
+        // Verify
+        ArgumentCaptor<Tuple<String, Map<String, Object>>> captor = ArgumentCaptor.forClass(Tuple.class);
+        verify(listener).onResponse(captor.capture());
+        assertNull(captor.getValue().v1());
+        assertTrue(captor.getValue().v2().isEmpty());
+    }
+
+    public void testGetBatchGeoIpRangeData_whenCalled_thenReturnRangeAndDataOfEachIp() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        List<String> ips = Arrays.asList("1.0.0.1", "2.0.0.1");
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            assert actionRequest instanceof MultiSearchRequest;
+            assertEquals(2, ((MultiSearchRequest) actionRequest).requests().size());
+            MultiSearchResponse.Item[] items = {
+                new MultiSearchResponse.Item(searchResponse("1.0.0.0/16", Map.of("city", "seattle")), null),
+                new MultiSearchResponse.Item(searchResponse(null, null), null) };
+            return new MultiSearchResponse(items, 1);
+        });
+
+        // Run
+        Map<String, Tuple<String, Map<String, Object>>> rangeData = verifyingGeoIpDataDao.getBatchGeoIpRangeData(indexName, ips);
+
+        // Verify
+        assertEquals("1.0.0.0/16", rangeData.get("1.0.0.1").v1());
+        assertEquals(Map.of("city", "seattle"), rangeData.get("1.0.0.1").v2());
+        assertNull(rangeData.get("2.0.0.1").v1());
+        assertTrue(rangeData.get("2.0.0.1").v2().isEmpty());
+    }
+
+    private SearchResponse searchResponse(final String cidr, final Map<String, Object> geoData) {
+        SearchResponse response = mock(SearchResponse.class);
+        if (cidr == null) {
+            when(response.getHits()).thenReturn(new SearchHits(new SearchHit[] {}, new TotalHits(0l, TotalHits.Relation.EQUAL_TO), 0));
+            return response;
+        }
+        String city = (String) geoData.get("city");
+        String data = String.format(
+            Locale.ROOT,
+            "{\"%s\":\"%s\",\"%s\":{\"city\":\"%s\"}}",
+            IP_RANGE_FIELD_NAME,
+            cidr,
+            DATA_FIELD_NAME,
+            city
+        );
+        SearchHit searchHit = new SearchHit(1);
+        searchHit.sourceRef(BytesReference.fromByteBuffer(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8))));
+        when(response.getHits()).thenReturn(
+            new SearchHits(new SearchHit[] { searchHit }, new TotalHits(1l, TotalHits.Relation.EQUAL_TO), 1)
+        );
+        return response;
+    }
+
+    public void testGetGeoIpRangeData_whenIndexHasRecords_thenDecodeRecord() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String ip = randomIpAddress();
+        mockRecordFields(indexName, List.of("country", "city"));
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            SearchRequest request = (SearchRequest) actionRequest;
+            assertFalse(request.source().fetchSource().fetchSource());
+            assertEquals(List.of(RECORD_FIELD_NAME), request.source().storedFields().fieldNames());
+
+            byte[] record = GeoIpRecordCodec.encode(new String[] { "1.0.0.0/16", "", "seattle" });
+            SearchHit searchHit = new SearchHit(
+                1,
+                GeospatialTestHelper.randomLowerCaseString(),
+                Map.of(RECORD_FIELD_NAME, new DocumentField(RECORD_FIELD_NAME, List.of(new BytesArray(record)))),
+                Collections.emptyMap()
+            );
+            SearchHits searchHits = new SearchHits(new SearchHit[] { searchHit }, new TotalHits(1l, TotalHits.Relation.EQUAL_TO), 1);
+            SearchResponse response = mock(SearchResponse.class);
+            when(response.getHits()).thenReturn(searchHits);
+            return response;
+        });
+
+        // Run
+        Tuple<String, Map<String, Object>> rangeData = verifyingGeoIpDataDao.getGeoIpRangeData(indexName, ip);
+
+        // Verify
+        assertEquals("1.0.0.0/16", rangeData.v1());
+        assertEquals(Map.of("city", "seattle"), rangeData.v2());
+    }
+
+    public void testGetGeoIpData_whenIndexHasNoRecords_thenFetchSource() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockRecordFields(indexName, null);
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            SearchRequest request = (SearchRequest) actionRequest;
+            assertNull(request.source().storedFields());
+            return searchResponse("1.0.0.0/16", Map.of("city", "seattle"));
+        });
+
+        // Run
+        Map<String, Object> geoData = verifyingGeoIpDataDao.getGeoIpData(indexName, randomIpAddress());
+
+        // Verify
+        assertEquals(Map.of("city", "seattle"), geoData);
+    }
+
+    private void mockRecordFields(final String indexName, final List<String> fields) {
+        Map<String, Object> mapping = fields == null
+            ? Map.of("dynamic", false)
+            : Map.of("dynamic", false, "_meta", Map.of(RECORD_FIELDS_META_KEY, fields));
+        IndexMetadata indexMetadata = mock(IndexMetadata.class);
+        when(indexMetadata.mapping()).thenReturn(new MappingMetadata(MapperService.SINGLE_MAPPING_NAME, mapping));
+        when(metadata.index(indexName)).thenReturn(indexMetadata);
+        when(metadata.hasIndex(indexName)).thenReturn(true);
+    }
+
+    public void testGetAllGeoIpData_whenCalled_thenScrollAllData() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String scrollId = GeospatialTestHelper.randomLowerCaseString();
+        AtomicInteger clearScrollCount = new AtomicInteger();
+        verifyingClient.setExecuteVerifier((actionResponse, actionRequest) -> {
+            if (actionRequest instanceof SearchRequest) {
+                SearchRequest request = (SearchRequest) actionRequest;
+                assertEquals(Preference.LOCAL.type(), request.preference());
+                assertNotNull(request.scroll());
+                return createSearchResponse(scrollId, "1.0.0.0/24", "seattle");
+            } else if (actionRequest instanceof SearchScrollRequest) {
+                SearchScrollRequest request = (SearchScrollRequest) actionRequest;
+                assertEquals(scrollId, request.scrollId());
+                return createSearchResponse(scrollId);
+            } else if (actionRequest instanceof ClearScrollRequest) {
+                ClearScrollRequest request = (ClearScrollRequest) actionRequest;
+                assertEquals(List.of(scrollId), request.getScrollIds());
+                clearScrollCount.incrementAndGet();
+                return null;
+            } else {
+                throw new RuntimeException("invalid request is called");
+            }
+        });
+        Map<String, Map<String, Object>> result = new HashMap<>();
+
+        // Run
+        verifyingGeoIpDataDao.getAllGeoIpData(indexName, result::put);
+
+        // Verify
+        assertEquals(Map.of("1.0.0.0/24", Map.of("city", "seattle")), result);
+        assertEquals(1, clearScrollCount.get());
+    }
+
+    private SearchResponse createSearchResponse(final String scrollId, final String... cidrAndCities) {
+        SearchHit[] searchHitArray = new SearchHit[cidrAndCities.length / 2];
+        for (int i = 0; i < searchHitArray.length; i++) {
+            String data = String.format(
+                Locale.ROOT,
+                "{\"%s\":\"%s\",\"%s\":{\"city\":\"%s\"}}",
+                IP_RANGE_FIELD_NAME,
+                cidrAndCities[i * 2],
+                DATA_FIELD_NAME,
+                cidrAndCities[i * 2 + 1]
+            );
+            searchHitArray[i] = new SearchHit(i);
+            searchHitArray[i].sourceRef(BytesReference.fromByteBuffer(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8))));
+        }
+        SearchHits searchHits = new SearchHits(
+            searchHitArray,
+            new TotalHits(searchHitArray.length, TotalHits.Relation.EQUAL_TO),
+            searchHitArray.length
+        );
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(searchHits);
+        when(response.getScrollId()).thenReturn(scrollId);
+        return response;
+    }
 }
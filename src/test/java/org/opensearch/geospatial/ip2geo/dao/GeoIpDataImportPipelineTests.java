@@ -0,0 +1,193 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import lombok.SneakyThrows;
+
+public class GeoIpDataImportPipelineTests extends OpenSearchTestCase {
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(3, OpenSearchExecutors.daemonThreadFactory("test"));
+    }
+
+    @After
+    public void clean() {
+        ThreadPool.terminate(executor, 10, TimeUnit.SECONDS);
+    }
+
+    @SneakyThrows
+    public void testRun_whenMultipleBatches_thenIndexAllRecords() {
+        int count = GeoIpDataImportPipeline.RECORDS_PER_BATCH * 3 + randomIntBetween(1, 100);
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, randomIntBetween(1, 4));
+        Set<String> indexedIds = new HashSet<>();
+        CSVParser records = records(count);
+
+        // Run
+        pipeline.run(records.iterator(), records, values -> new IndexRequest().id(values[0]).source("city", values[1]), indexRequest -> {
+            assertTrue(indexedIds.add(indexRequest.id()));
+        });
+
+        // Verify
+        assertEquals(count, indexedIds.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(indexedIds.contains(Integer.toString(i)));
+        }
+    }
+
+    @SneakyThrows
+    public void testRun_whenNoRecords_thenIndexNothing() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 2);
+        AtomicInteger indexed = new AtomicInteger();
+        CSVParser records = records(0);
+
+        // Run
+        pipeline.run(records.iterator(), records, values -> new IndexRequest().id(values[0]), indexRequest -> indexed.incrementAndGet());
+
+        // Verify
+        assertEquals(0, indexed.get());
+    }
+
+    public void testRun_whenSerializerFails_thenException() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 2);
+        CSVParser records = records(10);
+
+        // Run
+        IOException e = expectThrows(IOException.class, () -> pipeline.run(records.iterator(), records, values -> {
+            throw new IOException("failed to serialize");
+        }, indexRequest -> {}));
+
+        // Verify
+        assertEquals("failed to serialize", e.getMessage());
+    }
+
+    public void testRun_whenSerializerThrowsError_thenRethrow() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 2);
+        CSVParser records = records(10);
+
+        // Run
+        AssertionError e = expectThrows(AssertionError.class, () -> pipeline.run(records.iterator(), records, values -> {
+            throw new AssertionError("failed to serialize");
+        }, indexRequest -> {}));
+
+        // Verify
+        assertEquals("failed to serialize", e.getMessage());
+    }
+
+    public void testRun_whenParserFails_thenException() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 2);
+        Iterator<CSVRecord> iterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public CSVRecord next() {
+                throw new IllegalStateException("corrupted");
+            }
+        };
+
+        // Run
+        IllegalStateException e = expectThrows(
+            IllegalStateException.class,
+            () -> pipeline.run(iterator, () -> {}, values -> new IndexRequest().id(values[0]), indexRequest -> {})
+        );
+
+        // Verify
+        assertEquals("corrupted", e.getMessage());
+    }
+
+    public void testRun_whenIndexerFails_thenException() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 2);
+        CSVParser records = records(GeoIpDataImportPipeline.RECORDS_PER_BATCH * 10);
+
+        // Run
+        expectThrows(
+            IllegalStateException.class,
+            () -> pipeline.run(
+                records.iterator(),
+                records,
+                values -> new IndexRequest().id(values[0]),
+                indexRequest -> {
+                    throw new IllegalStateException("failed to index");
+                }
+            )
+        );
+    }
+
+    public void testRun_whenIndexerFails_thenCloseSourceBeforeStoppingParser() {
+        GeoIpDataImportPipeline pipeline = new GeoIpDataImportPipeline(executor, 1);
+        CSVRecord record = records(1).iterator().next();
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicBoolean parserExited = new AtomicBoolean();
+        Iterator<CSVRecord> iterator = new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                if (count < GeoIpDataImportPipeline.RECORDS_PER_BATCH) {
+                    return true;
+                }
+                // blocked reading the source, which is not interruptible, until the source is closed
+                while (closed.get() == false) {
+                    Thread.onSpinWait();
+                }
+                parserExited.set(true);
+                throw new IllegalStateException("source is closed");
+            }
+
+            @Override
+            public CSVRecord next() {
+                count++;
+                return record;
+            }
+        };
+
+        // Run
+        IllegalStateException e = expectThrows(
+            IllegalStateException.class,
+            () -> pipeline.run(iterator, () -> closed.set(true), values -> new IndexRequest().id(values[0]), indexRequest -> {
+                throw new IllegalStateException("failed to index");
+            })
+        );
+
+        // Verify
+        assertEquals("failed to index", e.getMessage());
+        assertTrue(closed.get());
+        assertTrue(parserExited.get());
+    }
+
+    @SneakyThrows
+    private CSVParser records(final int count) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            csv.append(i).append(",city").append(i).append('\n');
+        }
+        return CSVParser.parse(csv.toString(), CSVFormat.RFC4180);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.InetAddressRange;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.After;
+import org.junit.Before;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+import org.opensearch.index.engine.Engine;
+import org.opensearch.index.mapper.DocumentMapper;
+import org.opensearch.index.mapper.MapperService;
+import org.opensearch.index.mapper.SourceFieldMapper;
+import org.opensearch.index.shard.IndexShard;
+import org.opensearch.index.shard.IndexShardState;
+
+import lombok.SneakyThrows;
+
+public class GeoIpDataShardReaderTests extends Ip2GeoTestCase {
+    private Directory directory;
+    private DirectoryReader reader;
+    private GeoIpDataShardReader shardReader;
+    private String indexName;
+
+    @Before
+    @SneakyThrows
+    public void init() {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            writer.addDocument(geoDataDocument("1.0.0.0/24", "1.0.0.0", "1.0.0.255", "seattle"));
+            writer.addDocument(geoDataDocument("a:b::/32", "a:b::", "a:b:ffff:ffff:ffff:ffff:ffff:ffff", "vancouver"));
+            writer.addDocument(recordDocument("3.0.0.0/24", "3.0.0.0", "3.0.0.255", "portland"));
+        }
+        reader = DirectoryReader.open(directory);
+        shardReader = new GeoIpDataShardReader(clusterSettings);
+        indexName = IP2GEO_DATA_INDEX_NAME_PREFIX + "." + GeospatialTestHelper.randomLowerCaseString();
+    }
+
+    @After
+    @SneakyThrows
+    public void close() {
+        reader.close();
+        directory.close();
+    }
+
+    public void testRead_whenIpv4Matches_thenReturnGeoData() {
+        shardReader.afterIndexShardStarted(indexShard(indexName, IndexShardState.STARTED));
+
+        Tuple<String, Map<String, Object>> geoData = shardReader.read(indexName, "1.0.0.1");
+
+        assertTrue(shardReader.canRead(indexName));
+        assertEquals("1.0.0.0/24", geoData.v1());
+        assertEquals(Map.of("city", "seattle"), geoData.v2());
+    }
+
+    public void testRead_whenIpv6Matches_thenReturnGeoData() {
+        shardReader.afterIndexShardStarted(indexShard(indexName, IndexShardState.STARTED));
+
+        Tuple<String, Map<String, Object>> geoData = shardReader.read(indexName, "a:b::1");
+
+        assertEquals("a:b::/32", geoData.v1());
+        assertEquals(Map.of("city", "vancouver"), geoData.v2());
+    }
+
+    public void testRead_whenNoMatch_thenReturnEmptyGeoData() {
+        shardReader.afterIndexShardStarted(indexShard(indexName, IndexShardState.STARTED));
+
+        Tuple<String, Map<String, Object>> geoData = shardReader.read(indexName, "2.0.0.1");
+
+        assertNull(geoData.v1());
+        assertTrue(geoData.v2().isEmpty());
+    }
+
+    public void testRead_whenRecord_thenDecodeRecord() {
+        IndexShard indexShard = indexShard(indexName, IndexShardState.STARTED);
+        mockRecordFields(indexShard, List.of("country", "city"));
+        shardReader.afterIndexShardStarted(indexShard);
+
+        Tuple<String, Map<String, Object>> geoData = shardReader.read(indexName, "3.0.0.1");
+
+        assertEquals("3.0.0.0/24", geoData.v1());
+        assertEquals(Map.of("city", "portland"), geoData.v2());
+    }
+
+    public void testRead_whenRecordFieldsUnknown_thenReturnNull() {
+        IndexShard indexShard = indexShard(indexName, IndexShardState.STARTED);
+        mockRecordFields(indexShard, null);
+        shardReader.afterIndexShardStarted(indexShard);
+
+        assertNull(shardReader.read(indexName, "3.0.0.1"));
+    }
+
+    private void mockRecordFields(final IndexShard indexShard, final List<String> fields) {
+        MapperService mapperService = mock(MapperService.class);
+        DocumentMapper documentMapper = mock(DocumentMapper.class);
+        when(indexShard.mapperService()).thenReturn(mapperService);
+        when(mapperService.documentMapper()).thenReturn(documentMapper);
+        when(documentMapper.meta()).thenReturn(fields == null ? Collections.emptyMap() : Map.of("record_fields", fields));
+    }
+
+    public void testRead_whenNotGeoIpDataIndex_thenReturnNull() {
+        String otherIndexName = GeospatialTestHelper.randomLowerCaseString();
+        shardReader.afterIndexShardStarted(indexShard(otherIndexName, IndexShardState.STARTED));
+
+        assertFalse(shardReader.canRead(otherIndexName));
+        assertNull(shardReader.read(otherIndexName, "1.0.0.1"));
+    }
+
+    public void testRead_whenDisabled_thenReturnNull() {
+        shardReader.afterIndexShardStarted(indexShard(indexName, IndexShardState.STARTED));
+
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.LOCAL_SHARD_LOOKUP.getKey(), false).build());
+
+        assertFalse(shardReader.canRead(indexName));
+        assertNull(shardReader.read(indexName, "1.0.0.1"));
+    }
+
+    public void testRead_whenShardNotStarted_thenReturnNull() {
+        shardReader.afterIndexShardStarted(indexShard(indexName, IndexShardState.RELOCATED));
+
+        assertFalse(shardReader.canRead(indexName));
+        assertNull(shardReader.read(indexName, "1.0.0.1"));
+    }
+
+    public void testRead_whenShardClosed_thenReturnNull() {
+        IndexShard indexShard = indexShard(indexName, IndexShardState.STARTED);
+        shardReader.afterIndexShardStarted(indexShard);
+
+        shardReader.beforeIndexShardClosed(indexShard.shardId(), indexShard, Settings.EMPTY);
+
+        assertFalse(shardReader.canRead(indexName));
+        assertNull(shardReader.read(indexName, "1.0.0.1"));
+    }
+
+    public void testRead_whenSearcherAlreadyClosed_thenReturnNull() {
+        IndexShard indexShard = indexShard(indexName, IndexShardState.STARTED);
+        when(indexShard.acquireSearcher(any())).thenThrow(new AlreadyClosedException("closed"));
+        shardReader.afterIndexShardStarted(indexShard);
+
+        assertNull(shardReader.read(indexName, "1.0.0.1"));
+    }
+
+    private IndexShard indexShard(final String indexName, final IndexShardState state) {
+        IndexShard indexShard = mock(IndexShard.class);
+        when(indexShard.shardId()).thenReturn(new ShardId(indexName, GeospatialTestHelper.randomLowerCaseString(), 0));
+        when(indexShard.state()).thenReturn(state);
+        when(indexShard.acquireSearcher(any())).thenAnswer(
+            invocation -> new Engine.Searcher(
+                "test",
+                reader,
+                IndexSearcher.getDefaultSimilarity(),
+                IndexSearcher.getDefaultQueryCache(),
+                IndexSearcher.getDefaultQueryCachingPolicy(),
+                () -> {}
+            )
+        );
+        return indexShard;
+    }
+
+    private Document recordDocument(final String cidr, final String from, final String to, final String city) {
+        Document document = new Document();
+        document.add(
+            new InetAddressRange(GeoIpDataDao.IP_RANGE_FIELD_NAME, InetAddresses.forString(from), InetAddresses.forString(to))
+        );
+        document.add(new StoredField(GeoIpDataDao.RECORD_FIELD_NAME, GeoIpRecordCodec.encode(new String[] { cidr, "", city })));
+        return document;
+    }
+
+    private Document geoDataDocument(final String cidr, final String from, final String to, final String city) {
+        Document document = new Document();
+        document.add(
+            new InetAddressRange(GeoIpDataDao.IP_RANGE_FIELD_NAME, InetAddresses.forString(from), InetAddresses.forString(to))
+        );
+        String source = String.format(
+            Locale.ROOT,
+            "{\"%s\":\"%s\",\"%s\":{\"city\":\"%s\"}}",
+            GeoIpDataDao.IP_RANGE_FIELD_NAME,
+            cidr,
+            GeoIpDataDao.DATA_FIELD_NAME,
+            city
+        );
+        document.add(new StoredField(SourceFieldMapper.NAME, new BytesRef(source.getBytes(StandardCharsets.UTF_8))));
+        return document;
+    }
+}
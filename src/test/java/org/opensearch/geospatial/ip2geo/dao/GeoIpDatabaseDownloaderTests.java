@@ -0,0 +1,167 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.CheckedSupplier;
+import org.opensearch.geospatial.shared.Constants;
+import org.opensearch.test.OpenSearchTestCase;
+
+import lombok.SneakyThrows;
+
+public class GeoIpDatabaseDownloaderTests extends OpenSearchTestCase {
+    private static final String URL = "https://test.com/db.zip";
+
+    @SneakyThrows
+    public void testDownload_whenCompleted_thenVerifyHash() {
+        Path directory = createTempDir();
+        byte[] data = randomByteArrayOfLength(randomIntBetween(1, 200 * 1024));
+        URLConnection connection = connection(data);
+
+        // Run
+        Path path = new GeoIpDatabaseDownloader(directory, 0).download(URL, () -> connection, HexFormat.of().formatHex(sha256(data)));
+
+        // Verify
+        assertArrayEquals(data, Files.readAllBytes(path));
+        verify(connection).addRequestProperty(Constants.USER_AGENT_KEY, Constants.USER_AGENT_VALUE);
+        verify(connection, never()).setRequestProperty("Range", "bytes=0-");
+    }
+
+    @SneakyThrows
+    public void testDownload_whenInterrupted_thenResumeWithRangeRequest() {
+        byte[] data = randomByteArrayOfLength(200 * 1024);
+        int interruptedAt = randomIntBetween(1, data.length - 1);
+        HttpURLConnection interrupted = httpConnection(HttpURLConnection.HTTP_OK, Arrays.copyOf(data, interruptedAt), data.length);
+        HttpURLConnection resumed = httpConnection(
+            HttpURLConnection.HTTP_PARTIAL,
+            Arrays.copyOfRange(data, interruptedAt, data.length),
+            data.length - interruptedAt
+        );
+        when(resumed.getHeaderField("Content-Range")).thenReturn(
+            String.format(Locale.ROOT, "bytes %d-%d/%d", interruptedAt, data.length - 1, data.length)
+        );
+
+        // Run
+        Path path = new GeoIpDatabaseDownloader(createTempDir(), 0).download(
+            URL,
+            connections(interrupted, resumed),
+            Base64.getEncoder().encodeToString(sha256(data))
+        );
+
+        // Verify
+        assertArrayEquals(data, Files.readAllBytes(path));
+        verify(resumed).setRequestProperty("Range", String.format(Locale.ROOT, "bytes=%d-", interruptedAt));
+    }
+
+    @SneakyThrows
+    public void testDownload_whenRangeRequestIgnored_thenDownloadFromStart() {
+        byte[] data = randomByteArrayOfLength(200 * 1024);
+        int interruptedAt = randomIntBetween(1, data.length - 1);
+        HttpURLConnection interrupted = httpConnection(HttpURLConnection.HTTP_OK, Arrays.copyOf(data, interruptedAt), data.length);
+        HttpURLConnection restarted = httpConnection(HttpURLConnection.HTTP_OK, data, data.length);
+
+        // Run
+        Path path = new GeoIpDatabaseDownloader(createTempDir(), 0).download(
+            URL,
+            connections(interrupted, restarted),
+            Base64.getEncoder().encodeToString(sha256(data))
+        );
+
+        // Verify
+        assertArrayEquals(data, Files.readAllBytes(path));
+    }
+
+    @SneakyThrows
+    public void testDownload_whenHashMismatch_thenExceptionAndDeleteFile() {
+        Path directory = createTempDir();
+        byte[] data = randomByteArrayOfLength(1024);
+        URLConnection connection = connection(data);
+        String hash = Base64.getEncoder().encodeToString(sha256(randomByteArrayOfLength(1024)));
+
+        // Run
+        OpenSearchException e = expectThrows(
+            OpenSearchException.class,
+            () -> new GeoIpDatabaseDownloader(directory, 0).download(URL, () -> connection, hash)
+        );
+
+        // Verify
+        assertTrue(e.getMessage().contains("does not match"));
+        assertNoFiles(directory);
+    }
+
+    @SneakyThrows
+    public void testDownload_whenAlwaysFailing_thenExceptionAndDeleteFile() {
+        Path directory = createTempDir();
+        URLConnection connection = mock(URLConnection.class);
+        when(connection.getInputStream()).thenThrow(new IOException("connection reset"));
+
+        // Run
+        IOException e = expectThrows(
+            IOException.class,
+            () -> new GeoIpDatabaseDownloader(directory, 0).download(URL, () -> connection, "fake_sha256")
+        );
+
+        // Verify
+        assertEquals("connection reset", e.getMessage());
+        verify(connection, times(GeoIpDatabaseDownloader.MAX_ATTEMPTS)).getInputStream();
+        assertNoFiles(directory);
+    }
+
+    @SneakyThrows
+    private URLConnection connection(final byte[] data) {
+        URLConnection connection = mock(URLConnection.class);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(data));
+        when(connection.getContentLengthLong()).thenReturn((long) data.length);
+        return connection;
+    }
+
+    @SneakyThrows
+    private HttpURLConnection httpConnection(final int responseCode, final byte[] data, final long contentLength) {
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(data));
+        when(connection.getContentLengthLong()).thenReturn(contentLength);
+        when(connection.getResponseCode()).thenReturn(responseCode);
+        return connection;
+    }
+
+    private CheckedSupplier<URLConnection, IOException> connections(final URLConnection... connections) {
+        Iterator<URLConnection> iterator = List.of(connections).iterator();
+        return iterator::next;
+    }
+
+    @SneakyThrows
+    private byte[] sha256(final byte[] data) {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+
+    @SneakyThrows
+    private void assertNoFiles(final Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoIpRecordCodecTests extends OpenSearchTestCase {
+    public void testDecode_whenEncoded_thenReturnSameValues() {
+        byte[] record = GeoIpRecordCodec.encode(new String[] { "1.0.0.0/24", "Australia", "Sydney", "-33.8,151.2" });
+
+        Tuple<String, Map<String, Object>> decoded = GeoIpRecordCodec.decode(
+            new BytesRef(record),
+            List.of("country_name", "city_name", "location")
+        );
+
+        assertEquals("1.0.0.0/24", decoded.v1());
+        assertEquals(Map.of("country_name", "Australia", "city_name", "Sydney", "location", "-33.8,151.2"), decoded.v2());
+    }
+
+    public void testDecode_whenBlankValues_thenSkipThem() {
+        byte[] record = GeoIpRecordCodec.encode(new String[] { "a:b::/32", " ", "Zürich", "" });
+
+        Tuple<String, Map<String, Object>> decoded = GeoIpRecordCodec.decode(
+            new BytesRef(record),
+            List.of("country_name", "city_name", "location")
+        );
+
+        assertEquals("a:b::/32", decoded.v1());
+        assertEquals(Map.of("city_name", "Zürich"), decoded.v2());
+    }
+
+    public void testDecode_whenAllValuesBlank_thenReturnEmptyGeoData() {
+        byte[] record = GeoIpRecordCodec.encode(new String[] { "1.0.0.0/24", "" });
+
+        assertEquals(Collections.emptyMap(), GeoIpRecordCodec.decode(new BytesRef(record), List.of("country_name")).v2());
+    }
+
+    public void testDecode_whenOffset_thenDecodeSlice() {
+        byte[] record = GeoIpRecordCodec.encode(new String[] { "1.0.0.0/24", "Australia" });
+        byte[] padded = new byte[record.length + 4];
+        System.arraycopy(record, 0, padded, 2, record.length);
+
+        Tuple<String, Map<String, Object>> decoded = GeoIpRecordCodec.decode(
+            new BytesRef(padded, 2, record.length),
+            List.of("country_name")
+        );
+
+        assertEquals(Map.of("country_name", "Australia"), decoded.v2());
+    }
+
+    public void testDecode_whenFieldCountDoesNotMatch_thenException() {
+        byte[] record = GeoIpRecordCodec.encode(new String[] { "1.0.0.0/24", "Australia" });
+
+        expectThrows(OpenSearchException.class, () -> GeoIpRecordCodec.decode(new BytesRef(record), List.of("country_name", "city")));
+    }
+}
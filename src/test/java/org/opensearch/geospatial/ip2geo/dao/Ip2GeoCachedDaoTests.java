@@ -6,7 +6,10 @@
 package org.opensearch.geospatial.ip2geo.dao;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,18 +19,39 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.OpenSearchTimeoutException;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.network.NetworkAddress;
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.index.Index;
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.rest.RestStatus;
 import org.opensearch.geospatial.GeospatialTestHelper;
 import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCache;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataCacheStats;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataDictionary;
+import org.opensearch.geospatial.ip2geo.cache.GeoDataDiskTier;
 import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
 import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookup;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpRangeTable;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.engine.Engine;
 
@@ -38,12 +62,19 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
     @Before
     public void init() {
-        ip2GeoCachedDao = new Ip2GeoCachedDao(clusterService, datasourceDao, geoIpDataDao);
+        ip2GeoCachedDao = new Ip2GeoCachedDao(
+            clusterService,
+            datasourceDao,
+            geoIpDataDao,
+            geoIpLookupRegistry,
+            new GeoDataDiskTier(clusterSettings, null),
+            ip2GeoExecutor
+        );
     }
 
     public void testGetIndexName_whenCalled_thenReturnIndexName() throws IOException {
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         // Run
         String indexName = ip2GeoCachedDao.getIndexName(datasource.getName());
@@ -55,51 +86,63 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
     }
 
     public void testGetIndexName_whenIndexNotFound_thenReturnNull() throws IOException {
-        when(datasourceDao.getAllDatasources()).thenThrow(new IndexNotFoundException("not found"));
+        mockGetAllDatasourcesFailure(new IndexNotFoundException("not found"));
 
         // Run
         String indexName = ip2GeoCachedDao.getIndexName(GeospatialTestHelper.randomLowerCaseString());
 
         // Verify
         assertNull(indexName);
-        // Verify datasource refresh is triggered
-        verify(datasourceDao, times(1)).getDatasource(any());
+        // Verify datasource refresh is triggered in the background
+        verify(datasourceDao, times(1)).getDatasource(any(), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
     }
 
-    public void testGetIndexName_whenIndexNotFoundAndFoundAfterRefresh_thenReturnNull() throws IOException {
+    public void testGetIndexName_whenIndexNotFoundAndFoundAfterRefresh_thenReturnIndexNameOnNextCall() throws IOException {
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getAllDatasources()).thenThrow(new IndexNotFoundException("not found"));
-        when(datasourceDao.getDatasource(any())).thenReturn(datasource);
+        mockGetAllDatasourcesFailure(new IndexNotFoundException("not found"));
+        doAnswer(invocation -> {
+            ActionListener<Datasource> listener = invocation.getArgument(1);
+            listener.onResponse(datasource);
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
 
         // Run
-        String indexName = ip2GeoCachedDao.getIndexName(GeospatialTestHelper.randomLowerCaseString());
+        String indexName = ip2GeoCachedDao.getIndexName(datasource.getName());
+
+        // Verify the caller is served from the snapshot
+        assertNull(indexName);
+
+        // Run
+        indexName = ip2GeoCachedDao.getIndexName(datasource.getName());
 
         // Verify
         assertEquals(datasource.currentIndexName(), indexName);
-        // Verify datasource refresh is triggered
-        verify(datasourceDao, times(1)).getDatasource(any());
+        verify(datasourceDao, times(1)).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
     }
 
     public void testIsExpired_whenExpired_thenReturnTrue() throws IOException {
         Datasource datasource = randomDatasource();
         datasource.getUpdateStats().setLastSucceededAt(Instant.MIN);
         datasource.getUpdateStats().setLastSkippedAt(null);
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         // Run
         boolean isExpired = ip2GeoCachedDao.isExpired(datasource.getName());
 
         // Verify
         assertTrue(isExpired);
-        // Verify datasource refresh is triggered
-        verify(datasourceDao, times(1)).getDatasource(any());
+        // Verify datasource refresh is triggered in the background
+        verify(datasourceDao, times(1)).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
     }
 
     public void testIsExpired_whenNotExpired_thenReturnFalse() throws IOException {
         Datasource datasource = randomDatasource();
         datasource.getUpdateStats().setLastSucceededAt(Instant.now());
         datasource.getUpdateStats().setLastSkippedAt(null);
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         // Run
         boolean isExpired = ip2GeoCachedDao.isExpired(datasource.getName());
@@ -112,7 +155,7 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
     public void testHas_whenHasDatasource_thenReturnTrue() throws IOException {
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         // Run
         boolean hasDatasource = ip2GeoCachedDao.has(datasource.getName());
@@ -125,7 +168,7 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
     public void testHas_whenNoDatasource_thenReturnFalse() throws IOException {
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         String datasourceName = GeospatialTestHelper.randomLowerCaseString();
         // Run
@@ -133,14 +176,15 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
         // Verify
         assertFalse(hasDatasource);
-        // Verify datasource refresh is triggered
-        verify(datasourceDao, times(1)).getDatasource(any());
+        // Verify datasource refresh is triggered in the background
+        verify(datasourceDao, times(1)).getDatasource(eq(datasourceName), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
     }
 
     public void testGetState_whenCalled_thenReturnState() throws IOException {
         Datasource datasource = randomDatasource();
         datasource.setState(DatasourceState.AVAILABLE);
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         // Run
         DatasourceState state = ip2GeoCachedDao.getState(datasource.getName());
@@ -151,6 +195,82 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
         verify(datasourceDao, times(0)).getDatasource(any());
     }
 
+    public void testGetLookup_whenLoaded_thenReturnLookup() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.getUpdateStats().setLastSucceededAt(Instant.now());
+        datasource.getUpdateStats().setLastSkippedAt(null);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        GeoIpRangeTable table = GeoIpRangeTable.builder(datasource.currentIndexName()).add("1.0.0.0/24", Map.of("city", "Seattle")).build();
+        when(geoIpLookupRegistry.isEnabled(datasource.getName())).thenReturn(true);
+        when(geoIpLookupRegistry.acquire(datasource.getName(), datasource.currentIndexName())).thenReturn(table);
+
+        // Run
+        GeoIpLookup lookup = ip2GeoCachedDao.getLookup(datasource.getName());
+
+        // Verify
+        assertSame(table, lookup);
+    }
+
+    public void testGetLookup_whenNotEnabled_thenException() throws IOException {
+        Datasource datasource = randomDatasource();
+        mockGetAllDatasources(Arrays.asList(datasource));
+
+        // Run
+        Exception e = expectThrows(IllegalArgumentException.class, () -> ip2GeoCachedDao.getLookup(datasource.getName()));
+
+        // Verify
+        assertTrue(e.getMessage().contains(Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES.getKey()));
+    }
+
+    public void testGetLookup_whenNotLoaded_thenException() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.getUpdateStats().setLastSucceededAt(Instant.now());
+        datasource.getUpdateStats().setLastSkippedAt(null);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        when(geoIpLookupRegistry.isEnabled(datasource.getName())).thenReturn(true);
+
+        // Run
+        OpenSearchStatusException e = expectThrows(OpenSearchStatusException.class, () -> ip2GeoCachedDao.getLookup(datasource.getName()));
+
+        // Verify
+        assertEquals(RestStatus.SERVICE_UNAVAILABLE, e.status());
+    }
+
+    public void testGetLookup_whenNoDatasource_thenException() throws IOException {
+        mockGetAllDatasources(Collections.emptyList());
+
+        // Run
+        expectThrows(ResourceNotFoundException.class, () -> ip2GeoCachedDao.getLookup(GeospatialTestHelper.randomLowerCaseString()));
+    }
+
+    public void testGetLookup_whenExpired_thenRefreshInBackground() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.getUpdateStats().setLastSucceededAt(Instant.MIN);
+        datasource.getUpdateStats().setLastSkippedAt(null);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        when(geoIpLookupRegistry.isEnabled(datasource.getName())).thenReturn(true);
+
+        // Run
+        for (int i = 0; i < 2; i++) {
+            OpenSearchStatusException e = expectThrows(
+                OpenSearchStatusException.class,
+                () -> ip2GeoCachedDao.getLookup(datasource.getName())
+            );
+            assertEquals(RestStatus.SERVICE_UNAVAILABLE, e.status());
+        }
+
+        // Verify a single refresh is in flight and no caller blocked on it
+        verify(datasourceDao, times(1)).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
+    }
+
+    public void testGetIndexName_whenMetadataNotLoaded_thenWaitUpToTimeout() {
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.TIMEOUT.getKey(), "1s").build());
+
+        // Run
+        expectThrows(OpenSearchTimeoutException.class, () -> ip2GeoCachedDao.getIndexName(GeospatialTestHelper.randomLowerCaseString()));
+    }
+
     public void testGetGeoData_whenCalled_thenReturnGeoData() throws IOException {
         Datasource datasource = randomDatasource();
         String ip = NetworkAddress.format(randomIp(false));
@@ -166,6 +286,506 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
         verify(datasourceDao, times(0)).getDatasource(any());
     }
 
+    public void testGetGeoData_whenLookupTableLoaded_thenReturnGeoDataFromTable() throws IOException {
+        Datasource datasource = randomDatasource();
+        GeoIpRangeTable table = GeoIpRangeTable.builder(datasource.currentIndexName()).add("1.0.0.0/24", Map.of("city", "Seattle")).build();
+        when(geoIpLookupRegistry.acquire(datasource.getName(), datasource.currentIndexName())).thenReturn(table);
+
+        // Run
+        Map<String, Object> geoData = ip2GeoCachedDao.getGeoData(datasource.currentIndexName(), "1.0.0.1", datasource.getName());
+
+        // Verify
+        assertEquals(Map.of("city", "Seattle"), geoData);
+        verify(geoIpDataDao, never()).getGeoIpData(any(), any());
+    }
+
+    public void testGetGeoData_whenLookupAcquired_thenReleaseIt() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        GeoIpLookup lookup = mock(GeoIpLookup.class);
+        when(lookup.lookup("1.0.0.1")).thenReturn(Map.of("city", "Seattle"));
+        when(geoIpLookupRegistry.acquire(datasource.getName(), indexName)).thenReturn(lookup);
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1"), datasource.getName());
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), mock(ActionListener.class));
+        ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1"), datasource.getName(), mock(ActionListener.class));
+
+        // Verify
+        verify(lookup, times(4)).release();
+    }
+
+    public void testGetBatchGeoData_whenCalled_thenDedupeAndServeHitsFromCache() throws IOException {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getBatchGeoIpData(eq(indexName), any())).thenReturn(
+            Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap())
+        );
+
+        // Run
+        Map<String, Map<String, Object>> geoData = ip2GeoCachedDao.getBatchGeoData(
+            indexName,
+            Arrays.asList("1.0.0.1", "2.0.0.1", "1.0.0.1"),
+            datasource.getName()
+        );
+
+        // Verify
+        assertEquals(Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap()), geoData);
+        verify(geoIpDataDao).getBatchGeoIpData(indexName, new LinkedHashSet<>(Arrays.asList("1.0.0.1", "2.0.0.1")));
+
+        // Run with a cache miss
+        when(geoIpDataDao.getBatchGeoIpData(eq(indexName), any())).thenReturn(Map.of("3.0.0.1", Map.of("city", "Sydney")));
+        geoData = ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1", "3.0.0.1"), datasource.getName());
+
+        // Verify only the cache miss is requested
+        assertEquals(Map.of("1.0.0.1", Map.of("city", "Seattle"), "3.0.0.1", Map.of("city", "Sydney")), geoData);
+        verify(geoIpDataDao).getBatchGeoIpData(indexName, new LinkedHashSet<>(Arrays.asList("3.0.0.1")));
+        verify(geoIpDataDao, never()).getGeoIpData(any(), any());
+    }
+
+    public void testGetBatchGeoData_whenLookupTableLoaded_thenReturnGeoDataFromTable() throws IOException {
+        Datasource datasource = randomDatasource();
+        GeoIpRangeTable table = GeoIpRangeTable.builder(datasource.currentIndexName()).add("1.0.0.0/24", Map.of("city", "Seattle")).build();
+        when(geoIpLookupRegistry.acquire(datasource.getName(), datasource.currentIndexName())).thenReturn(table);
+
+        // Run
+        Map<String, Map<String, Object>> geoData = ip2GeoCachedDao.getBatchGeoData(
+            datasource.currentIndexName(),
+            Arrays.asList("1.0.0.1", "2.0.0.1"),
+            datasource.getName()
+        );
+
+        // Verify
+        assertEquals(Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap()), geoData);
+        verify(geoIpDataDao, never()).getBatchGeoIpData(any(), any());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenAvailable_thenRespondWithoutRefresh() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.AVAILABLE);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        ip2GeoCachedDao.has(datasource.getName());
+        ActionListener<DatasourceMetadata> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener);
+
+        // Verify
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(datasource.currentIndexName(), captor.getValue().getIndexName());
+        assertEquals(DatasourceState.AVAILABLE, captor.getValue().getState());
+        verify(ip2GeoExecutor, never()).forLookup();
+        verify(datasourceDao, never()).getDatasource(any(), any());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenNotExist_thenRefreshAsynchronously() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.AVAILABLE);
+        mockGetAllDatasources(Collections.emptyList());
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onResponse(datasource);
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener);
+
+        // Verify
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(datasource.currentIndexName(), captor.getValue().getIndexName());
+        verify(datasourceDao, never()).getDatasource(any());
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenRefreshFailed_thenRespondWithLastKnownMetadata() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.CREATING);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onFailure(new RuntimeException("failed"));
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener);
+
+        // Verify
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(DatasourceState.CREATING, captor.getValue().getState());
+        verify(listener, never()).onFailure(any());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenRefreshFailedWithoutMetadata_thenFail() throws IOException {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        mockGetAllDatasources(Collections.emptyList());
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onFailure(new RuntimeException("failed"));
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasourceName), any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasourceName, listener);
+
+        // Verify
+        verify(listener).onFailure(any(RuntimeException.class));
+        verify(listener, never()).onResponse(any());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenRefreshInFlight_thenShareSingleRequest() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.AVAILABLE);
+        mockGetAllDatasources(Collections.emptyList());
+        List<ActionListener<Datasource>> datasourceListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            datasourceListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener1 = mock(ActionListener.class);
+        ActionListener<DatasourceMetadata> listener2 = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener1);
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener2);
+        assertEquals(1, datasourceListeners.size());
+        datasourceListeners.get(0).onResponse(datasource);
+
+        // Verify
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener1).onResponse(captor.capture());
+        verify(listener2).onResponse(captor.capture());
+        assertEquals(datasource.currentIndexName(), captor.getAllValues().get(0).getIndexName());
+        assertSame(captor.getAllValues().get(0), captor.getAllValues().get(1));
+
+        // A refresh after the previous one completed sends a new request
+        ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+        when(event.indicesDeleted()).thenReturn(Arrays.asList(new Index(datasource.currentIndexName(), UUID.randomUUID().toString())));
+        ip2GeoCachedDao.clusterChanged(event);
+        assertEquals(2, datasourceListeners.size());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenNotLoaded_thenLoadOnceWithoutBlocking() {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.AVAILABLE);
+        List<ActionListener<List<Datasource>>> loadListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            loadListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener1 = mock(ActionListener.class);
+        ActionListener<DatasourceMetadata> listener2 = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener1);
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener2);
+
+        // Verify the calling thread returns before the metadata is loaded and a single load is in flight
+        assertEquals(1, loadListeners.size());
+        verify(listener1, never()).onResponse(any());
+        verify(listener2, never()).onResponse(any());
+
+        // Run
+        loadListeners.get(0).onResponse(Arrays.asList(datasource));
+
+        // Verify
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener1).onResponse(captor.capture());
+        verify(listener2).onResponse(captor.capture());
+        assertEquals(datasource.currentIndexName(), captor.getAllValues().get(0).getIndexName());
+        assertEquals(datasource.currentIndexName(), captor.getAllValues().get(1).getIndexName());
+        verify(datasourceDao, never()).getAllDatasources();
+        verify(datasourceDao, never()).getDatasource(any(), any(ActionListener.class));
+    }
+
+    @SneakyThrows
+    public void testRefreshDatasourceIfNeeded_whenLoadRacedWithUpdate_thenReload() {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.AVAILABLE);
+        List<ActionListener<List<Datasource>>> loadListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            loadListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+        ActionListener<DatasourceMetadata> listener = mock(ActionListener.class);
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), listener);
+
+        // Run
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.source()).thenReturn(BytesReference.bytes(datasource.toXContent(XContentFactory.jsonBuilder(), null)));
+        Engine.IndexResult result = mock(Engine.IndexResult.class);
+        when(result.getResultType()).thenReturn(Engine.Result.Type.SUCCESS);
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, result);
+        loadListeners.get(0).onResponse(Collections.emptyList());
+
+        // Verify the outdated load result is discarded and the metadata is loaded again
+        assertEquals(2, loadListeners.size());
+        verify(listener, never()).onResponse(any());
+        loadListeners.get(1).onResponse(Arrays.asList(datasource));
+        ArgumentCaptor<DatasourceMetadata> captor = ArgumentCaptor.forClass(DatasourceMetadata.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(datasource.currentIndexName(), captor.getValue().getIndexName());
+    }
+
+    public void testRefreshDatasourceIfNeeded_whenRefreshFailed_thenKeepMetadataWhileReloading() throws IOException {
+        Datasource datasource = randomDatasource();
+        datasource.setState(DatasourceState.CREATING);
+        mockGetAllDatasources(Arrays.asList(datasource));
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onFailure(new RuntimeException("failed"));
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        List<ActionListener<List<Datasource>>> reloadListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            reloadListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+
+        // Run
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), mock(ActionListener.class));
+        ip2GeoCachedDao.refreshDatasourceIfNeeded(datasource.getName(), mock(ActionListener.class));
+
+        // Verify a single reload is in flight and the last known metadata is served meanwhile
+        assertEquals(1, reloadListeners.size());
+        assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+
+        // Verify the reloaded metadata is published
+        Datasource reloaded = randomDatasource();
+        reloaded.setName(datasource.getName());
+        reloadListeners.get(0).onResponse(Arrays.asList(reloaded));
+        assertEquals(reloaded.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+        verify(datasourceDao, times(2)).getAllDatasources(any(ActionListener.class));
+    }
+
+    @SneakyThrows
+    public void testPostIndex_whenReloadFailed_thenRetryBoundedTimes() {
+        Datasource datasource = randomDatasource();
+        mockGetAllDatasources(Arrays.asList(datasource));
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        doAnswer(invocation -> {
+            ActionListener<List<Datasource>> listener = invocation.getArgument(0);
+            listener.onFailure(new RuntimeException("failed"));
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+        doAnswer(invocation -> {
+            Runnable command = invocation.getArgument(0);
+            command.run();
+            return null;
+        }).when(ip2GeoExecutor).scheduleLookup(any(Runnable.class), any(TimeValue.class));
+        Engine.Index index = mock(Engine.Index.class);
+
+        // Run
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, new Exception());
+
+        // Verify
+        verify(datasourceDao, times(Ip2GeoCachedDao.MAX_METADATA_RELOAD_ATTEMPTS)).getAllDatasources(any(ActionListener.class));
+        verify(ip2GeoExecutor, times(Ip2GeoCachedDao.MAX_METADATA_RELOAD_ATTEMPTS - 1)).scheduleLookup(
+            any(Runnable.class),
+            any(TimeValue.class)
+        );
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+
+        // Verify a later invalidation starts a new reload
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, new Exception());
+        verify(datasourceDao, times(2 * Ip2GeoCachedDao.MAX_METADATA_RELOAD_ATTEMPTS)).getAllDatasources(any(ActionListener.class));
+    }
+
+    @SneakyThrows
+    public void testPostIndex_whenReloadRacedWithUpdate_thenRetry() {
+        Datasource datasource = randomDatasource();
+        Datasource other = randomDatasource();
+        mockGetAllDatasources(Arrays.asList(other));
+        assertTrue(ip2GeoCachedDao.has(other.getName()));
+        List<ActionListener<List<Datasource>>> reloadListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            reloadListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+        doAnswer(invocation -> {
+            Runnable command = invocation.getArgument(0);
+            command.run();
+            return null;
+        }).when(ip2GeoExecutor).scheduleLookup(any(Runnable.class), any(TimeValue.class));
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), mock(Engine.Index.class), new Exception());
+        assertEquals(1, reloadListeners.size());
+
+        // Run
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.source()).thenReturn(BytesReference.bytes(datasource.toXContent(XContentFactory.jsonBuilder(), null)));
+        Engine.IndexResult result = mock(Engine.IndexResult.class);
+        when(result.getResultType()).thenReturn(Engine.Result.Type.SUCCESS);
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, result);
+        reloadListeners.get(0).onResponse(Collections.emptyList());
+
+        // Verify the outdated reload result is discarded and the reload is retried
+        assertEquals(2, reloadListeners.size());
+        assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+        reloadListeners.get(1).onResponse(Arrays.asList(datasource));
+        assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+        verify(datasourceDao, never()).getDatasource(any());
+    }
+
+    public void testClusterChanged_whenCurrentIndexDeleted_thenRefreshInBackground() throws IOException {
+        Datasource datasource = randomDatasource();
+        String oldIndexName = datasource.currentIndexName();
+        mockGetAllDatasources(Arrays.asList(datasource));
+        assertEquals(oldIndexName, ip2GeoCachedDao.getIndexName(datasource.getName()));
+        Datasource updated = randomDatasource();
+        updated.setName(datasource.getName());
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onResponse(updated);
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+        when(event.indicesDeleted()).thenReturn(Arrays.asList(new Index(oldIndexName, UUID.randomUUID().toString())));
+
+        // Run
+        ip2GeoCachedDao.clusterChanged(event);
+
+        // Verify
+        assertEquals(updated.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
+        verify(datasourceDao, never()).getDatasource(any());
+    }
+
+    public void testClusterChanged_whenOtherIndexDeleted_thenDoNotRefresh() throws IOException {
+        Datasource datasource = randomDatasource();
+        mockGetAllDatasources(Arrays.asList(datasource));
+        ip2GeoCachedDao.has(datasource.getName());
+        ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+        when(event.indicesDeleted()).thenReturn(Arrays.asList(new Index(GeospatialTestHelper.randomLowerCaseString(), "uuid")));
+
+        // Run
+        ip2GeoCachedDao.clusterChanged(event);
+
+        // Verify
+        verify(datasourceDao, never()).getDatasource(any(), any(ActionListener.class));
+    }
+
+    public void testGetGeoDataAsync_whenCacheMiss_thenSearchAsynchronouslyAndCache() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Object>> searchListener = invocation.getArgument(2);
+            searchListener.onResponse(Map.of("city", "Seattle"));
+            return null;
+        }).when(geoIpDataDao).getGeoIpData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), listener);
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), listener);
+
+        // Verify the second call is served from the cache
+        verify(listener, times(2)).onResponse(Map.of("city", "Seattle"));
+        verify(geoIpDataDao, times(1)).getGeoIpData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+        verify(geoIpDataDao, never()).getGeoIpData(any(), any());
+    }
+
+    public void testGetGeoDataAsync_whenCacheMiss_thenCountLookupOnce() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        List<ActionListener<Map<String, Object>>> searchListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            searchListeners.add(invocation.getArgument(2));
+            return null;
+        }).when(geoIpDataDao).getGeoIpData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), mock(ActionListener.class));
+        searchListeners.get(0).onResponse(Map.of("city", "Seattle"));
+
+        // Verify
+        GeoDataCacheStats stats = ip2GeoCachedDao.getCacheStats().get(datasource.getName());
+        assertEquals(0, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+
+        // Run two concurrent lookups of another ip address, where the second one finds the geo data loaded by the first one
+        doAnswer(invocation -> {
+            searchListeners.add(invocation.getArgument(2));
+            return null;
+        }).when(geoIpDataDao).getGeoIpData(eq(indexName), eq("2.0.0.1"), any(ActionListener.class));
+        ip2GeoCachedDao.getGeoData(indexName, "2.0.0.1", datasource.getName(), mock(ActionListener.class));
+        ip2GeoCachedDao.getGeoData(indexName, "2.0.0.1", datasource.getName(), mock(ActionListener.class));
+        searchListeners.get(1).onResponse(Map.of("city", "Sydney"));
+        searchListeners.get(2).onResponse(Map.of("city", "Sydney"));
+
+        // Verify
+        stats = ip2GeoCachedDao.getCacheStats().get(datasource.getName());
+        assertEquals(0, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "2.0.0.1", datasource.getName(), mock(ActionListener.class));
+
+        // Verify
+        stats = ip2GeoCachedDao.getCacheStats().get(datasource.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+    }
+
+    public void testGetGeoDataAsync_whenFailed_thenRefreshAndFail() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Object>> searchListener = invocation.getArgument(2);
+            searchListener.onFailure(new RuntimeException("error"));
+            return null;
+        }).when(geoIpDataDao).getGeoIpData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+        doAnswer(invocation -> {
+            ActionListener<Datasource> datasourceListener = invocation.getArgument(1);
+            datasourceListener.onResponse(datasource);
+            return null;
+        }).when(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), listener);
+
+        // Verify
+        verify(listener).onFailure(any(RuntimeException.class));
+        verify(listener, never()).onResponse(any());
+        verify(geoIpDataDao, times(2)).getGeoIpData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+        // Verify the datasource is refreshed without blocking the calling thread
+        verify(datasourceDao).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
+    }
+
+    public void testGetBatchGeoDataAsync_whenCacheMiss_thenMultiSearchAsynchronously() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Map<String, Object>>> searchListener = invocation.getArgument(2);
+            searchListener.onResponse(Map.of("1.0.0.1", Map.of("city", "Seattle")));
+            return null;
+        }).when(geoIpDataDao).getBatchGeoIpData(eq(indexName), any(), any(ActionListener.class));
+        ActionListener<Map<String, Map<String, Object>>> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1", "2.0.0.1", "1.0.0.1"), datasource.getName(), listener);
+
+        // Verify
+        verify(listener).onResponse(Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap()));
+        verify(geoIpDataDao).getBatchGeoIpData(
+            eq(indexName),
+            eq(new LinkedHashSet<>(Arrays.asList("1.0.0.1", "2.0.0.1"))),
+            any(ActionListener.class)
+        );
+        verify(geoIpDataDao, never()).getBatchGeoIpData(any(), any());
+    }
+
     public void testGetGeoData_whenFailed_thenException() throws IOException {
         Datasource datasource = randomDatasource();
         String ip = NetworkAddress.format(randomIp(false));
@@ -173,23 +793,41 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
         // Run
         assertThrows(RuntimeException.class, () -> ip2GeoCachedDao.getGeoData(datasource.currentIndexName(), ip, datasource.getName()));
+        assertThrows(RuntimeException.class, () -> ip2GeoCachedDao.getGeoData(datasource.currentIndexName(), ip, datasource.getName()));
 
-        // Verify datasource refresh is triggered
-        verify(datasourceDao, times(1)).getDatasource(any());
+        // Verify a single datasource refresh is triggered in the background
+        verify(datasourceDao, times(1)).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
+    }
+
+    public void testGetBatchGeoData_whenFailed_thenRefreshInBackground() throws IOException {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getBatchGeoIpData(eq(indexName), any())).thenThrow(new RuntimeException("error"));
+
+        // Run
+        assertThrows(
+            RuntimeException.class,
+            () -> ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1", "2.0.0.1"), datasource.getName())
+        );
+
+        // Verify
+        verify(geoIpDataDao, times(2)).getBatchGeoIpData(eq(indexName), any());
+        verify(datasourceDao, times(1)).getDatasource(eq(datasource.getName()), any(ActionListener.class));
+        verify(datasourceDao, never()).getDatasource(any());
     }
 
     @SneakyThrows
-    public void testPostIndex_whenFailed_thenResetMetadataToForcePullDataFromIndex() {
+    public void testPostIndex_whenFailed_thenReloadMetadataInBackground() {
         Datasource datasource = randomDatasource();
 
         // At the beginning we don't have the new datasource in the system index and the cache metadata
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList());
+        mockGetAllDatasources(Arrays.asList());
         // Verify we don't have the new datasource
         assertFalse(ip2GeoCachedDao.has(datasource.getName()));
 
         // Mock the new datasource is added to the system index
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
-        when(datasourceDao.getDatasource(datasource.getName())).thenReturn(datasource);
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         ShardId shardId = mock(ShardId.class);
         Engine.Index index = mock(Engine.Index.class);
@@ -205,20 +843,21 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
         assertTrue(ip2GeoCachedDao.has(datasource.getName()));
         assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
         assertEquals(datasource.getState(), ip2GeoCachedDao.getState(datasource.getName()));
+        // Verify the metadata is loaded once and reloaded once
+        verify(datasourceDao, times(2)).getAllDatasources(any(ActionListener.class));
     }
 
     @SneakyThrows
-    public void testPostIndex_whenException_thenResetMetadataToForcePullDataFromIndex() {
+    public void testPostIndex_whenException_thenReloadMetadataInBackground() {
         Datasource datasource = randomDatasource();
 
         // At the beginning we don't have the new datasource in the system index and the cache metadata
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList());
+        mockGetAllDatasources(Arrays.asList());
         // Verify we don't have the new datasource
         assertFalse(ip2GeoCachedDao.has(datasource.getName()));
 
         // Mock the new datasource is added to the system index
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
-        when(datasourceDao.getDatasource(datasource.getName())).thenReturn(datasource);
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         ShardId shardId = mock(ShardId.class);
         Engine.Index index = mock(Engine.Index.class);
@@ -232,13 +871,14 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
         assertTrue(ip2GeoCachedDao.has(datasource.getName()));
         assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
         assertEquals(datasource.getState(), ip2GeoCachedDao.getState(datasource.getName()));
+        // Verify the metadata is loaded once and reloaded once
+        verify(datasourceDao, times(2)).getAllDatasources(any(ActionListener.class));
     }
 
     @SneakyThrows
     public void testPostIndex_whenSucceed_thenUpdate() {
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList());
+        mockGetAllDatasources(Arrays.asList());
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getDatasource(datasource.getName())).thenReturn(datasource);
 
         ShardId shardId = mock(ShardId.class);
         Engine.Index index = mock(Engine.Index.class);
@@ -255,18 +895,79 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
         assertFalse(ip2GeoCachedDao.isExpired(datasource.getName()));
         assertEquals(datasource.currentIndexName(), ip2GeoCachedDao.getIndexName(datasource.getName()));
         assertEquals(datasource.getState(), ip2GeoCachedDao.getState(datasource.getName()));
+        verify(geoIpLookupRegistry).load(datasource.getName(), datasource.currentIndexName());
     }
 
-    public void testPostDelete_whenFailed_thenResetMetadataToForcePullDataFromIndex() {
+    @SneakyThrows
+    public void testPostIndex_whenIndexSwitched_thenWarmUpCacheWithHotIps() {
+        Datasource datasource = randomDatasource();
+        String oldIndexName = datasource.currentIndexName();
+        mockGetAllDatasources(Arrays.asList(datasource));
+        when(geoIpDataDao.getGeoIpData(eq(oldIndexName), any())).thenReturn(Map.of("city", "Seattle"));
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        for (String ip : Arrays.asList("1.0.0.1", "1.0.0.1", "2.0.0.1", "2.0.0.1", "2.0.0.1")) {
+            ip2GeoCachedDao.getGeoData(oldIndexName, ip, datasource.getName());
+        }
+
+        String newIndexName = datasource.newIndexName(UUID.randomUUID().toString());
+        datasource.setCurrentIndex(newIndexName);
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Map<String, Object>>> listener = invocation.getArgument(2);
+            listener.onResponse(Map.of("1.0.0.1", Map.of("city", "Sydney"), "2.0.0.1", Map.of("city", "Sydney")));
+            return null;
+        }).when(geoIpDataDao).getBatchGeoIpData(eq(newIndexName), any(), any(ActionListener.class));
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.source()).thenReturn(BytesReference.bytes(datasource.toXContent(XContentFactory.jsonBuilder(), null)));
+        Engine.IndexResult result = mock(Engine.IndexResult.class);
+        when(result.getResultType()).thenReturn(Engine.Result.Type.SUCCESS);
+
+        // Run
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, result);
+
+        // Verify
+        verify(geoIpDataDao).getBatchGeoIpData(
+            eq(newIndexName),
+            eq(new LinkedHashSet<>(Arrays.asList("2.0.0.1", "1.0.0.1"))),
+            any(ActionListener.class)
+        );
+        assertEquals(Map.of("city", "Sydney"), ip2GeoCachedDao.getGeoData(newIndexName, "1.0.0.1", datasource.getName()));
+        verify(geoIpDataDao, never()).getGeoIpData(eq(newIndexName), any());
+    }
+
+    @SneakyThrows
+    public void testPostIndex_whenIndexSwitchedWithLookup_thenSkipWarmUp() {
+        Datasource datasource = randomDatasource();
+        String oldIndexName = datasource.currentIndexName();
+        mockGetAllDatasources(Arrays.asList(datasource));
+        when(geoIpDataDao.getGeoIpData(eq(oldIndexName), any())).thenReturn(Map.of("city", "Seattle"));
+        when(geoIpLookupRegistry.isEnabled(datasource.getName())).thenReturn(true);
+        assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        ip2GeoCachedDao.getGeoData(oldIndexName, "1.0.0.1", datasource.getName());
+        ip2GeoCachedDao.getGeoData(oldIndexName, "1.0.0.1", datasource.getName());
+
+        datasource.setCurrentIndex(datasource.newIndexName(UUID.randomUUID().toString()));
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.source()).thenReturn(BytesReference.bytes(datasource.toXContent(XContentFactory.jsonBuilder(), null)));
+        Engine.IndexResult result = mock(Engine.IndexResult.class);
+        when(result.getResultType()).thenReturn(Engine.Result.Type.SUCCESS);
+
+        // Run
+        ip2GeoCachedDao.postIndex(mock(ShardId.class), index, result);
+
+        // Verify
+        verify(geoIpDataDao, never()).getBatchGeoIpData(any(), any(), any(ActionListener.class));
+    }
+
+    public void testPostDelete_whenFailed_thenReloadMetadataInBackground() {
         Datasource datasource = randomDatasource();
 
         // At the beginning we don't have the new datasource in the system index and the cache metadata
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList());
+        mockGetAllDatasources(Arrays.asList());
         // Verify we don't have the new datasource
         assertFalse(ip2GeoCachedDao.has(datasource.getName()));
 
         // Mock the new datasource is added to the system index
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         ShardId shardId = mock(ShardId.class);
         Engine.Delete index = mock(Engine.Delete.class);
@@ -278,18 +979,20 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
         // Verify
         assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        // Verify the metadata is loaded once and reloaded once
+        verify(datasourceDao, times(2)).getAllDatasources(any(ActionListener.class));
     }
 
-    public void testPostDelete_whenException_thenResetMetadataToForcePullDataFromIndex() {
+    public void testPostDelete_whenException_thenReloadMetadataInBackground() {
         Datasource datasource = randomDatasource();
 
         // At the beginning we don't have the new datasource in the system index and the cache metadata
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList());
+        mockGetAllDatasources(Arrays.asList());
         // Verify we don't have the new datasource
         assertFalse(ip2GeoCachedDao.has(datasource.getName()));
 
         // Mock the new datasource is added to the system index
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         ShardId shardId = mock(ShardId.class);
         Engine.Delete index = mock(Engine.Delete.class);
@@ -301,11 +1004,13 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
         // Verify
         assertTrue(ip2GeoCachedDao.has(datasource.getName()));
+        // Verify the metadata is loaded once and reloaded once
+        verify(datasourceDao, times(2)).getAllDatasources(any(ActionListener.class));
     }
 
     public void testPostDelete_whenSucceed_thenUpdate() {
         Datasource datasource = randomDatasource();
-        when(datasourceDao.getAllDatasources()).thenReturn(Arrays.asList(datasource));
+        mockGetAllDatasources(Arrays.asList(datasource));
 
         ShardId shardId = mock(ShardId.class);
         Engine.Delete index = mock(Engine.Delete.class);
@@ -318,60 +1023,178 @@ public class Ip2GeoCachedDaoTests extends Ip2GeoTestCase {
 
         // Verify
         assertFalse(ip2GeoCachedDao.has(datasource.getName()));
+        verify(geoIpLookupRegistry).remove(datasource.getName());
     }
 
     @SneakyThrows
-    public void testUpdateMaxSize_whenBiggerSize_thenContainsAllData() {
-        int cacheSize = 10;
-        String datasource = GeospatialTestHelper.randomLowerCaseString();
-        Ip2GeoCachedDao.GeoDataCache geoDataCache = new Ip2GeoCachedDao.GeoDataCache(cacheSize);
-        List<String> ips = new ArrayList<>(cacheSize);
-        for (int i = 0; i < cacheSize; i++) {
-            String ip = NetworkAddress.format(randomIp(false));
-            ips.add(ip);
-            geoDataCache.putIfAbsent(datasource, ip, addr -> Collections.emptyMap());
-        }
+    public void testGetCacheStats_whenQuotaSettingUpdated_thenReturnQuota() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getGeoIpData(indexName, "1.0.0.1")).thenReturn(Map.of("city", "Seattle"));
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        long cacheSize = clusterSettings.get(Ip2GeoSettings.CACHE_MEMORY_SIZE).getBytes();
 
-        // Verify all data exist in the cache
-        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+        // Run
+        clusterSettings.applySettings(
+            Settings.builder().put(Ip2GeoSettings.CACHE_QUOTA.getConcreteSettingForNamespace(datasource.getName()).getKey(), 0.25).build()
+        );
 
-        // Update cache size
-        int newCacheSize = 15;
-        geoDataCache.updateMaxSize(newCacheSize);
+        // Verify
+        assertEquals((long) (0.25 * cacheSize), ip2GeoCachedDao.getCacheStats().get(datasource.getName()).getQuotaInBytes());
 
-        // Verify all data exist in the cache
-        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+        // Run
+        clusterSettings.applySettings(Settings.EMPTY);
 
-        // Add (newCacheSize - cacheSize + 1) data and the first data should not be available in the cache
-        for (int i = 0; i < newCacheSize - cacheSize + 1; i++) {
-            geoDataCache.putIfAbsent(datasource, NetworkAddress.format(randomIp(false)), addr -> Collections.emptyMap());
-        }
-        assertNull(geoDataCache.get(datasource, ips.get(0)));
+        // Verify
+        assertEquals(0, ip2GeoCachedDao.getCacheStats().get(datasource.getName()).getQuotaInBytes());
     }
 
     @SneakyThrows
-    public void testUpdateMaxSize_whenSmallerSize_thenContainsPartialData() {
-        int cacheSize = 10;
-        String datasource = GeospatialTestHelper.randomLowerCaseString();
-        Ip2GeoCachedDao.GeoDataCache geoDataCache = new Ip2GeoCachedDao.GeoDataCache(cacheSize);
-        List<String> ips = new ArrayList<>(cacheSize);
-        for (int i = 0; i < cacheSize; i++) {
-            String ip = NetworkAddress.format(randomIp(false));
-            ips.add(ip);
-            geoDataCache.putIfAbsent(datasource, ip, addr -> Collections.emptyMap());
-        }
+    public void testGetCacheStats_whenGeoDataIsRetrieved_thenReturnStatsOfDatasource() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getGeoIpData(indexName, "1.0.0.1")).thenReturn(Map.of("city", "Seattle"));
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+
+        // Verify
+        GeoDataCacheStats stats = ip2GeoCachedDao.getCacheStats().get(datasource.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        GeoDataDictionary dictionary = new GeoDataDictionary();
+        Map<String, Object> interned = dictionary.intern(Map.of("city", "Seattle"));
+        assertEquals(GeoDataCache.weigh(interned) + dictionary.ramBytesUsed(), stats.getMemorySizeInBytes());
+    }
 
-        // Verify all data exist in the cache
-        assertTrue(ips.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+    public void testToCacheMaxSizeInBytes_whenCacheSizeSet_thenBoundByEntryCount() {
+        long memorySize = Ip2GeoSettings.CACHE_MEMORY_SIZE.get(Settings.EMPTY).getBytes();
+        long entrySize = GeoDataCache.weigh(Collections.emptyMap());
 
-        // Update cache size
-        int newCacheSize = 5;
-        geoDataCache.updateMaxSize(newCacheSize);
+        // Verify
+        assertEquals(memorySize, Ip2GeoCachedDao.toCacheMaxSizeInBytes(Settings.EMPTY));
+        assertEquals(
+            10 * entrySize,
+            Ip2GeoCachedDao.toCacheMaxSizeInBytes(Settings.builder().put(Ip2GeoSettings.CACHE_SIZE.getKey(), 10).build())
+        );
+        assertEquals(0, Ip2GeoCachedDao.toCacheMaxSizeInBytes(Settings.builder().put(Ip2GeoSettings.CACHE_SIZE.getKey(), 0).build()));
+        assertEquals(
+            Long.MAX_VALUE,
+            Ip2GeoCachedDao.toCacheMaxSizeInBytes(Settings.builder().put(Ip2GeoSettings.CACHE_SIZE.getKey(), Long.MAX_VALUE).build())
+        );
+        assertSettingDeprecationsAndWarnings(new Setting<?>[] { Ip2GeoSettings.CACHE_SIZE });
+    }
+
+    @SneakyThrows
+    public void testGetGeoData_whenCacheSizeSetToZero_thenNotCache() {
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getGeoIpData(indexName, "1.0.0.1")).thenReturn(Map.of("city", "Seattle"));
+
+        // Run
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.CACHE_SIZE.getKey(), 0).build());
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+
+        // Verify
+        verify(geoIpDataDao, times(2)).getGeoIpData(indexName, "1.0.0.1");
+        assertEquals(0, ip2GeoCachedDao.getCacheStats().get(datasource.getName()).getHitCount());
+
+        // Run
+        clusterSettings.applySettings(Settings.EMPTY);
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+
+        // Verify
+        verify(geoIpDataDao, times(3)).getGeoIpData(indexName, "1.0.0.1");
+        assertEquals(1, ip2GeoCachedDao.getCacheStats().get(datasource.getName()).getHitCount());
+        assertSettingDeprecationsAndWarnings(new Setting<?>[] { Ip2GeoSettings.CACHE_SIZE });
+    }
+
+    @SneakyThrows
+    public void testGetGeoData_whenCacheByRange_thenSearchOncePerRange() {
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.CACHE_BY_RANGE.getKey(), true).build());
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        when(geoIpDataDao.getGeoIpRangeData(eq(indexName), any())).thenReturn(new Tuple<>("1.0.0.0/16", Map.of("city", "Seattle")));
+
+        // Run
+        Map<String, Object> first = ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName());
+        Map<String, Object> second = ip2GeoCachedDao.getGeoData(indexName, "1.0.200.1", datasource.getName());
+
+        // Verify
+        assertEquals(Map.of("city", "Seattle"), first);
+        assertSame(first, second);
+        verify(geoIpDataDao, times(1)).getGeoIpRangeData(any(), any());
+        verify(geoIpDataDao, never()).getGeoIpData(any(), any());
+        GeoDataCacheStats stats = ip2GeoCachedDao.getCacheStats().get(datasource.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    public void testGetGeoDataAsync_whenCacheByRange_thenSearchOncePerRange() {
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.CACHE_BY_RANGE.getKey(), true).build());
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        doAnswer(invocation -> {
+            ActionListener<Tuple<String, Map<String, Object>>> searchListener = invocation.getArgument(2);
+            searchListener.onResponse(new Tuple<>("1.0.0.0/16", Map.of("city", "Seattle")));
+            return null;
+        }).when(geoIpDataDao).getGeoIpRangeData(eq(indexName), any(), any(ActionListener.class));
+        ActionListener<Map<String, Object>> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.0.1", datasource.getName(), listener);
+        ip2GeoCachedDao.getGeoData(indexName, "1.0.200.1", datasource.getName(), listener);
+
+        // Verify
+        verify(listener, times(2)).onResponse(Map.of("city", "Seattle"));
+        verify(geoIpDataDao, times(1)).getGeoIpRangeData(eq(indexName), eq("1.0.0.1"), any(ActionListener.class));
+        verify(geoIpDataDao, never()).getGeoIpData(any(), any(), any(ActionListener.class));
+    }
+
+    public void testGetBatchGeoDataAsync_whenCacheByRange_thenCacheRanges() {
+        clusterSettings.applySettings(Settings.builder().put(Ip2GeoSettings.CACHE_BY_RANGE.getKey(), true).build());
+        Datasource datasource = randomDatasource();
+        String indexName = datasource.currentIndexName();
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Tuple<String, Map<String, Object>>>> searchListener = invocation.getArgument(2);
+            searchListener.onResponse(
+                Map.of(
+                    "1.0.0.1",
+                    new Tuple<>("1.0.0.0/16", Map.of("city", "Seattle")),
+                    "2.0.0.1",
+                    new Tuple<>(null, Collections.emptyMap())
+                )
+            );
+            return null;
+        }).when(geoIpDataDao).getBatchGeoIpRangeData(eq(indexName), any(), any(ActionListener.class));
+        ActionListener<Map<String, Map<String, Object>>> listener = mock(ActionListener.class);
+
+        // Run
+        ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.0.1", "2.0.0.1"), datasource.getName(), listener);
+        ip2GeoCachedDao.getBatchGeoData(indexName, Arrays.asList("1.0.9.9", "2.0.0.1"), datasource.getName(), listener);
+
+        // Verify
+        verify(listener).onResponse(Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap()));
+        verify(listener).onResponse(Map.of("1.0.9.9", Map.of("city", "Seattle"), "2.0.0.1", Collections.emptyMap()));
+        verify(geoIpDataDao, times(1)).getBatchGeoIpRangeData(eq(indexName), any(), any(ActionListener.class));
+    }
+
+    private void mockGetAllDatasources(final List<Datasource> datasources) {
+        doAnswer(invocation -> {
+            ActionListener<List<Datasource>> listener = invocation.getArgument(0);
+            listener.onResponse(datasources);
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
+    }
 
-        // Verify the last (cacheSize - newCacheSize) data is available in the cache
-        List<String> deleted = ips.subList(0, ips.size() - newCacheSize);
-        List<String> retained = ips.subList(ips.size() - newCacheSize, ips.size());
-        assertTrue(deleted.stream().allMatch(ip -> geoDataCache.get(datasource, ip) == null));
-        assertTrue(retained.stream().allMatch(ip -> geoDataCache.get(datasource, ip) != null));
+    private void mockGetAllDatasourcesFailure(final Exception e) {
+        doAnswer(invocation -> {
+            ActionListener<List<Datasource>> listener = invocation.getArgument(0);
+            listener.onFailure(e);
+            return null;
+        }).when(datasourceDao).getAllDatasources(any(ActionListener.class));
     }
 }
@@ -66,7 +66,7 @@ public class Ip2GeoProcessorDaoTests extends Ip2GeoTestCase {
 
         List<Ip2GeoProcessor> ip2GeoProcessorList = ip2GeoProcessorDao.getProcessors(datasourceName);
         assertEquals(1, ip2GeoProcessorList.size());
-        assertEquals(ip2GeoProcessor.getDatasourceName(), ip2GeoProcessorList.get(0).getDatasourceName());
+        assertEquals(ip2GeoProcessor.getDatasourceNames(), ip2GeoProcessorList.get(0).getDatasourceNames());
     }
 
     private PipelineConfiguration createPipelineConfiguration() {
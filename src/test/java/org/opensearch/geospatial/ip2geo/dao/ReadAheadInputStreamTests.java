@@ -0,0 +1,149 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import lombok.SneakyThrows;
+
+public class ReadAheadInputStreamTests extends OpenSearchTestCase {
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(1, OpenSearchExecutors.daemonThreadFactory("test"));
+    }
+
+    @After
+    public void clean() {
+        ThreadPool.terminate(executor, 10, TimeUnit.SECONDS);
+    }
+
+    @SneakyThrows
+    public void testRead_whenMultipleChunks_thenReadAllBytes() {
+        byte[] data = randomByteArrayOfLength(200 * 1024 + randomIntBetween(0, 1024));
+
+        // Run
+        byte[] read;
+        try (InputStream in = ReadAheadInputStream.start(new ByteArrayInputStream(data), executor)) {
+            read = in.readAllBytes();
+        }
+
+        // Verify
+        assertArrayEquals(data, read);
+    }
+
+    @SneakyThrows
+    public void testRead_whenSingleBytes_thenReadAllBytes() {
+        byte[] data = randomByteArrayOfLength(randomIntBetween(1, 1024));
+
+        // Run
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = ReadAheadInputStream.start(new ByteArrayInputStream(data), executor)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+            assertEquals(-1, in.read());
+        }
+
+        // Verify
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @SneakyThrows
+    public void testRead_whenSourceFails_thenException() {
+        byte[] data = randomByteArrayOfLength(1024);
+        InputStream source = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position == data.length) {
+                    throw new IOException("corrupted");
+                }
+                return data[position++] & 0xFF;
+            }
+        };
+
+        try (InputStream in = ReadAheadInputStream.start(source, executor)) {
+            // Run
+            IOException e = expectThrows(IOException.class, in::readAllBytes);
+
+            // Verify
+            assertEquals("corrupted", e.getMessage());
+        }
+    }
+
+    @SneakyThrows
+    public void testRead_whenSourceThrowsError_thenException() {
+        InputStream source = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("corrupted");
+            }
+        };
+
+        try (InputStream in = ReadAheadInputStream.start(source, executor)) {
+            // Run
+            IOException e = expectThrows(IOException.class, in::readAllBytes);
+
+            // Verify
+            assertEquals("corrupted", e.getCause().getMessage());
+        }
+    }
+
+    public void testStart_whenRejected_thenCloseSource() {
+        boolean[] closed = new boolean[1];
+        InputStream source = new ByteArrayInputStream(randomByteArrayOfLength(1024)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // Run
+        expectThrows(RejectedExecutionException.class, () -> ReadAheadInputStream.start(source, command -> {
+            throw new RejectedExecutionException("rejected");
+        }));
+
+        // Verify
+        assertTrue(closed[0]);
+    }
+
+    @SneakyThrows
+    public void testClose_whenNotFullyRead_thenCloseSource() {
+        boolean[] closed = new boolean[1];
+        InputStream source = new ByteArrayInputStream(randomByteArrayOfLength(1024 * 1024)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        InputStream in = ReadAheadInputStream.start(source, executor);
+        in.read();
+
+        // Run
+        in.close();
+
+        // Verify
+        assertTrue(closed[0]);
+        expectThrows(IOException.class, in::read);
+    }
+}
@@ -12,6 +12,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.UUID;
 
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.geospatial.GeospatialTestHelper;
@@ -100,6 +101,19 @@ public class DatasourceTests extends Ip2GeoTestCase {
         assertEquals(String.format(Locale.ROOT, "%s.%s.%s", IP2GEO_DATA_INDEX_NAME_PREFIX, name, suffix), datasource.newIndexName(suffix));
     }
 
+    public void testToDatasourceName_whenDataIndex_thenReturnDatasourceName() {
+        Datasource datasource = new Datasource();
+        datasource.setName(GeospatialTestHelper.randomLowerCaseString() + ".with-dot");
+
+        assertEquals(datasource.getName(), Datasource.toDatasourceName(datasource.newIndexName(UUID.randomUUID().toString())));
+    }
+
+    public void testToDatasourceName_whenOtherIndex_thenReturnNull() {
+        assertNull(Datasource.toDatasourceName("other-index"));
+        assertNull(Datasource.toDatasourceName(IP2GEO_DATA_INDEX_NAME_PREFIX + ".no-suffix"));
+        assertNull(Datasource.toDatasourceName(IP2GEO_DATA_INDEX_NAME_PREFIX + "-other.name.suffix"));
+    }
+
     public void testResetDatabase_whenCalled_thenNullifySomeFields() {
         Datasource datasource = randomDatasource();
         assertNotNull(datasource.getDatabase().getSha256Hash());
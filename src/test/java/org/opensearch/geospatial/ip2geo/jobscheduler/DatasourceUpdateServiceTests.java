@@ -20,7 +20,6 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.csv.CSVFormat;
@@ -87,7 +86,12 @@ public class DatasourceUpdateServiceTests extends Ip2GeoTestCase {
         datasourceUpdateService.updateOrCreateGeoIpData(datasource, mock(Runnable.class));
 
         // Verify
-        verify(geoIpDataDao).putGeoIpData(eq(datasource.currentIndexName()), isA(String[].class), any(Iterator.class), any(Runnable.class));
+        verify(geoIpDataDao).putGeoIpData(
+            eq(datasource.currentIndexName()),
+            isA(String[].class),
+            any(CSVParser.class),
+            any(Runnable.class)
+        );
         verify(urlDenyListChecker).toUrlIfNotInDenyList(datasource.getEndpoint());
     }
 
@@ -164,7 +168,12 @@ public class DatasourceUpdateServiceTests extends Ip2GeoTestCase {
         assertNotNull(datasource.getUpdateStats().getLastSucceededAt());
         assertNotNull(datasource.getUpdateStats().getLastProcessingTimeInMillis());
         verify(datasourceDao, times(2)).updateDatasource(datasource);
-        verify(geoIpDataDao).putGeoIpData(eq(datasource.currentIndexName()), isA(String[].class), any(Iterator.class), any(Runnable.class));
+        verify(geoIpDataDao).putGeoIpData(
+            eq(datasource.currentIndexName()),
+            isA(String[].class),
+            any(CSVParser.class),
+            any(Runnable.class)
+        );
         verify(urlDenyListChecker).toUrlIfNotInDenyList(datasource.getEndpoint());
     }
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.test.OpenSearchTestCase;
+
+import lombok.SneakyThrows;
+
+public class GeoIpLookupFileTests extends OpenSearchTestCase {
+    private static final Map<String, Object> SEATTLE = Map.of("city", "Seattle", "country", "USA");
+    private static final Map<String, Object> SYDNEY = Map.of("city", "Sydney", "country", "Australia");
+
+    @SneakyThrows
+    public void testLookup_whenWrittenAndOpened_thenReturnSameDataAsTable() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoIpRangeTable table = GeoIpRangeTable.builder(indexName)
+            .add("10.0.0.0/24", SYDNEY)
+            .add("1.0.0.0/24", SEATTLE)
+            .add("2001:200::/32", SEATTLE)
+            .add("2a00::/16", Map.of("city", "Zürich"))
+            .build();
+        Path path = createTempDir().resolve(indexName);
+
+        // Run
+        GeoIpLookupFile.write(table, path);
+        GeoIpLookupFile file = GeoIpLookupFile.open(indexName, path);
+
+        // Verify
+        assertEquals(indexName, file.getIndexName());
+        assertEquals(table.size(), file.size());
+        for (String ip : new String[] { "1.0.0.0", "1.0.0.255", "10.0.0.1", "0.0.0.1", "11.0.0.0", "2001:200::1", "2a00::1", "::1" }) {
+            assertEquals(table.lookup(ip), file.lookup(ip));
+        }
+        assertEquals(Map.of("city", "Zürich"), file.lookup("2a00::1"));
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    @SneakyThrows
+    public void testLookup_whenEmptyTable_thenReturnEmpty() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        Path path = createTempDir().resolve(indexName);
+
+        // Run
+        GeoIpLookupFile.write(GeoIpRangeTable.builder(indexName).build(), path);
+        GeoIpLookupFile file = GeoIpLookupFile.open(indexName, path);
+
+        // Verify
+        assertTrue(file.lookup("1.0.0.1").isEmpty());
+        assertTrue(file.lookup("::1").isEmpty());
+    }
+
+    public void testWrite_whenNonStringValue_thenException() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        GeoIpRangeTable table = GeoIpRangeTable.builder(indexName)
+            .add("1.0.0.0/24", Map.of("city", "Seattle", "population", 750000))
+            .build();
+        Path path = createTempDir().resolve(indexName);
+
+        // Run
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> GeoIpLookupFile.write(table, path));
+
+        // Verify
+        assertTrue(e.getMessage().contains("[population]"));
+        assertTrue(e.getMessage().contains("[Integer]"));
+        assertFalse(Files.exists(path));
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    @SneakyThrows
+    public void testRelease_whenLastReference_thenCloseOnce() {
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        Path path = createTempDir().resolve(indexName);
+        GeoIpLookupFile.write(GeoIpRangeTable.builder(indexName).add("1.0.0.0/24", SEATTLE).build(), path);
+        List<Path> closedPaths = new ArrayList<>();
+        GeoIpLookupFile file = GeoIpLookupFile.open(indexName, path, closedPaths::add);
+        assertTrue(file.tryAcquire());
+
+        // Run
+        file.release();
+
+        // Verify
+        assertFalse(file.isClosed());
+        assertEquals(SEATTLE, file.lookup("1.0.0.1"));
+        assertTrue(closedPaths.isEmpty());
+
+        // Run
+        file.release();
+
+        // Verify
+        assertTrue(file.isClosed());
+        assertFalse(file.tryAcquire());
+        assertEquals(List.of(path), closedPaths);
+    }
+
+    @SneakyThrows
+    public void testOpen_whenInvalidFile_thenException() {
+        Path path = createTempDir().resolve(GeospatialTestHelper.randomLowerCaseString());
+        Files.write(path, "invalid lookup file content".getBytes(StandardCharsets.UTF_8));
+
+        // Run
+        expectThrows(IOException.class, () -> GeoIpLookupFile.open(GeospatialTestHelper.randomLowerCaseString(), path));
+    }
+}
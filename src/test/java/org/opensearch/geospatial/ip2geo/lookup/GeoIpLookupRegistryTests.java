@@ -0,0 +1,214 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opensearch.geospatial.ip2geo.jobscheduler.Datasource.IP2GEO_DATA_INDEX_NAME_PREFIX;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import org.junit.Before;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.Ip2GeoSettings;
+
+import lombok.SneakyThrows;
+
+public class GeoIpLookupRegistryTests extends Ip2GeoTestCase {
+    private String datasourceName;
+    private String indexName;
+    private GeoIpLookupRegistry registry;
+
+    @Before
+    public void init() {
+        datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        indexName = GeospatialTestHelper.randomLowerCaseString();
+        clusterSettings.applySettings(
+            Settings.builder().putList(Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES.getKey(), List.of(datasourceName)).build()
+        );
+        registry = new GeoIpLookupRegistry(clusterSettings, null, geoIpDataDao, ip2GeoExecutor);
+        doAnswer(invocation -> {
+            BiConsumer<String, Map<String, Object>> consumer = invocation.getArgument(1);
+            consumer.accept("1.0.0.0/24", Map.of("city", "Seattle"));
+            return null;
+        }).when(geoIpDataDao).getAllGeoIpData(any(), any());
+    }
+
+    public void testAcquire_whenNotEnabled_thenReturnNullWithoutLoading() {
+        String otherDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+
+        // Run
+        assertNull(registry.acquire(otherDatasourceName, indexName));
+
+        // Verify
+        verify(geoIpDataDao, never()).getAllGeoIpData(any(), any());
+    }
+
+    public void testAcquire_whenNotLoaded_thenLoadTable() {
+        // Run
+        assertNull(registry.acquire(datasourceName, indexName));
+
+        // Verify
+        GeoIpLookup lookup = registry.acquire(datasourceName, indexName);
+        assertTrue(lookup instanceof GeoIpRangeTable);
+        assertEquals(indexName, lookup.getIndexName());
+        assertEquals(Map.of("city", "Seattle"), lookup.lookup("1.0.0.1"));
+        verify(geoIpDataDao, times(1)).getAllGeoIpData(eq(indexName), any());
+    }
+
+    public void testAcquire_whenIndexChanged_thenReloadTable() {
+        registry.load(datasourceName, indexName);
+        String newIndexName = GeospatialTestHelper.randomLowerCaseString();
+
+        // Run
+        assertNull(registry.acquire(datasourceName, newIndexName));
+
+        // Verify
+        assertEquals(newIndexName, registry.acquire(datasourceName, newIndexName).getIndexName());
+        assertNull(registry.acquire(datasourceName, indexName));
+    }
+
+    public void testLoad_whenFailed_thenDoNotThrow() {
+        doAnswer(invocation -> { throw new RuntimeException("error"); }).when(geoIpDataDao).getAllGeoIpData(any(), any());
+
+        // Run
+        registry.load(datasourceName, indexName);
+
+        // Verify
+        assertNull(registry.acquire(datasourceName, indexName));
+        verify(geoIpDataDao, times(2)).getAllGeoIpData(eq(indexName), any());
+    }
+
+    public void testRemove_whenCalled_thenRemoveTable() {
+        registry.load(datasourceName, indexName);
+        assertNotNull(registry.acquire(datasourceName, indexName));
+
+        // Run
+        registry.remove(datasourceName);
+
+        // Verify
+        verify(geoIpDataDao, times(1)).getAllGeoIpData(eq(indexName), any());
+        assertNull(registry.acquire(datasourceName, indexName));
+        verify(geoIpDataDao, times(2)).getAllGeoIpData(eq(indexName), any());
+    }
+
+    public void testUpdateSetting_whenDatasourceRemoved_thenDropTable() {
+        registry.load(datasourceName, indexName);
+        assertNotNull(registry.acquire(datasourceName, indexName));
+
+        // Run
+        clusterSettings.applySettings(Settings.builder().putList(Ip2GeoSettings.IN_MEMORY_LOOKUP_DATASOURCES.getKey(), List.of()).build());
+
+        // Verify
+        assertNull(registry.acquire(datasourceName, indexName));
+    }
+
+    @SneakyThrows
+    public void testAcquire_whenFileLookup_thenLoadFileAndReuseIt() {
+        String fileIndexName = String.join(".", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID().toString());
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            clusterSettings.applySettings(
+                Settings.builder().putList(Ip2GeoSettings.FILE_LOOKUP_DATASOURCES.getKey(), List.of(datasourceName)).build()
+            );
+            GeoIpLookupRegistry fileRegistry = new GeoIpLookupRegistry(clusterSettings, nodeEnvironment, geoIpDataDao, ip2GeoExecutor);
+
+            // Run
+            fileRegistry.load(datasourceName, fileIndexName);
+
+            // Verify
+            GeoIpLookup lookup = fileRegistry.acquire(datasourceName, fileIndexName);
+            assertTrue(lookup instanceof GeoIpLookupFile);
+            assertEquals(Map.of("city", "Seattle"), lookup.lookup("1.0.0.1"));
+            Path path = ((GeoIpLookupFile) lookup).getPath();
+            assertTrue(Files.exists(path));
+            lookup.release();
+
+            // Run with a new registry as if the node is restarted
+            GeoIpLookupRegistry restartedRegistry = new GeoIpLookupRegistry(clusterSettings, nodeEnvironment, geoIpDataDao, ip2GeoExecutor);
+            restartedRegistry.load(datasourceName, fileIndexName);
+
+            // Verify the existing file is used without reading the index again
+            GeoIpLookup restartedLookup = restartedRegistry.acquire(datasourceName, fileIndexName);
+            assertEquals(Map.of("city", "Seattle"), restartedLookup.lookup("1.0.0.1"));
+            restartedLookup.release();
+            verify(geoIpDataDao, times(1)).getAllGeoIpData(eq(fileIndexName), any());
+
+            // Run
+            restartedRegistry.remove(datasourceName);
+
+            // Verify
+            assertFalse(Files.exists(path));
+        }
+    }
+
+    @SneakyThrows
+    public void testLoad_whenIndexChangedForFileLookup_thenDeleteOldFile() {
+        String oldIndexName = String.join(".", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID().toString());
+        String newIndexName = String.join(".", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID().toString());
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            clusterSettings.applySettings(
+                Settings.builder().putList(Ip2GeoSettings.FILE_LOOKUP_DATASOURCES.getKey(), List.of(datasourceName)).build()
+            );
+            GeoIpLookupRegistry fileRegistry = new GeoIpLookupRegistry(clusterSettings, nodeEnvironment, geoIpDataDao, ip2GeoExecutor);
+            fileRegistry.load(datasourceName, oldIndexName);
+            GeoIpLookupFile oldLookup = (GeoIpLookupFile) fileRegistry.acquire(datasourceName, oldIndexName);
+            Path oldPath = oldLookup.getPath();
+            oldLookup.release();
+
+            // Run
+            fileRegistry.load(datasourceName, newIndexName);
+
+            // Verify
+            assertFalse(Files.exists(oldPath));
+            assertTrue(oldLookup.isClosed());
+            GeoIpLookupFile newLookup = (GeoIpLookupFile) fileRegistry.acquire(datasourceName, newIndexName);
+            assertTrue(Files.exists(newLookup.getPath()));
+            newLookup.release();
+        }
+    }
+
+    @SneakyThrows
+    public void testRemove_whenFileLookupInUse_thenDeleteFileOnceReleased() {
+        String fileIndexName = String.join(".", IP2GEO_DATA_INDEX_NAME_PREFIX, datasourceName, UUID.randomUUID().toString());
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment()) {
+            clusterSettings.applySettings(
+                Settings.builder().putList(Ip2GeoSettings.FILE_LOOKUP_DATASOURCES.getKey(), List.of(datasourceName)).build()
+            );
+            GeoIpLookupRegistry fileRegistry = new GeoIpLookupRegistry(clusterSettings, nodeEnvironment, geoIpDataDao, ip2GeoExecutor);
+            fileRegistry.load(datasourceName, fileIndexName);
+            GeoIpLookupFile lookup = (GeoIpLookupFile) fileRegistry.acquire(datasourceName, fileIndexName);
+
+            // Run
+            fileRegistry.remove(datasourceName);
+
+            // Verify the file is still mapped for the reader
+            assertTrue(Files.exists(lookup.getPath()));
+            assertEquals(Map.of("city", "Seattle"), lookup.lookup("1.0.0.1"));
+            assertTrue(lookup.tryAcquire());
+            lookup.release();
+
+            // Run
+            lookup.release();
+
+            // Verify
+            assertTrue(lookup.isClosed());
+            assertFalse(lookup.tryAcquire());
+            assertFalse(Files.exists(lookup.getPath()));
+        }
+    }
+}
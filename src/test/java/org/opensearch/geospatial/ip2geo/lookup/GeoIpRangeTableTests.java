@@ -0,0 +1,141 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoIpRangeTableTests extends OpenSearchTestCase {
+    private static final Map<String, Object> SEATTLE = Map.of("city", "Seattle", "country", "USA");
+    private static final Map<String, Object> SYDNEY = Map.of("city", "Sydney", "country", "Australia");
+
+    public void testLookup_whenIpv4_thenReturnGeoDataOfMatchingRange() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("10.0.0.0/24", SYDNEY)
+            .add("1.0.0.0/24", SEATTLE)
+            .add("200.0.0.0/8", SYDNEY)
+            .build();
+
+        assertEquals(SEATTLE, table.lookup("1.0.0.0"));
+        assertEquals(SEATTLE, table.lookup("1.0.0.255"));
+        assertEquals(SYDNEY, table.lookup("10.0.0.128"));
+        assertEquals(SYDNEY, table.lookup("200.255.255.255"));
+        assertTrue(table.lookup("0.255.255.255").isEmpty());
+        assertTrue(table.lookup("1.0.1.0").isEmpty());
+        assertTrue(table.lookup("201.0.0.0").isEmpty());
+    }
+
+    public void testLookup_whenIpv6_thenReturnGeoDataOfMatchingRange() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("2a00::/16", SYDNEY)
+            .add("2001:200::/32", SEATTLE)
+            .add("2001:db8:1::1/128", SYDNEY)
+            .build();
+
+        assertEquals(SEATTLE, table.lookup("2001:200::1"));
+        assertEquals(SEATTLE, table.lookup("2001:200:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertEquals(SYDNEY, table.lookup("2001:db8:1::1"));
+        assertEquals(SYDNEY, table.lookup("2a00:ffff::"));
+        assertTrue(table.lookup("2001:db8:1::2").isEmpty());
+        assertTrue(table.lookup("2001:201::").isEmpty());
+        assertTrue(table.lookup("::1").isEmpty());
+    }
+
+    public void testLookup_whenPrimitiveIp_thenSameAsString() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("1.0.0.0/24", SEATTLE)
+            .add("2001:200::/32", SYDNEY)
+            .build();
+
+        assertEquals(SEATTLE, table.lookupIpv4(0x01000001));
+        assertEquals(SEATTLE, table.lookup("::ffff:1.0.0.1"));
+        assertTrue(table.lookupIpv4(0x01000100).isEmpty());
+        assertEquals(SYDNEY, table.lookupIpv6(0x20010200_00000000L, 1L));
+        assertTrue(table.lookupIpv6(0x20010201_00000000L, 0L).isEmpty());
+    }
+
+    public void testLookup_whenIpv4AndIpv6_thenDoNotMixUp() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("1.0.0.0/24", SEATTLE)
+            .add("100::/8", SYDNEY)
+            .build();
+
+        assertEquals(SEATTLE, table.lookup("1.0.0.1"));
+        assertEquals(SYDNEY, table.lookup("100::1"));
+        assertTrue(table.lookup("::1").isEmpty());
+        assertTrue(table.lookup("1.0.1.0").isEmpty());
+        assertEquals(2, table.size());
+    }
+
+    public void testLookup_whenRangesNested_thenFallBackToEnclosingRange() {
+        Map<String, Object> world = Map.of("country", "World");
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("1.0.0.0/24", SEATTLE)
+            .add("1.0.0.0/8", world)
+            .add("1.0.0.128/25", SYDNEY)
+            .add("1.255.0.0/16", SYDNEY)
+            .add("2001:db8:1::/48", SEATTLE)
+            .add("2001:db8::/32", world)
+            .build();
+
+        assertEquals(SEATTLE, table.lookup("1.0.0.1"));
+        assertEquals(SYDNEY, table.lookup("1.0.0.129"));
+        assertEquals(world, table.lookup("1.0.1.0"));
+        assertEquals(world, table.lookup("1.254.255.255"));
+        assertEquals(SYDNEY, table.lookup("1.255.255.255"));
+        assertTrue(table.lookup("2.0.0.0").isEmpty());
+        assertEquals(world, table.lookup("2001:db8::1"));
+        assertEquals(SEATTLE, table.lookup("2001:db8:1::1"));
+        assertEquals(world, table.lookup("2001:db8:2::"));
+        assertTrue(table.lookup("2001:db9::").isEmpty());
+    }
+
+    public void testLookup_whenIpv6RangeCoversIpv4MappedAddresses_thenMatchIpv4() {
+        Map<String, Object> world = Map.of("country", "World");
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("::/0", world)
+            .add("::/64", SYDNEY)
+            .add("1.0.0.0/24", SEATTLE)
+            .build();
+
+        assertEquals(SEATTLE, table.lookup("1.0.0.1"));
+        assertEquals(SYDNEY, table.lookup("2.0.0.1"));
+        assertEquals(SYDNEY, table.lookupIpv4(0xFFFFFFFF));
+        assertEquals(SYDNEY, table.lookup(0L, IpAddresses.IPV4_MAPPED_LOW | 0x02000001L));
+        assertEquals(SYDNEY, table.lookup("::1"));
+        assertEquals(world, table.lookup("2001:db8::1"));
+    }
+
+    public void testBuild_whenSameGeoData_thenDeduplicate() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("1.0.0.0/24", Map.of("city", "Seattle", "country", "USA"))
+            .add("2.0.0.0/24", Map.of("city", "Seattle", "country", "USA"))
+            .add("3.0.0.0/24", SYDNEY)
+            .build();
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.valueCount());
+        assertSame(table.lookup("1.0.0.1"), table.lookup("2.0.0.1"));
+    }
+
+    public void testLookup_whenEmpty_thenReturnEmpty() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString()).build();
+
+        assertTrue(table.lookup("1.0.0.1").isEmpty());
+        assertTrue(table.lookup("::1").isEmpty());
+    }
+
+    public void testLookup_whenCalled_thenReturnUnmodifiableData() {
+        GeoIpRangeTable table = GeoIpRangeTable.builder(GeospatialTestHelper.randomLowerCaseString())
+            .add("1.0.0.0/24", new HashMap<>(SEATTLE))
+            .build();
+
+        expectThrows(UnsupportedOperationException.class, () -> table.lookup("1.0.0.1").put("city", "Sydney"));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.common.network.NetworkAddress;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class IpAddressesTests extends OpenSearchTestCase {
+    public void testParseIpv4_whenDottedQuad_thenReturnValue() {
+        assertEquals(0L, IpAddresses.parseIpv4("0.0.0.0"));
+        assertEquals(0x01020304L, IpAddresses.parseIpv4("1.2.3.4"));
+        assertEquals(0xFFFFFFFFL, IpAddresses.parseIpv4("255.255.255.255"));
+        assertEquals(0xC0A80A01L, IpAddresses.parseIpv4("192.168.10.1"));
+    }
+
+    public void testParseIpv4_whenRandomIp_thenSameAsInetAddresses() {
+        for (int i = 0; i < 100; i++) {
+            String ip = NetworkAddress.format(randomIp(true));
+            byte[] bytes = InetAddresses.forString(ip).getAddress();
+            assertEquals(GeoIpRangeTable.toInt(bytes, 0) & 0xFFFFFFFFL, IpAddresses.parseIpv4(ip));
+        }
+    }
+
+    public void testParseIpv4_whenNotDottedQuad_thenNotIpv4() {
+        for (String ip : new String[] {
+            "",
+            "1.2.3",
+            "1.2.3.4.5",
+            "1.2.3.",
+            ".1.2.3",
+            "1..2.3",
+            "256.0.0.1",
+            "1.2.3.1000",
+            "01.2.3.4",
+            "1.2.3.4 ",
+            "a.b.c.d",
+            "::1",
+            "::ffff:1.2.3.4",
+            "2001:db8::1" }) {
+            assertEquals(ip, IpAddresses.NOT_IPV4, IpAddresses.parseIpv4(ip));
+        }
+    }
+
+    public void testFormat_whenParsed_thenReturnCanonicalNotation() {
+        assertEquals("1.2.3.4", IpAddresses.format(0, IpAddresses.IPV4_MAPPED_LOW | IpAddresses.parseIpv4("1.2.3.4")));
+        assertEquals("2001:db8::1", IpAddresses.format(0x20010DB8_00000000L, 1L));
+        assertEquals("::1", IpAddresses.format(0, 1L));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.lookup;
+
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class IpRangeTests extends OpenSearchTestCase {
+
+    public void testContains_whenIpv4Cidr_thenContainAddressesInRange() {
+        IpRange range = IpRange.fromCidr("1.0.0.0/16");
+
+        // Verify
+        assertTrue(range.contains(address("1.0.0.0")));
+        assertTrue(range.contains(address("1.0.123.45")));
+        assertTrue(range.contains(address("1.0.255.255")));
+        assertFalse(range.contains(address("0.255.255.255")));
+        assertFalse(range.contains(address("1.1.0.0")));
+        assertFalse(range.contains(address("::1.0.0.1")));
+    }
+
+    public void testContains_whenIpv6Cidr_thenContainAddressesInRange() {
+        IpRange range = IpRange.fromCidr("2001:db8::/96");
+
+        // Verify
+        assertTrue(range.contains(address("2001:db8::1")));
+        assertTrue(range.contains(address("2001:db8::ffff:ffff")));
+        assertFalse(range.contains(address("2001:db8::1:0:0")));
+        assertFalse(range.contains(address("1.0.0.1")));
+    }
+
+    public void testFromCidr_whenHostBitsAreSet_thenIgnoreHostBits() {
+        assertEquals(IpRange.fromCidr("1.0.0.0/24"), IpRange.fromCidr("1.0.0.7/24"));
+        assertEquals(address("1.0.0.1"), IpRange.fromCidr("1.0.0.1/32"));
+    }
+
+    public void testCompareTo_whenDifferentStart_thenOrderByStart() {
+        assertTrue(IpRange.fromCidr("1.0.0.0/16").compareTo(IpRange.fromCidr("2.0.0.0/16")) < 0);
+        assertTrue(IpRange.fromCidr("255.0.0.0/8").compareTo(IpRange.fromCidr("1.0.0.0/8")) > 0);
+        assertTrue(IpRange.fromCidr("::/96").compareTo(IpRange.fromCidr("1.0.0.0/8")) < 0);
+        assertTrue(IpRange.fromCidr("2001:db8::/32").compareTo(IpRange.fromCidr("1.0.0.0/8")) > 0);
+        assertEquals(0, IpRange.fromCidr("1.0.0.0/16").compareTo(address("1.0.0.0")));
+    }
+
+    public void testOf_whenStartAndEnd_thenEqualToCidr() {
+        IpRange range = IpRange.fromCidr("1.0.0.0/16");
+
+        // Verify
+        assertEquals(range, IpRange.of(range.getStartHigh(), range.getStartLow(), range.getEndHigh(), range.getEndLow()));
+        expectThrows(
+            IllegalArgumentException.class,
+            () -> IpRange.of(range.getEndHigh(), range.getEndLow(), range.getStartHigh(), range.getStartLow())
+        );
+    }
+
+    private IpRange address(final String ip) {
+        return IpRange.of(InetAddresses.forString(ip));
+    }
+}
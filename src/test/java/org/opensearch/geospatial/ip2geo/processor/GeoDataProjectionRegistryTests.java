@@ -0,0 +1,39 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.processor;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoDataProjectionRegistryTests extends OpenSearchTestCase {
+    public void testGet_whenNoProperties_thenAllProperties() {
+        GeoDataProjectionRegistry registry = new GeoDataProjectionRegistry();
+
+        // Run
+        GeoDataProjection projection = registry.get(null);
+
+        // Verify
+        assertSame(GeoDataProjection.ALL_PROPERTIES, projection);
+        assertEquals(0, registry.size());
+    }
+
+    public void testGet_whenSameProperties_thenSameProjection() {
+        GeoDataProjectionRegistry registry = new GeoDataProjectionRegistry();
+
+        // Run
+        GeoDataProjection projection = registry.get(Arrays.asList("city", "country"));
+        GeoDataProjection sameProjection = registry.get(Arrays.asList("country", "city", "city"));
+        GeoDataProjection otherProjection = registry.get(Arrays.asList("city"));
+
+        // Verify
+        assertSame(projection, sameProjection);
+        assertNotSame(projection, otherProjection);
+        assertEquals(Set.of("city", "country"), projection.getProperties());
+        assertEquals(2, registry.size());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.processor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class GeoDataProjectionTests extends OpenSearchTestCase {
+    public void testProject_whenAllProperties_thenReturnSameInstance() {
+        Map<String, Object> geoData = Map.of("city", "seattle", "country", "usa");
+
+        assertSame(geoData, GeoDataProjection.ALL_PROPERTIES.project(geoData));
+        assertNull(GeoDataProjection.ALL_PROPERTIES.getProperties());
+    }
+
+    public void testProject_whenProperties_thenKeepOnlyProperties() {
+        GeoDataProjection projection = new GeoDataProjection(Set.of("country", "continent"));
+
+        Map<String, Object> projected = projection.project(Map.of("city", "seattle", "country", "usa"));
+
+        assertEquals(Map.of("country", "usa"), projected);
+        expectThrows(UnsupportedOperationException.class, () -> projected.put("city", "seattle"));
+    }
+
+    public void testProject_whenSameGeoData_thenReturnSharedInstance() {
+        GeoDataProjection projection = new GeoDataProjection(Set.of("country"));
+
+        Map<String, Object> projected = projection.project(Map.of("city", "seattle", "country", "usa"));
+
+        assertSame(projected, projection.project(new HashMap<>(Map.of("city", "seattle", "country", "usa"))));
+        assertEquals(1, projection.count());
+    }
+
+    public void testProject_whenDifferentGeoDataWithSameProjection_thenReturnSharedInstance() {
+        GeoDataProjection projection = new GeoDataProjection(Set.of("country"));
+
+        Map<String, Object> seattle = projection.project(Map.of("city", "seattle", "country", "usa"));
+        Map<String, Object> portland = projection.project(Map.of("city", "portland", "country", "usa"));
+
+        assertSame(seattle, portland);
+        assertEquals(2, projection.count());
+    }
+
+    public void testProject_whenNoMatchingProperty_thenReturnEmpty() {
+        GeoDataProjection projection = new GeoDataProjection(Set.of("asn"));
+
+        assertTrue(projection.project(Map.of("city", "seattle")).isEmpty());
+        assertTrue(projection.project(Collections.emptyMap()).isEmpty());
+    }
+
+    public void testProject_whenPropertiesModified_thenProjectionUnchanged() {
+        Set<String> properties = new HashSet<>(Set.of("country"));
+        GeoDataProjection projection = new GeoDataProjection(properties);
+
+        properties.add("city");
+
+        assertEquals(Map.of("country", "usa"), projection.project(Map.of("city", "seattle", "country", "usa")));
+    }
+}
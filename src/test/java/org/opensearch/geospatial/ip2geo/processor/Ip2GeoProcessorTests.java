@@ -8,6 +8,7 @@ package org.opensearch.geospatial.ip2geo.processor;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,31 +19,44 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.mockito.ArgumentCaptor;
 import org.opensearch.OpenSearchException;
 import org.opensearch.common.Randomness;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.geospatial.GeospatialTestHelper;
 import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
 import org.opensearch.geospatial.ip2geo.common.DatasourceState;
 import org.opensearch.geospatial.ip2geo.common.ParameterValidator;
+import org.opensearch.geospatial.ip2geo.dao.DatasourceMetadata;
 import org.opensearch.geospatial.ip2geo.jobscheduler.Datasource;
 import org.opensearch.ingest.IngestDocument;
+import org.opensearch.ingest.IngestDocumentWrapper;
 
 import lombok.SneakyThrows;
 
 public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
     private static final String DEFAULT_TARGET_FIELD = "ip2geo";
     private static final List<String> SUPPORTED_FIELDS = Arrays.asList("city", "country");
+    private GeoDataProjectionRegistry projectionRegistry;
     private Ip2GeoProcessor.Factory factory;
     private ParameterValidator inputFormatValidator;
 
     @Before
     public void init() {
-        factory = new Ip2GeoProcessor.Factory(ingestService);
+        projectionRegistry = new GeoDataProjectionRegistry();
+        factory = new Ip2GeoProcessor.Factory(ingestService, projectionRegistry);
         factory.initialize(datasourceDao, geoIpDataDao, ip2GeoCachedDao);
+        doAnswer(invocation -> {
+            ActionListener<DatasourceMetadata> listener = invocation.getArgument(1);
+            listener.onResponse(null);
+            return null;
+        }).when(ip2GeoCachedDao).refreshDatasourceIfNeeded(any(), any());
     }
 
     public void testExecuteWithNoIpAndIgnoreMissing() throws Exception {
@@ -97,7 +111,6 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         source.put("ip", ip);
         IngestDocument document = new IngestDocument(source, new HashMap<>());
 
-        when(ip2GeoCachedDao.has(datasourceName)).thenReturn(false);
         BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
 
         // Run
@@ -116,12 +129,9 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
 
         String indexName = GeospatialTestHelper.randomLowerCaseString();
-        when(ip2GeoCachedDao.getIndexName(datasourceName)).thenReturn(indexName);
-        when(ip2GeoCachedDao.has(datasourceName)).thenReturn(true);
-        when(ip2GeoCachedDao.getState(datasourceName)).thenReturn(DatasourceState.AVAILABLE);
-        when(ip2GeoCachedDao.isExpired(datasourceName)).thenReturn(true);
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, true);
         Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
-        when(ip2GeoCachedDao.getGeoData(eq(indexName), any(), any())).thenReturn(geoData);
+        mockGeoData(indexName, geoData);
 
         // Run for single ip
         String ip = randomIpAddress();
@@ -149,12 +159,9 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
 
         String indexName = GeospatialTestHelper.randomLowerCaseString();
-        when(ip2GeoCachedDao.getIndexName(datasourceName)).thenReturn(indexName);
-        when(ip2GeoCachedDao.has(datasourceName)).thenReturn(true);
-        when(ip2GeoCachedDao.getState(datasourceName)).thenReturn(DatasourceState.CREATE_FAILED);
-        when(ip2GeoCachedDao.isExpired(datasourceName)).thenReturn(false);
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.CREATE_FAILED, false);
         Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
-        when(ip2GeoCachedDao.getGeoData(eq(indexName), any(), any())).thenReturn(geoData);
+        mockGeoData(indexName, geoData);
 
         // Run for single ip
         String ip = randomIpAddress();
@@ -179,12 +186,9 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
 
         String indexName = GeospatialTestHelper.randomLowerCaseString();
-        when(ip2GeoCachedDao.getIndexName(datasourceName)).thenReturn(indexName);
-        when(ip2GeoCachedDao.has(datasourceName)).thenReturn(true);
-        when(ip2GeoCachedDao.getState(datasourceName)).thenReturn(DatasourceState.AVAILABLE);
-        when(ip2GeoCachedDao.isExpired(datasourceName)).thenReturn(false);
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
         Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
-        when(ip2GeoCachedDao.getGeoData(eq(indexName), any(), any())).thenReturn(geoData);
+        mockGeoData(indexName, geoData);
 
         // Run for single ip
         String ip = randomIpAddress();
@@ -214,12 +218,9 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
 
         String indexName = GeospatialTestHelper.randomLowerCaseString();
-        when(ip2GeoCachedDao.getIndexName(datasourceName)).thenReturn(indexName);
-        when(ip2GeoCachedDao.has(datasourceName)).thenReturn(true);
-        when(ip2GeoCachedDao.getState(datasourceName)).thenReturn(DatasourceState.AVAILABLE);
-        when(ip2GeoCachedDao.isExpired(datasourceName)).thenReturn(false);
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
         Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
-        when(ip2GeoCachedDao.getGeoData(eq(indexName), any(), any())).thenReturn(geoData);
+        mockGeoData(indexName, geoData);
 
         // Run for single ip
         String ip = randomIpAddress();
@@ -242,6 +243,93 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         assertEquals(geoData.get("country"), addedValue.get("country"));
     }
 
+    @SneakyThrows
+    public void testExecute_whenSameProperties_thenShareProjectedGeoData() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Map<String, Object> config = Map.of(Ip2GeoProcessor.CONFIG_PROPERTIES, Arrays.asList("country"));
+        Ip2GeoProcessor processor = createProcessor(datasourceName, config);
+        Ip2GeoProcessor otherProcessor = createProcessor(datasourceName, config);
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockGeoData(indexName, Map.of("city", "Seattle", "country", "USA"));
+
+        // Run
+        IngestDocument document = createDocument(randomIpAddress());
+        IngestDocument otherDocument = createDocument(randomIpAddress());
+        processor.execute(document, handler);
+        otherProcessor.execute(otherDocument, handler);
+
+        // Verify
+        Map<String, Object> addedValue = document.getFieldValue("ip2geo", Map.class);
+        assertEquals(Map.of("country", "USA"), addedValue);
+        assertEquals(addedValue, otherDocument.getFieldValue("ip2geo", Map.class));
+        assertNotSame(addedValue, otherDocument.getFieldValue("ip2geo", Map.class));
+        assertSame(processor.getTargets().get(0).getProjection(), otherProcessor.getTargets().get(0).getProjection());
+        assertEquals(1, processor.getTargets().get(0).getProjection().count());
+    }
+
+    @SneakyThrows
+    public void testExecute_whenNoProperties_thenAddCopyOfCachedGeoData() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
+        mockGeoData(indexName, geoData);
+
+        // Run
+        IngestDocument document = createDocument(randomIpAddress());
+        processor.execute(document, handler);
+
+        // Verify
+        assertEquals(geoData, document.getFieldValue("ip2geo", Map.class));
+        assertNotSame(geoData, document.getFieldValue("ip2geo", Map.class));
+    }
+
+    @SneakyThrows
+    public void testExecute_whenFollowingProcessorModifiesGeoData_thenSucceed() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        Ip2GeoProcessor projectingProcessor = createProcessor(
+            datasourceName,
+            Map.of(Ip2GeoProcessor.CONFIG_PROPERTIES, Arrays.asList("city", "country"))
+        );
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        Map<String, Object> geoData = Map.of("city", "Seattle", "country", "USA");
+        mockGeoData(indexName, geoData);
+        IngestDocument document = createDocument(randomIpAddress());
+        IngestDocument projectedDocument = createDocument(randomIpAddress());
+        IngestDocument listDocument = createDocument(Arrays.asList(randomIpAddress(), randomIpAddress()));
+        processor.execute(document, handler);
+        projectingProcessor.execute(projectedDocument, handler);
+        processor.execute(listDocument, handler);
+
+        // Run, as set, remove and rename processors following the ip2geo processor would
+        for (IngestDocument ingestDocument : Arrays.asList(document, projectedDocument)) {
+            ingestDocument.setFieldValue("ip2geo.city", "Portland");
+            ingestDocument.removeField("ip2geo.country");
+            ingestDocument.setFieldValue("ip2geo.location", "45.52,-122.68");
+        }
+        listDocument.setFieldValue("ip2geo.0.city", "Portland");
+        listDocument.removeField("ip2geo.1.country");
+
+        // Verify
+        assertEquals(Map.of("city", "Portland", "location", "45.52,-122.68"), document.getFieldValue("ip2geo", Map.class));
+        assertEquals(Map.of("city", "Portland", "location", "45.52,-122.68"), projectedDocument.getFieldValue("ip2geo", Map.class));
+        assertEquals(
+            Arrays.asList(Map.of("city", "Portland", "country", "USA"), Map.of("city", "Seattle")),
+            listDocument.getFieldValue("ip2geo", List.class)
+        );
+        assertEquals(Map.of("city", "Seattle", "country", "USA"), geoData);
+    }
+
     @SneakyThrows
     public void testExecute_whenNoHandler_thenException() {
         String datasourceName = GeospatialTestHelper.randomLowerCaseString();
@@ -281,6 +369,324 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         assertTrue(e.getMessage().contains("must not"));
     }
 
+    @SneakyThrows
+    public void testExecute_whenDuplicatedIps_thenLookupInBatch() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        String ip = "1.0.0.1";
+        String otherIp = "2.0.0.1";
+        List<String> ips = Arrays.asList(ip, otherIp, ip);
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Map<String, Object>>> listener = invocation.getArgument(3);
+            listener.onResponse(Map.of(ip, Map.of("city", "Seattle"), otherIp, Collections.emptyMap()));
+            return null;
+        }).when(ip2GeoCachedDao).getBatchGeoData(eq(indexName), eq(ips), eq(datasourceName), any());
+
+        // Run
+        IngestDocument documentWithIps = createDocument(ips);
+        processor.execute(documentWithIps, handler);
+
+        // Verify
+        verify(handler).accept(documentWithIps, null);
+        verify(ip2GeoCachedDao, times(0)).getGeoData(any(), any(), any(), any());
+        List<Map<String, Object>> addedValues = documentWithIps.getFieldValue("ip2geo", List.class);
+        assertEquals(Arrays.asList(Map.of("city", "Seattle"), Map.of("city", "Seattle")), addedValues);
+    }
+
+    @SneakyThrows
+    public void testBatchExecute_whenCalled_thenLookupDistinctIpsOnce() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Map<String, Object>>> listener = invocation.getArgument(3);
+            listener.onResponse(Map.of("1.0.0.1", Map.of("city", "Seattle"), "2.0.0.1", Map.of("city", "Sydney")));
+            return null;
+        }).when(ip2GeoCachedDao).getBatchGeoData(eq(indexName), any(), eq(datasourceName), any());
+        List<IngestDocumentWrapper> wrappers = Arrays.asList(
+            new IngestDocumentWrapper(0, createDocument("1.0.0.1"), null),
+            new IngestDocumentWrapper(1, createDocument("1.0.0.1"), null),
+            new IngestDocumentWrapper(2, createDocument(Arrays.asList("2.0.0.1", "1.0.0.1")), null),
+            new IngestDocumentWrapper(3, new IngestDocument(new HashMap<>(Map.of("ip", 1)), new HashMap<>()), null)
+        );
+        Consumer<List<IngestDocumentWrapper>> handler = mock(Consumer.class);
+
+        // Run
+        processor.batchExecute(wrappers, handler);
+
+        // Verify
+        verify(ip2GeoCachedDao).getBatchGeoData(eq(indexName), eq(Arrays.asList("1.0.0.1", "2.0.0.1")), eq(datasourceName), any());
+        ArgumentCaptor<List<IngestDocumentWrapper>> captor = ArgumentCaptor.forClass(List.class);
+        verify(handler).accept(captor.capture());
+        List<IngestDocumentWrapper> results = captor.getValue();
+        assertEquals(4, results.size());
+        assertEquals("Seattle", results.get(0).getIngestDocument().getFieldValue("ip2geo.city", String.class));
+        assertEquals("Seattle", results.get(1).getIngestDocument().getFieldValue("ip2geo.city", String.class));
+        assertEquals(
+            Arrays.asList(Map.of("city", "Sydney"), Map.of("city", "Seattle")),
+            results.get(2).getIngestDocument().getFieldValue("ip2geo", List.class)
+        );
+        assertEquals(3, results.get(3).getSlot());
+        assertTrue(results.get(3).getException() instanceof IllegalArgumentException);
+    }
+
+    @SneakyThrows
+    public void testBatchExecute_whenExpired_thenExpiredMsg() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        mockDatasourceMetadata(datasourceName, GeospatialTestHelper.randomLowerCaseString(), DatasourceState.AVAILABLE, true);
+        List<IngestDocumentWrapper> wrappers = Arrays.asList(
+            new IngestDocumentWrapper(0, createDocument(randomIpAddress()), null),
+            new IngestDocumentWrapper(1, createDocument(Arrays.asList(randomIpAddress())), null)
+        );
+        Consumer<List<IngestDocumentWrapper>> handler = mock(Consumer.class);
+
+        // Run
+        processor.batchExecute(wrappers, handler);
+
+        // Verify
+        ArgumentCaptor<List<IngestDocumentWrapper>> captor = ArgumentCaptor.forClass(List.class);
+        verify(handler).accept(captor.capture());
+        for (IngestDocumentWrapper result : captor.getValue()) {
+            assertNull(result.getException());
+            assertEquals("ip2geo_data_expired", result.getIngestDocument().getFieldValue(DEFAULT_TARGET_FIELD + ".error", String.class));
+        }
+        verify(ip2GeoCachedDao, times(0)).getBatchGeoData(any(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    public void testBatchExecute_whenDatasourceNotExist_thenFailAllDocuments() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(datasourceName, Collections.emptyMap());
+        List<IngestDocumentWrapper> wrappers = Arrays.asList(
+            new IngestDocumentWrapper(0, createDocument(randomIpAddress()), null),
+            new IngestDocumentWrapper(1, createDocument(randomIpAddress()), null)
+        );
+        Consumer<List<IngestDocumentWrapper>> handler = mock(Consumer.class);
+
+        // Run
+        processor.batchExecute(wrappers, handler);
+
+        // Verify
+        ArgumentCaptor<List<IngestDocumentWrapper>> captor = ArgumentCaptor.forClass(List.class);
+        verify(handler).accept(captor.capture());
+        for (IngestDocumentWrapper result : captor.getValue()) {
+            assertNull(result.getIngestDocument());
+            assertTrue(result.getException() instanceof IllegalStateException);
+        }
+    }
+
+    @SneakyThrows
+    public void testCreate_whenMultipleDatasources_thenTargetPerDatasource() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String otherDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+
+        // Run
+        Ip2GeoProcessor processor = createProcessor(
+            List.of(
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName),
+                Map.of(
+                    Ip2GeoProcessor.CONFIG_DATASOURCE,
+                    otherDatasourceName,
+                    Ip2GeoProcessor.CONFIG_TARGET_FIELD,
+                    "asn",
+                    Ip2GeoProcessor.CONFIG_PROPERTIES,
+                    Arrays.asList("country")
+                )
+            )
+        );
+
+        // Verify
+        assertEquals(Arrays.asList(datasourceName, otherDatasourceName), processor.getDatasourceNames());
+        assertEquals(datasourceName, processor.getTargets().get(0).getTargetField());
+        assertSame(GeoDataProjection.ALL_PROPERTIES, processor.getTargets().get(0).getProjection());
+        assertEquals("asn", processor.getTargets().get(1).getTargetField());
+        assertEquals(Set.of("country"), processor.getTargets().get(1).getProjection().getProperties());
+    }
+
+    @SneakyThrows
+    public void testCreate_whenInvalidDatasources_thenFails() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Map<String, Object> datasourceConfig = Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName);
+
+        // Both datasource and datasources
+        Map<String, Object> config = new HashMap<>();
+        config.put(Ip2GeoProcessor.CONFIG_FIELD, "ip");
+        config.put(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName);
+        config.put(Ip2GeoProcessor.CONFIG_DATASOURCES, List.of(datasourceConfig));
+        Exception e = expectThrows(OpenSearchException.class, () -> factory.create(Collections.emptyMap(), null, null, config));
+        assertTrue(e.getMessage().contains("cannot be used together"));
+
+        // Neither datasource nor datasources
+        e = expectThrows(
+            OpenSearchException.class,
+            () -> factory.create(Collections.emptyMap(), null, null, new HashMap<>(Map.of(Ip2GeoProcessor.CONFIG_FIELD, "ip")))
+        );
+        assertTrue(e.getMessage().contains("required property is missing"));
+
+        // Empty datasources
+        e = expectThrows(OpenSearchException.class, () -> createProcessor(Collections.emptyList()));
+        assertTrue(e.getMessage().contains("should not be empty"));
+
+        // Duplicated target fields
+        e = expectThrows(OpenSearchException.class, () -> createProcessor(List.of(datasourceConfig, datasourceConfig)));
+        assertTrue(e.getMessage().contains("used by more than one datasource"));
+
+        // Unknown key
+        e = expectThrows(
+            OpenSearchException.class,
+            () -> createProcessor(List.of(Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName, "unknown", "value")))
+        );
+        assertTrue(e.getMessage().contains("unsupported properties [unknown]"));
+
+        // Invalid datasource name
+        e = expectThrows(
+            OpenSearchException.class,
+            () -> createProcessor(List.of(Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, "_" + datasourceName)))
+        );
+        assertTrue(e.getMessage().contains("must not"));
+    }
+
+    @SneakyThrows
+    public void testExecute_whenMultipleDatasources_thenGeoDataOfEachIsAdded() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String otherDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String expiredDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(
+            List.of(
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName),
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, otherDatasourceName),
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, expiredDatasourceName)
+            )
+        );
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String otherIndexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockDatasourceMetadata(otherDatasourceName, otherIndexName, DatasourceState.AVAILABLE, false);
+        mockDatasourceMetadata(expiredDatasourceName, GeospatialTestHelper.randomLowerCaseString(), DatasourceState.AVAILABLE, true);
+        mockGeoData(indexName, Map.of("city", "Seattle"));
+        mockGeoData(otherIndexName, Map.of("asn", "AS1"));
+
+        // Run for single ip
+        IngestDocument documentWithIp = createDocument(randomIpAddress());
+        processor.execute(documentWithIp, handler);
+
+        // Verify
+        verify(handler).accept(documentWithIp, null);
+        assertEquals("Seattle", documentWithIp.getFieldValue(datasourceName + ".city", String.class));
+        assertEquals("AS1", documentWithIp.getFieldValue(otherDatasourceName + ".asn", String.class));
+        assertEquals("ip2geo_data_expired", documentWithIp.getFieldValue(expiredDatasourceName + ".error", String.class));
+
+        // Run for multi ips
+        IngestDocument documentWithIps = createDocument(Arrays.asList(randomIpAddress(), randomIpAddress()));
+        processor.execute(documentWithIps, handler);
+
+        // Verify
+        verify(handler).accept(documentWithIps, null);
+        assertEquals(2, documentWithIps.getFieldValue(datasourceName, List.class).size());
+        assertEquals(Map.of("asn", "AS1"), documentWithIps.getFieldValue(otherDatasourceName, List.class).get(0));
+    }
+
+    @SneakyThrows
+    public void testExecute_whenOneOfDatasourcesNotAvailable_thenException() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String otherDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(
+            List.of(
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName),
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, otherDatasourceName)
+            )
+        );
+        BiConsumer<IngestDocument, Exception> handler = mock(BiConsumer.class);
+
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockDatasourceMetadata(otherDatasourceName, GeospatialTestHelper.randomLowerCaseString(), DatasourceState.CREATE_FAILED, false);
+        mockGeoData(indexName, Map.of("city", "Seattle"));
+
+        // Run
+        processor.execute(createDocument(randomIpAddress()), handler);
+
+        // Verify
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(handler).accept(isNull(), captor.capture());
+        assertTrue(captor.getValue().getMessage().contains("not in an available state"));
+    }
+
+    @SneakyThrows
+    public void testBatchExecute_whenMultipleDatasources_thenLookupEachDatasourceOnce() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String otherDatasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(
+            List.of(
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, datasourceName),
+                Map.of(Ip2GeoProcessor.CONFIG_DATASOURCE, otherDatasourceName)
+            )
+        );
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        String otherIndexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockDatasourceMetadata(otherDatasourceName, otherIndexName, DatasourceState.AVAILABLE, false);
+        mockGeoData(indexName, Map.of("city", "Seattle"));
+        mockGeoData(otherIndexName, Map.of("asn", "AS1"));
+        List<IngestDocumentWrapper> wrappers = Arrays.asList(
+            new IngestDocumentWrapper(0, createDocument("1.0.0.1"), null),
+            new IngestDocumentWrapper(1, createDocument(Arrays.asList("2.0.0.1", "1.0.0.1")), null)
+        );
+        Consumer<List<IngestDocumentWrapper>> handler = mock(Consumer.class);
+
+        // Run
+        processor.batchExecute(wrappers, handler);
+
+        // Verify
+        List<String> distinctIps = Arrays.asList("1.0.0.1", "2.0.0.1");
+        verify(ip2GeoCachedDao).getBatchGeoData(eq(indexName), eq(distinctIps), eq(datasourceName), any());
+        verify(ip2GeoCachedDao).getBatchGeoData(eq(otherIndexName), eq(distinctIps), eq(otherDatasourceName), any());
+        ArgumentCaptor<List<IngestDocumentWrapper>> captor = ArgumentCaptor.forClass(List.class);
+        verify(handler).accept(captor.capture());
+        IngestDocument first = captor.getValue().get(0).getIngestDocument();
+        assertEquals("Seattle", first.getFieldValue(datasourceName + ".city", String.class));
+        assertEquals("AS1", first.getFieldValue(otherDatasourceName + ".asn", String.class));
+        IngestDocument second = captor.getValue().get(1).getIngestDocument();
+        assertEquals(2, second.getFieldValue(datasourceName, List.class).size());
+        assertEquals(2, second.getFieldValue(otherDatasourceName, List.class).size());
+    }
+
+    @SneakyThrows
+    public void testCreate_whenSamePropertiesInResponseProcessor_thenShareProjection() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoProcessor processor = createProcessor(
+            datasourceName,
+            Map.of(Ip2GeoProcessor.CONFIG_PROPERTIES, Arrays.asList("city", "country"))
+        );
+        Ip2GeoResponseProcessor.Factory responseFactory = new Ip2GeoResponseProcessor.Factory(() -> ip2GeoCachedDao, projectionRegistry);
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "ip");
+        config.put("datasource", datasourceName);
+        config.put("properties", Arrays.asList("country", "city"));
+
+        // Run
+        Ip2GeoResponseProcessor responseProcessor = responseFactory.create(
+            Collections.emptyMap(),
+            GeospatialTestHelper.randomLowerCaseString(),
+            null,
+            false,
+            config,
+            null
+        );
+
+        // Verify
+        assertSame(processor.getTargets().get(0).getProjection(), responseProcessor.getProjection());
+        assertEquals(1, projectionRegistry.size());
+    }
+
     private Ip2GeoProcessor createProcessor(final String datasourceName, final Map<String, Object> config) throws Exception {
         Datasource datasource = new Datasource();
         datasource.setName(datasourceName);
@@ -304,6 +710,35 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         );
     }
 
+    private void mockDatasourceMetadata(
+        final String datasourceName,
+        final String indexName,
+        final DatasourceState state,
+        final boolean isExpired
+    ) {
+        long expirationEpochMillis = isExpired ? System.currentTimeMillis() - 1000 : Long.MAX_VALUE;
+        DatasourceMetadata datasourceMetadata = new DatasourceMetadata(indexName, state, expirationEpochMillis);
+        doAnswer(invocation -> {
+            ActionListener<DatasourceMetadata> listener = invocation.getArgument(1);
+            listener.onResponse(datasourceMetadata);
+            return null;
+        }).when(ip2GeoCachedDao).refreshDatasourceIfNeeded(eq(datasourceName), any());
+    }
+
+    private void mockGeoData(final String indexName, final Map<String, Object> geoData) {
+        doAnswer(invocation -> {
+            ActionListener<Map<String, Object>> listener = invocation.getArgument(3);
+            listener.onResponse(geoData);
+            return null;
+        }).when(ip2GeoCachedDao).getGeoData(eq(indexName), any(), any(), any());
+        doAnswer(invocation -> {
+            List<String> ipList = invocation.getArgument(1);
+            ActionListener<Map<String, Map<String, Object>>> listener = invocation.getArgument(3);
+            listener.onResponse(ipList.stream().distinct().collect(Collectors.toMap(ip -> ip, ip -> geoData)));
+            return null;
+        }).when(ip2GeoCachedDao).getBatchGeoData(eq(indexName), any(), any(), any());
+    }
+
     private IngestDocument createDocument(String ip) {
         Map<String, Object> source = new HashMap<>();
         source.put("ip", ip);
@@ -315,4 +750,16 @@ public class Ip2GeoProcessorTests extends Ip2GeoTestCase {
         source.put("ip", ips);
         return new IngestDocument(source, new HashMap<>());
     }
+
+    private Ip2GeoProcessor createProcessor(final List<Map<String, Object>> datasourceConfigs) throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(Ip2GeoProcessor.CONFIG_FIELD, "ip");
+        config.put(Ip2GeoProcessor.CONFIG_DATASOURCES, datasourceConfigs);
+        return factory.create(
+            Collections.emptyMap(),
+            GeospatialTestHelper.randomLowerCaseString(),
+            GeospatialTestHelper.randomLowerCaseString(),
+            config
+        );
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.ip2geo.processor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.search.TotalHits;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.OpenSearchParseException;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.ShardSearchFailure;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.geospatial.GeospatialTestHelper;
+import org.opensearch.geospatial.ip2geo.Ip2GeoTestCase;
+import org.opensearch.geospatial.ip2geo.common.DatasourceState;
+import org.opensearch.geospatial.ip2geo.dao.DatasourceMetadata;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.internal.InternalSearchResponse;
+
+import lombok.SneakyThrows;
+
+public class Ip2GeoResponseProcessorTests extends Ip2GeoTestCase {
+    private static final Map<String, Object> GEO_DATA = Map.of("city", "Seattle", "country", "USA");
+    private Ip2GeoResponseProcessor.Factory factory;
+
+    @SneakyThrows
+    public void testCreate_whenNoDatasource_thenException() {
+        factory = new Ip2GeoResponseProcessor.Factory(() -> ip2GeoCachedDao, new GeoDataProjectionRegistry());
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "ip");
+
+        // Run
+        expectThrows(OpenSearchParseException.class, () -> factory.create(null, null, null, false, config, null));
+    }
+
+    @SneakyThrows
+    public void testCreate_whenNotInitialized_thenException() {
+        factory = new Ip2GeoResponseProcessor.Factory(() -> null, new GeoDataProjectionRegistry());
+
+        // Run
+        expectThrows(IllegalStateException.class, () -> createProcessor(GeospatialTestHelper.randomLowerCaseString(), new HashMap<>()));
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenCalled_thenLookUpDistinctIpsOnceAndEnrichHits() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockGeoData(indexName);
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, new HashMap<>());
+        String ip = randomIpAddress();
+        String otherIp = randomValueOtherThan(ip, this::randomIpAddress);
+        SearchResponse response = createResponse(
+            Map.of("ip", ip),
+            Map.of("ip", ip),
+            Map.of("ip", Arrays.asList(ip, otherIp)),
+            Map.of("message", "no ip")
+        );
+
+        // Run
+        SearchResponse enriched = processResponse(processor, response);
+
+        // Verify
+        SearchHit[] hits = enriched.getHits().getHits();
+        assertEquals(GEO_DATA, hits[0].getSourceAsMap().get("ip2geo"));
+        assertEquals(GEO_DATA, hits[1].getSourceAsMap().get("ip2geo"));
+        assertEquals(Arrays.asList(GEO_DATA, GEO_DATA), hits[2].getSourceAsMap().get("ip2geo"));
+        assertNull(hits[3].getSourceAsMap().get("ip2geo"));
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ip2GeoCachedDao).getBatchGeoData(eq(indexName), captor.capture(), eq(datasourceName), any());
+        assertEquals(Arrays.asList(ip, otherIp), captor.getValue());
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenTargetFieldAndProperties_thenProjectGeoData() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, false);
+        mockGeoData(indexName);
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "source.ip");
+        config.put("target_field", "source.geo");
+        config.put("properties", List.of("city"));
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, config);
+        SearchResponse response = createResponse(Map.of("source", Map.of("ip", randomIpAddress())));
+
+        // Run
+        SearchResponse enriched = processResponse(processor, response);
+
+        // Verify
+        Map<String, Object> source = (Map<String, Object>) enriched.getHits().getHits()[0].getSourceAsMap().get("source");
+        assertEquals(Map.of("city", "Seattle"), source.get("geo"));
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenExpired_thenExpiredMsg() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        String indexName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, indexName, DatasourceState.AVAILABLE, true);
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, new HashMap<>());
+        SearchResponse response = createResponse(Map.of("ip", randomIpAddress()));
+
+        // Run
+        SearchResponse enriched = processResponse(processor, response);
+
+        // Verify
+        assertEquals(Map.of("error", "ip2geo_data_expired"), enriched.getHits().getHits()[0].getSourceAsMap().get("ip2geo"));
+        verify(ip2GeoCachedDao, never()).getBatchGeoData(any(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenNotAvailable_thenException() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        mockDatasourceMetadata(datasourceName, GeospatialTestHelper.randomLowerCaseString(), DatasourceState.CREATE_FAILED, false);
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, new HashMap<>());
+        ActionListener<SearchResponse> listener = mock(ActionListener.class);
+
+        // Run
+        processor.processResponseAsync(null, createResponse(Map.of("ip", randomIpAddress())), null, listener);
+
+        // Verify
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(captor.capture());
+        assertTrue(captor.getValue().getMessage().contains("not in an available state"));
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenMissingField_thenException() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, new HashMap<>());
+        ActionListener<SearchResponse> listener = mock(ActionListener.class);
+
+        // Run
+        processor.processResponseAsync(null, createResponse(Map.of("message", "no ip")), null, listener);
+
+        // Verify
+        verify(listener).onFailure(any(IllegalArgumentException.class));
+        verify(ip2GeoCachedDao, never()).refreshDatasourceIfNeeded(any(), any());
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenMissingFieldAndIgnoreMissing_thenNoLookup() {
+        String datasourceName = GeospatialTestHelper.randomLowerCaseString();
+        Map<String, Object> config = new HashMap<>();
+        config.put("ignore_missing", true);
+        Ip2GeoResponseProcessor processor = createProcessor(datasourceName, config);
+        SearchResponse response = createResponse(Map.of("message", "no ip"));
+
+        // Run
+        SearchResponse enriched = processResponse(processor, response);
+
+        // Verify
+        assertSame(response, enriched);
+        verify(ip2GeoCachedDao, never()).refreshDatasourceIfNeeded(any(), any());
+    }
+
+    @SneakyThrows
+    public void testProcessResponseAsync_whenNonStringValue_thenException() {
+        Ip2GeoResponseProcessor processor = createProcessor(GeospatialTestHelper.randomLowerCaseString(), new HashMap<>());
+        ActionListener<SearchResponse> listener = mock(ActionListener.class);
+
+        // Run
+        processor.processResponseAsync(null, createResponse(Map.of("ip", randomInt())), null, listener);
+
+        // Verify
+        verify(listener, times(1)).onFailure(any(IllegalArgumentException.class));
+    }
+
+    @SneakyThrows
+    private Ip2GeoResponseProcessor createProcessor(final String datasourceName, final Map<String, Object> config) {
+        if (factory == null) {
+            factory = new Ip2GeoResponseProcessor.Factory(() -> ip2GeoCachedDao, new GeoDataProjectionRegistry());
+        }
+        Map<String, Object> baseConfig = new HashMap<>();
+        baseConfig.put("field", "ip");
+        baseConfig.put("datasource", datasourceName);
+        baseConfig.putAll(config);
+        return factory.create(Collections.emptyMap(), GeospatialTestHelper.randomLowerCaseString(), null, false, baseConfig, null);
+    }
+
+    private SearchResponse processResponse(final Ip2GeoResponseProcessor processor, final SearchResponse response) {
+        List<SearchResponse> responses = new ArrayList<>();
+        processor.processResponseAsync(null, response, null, ActionListener.wrap(responses::add, e -> fail(e.getMessage())));
+        assertEquals(1, responses.size());
+        return responses.get(0);
+    }
+
+    @SneakyThrows
+    private SearchResponse createResponse(final Map<String, Object>... sources) {
+        SearchHit[] hits = new SearchHit[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            hits[i] = new SearchHit(i, Integer.toString(i), Collections.emptyMap(), Collections.emptyMap());
+            hits[i].sourceRef(BytesReference.bytes(XContentFactory.jsonBuilder().map(sources[i])));
+        }
+        SearchHits searchHits = new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1.0f);
+        return new SearchResponse(
+            new InternalSearchResponse(searchHits, null, null, null, false, null, 1),
+            null,
+            1,
+            1,
+            0,
+            10,
+            ShardSearchFailure.EMPTY_ARRAY,
+            SearchResponse.Clusters.EMPTY
+        );
+    }
+
+    private void mockDatasourceMetadata(
+        final String datasourceName,
+        final String indexName,
+        final DatasourceState state,
+        final boolean isExpired
+    ) {
+        long expirationEpochMillis = isExpired ? System.currentTimeMillis() - 1000 : Long.MAX_VALUE;
+        DatasourceMetadata datasourceMetadata = new DatasourceMetadata(indexName, state, expirationEpochMillis);
+        doAnswer(invocation -> {
+            ActionListener<DatasourceMetadata> listener = invocation.getArgument(1);
+            listener.onResponse(datasourceMetadata);
+            return null;
+        }).when(ip2GeoCachedDao).refreshDatasourceIfNeeded(eq(datasourceName), any());
+    }
+
+    private void mockGeoData(final String indexName) {
+        doAnswer(invocation -> {
+            List<String> ipList = invocation.getArgument(1);
+            ActionListener<Map<String, Map<String, Object>>> listener = invocation.getArgument(3);
+            listener.onResponse(ipList.stream().distinct().collect(Collectors.toMap(ip -> ip, ip -> GEO_DATA)));
+            return null;
+        }).when(ip2GeoCachedDao).getBatchGeoData(eq(indexName), any(), any(), any());
+    }
+}
@@ -34,6 +34,7 @@ import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
 import org.opensearch.geospatial.action.upload.geojson.UploadGeoJSONAction;
 import org.opensearch.geospatial.ip2geo.action.RestDeleteDatasourceHandler;
+import org.opensearch.geospatial.ip2geo.action.RestIp2GeoStatsHandler;
 import org.opensearch.geospatial.ip2geo.action.RestGetDatasourceHandler;
 import org.opensearch.geospatial.ip2geo.action.RestPutDatasourceHandler;
 import org.opensearch.geospatial.ip2geo.action.RestUpdateDatasourceHandler;
@@ -46,6 +47,7 @@ import org.opensearch.geospatial.ip2geo.dao.GeoIpDataDao;
 import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
 import org.opensearch.geospatial.ip2geo.jobscheduler.DatasourceUpdateService;
 import org.opensearch.geospatial.ip2geo.listener.Ip2GeoListener;
+import org.opensearch.geospatial.ip2geo.processor.Ip2GeoResponseProcessor;
 import org.opensearch.geospatial.processor.FeatureProcessor;
 import org.opensearch.geospatial.rest.action.upload.geojson.RestUploadGeoJSONAction;
 import org.opensearch.geospatial.stats.upload.RestUploadStatsAction;
@@ -72,7 +74,8 @@ public class GeospatialPluginTests extends OpenSearchTestCase {
         new RestPutDatasourceHandler(clusterSettings, urlDenyListChecker),
         new RestGetDatasourceHandler(),
         new RestUpdateDatasourceHandler(urlDenyListChecker),
-        new RestDeleteDatasourceHandler()
+        new RestDeleteDatasourceHandler(),
+        new RestIp2GeoStatsHandler()
     );
 
     private final Set<String> SUPPORTED_SYSTEM_INDEX_PATTERN = Set.of(IP2GEO_DATA_INDEX_NAME_PREFIX + "*", JOB_INDEX_NAME);
@@ -143,7 +146,7 @@ public class GeospatialPluginTests extends OpenSearchTestCase {
     }
 
     public void testExecutorBuilders() {
-        assertEquals(1, plugin.getExecutorBuilders(Settings.EMPTY).size());
+        assertEquals(4, plugin.getExecutorBuilders(Settings.EMPTY).size());
     }
 
     public void testCreateComponents() {
@@ -182,6 +185,10 @@ public class GeospatialPluginTests extends OpenSearchTestCase {
         assertTrue(processors.get(FeatureProcessor.TYPE) instanceof FeatureProcessor.Factory);
     }
 
+    public void testIp2GeoResponseProcessorIsAdded() {
+        assertTrue(plugin.getResponseProcessors(null).get(Ip2GeoResponseProcessor.TYPE) instanceof Ip2GeoResponseProcessor.Factory);
+    }
+
     public void testTotalRestHandlers() {
         assertEquals(
             SUPPORTED_REST_HANDLERS.size(),
@@ -0,0 +1,220 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.geospatial.search.aggregations.bucket.ip2geo;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.geospatial.GeospatialTestHelper.randomLowerCaseString;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.apache.lucene.document.InetAddressPoint;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Before;
+import org.opensearch.common.CheckedConsumer;
+import org.opensearch.common.network.InetAddresses;
+import org.opensearch.geospatial.ip2geo.dao.Ip2GeoCachedDao;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookup;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpLookupFile;
+import org.opensearch.geospatial.ip2geo.lookup.GeoIpRangeTable;
+import org.opensearch.index.mapper.IpFieldMapper;
+import org.opensearch.index.mapper.MappedFieldType;
+import org.opensearch.plugins.SearchPlugin;
+import org.opensearch.search.aggregations.Aggregator;
+import org.opensearch.search.aggregations.AggregatorTestCase;
+import org.opensearch.search.aggregations.bucket.terms.StringTerms;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+
+public class Ip2GeoTermsAggregatorTests extends AggregatorTestCase {
+    private static final String IP_FIELD_NAME = "ip";
+    private static final String TAG_FIELD_NAME = "tag";
+    private static final String DATASOURCE_NAME = "datasource";
+    private static final String ATTRIBUTE = "country";
+
+    private Ip2GeoCachedDao ip2GeoCachedDao;
+    private GeoIpLookup lookup;
+
+    @Before
+    public void init() {
+        lookup = GeoIpRangeTable.builder(randomLowerCaseString())
+            .add("1.0.0.0/24", Map.of(ATTRIBUTE, "USA", "city", "Seattle"))
+            .add("1.0.1.0/24", Map.of(ATTRIBUTE, "USA", "city", "Tacoma"))
+            .add("2.0.0.0/24", Map.of(ATTRIBUTE, "Australia"))
+            .add("2001:db8::/32", Map.of(ATTRIBUTE, "Germany"))
+            .add("3.0.0.0/24", Map.of("city", "Unknown"))
+            .build();
+        ip2GeoCachedDao = mock(Ip2GeoCachedDao.class);
+        when(ip2GeoCachedDao.getLookup(DATASOURCE_NAME)).thenReturn(lookup);
+    }
+
+    @Override
+    protected List<SearchPlugin> getSearchPlugins() {
+        return Collections.singletonList(new SearchPlugin() {
+            @Override
+            public List<AggregationSpec> getAggregations() {
+                return List.of(
+                    new AggregationSpec(
+                        Ip2GeoTermsAggregationBuilder.NAME,
+                        Ip2GeoTermsAggregationBuilder::new,
+                        Ip2GeoTermsAggregationBuilder.PARSER
+                    ).setAggregatorRegistrar(builder -> Ip2GeoTermsAggregationBuilder.registerAggregators(builder, () -> ip2GeoCachedDao))
+                );
+            }
+        });
+    }
+
+    public void testNoDocs() throws IOException {
+        testCase(createBuilder().field(IP_FIELD_NAME), terms -> assertEquals(0, terms.getBuckets().size()), iw -> {
+            // Intentionally not writing any docs
+        });
+    }
+
+    public void testUnmapped() throws IOException {
+        testCase(
+            createBuilder().field(randomLowerCaseString()),
+            terms -> assertEquals(0, terms.getBuckets().size()),
+            iw -> iw.addDocument(List.of(ipField("1.0.0.1")))
+        );
+    }
+
+    public void testWithSeveralDocs() throws IOException {
+        testCase(createBuilder().field(IP_FIELD_NAME), terms -> {
+            assertEquals(Map.of("USA", 3L, "Australia", 2L, "Germany", 1L), toMap(terms));
+            assertEquals("USA", terms.getBuckets().get(0).getKeyAsString());
+            assertEquals("Australia", terms.getBuckets().get(1).getKeyAsString());
+            assertEquals(0, terms.getSumOfOtherDocCounts());
+        }, iw -> {
+            iw.addDocument(List.of(ipField("1.0.0.1")));
+            iw.addDocument(List.of(ipField("1.0.0.1")));
+            // Counted once for two addresses with the same attribute value
+            iw.addDocument(List.of(ipField("1.0.0.2"), ipField("1.0.1.2"), ipField("2.0.0.1")));
+            iw.addDocument(List.of(ipField("2.0.0.2")));
+            iw.addDocument(List.of(ipField("2001:db8::1")));
+            // Not counted without the attribute or without geo data
+            iw.addDocument(List.of(ipField("3.0.0.1")));
+            iw.addDocument(List.of(ipField("4.0.0.1")));
+        });
+    }
+
+    public void testSize_whenMoreBuckets_thenReturnTopBuckets() throws IOException {
+        testCase(createBuilder().field(IP_FIELD_NAME).size(1).shardSize(1), terms -> {
+            assertEquals(Map.of("USA", 2L), toMap(terms));
+            assertEquals(2, terms.getSumOfOtherDocCounts());
+        }, iw -> {
+            iw.addDocument(List.of(ipField("1.0.0.1")));
+            iw.addDocument(List.of(ipField("1.0.1.1")));
+            iw.addDocument(List.of(ipField("2.0.0.1")));
+            iw.addDocument(List.of(ipField("2001:db8::1")));
+        });
+    }
+
+    public void testAsParentAgg() throws IOException {
+        Ip2GeoTermsAggregationBuilder builder = createBuilder().field(IP_FIELD_NAME);
+        builder.subAggregation(new TermsAggregationBuilder("tags").field(TAG_FIELD_NAME));
+        testCase(builder, terms -> {
+            assertEquals(Map.of("USA", 2L, "Australia", 1L), toMap(terms));
+            StringTerms tags = terms.getBucketByKey("USA").getAggregations().get("tags");
+            assertEquals(Map.of("a", 2L, "b", 1L), toMap(tags));
+        }, iw -> {
+            iw.addDocument(List.of(ipField("1.0.0.1"), tagField("a")));
+            iw.addDocument(List.of(ipField("1.0.1.1"), tagField("a"), tagField("b")));
+            iw.addDocument(List.of(ipField("2.0.0.1"), tagField("b")));
+        });
+    }
+
+    public void testBuilder_whenInvalid_thenException() {
+        Ip2GeoTermsAggregationBuilder builder = new Ip2GeoTermsAggregationBuilder("_name");
+        expectThrows(IllegalArgumentException.class, () -> builder.datasource(""));
+        expectThrows(IllegalArgumentException.class, () -> builder.attribute(null));
+        expectThrows(IllegalArgumentException.class, () -> builder.size(0));
+        expectThrows(IllegalArgumentException.class, () -> builder.shardSize(0));
+    }
+
+    public void testCreate_whenCalled_thenGetLookupOfDatasource() throws IOException {
+        testCase(createBuilder().field(IP_FIELD_NAME), terms -> assertEquals(Map.of("USA", 1L), toMap(terms)), iw -> {
+            iw.addDocument(List.of(ipField("1.0.0.1")));
+        });
+
+        verify(ip2GeoCachedDao).getLookup(DATASOURCE_NAME);
+    }
+
+    public void testClose_whenAggregated_thenReleaseLookup() throws IOException {
+        Path path = createTempDir().resolve(randomLowerCaseString());
+        GeoIpLookupFile.write((GeoIpRangeTable) lookup, path);
+        GeoIpLookupFile lookupFile = GeoIpLookupFile.open(lookup.getIndexName(), path);
+        when(ip2GeoCachedDao.getLookup(DATASOURCE_NAME)).thenAnswer(invocation -> lookupFile.tryAcquire() ? lookupFile : null);
+
+        // Run
+        testCase(createBuilder().field(IP_FIELD_NAME), terms -> assertEquals(Map.of("USA", 1L), toMap(terms)), iw -> {
+            iw.addDocument(List.of(ipField("1.0.0.1")));
+        });
+
+        // Verify
+        assertFalse(lookupFile.isClosed());
+        lookupFile.release();
+        assertTrue(lookupFile.isClosed());
+    }
+
+    private void testCase(
+        Ip2GeoTermsAggregationBuilder aggregationBuilder,
+        Consumer<StringTerms> verify,
+        CheckedConsumer<RandomIndexWriter, IOException> buildIndex
+    ) throws IOException {
+        Directory directory = newDirectory();
+        RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory);
+        buildIndex.accept(indexWriter);
+        indexWriter.close();
+
+        IndexReader indexReader = DirectoryReader.open(directory);
+        IndexSearcher indexSearcher = newSearcher(indexReader, true, true);
+
+        MappedFieldType fieldType = new IpFieldMapper.IpFieldType(IP_FIELD_NAME);
+
+        Aggregator aggregator = createAggregator(aggregationBuilder, indexSearcher, fieldType, keywordField(TAG_FIELD_NAME));
+        aggregator.preCollection();
+        indexSearcher.search(new MatchAllDocsQuery(), aggregator);
+        aggregator.postCollection();
+        verify.accept((StringTerms) aggregator.buildTopLevel());
+
+        indexReader.close();
+        directory.close();
+    }
+
+    private Ip2GeoTermsAggregationBuilder createBuilder() {
+        return new Ip2GeoTermsAggregationBuilder("_name").datasource(DATASOURCE_NAME).attribute(ATTRIBUTE);
+    }
+
+    private static IndexableField ipField(final String ip) {
+        return new SortedSetDocValuesField(IP_FIELD_NAME, new BytesRef(InetAddressPoint.encode(InetAddresses.forString(ip))));
+    }
+
+    private static IndexableField tagField(final String tag) {
+        return new SortedSetDocValuesField(TAG_FIELD_NAME, new BytesRef(tag));
+    }
+
+    private static Map<String, Long> toMap(final StringTerms terms) {
+        Map<String, Long> docCounts = new TreeMap<>();
+        for (StringTerms.Bucket bucket : terms.getBuckets()) {
+            docCounts.put(bucket.getKeyAsString(), bucket.getDocCount());
+        }
+        return docCounts;
+    }
+}